@@ -0,0 +1,98 @@
+package org.zze0.crawler.holiday;
+
+import org.openjdk.jmh.annotations.*;
+import org.zze0.crawler.holiday.baidu.BaiDuFixtures;
+import org.zze0.crawler.holiday.baidu.BaiDuHolidayCrawler;
+import org.zze0.crawler.transport.StubTransport;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节假日日历查询基准测试（单个日期状态查询、按时间戳查询、工作日推算）
+ * <p>
+ * 日历由本地桩传输层模拟的2000~2050年度节假日编译而成，查询日期是固定种子生成的随机日期。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidayCalendarBenchmark {
+
+    /**
+     * 查询日期个数（2的幂，方便取模）
+     */
+    private static final int DAY_COUNT = 1 << 12;
+
+    private HolidayCalendar calendar;
+
+    private int[] days;
+
+    /**
+     * 查询日期当天内的随机时间戳（毫秒）
+     */
+    private long[] millis;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        StubTransport transport = new StubTransport(BaiDuFixtures.responder(2000, 2050));
+        calendar = HolidayCalendar.compileCompact(
+                BaiDuHolidayCrawler.crawlCompactHolidays(2000, 2050, 4, 1_000_000, null, transport, Duration.ofSeconds(10)));
+
+        //查询日期留出前后余量，工作日推算不会超出收录范围
+        int firstDay = CalendarYear.firstDayOf(2001);
+        int lastDay = CalendarYear.firstDayOf(2050) - 1;
+        Random random = new Random(20211001);
+        days = new int[DAY_COUNT];
+        for (int i = 0; i < DAY_COUNT; i++) {
+            days[i] = firstDay + random.nextInt(lastDay - firstDay);
+        }
+        millis = new long[DAY_COUNT];
+        for (int i = 0; i < DAY_COUNT; i++) {
+            millis[i] = days[i] * 86_400_000L - 8 * 3_600_000L + random.nextInt(86_400_000);
+        }
+    }
+
+    private int nextDay() {
+        return days[index++ & (DAY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public DayStatus status() {
+        return calendar.status(nextDay());
+    }
+
+    @Benchmark
+    public boolean isWorkday() {
+        return calendar.isWorkday(nextDay());
+    }
+
+    @Benchmark
+    public boolean isWorkdayAt() {
+        return calendar.isWorkdayAt(millis[index++ & (DAY_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public int nextWorkday() {
+        return calendar.nextWorkday(nextDay());
+    }
+
+    @Benchmark
+    public int addWorkdays() {
+        return calendar.addWorkdays(nextDay(), 10);
+    }
+
+    @Benchmark
+    public int workdaysBetween() {
+        int day = nextDay();
+        return calendar.workdaysBetween(day, day + 90);
+    }
+}
@@ -0,0 +1,80 @@
+package org.zze0.crawler.holiday;
+
+import org.openjdk.jmh.annotations.*;
+import org.zze0.crawler.holiday.baidu.BaiDuFixtures;
+import org.zze0.crawler.holiday.baidu.BaiDuHolidayCrawler;
+import org.zze0.crawler.transport.StubTransport;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节假日日历批量查询基准测试（逐个查询 vs 批量查询，结果按每个日期的平均耗时统计）
+ * <p>
+ * 查询日期是固定种子生成的2001~2049年的随机日期，数量大于并行阈值时批量查询会拆分成fork/join任务。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidayCalendarBulkBenchmark {
+
+    /**
+     * 每次调用查询的日期个数
+     */
+    private static final int DAY_COUNT = 1 << 22;
+
+    private HolidayCalendar calendar;
+
+    private int[] days;
+
+    private byte[] codes;
+
+    private boolean[] workdays;
+
+    @Setup
+    public void setup() {
+        StubTransport transport = new StubTransport(BaiDuFixtures.responder(2000, 2050));
+        calendar = HolidayCalendar.compileCompact(
+                BaiDuHolidayCrawler.crawlCompactHolidays(2000, 2050, 4, 1_000_000, null, transport, Duration.ofSeconds(10)));
+
+        int firstDay = CalendarYear.firstDayOf(2001);
+        int lastDay = CalendarYear.firstDayOf(2050) - 1;
+        Random random = new Random(20211001);
+        days = new int[DAY_COUNT];
+        for (int i = 0; i < DAY_COUNT; i++) {
+            days[i] = firstDay + random.nextInt(lastDay - firstDay);
+        }
+        codes = new byte[DAY_COUNT];
+        workdays = new boolean[DAY_COUNT];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAY_COUNT)
+    public boolean[] isWorkdayLoop() {
+        for (int i = 0; i < DAY_COUNT; i++) {
+            workdays[i] = calendar.isWorkday(days[i]);
+        }
+        return workdays;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAY_COUNT)
+    public boolean[] workdaysBulk() {
+        calendar.workdays(days, workdays);
+        return workdays;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAY_COUNT)
+    public byte[] statusCodesBulk() {
+        calendar.statusCodes(days, codes);
+        return codes;
+    }
+}
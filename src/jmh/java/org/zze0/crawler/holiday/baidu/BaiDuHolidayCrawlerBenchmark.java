@@ -0,0 +1,50 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.openjdk.jmh.annotations.*;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.transport.StubTransport;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 法定节假日全量爬取基准测试（2000~2050年度，请求本地桩传输层，不限流）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaiDuHolidayCrawlerBenchmark {
+
+    private static final int START_YEAR = 2000;
+
+    private static final int END_YEAR = 2050;
+
+    /**
+     * 限流足够宽松，只测爬取本身的开销
+     */
+    private static final double PERMITS_PER_SECOND = 1_000_000;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private StubTransport transport;
+
+    @Setup
+    public void setup() {
+        transport = new StubTransport(BaiDuFixtures.responder(START_YEAR, END_YEAR));
+    }
+
+    @Benchmark
+    public HolidaySnapshot initHolidays() {
+        BaiDuHolidayCrawler.initHolidays(START_YEAR, END_YEAR, parallelism, PERMITS_PER_SECOND, transport, REQUEST_TIMEOUT);
+        return BaiDuHolidayCrawler.getSnapshot();
+    }
+}
@@ -0,0 +1,55 @@
+package org.zze0.crawler.holiday.baidu;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 百度接口响应解析基准测试
+ * <p>
+ * 对照组用fastjson解析成完整的JSON对象树（流式解析之前的做法），可以加上 -prof gc 对比内存分配。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BaiDuPayloadParserBenchmark {
+
+    private String almanac;
+
+    private String yearHolidays;
+
+    @Setup
+    public void setup() {
+        almanac = BaiDuFixtures.almanac(2021, 10);
+        yearHolidays = BaiDuFixtures.yearHolidays();
+    }
+
+    @Benchmark
+    public BaiDuAlmanacDays parseAlmanac() {
+        return BaiDuPayloadParser.parseAlmanac(almanac);
+    }
+
+    @Benchmark
+    public JSONObject parseAlmanacWithFastjson() {
+        return JSON.parseObject(almanac);
+    }
+
+    @Benchmark
+    public List<BaiDuPayloadParser.YearHolidays> parseYearHolidays() {
+        return BaiDuPayloadParser.parseYearHolidays(yearHolidays);
+    }
+
+    @Benchmark
+    public JSONObject parseYearHolidaysWithFastjson() {
+        return JSON.parseObject(yearHolidays);
+    }
+}
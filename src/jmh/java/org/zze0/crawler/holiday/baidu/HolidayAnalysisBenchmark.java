@@ -0,0 +1,49 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.openjdk.jmh.annotations.*;
+import org.zze0.crawler.holiday.CompactHoliday;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节假日分析基准测试（截取年度日历、划分假期周期、确定补班日归属，不含网络请求）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidayAnalysisBenchmark {
+
+    @Param({"2021", "2022", "2023"})
+    private int year;
+
+    private BaiDuPayloadParser.YearHolidays yearHolidays;
+
+    private BaiDuAlmanacCache almanacCache;
+
+    @Setup
+    public void setup() {
+        yearHolidays = BaiDuPayloadParser.parseYearHolidays(BaiDuFixtures.yearHolidays()).stream()
+                .filter(item -> year == item.getYear())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("没有年度节假日样本：" + year));
+
+        //日历窗口全部预先从样本加载，测试时只有内存操作
+        almanacCache = new BaiDuAlmanacCache(query -> {
+            String[] yearMonth = query.replace("月", "").split("年");
+            return BaiDuPayloadParser.parseAlmanac(BaiDuFixtures.almanac(Integer.parseInt(yearMonth[0]), Integer.parseInt(yearMonth[1])));
+        });
+        almanacCache.prefetch(year, year);
+    }
+
+    @Benchmark
+    public List<CompactHoliday> analyzeYear() {
+        return BaiDuHolidayCrawler.crawlYearHolidays(yearHolidays, almanacCache);
+    }
+}
@@ -1,18 +1,37 @@
 package org.zze0.crawler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 服务启动类
+ * <p>
+ * 指标通过Spring Boot Actuator暴露（/actuator/metrics、/actuator/prometheus），爬虫指标见{@link org.zze0.crawler.metrics.CrawlerMetrics}。
  *
  * @author Zze0
  * @since 2021/6/13
  */
+@EnableScheduling
 @SpringBootApplication
 public class CrawlerApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(CrawlerApplication.class, args);
     }
+
+    /**
+     * 所有指标加上应用名称标签（多个服务共用一个监控系统时区分来源）
+     *
+     * @param applicationName 应用名称
+     * @return 注册表定制器
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTags(@Value("${spring.application.name:zze0-crawler}") String applicationName) {
+        return registry -> registry.config().commonTags("application", applicationName);
+    }
 }
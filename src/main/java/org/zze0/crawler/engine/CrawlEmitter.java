@@ -0,0 +1,26 @@
+package org.zze0.crawler.engine;
+
+/**
+ * 解析结果发射器
+ *
+ * @param <T> 结果类型
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public interface CrawlEmitter<T> {
+
+    /**
+     * 发射一个结果给输出阶段（输出队列满时阻塞，直到输出阶段跟上）
+     *
+     * @param item 结果
+     */
+    void emit(T item);
+
+    /**
+     * 加入一个新的抓取请求
+     *
+     * @param request 抓取请求
+     * @return 是否加入（去重键已经出现过时不加入）
+     */
+    boolean follow(CrawlRequest request);
+}
@@ -0,0 +1,546 @@
+package org.zze0.crawler.engine;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+import org.zze0.crawler.util.TokenBucketRateLimiter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 通用抓取引擎
+ * <p>
+ * 一次抓取由三个阶段组成，阶段之间用有界队列连接，各阶段并行执行（流水线）：
+ * <ol>
+ *     <li>抓取：多个抓取线程从{@link CrawlFrontier 抓取边界}取请求（按站点限制并发数和请求间隔），交给{@link CrawlFetcher}请求页面；</li>
+ *     <li>解析：多个解析线程交给{@link CrawlParser}解析页面，产出结果、发现新的请求（新请求去重后加入抓取边界）；</li>
+ *     <li>输出：一个输出线程按到达顺序把结果交给{@link CrawlSink}。</li>
+ * </ol>
+ * 下游跟不上时队列会满，上游阶段阻塞等待（背压），内存占用不会随页面数增长。
+ * 所有请求都抓取、解析完，且结果都输出后，一次抓取结束。
+ * <p>
+ * 默认快速失败：任何一个请求抓取、解析失败，或者输出失败，都会中止本次抓取并抛出第一个异常；
+ * 关闭快速失败后，失败的请求只记录日志和失败数，不影响其他请求（输出失败、{@link Error}仍会中止抓取）。
+ * 中止时等各阶段线程都退出后才返回，返回之后不会再有请求、解析或输出。
+ * <p>
+ * 引擎本身不可变，可以重复执行、并发执行，每次执行都有独立的抓取边界、队列和线程。
+ * <p>
+ * 每个请求的抓取耗时、响应大小、解析耗时、去重情况都会记录到{@link CrawlerMetrics 爬虫指标}（按引擎名称、接口区分）。
+ *
+ * @param <T> 结果类型
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public final class CrawlEngine<T> {
+
+    /**
+     * 队列结束标记（解析队列）
+     */
+    private static final Page END_PAGE = new Page(null, null);
+
+    /**
+     * 队列结束标记（输出队列）
+     */
+    private static final Object END_ITEM = new Object();
+
+    private final String name;
+
+    private final CrawlFetcher fetcher;
+
+    private final CrawlParser<T> parser;
+
+    private final CrawlSink<T> sink;
+
+    private final int fetchThreads;
+
+    private final int parseThreads;
+
+    private final int queueCapacity;
+
+    private final int maxConcurrencyPerHost;
+
+    /**
+     * 站点的令牌桶（入参是站点，返回null时不限速）
+     */
+    private final Function<String, TokenBucketRateLimiter> hostLimiters;
+
+    private final boolean failFast;
+
+    private CrawlEngine(Builder<T> builder) {
+        Assert.hasText(builder.name, "引擎名称不能为空");
+        Assert.notNull(builder.fetcher, "抓取阶段不能为空");
+        Assert.notNull(builder.parser, "解析阶段不能为空");
+        Assert.isTrue(builder.fetchThreads > 0, "抓取线程数必须大于0：" + builder.fetchThreads);
+        Assert.isTrue(builder.parseThreads > 0, "解析线程数必须大于0：" + builder.parseThreads);
+        Assert.isTrue(builder.queueCapacity > 0, "队列容量必须大于0：" + builder.queueCapacity);
+        Assert.isTrue(builder.maxConcurrencyPerHost > 0, "单个站点的并发数必须大于0：" + builder.maxConcurrencyPerHost);
+        Assert.isTrue(null != builder.hostDelay && !builder.hostDelay.isNegative(), "请求间隔不能为负数：" + builder.hostDelay);
+        Assert.isTrue(builder.hostBurst > 0, "单个站点的突发请求数必须大于0：" + builder.hostBurst);
+
+        this.name = builder.name;
+        this.fetcher = builder.fetcher;
+        this.parser = builder.parser;
+        this.sink = null == builder.sink ? item -> {
+        } : builder.sink;
+        this.fetchThreads = builder.fetchThreads;
+        this.parseThreads = builder.parseThreads;
+        this.queueCapacity = builder.queueCapacity;
+        this.maxConcurrencyPerHost = builder.maxConcurrencyPerHost;
+        this.hostLimiters = null == builder.hostLimiters ? CrawlFrontier.hostLimiters(builder.hostDelay, builder.hostBurst) : builder.hostLimiters;
+        this.failFast = builder.failFast;
+    }
+
+    /**
+     * @param <T> 结果类型
+     * @return 引擎构建器
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 执行一次抓取（阻塞到抓取结束）
+     *
+     * @param seed 种子请求
+     * @return 统计信息
+     * @throws RuntimeException 快速失败时，第一个失败的异常（其他同时失败的异常作为suppressed）
+     * @throws Error            抓取、解析、输出时抛出的Error（原样抛出）
+     */
+    public CrawlStats run(CrawlRequest seed) {
+        return run(Collections.singletonList(seed));
+    }
+
+    /**
+     * 执行一次抓取（阻塞到抓取结束）
+     *
+     * @param seeds 种子请求
+     * @return 统计信息
+     * @throws RuntimeException 快速失败时，第一个失败的异常（其他同时失败的异常作为suppressed）
+     * @throws Error            抓取、解析、输出时抛出的Error（原样抛出）
+     */
+    public CrawlStats run(Collection<CrawlRequest> seeds) {
+        return new CrawlRun().execute(seeds);
+    }
+
+    /**
+     * 一次抓取的执行状态
+     */
+    private final class CrawlRun implements CrawlEmitter<T> {
+
+        private final CrawlFrontier frontier = new CrawlFrontier(maxConcurrencyPerHost, hostLimiters);
+
+        /**
+         * 待解析的页面
+         */
+        private final BlockingQueue<Page> pages = new ArrayBlockingQueue<>(queueCapacity);
+
+        /**
+         * 待输出的结果
+         */
+        private final BlockingQueue<Object> items = new ArrayBlockingQueue<>(queueCapacity);
+
+        /**
+         * 未处理完（未解析完或失败）的请求数，初始的1是种子请求全部加入之前的占位
+         */
+        private final AtomicLong pending = new AtomicLong(1);
+
+        /**
+         * 所有请求处理完，或者抓取中止
+         */
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        /**
+         * 中止抓取的异常
+         */
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder duplicates = new LongAdder();
+
+        private final LongAdder fetched = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final LongAdder itemCount = new LongAdder();
+
+        private CrawlStats execute(Collection<CrawlRequest> seeds) {
+
+            long ts = System.currentTimeMillis();
+            int threads = fetchThreads + parseThreads + 1;
+            ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), new NamedThreadFactory(name + "-", true));
+            try {
+                for (int index = 0; index < fetchThreads; index++) {
+                    executor.execute(this::fetchLoop);
+                }
+                for (int index = 0; index < parseThreads; index++) {
+                    executor.execute(this::parseLoop);
+                }
+                executor.execute(this::sinkLoop);
+
+                for (CrawlRequest seed : seeds) {
+                    follow(seed);
+                }
+                done();
+
+                finished.await();
+                if (null == error.get()) {
+                    //所有请求都解析完了，解析队列已空，结果都已进入输出队列，依次通知各阶段结束
+                    frontier.close();
+                    for (int index = 0; index < parseThreads; index++) {
+                        pages.put(END_PAGE);
+                    }
+                    items.put(END_ITEM);
+                    executor.shutdown();
+                    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(new IllegalStateException(name + "抓取时被中断", e));
+            } finally {
+                frontier.close();
+                executor.shutdownNow();
+                awaitTermination(executor);
+            }
+
+            Throwable e = error.get();
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            if (null != e) {
+                throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(name + "抓取失败", e);
+            }
+            CrawlStats stats = new CrawlStats(requests.sum(), duplicates.sum(), fetched.sum(), failed.sum(), itemCount.sum(),
+                    System.currentTimeMillis() - ts);
+            log.debug("{}抓取完成：{}", name, stats);
+            return stats;
+        }
+
+        @Override
+        public void emit(T item) {
+            try {
+                items.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(name + "输出结果时被中断", e);
+            }
+        }
+
+        @Override
+        public boolean follow(CrawlRequest request) {
+            Assert.notNull(request, "抓取请求不能为空");
+
+            //先计数再加入，请求不会在计数之前就被处理完
+            pending.incrementAndGet();
+            if (frontier.offer(request)) {
+                requests.increment();
+                CrawlerMetrics.countRequest(name, false);
+                return true;
+            }
+            duplicates.increment();
+            CrawlerMetrics.countRequest(name, true);
+            done();
+            return false;
+        }
+
+        private void fetchLoop() {
+            try {
+                for (CrawlRequest request = frontier.take(); null != request; request = frontier.take()) {
+                    String content;
+                    long startNanos = System.nanoTime();
+                    try {
+                        content = fetcher.fetch(request);
+                    } catch (Throwable e) {
+                        CrawlerMetrics.recordFetch(name, request.getEndpoint(), System.nanoTime() - startNanos, -1);
+                        fail(request, e);
+                        continue;
+                    } finally {
+                        frontier.release(request);
+                    }
+                    CrawlerMetrics.recordFetch(name, request.getEndpoint(), System.nanoTime() - startNanos, null == content ? 0 : content.length());
+                    fetched.increment();
+                    pages.put(new Page(request, content));
+                }
+            } catch (InterruptedException e) {
+                //抓取中止
+            } catch (Throwable e) {
+                abort(e);
+            }
+        }
+
+        private void parseLoop() {
+            try {
+                for (Page page = pages.take(); END_PAGE != page; page = pages.take()) {
+                    long startNanos = System.nanoTime();
+                    try {
+                        parser.parse(page.request, page.content, this);
+                    } catch (Throwable e) {
+                        CrawlerMetrics.recordParse(name, page.request.getEndpoint(), System.nanoTime() - startNanos, false);
+                        fail(page.request, e);
+                        continue;
+                    }
+                    CrawlerMetrics.recordParse(name, page.request.getEndpoint(), System.nanoTime() - startNanos, true);
+                    done();
+                }
+            } catch (InterruptedException e) {
+                //抓取中止
+            } catch (Throwable e) {
+                abort(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void sinkLoop() {
+            try {
+                for (Object item = items.take(); END_ITEM != item; item = items.take()) {
+                    try {
+                        sink.accept((T) item);
+                    } catch (Throwable e) {
+                        abort(e);
+                        //腾出队列，结束标记一定能放进来
+                        items.clear();
+                        return;
+                    }
+                    itemCount.increment();
+                }
+            } catch (InterruptedException e) {
+                //抓取中止
+            } catch (Throwable e) {
+                abort(e);
+            }
+        }
+
+        /**
+         * 一个请求处理完
+         */
+        private void done() {
+            if (pending.decrementAndGet() == 0) {
+                finished.countDown();
+            }
+        }
+
+        /**
+         * 一个请求处理失败
+         *
+         * @param request 抓取请求
+         * @param e       异常
+         */
+        private void fail(CrawlRequest request, Throwable e) {
+            if (Thread.currentThread().isInterrupted()) {
+                //抓取已中止，被中断的请求不再记录
+                return;
+            }
+            failed.increment();
+            if (failFast || !(e instanceof RuntimeException)) {
+                //Error（如内存溢出）不只是这一个请求的问题，不管是否快速失败都中止抓取
+                abort(e);
+                return;
+            }
+            log.warn("{}抓取失败：{}", name, request, e);
+            done();
+        }
+
+        /**
+         * 中止抓取
+         *
+         * @param e 异常
+         */
+        private void abort(Throwable e) {
+            if (!error.compareAndSet(null, e) && error.get() != e) {
+                error.get().addSuppressed(e);
+            }
+            finished.countDown();
+        }
+    }
+
+    /**
+     * 等待各阶段线程退出（中止时线程可能还在请求上游、解析页面，已被中断，通常很快退出）
+     *
+     * @param executor 各阶段线程
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            //调用方被中断时不再等待
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 抓取到的页面
+     */
+    private static final class Page {
+
+        private final CrawlRequest request;
+
+        private final String content;
+
+        private Page(CrawlRequest request, String content) {
+            this.request = request;
+            this.content = content;
+        }
+    }
+
+    /**
+     * 引擎构建器
+     *
+     * @param <T> 结果类型
+     */
+    public static final class Builder<T> {
+
+        private String name = "crawler";
+
+        private CrawlFetcher fetcher;
+
+        private CrawlParser<T> parser;
+
+        private CrawlSink<T> sink;
+
+        private int fetchThreads = 4;
+
+        private int parseThreads = 1;
+
+        private int queueCapacity = 64;
+
+        private int maxConcurrencyPerHost = 2;
+
+        private Duration hostDelay = Duration.ofMillis(200);
+
+        private int hostBurst = 1;
+
+        private Function<String, TokenBucketRateLimiter> hostLimiters;
+
+        private boolean failFast = true;
+
+        private Builder() {
+        }
+
+        /**
+         * @param name 引擎名称（线程名前缀、日志），默认crawler
+         * @return this
+         */
+        public Builder<T> name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @param fetcher 抓取阶段
+         * @return this
+         */
+        public Builder<T> fetcher(CrawlFetcher fetcher) {
+            this.fetcher = fetcher;
+            return this;
+        }
+
+        /**
+         * @param parser 解析阶段
+         * @return this
+         */
+        public Builder<T> parser(CrawlParser<T> parser) {
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * @param sink 输出阶段（不设置时丢弃结果）
+         * @return this
+         */
+        public Builder<T> sink(CrawlSink<T> sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        /**
+         * @param fetchThreads 抓取线程数，默认4
+         * @return this
+         */
+        public Builder<T> fetchThreads(int fetchThreads) {
+            this.fetchThreads = fetchThreads;
+            return this;
+        }
+
+        /**
+         * @param parseThreads 解析线程数，默认1
+         * @return this
+         */
+        public Builder<T> parseThreads(int parseThreads) {
+            this.parseThreads = parseThreads;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity 解析队列、输出队列的容量，默认64
+         * @return this
+         */
+        public Builder<T> queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrencyPerHost 单个站点的最大并发请求数，默认2
+         * @return this
+         */
+        public Builder<T> maxConcurrencyPerHost(int maxConcurrencyPerHost) {
+            this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+            return this;
+        }
+
+        /**
+         * @param hostDelay 同一个站点的请求间隔（令牌生成间隔，为0时不限速），默认200毫秒
+         * @return this
+         */
+        public Builder<T> hostDelay(Duration hostDelay) {
+            this.hostDelay = hostDelay;
+            return this;
+        }
+
+        /**
+         * @param hostBurst 同一个站点空闲之后允许的突发请求数（令牌桶容量），默认1，即每两次请求之间都间隔{@link #hostDelay(Duration) 请求间隔}
+         * @return this
+         */
+        public Builder<T> hostBurst(int hostBurst) {
+            this.hostBurst = hostBurst;
+            return this;
+        }
+
+        /**
+         * @param hostLimiters 站点的令牌桶（入参是站点，返回null时不限速），默认每次抓取按{@link #hostDelay(Duration) 请求间隔}、
+         *                     {@link #hostBurst(int) 突发请求数}为每个站点新建令牌桶；
+         *                     返回引擎之外也在使用的令牌桶时，引擎之外对同一个站点的请求也计入站点的请求速率。设置后请求间隔、突发请求数不再生效
+         * @return this
+         */
+        public Builder<T> hostLimiters(Function<String, TokenBucketRateLimiter> hostLimiters) {
+            this.hostLimiters = hostLimiters;
+            return this;
+        }
+
+        /**
+         * @param failFast 是否快速失败，默认是
+         * @return this
+         */
+        public Builder<T> failFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+
+        /**
+         * @return 抓取引擎
+         */
+        public CrawlEngine<T> build() {
+            return new CrawlEngine<>(this);
+        }
+    }
+}
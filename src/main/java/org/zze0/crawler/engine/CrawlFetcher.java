@@ -0,0 +1,20 @@
+package org.zze0.crawler.engine;
+
+/**
+ * 抓取阶段（请求页面，在抓取线程中执行）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@FunctionalInterface
+public interface CrawlFetcher {
+
+    /**
+     * 抓取页面
+     *
+     * @param request 抓取请求
+     * @return 页面内容
+     * @throws RuntimeException 抓取失败
+     */
+    String fetch(CrawlRequest request);
+}
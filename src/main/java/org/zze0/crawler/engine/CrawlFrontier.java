@@ -0,0 +1,212 @@
+package org.zze0.crawler.engine;
+
+import org.zze0.crawler.util.TokenBucketRateLimiter;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 抓取边界（待抓取的请求队列 + 按站点的调度）
+ * <p>
+ * 请求按去重键去重，同一个去重键只会被接收一次（包括已经抓取完的请求）。
+ * 每个站点一个先进先出队列，取请求时在站点之间轮转，只从满足礼貌约束的站点取：
+ * 站点正在抓取的请求数小于并发上限，且站点的{@link TokenBucketRateLimiter 令牌桶}中有令牌
+ * （每隔一个请求间隔生成一个令牌，最多累积突发请求数个：空闲之后允许短暂突发，长期平均速率不超过每个请求间隔一个请求）。
+ * 没有满足约束的站点时，取请求的线程等待到最早可以取的时间，或者有新请求、有请求抓取完为止。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+final class CrawlFrontier {
+
+    /**
+     * 单个站点的最大并发请求数
+     */
+    private final int maxConcurrencyPerHost;
+
+    /**
+     * 站点的令牌桶（入参是站点，返回null时不限速；每个站点只在第一次出现时调用一次）
+     */
+    private final Function<String, TokenBucketRateLimiter> hostLimiters;
+
+    /**
+     * 出现过的去重键
+     */
+    private final Set<String> seenKeys = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 有新请求、有请求抓取完、边界关闭时通知等待的线程
+     */
+    private final Condition changed = lock.newCondition();
+
+    /**
+     * 各站点的队列（key是站点）
+     */
+    private final Map<String, HostQueue> hostQueues = new HashMap<>();
+
+    /**
+     * 轮转顺序
+     */
+    private final List<HostQueue> rotation = new ArrayList<>();
+
+    /**
+     * 下一次从哪个站点开始查找
+     */
+    private int cursor;
+
+    private boolean closed;
+
+    /**
+     * @param maxConcurrencyPerHost 单个站点的最大并发请求数
+     * @param hostDelay             同一个站点的请求间隔（令牌生成间隔，为0时不限速）
+     * @param hostBurst             单个站点允许的突发请求数
+     */
+    CrawlFrontier(int maxConcurrencyPerHost, Duration hostDelay, int hostBurst) {
+        this(maxConcurrencyPerHost, hostLimiters(hostDelay, hostBurst));
+    }
+
+    /**
+     * @param maxConcurrencyPerHost 单个站点的最大并发请求数
+     * @param hostLimiters          站点的令牌桶（入参是站点，返回null时不限速）
+     */
+    CrawlFrontier(int maxConcurrencyPerHost, Function<String, TokenBucketRateLimiter> hostLimiters) {
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.hostLimiters = hostLimiters;
+    }
+
+    /**
+     * 按请求间隔、突发请求数为每个站点新建令牌桶
+     *
+     * @param hostDelay 同一个站点的请求间隔（令牌生成间隔，为0时不限速）
+     * @param hostBurst 单个站点允许的突发请求数
+     * @return 站点的令牌桶
+     */
+    static Function<String, TokenBucketRateLimiter> hostLimiters(Duration hostDelay, int hostBurst) {
+        long hostDelayNanos = hostDelay.toNanos();
+        return host -> hostDelayNanos == 0 ? null
+                : new TokenBucketRateLimiter((double) TimeUnit.SECONDS.toNanos(1) / hostDelayNanos, hostBurst);
+    }
+
+    /**
+     * 加入请求
+     *
+     * @param request 抓取请求
+     * @return 是否加入（去重键已经出现过、边界已关闭时不加入）
+     */
+    boolean offer(CrawlRequest request) {
+        if (!seenKeys.add(request.getKey())) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            HostQueue hostQueue = hostQueues.get(request.getHost());
+            if (null == hostQueue) {
+                hostQueue = new HostQueue(hostLimiters.apply(request.getHost()));
+                hostQueues.put(request.getHost(), hostQueue);
+                rotation.add(hostQueue);
+            }
+            hostQueue.requests.add(request);
+            changed.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取出下一个可以抓取的请求（没有时阻塞），抓取完之后必须调用{@link #release(CrawlRequest)}
+     *
+     * @return 抓取请求，边界关闭后返回null
+     * @throws InterruptedException 等待时被中断
+     */
+    CrawlRequest take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed) {
+                long waitNanos = Long.MAX_VALUE;
+                for (int count = 0; count < rotation.size(); count++) {
+                    HostQueue hostQueue = rotation.get((cursor + count) % rotation.size());
+                    if (hostQueue.requests.isEmpty() || hostQueue.active >= maxConcurrencyPerHost) {
+                        continue;
+                    }
+                    long delayNanos = null == hostQueue.limiter ? 0 : hostQueue.limiter.tryAcquire();
+                    if (delayNanos > 0) {
+                        waitNanos = Math.min(waitNanos, delayNanos);
+                        continue;
+                    }
+                    hostQueue.active++;
+                    cursor = (cursor + count + 1) % rotation.size();
+                    return hostQueue.requests.poll();
+                }
+                if (waitNanos == Long.MAX_VALUE) {
+                    changed.await();
+                } else {
+                    changed.awaitNanos(waitNanos);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 请求抓取完（无论成功失败），释放站点的并发名额
+     *
+     * @param request 抓取请求
+     */
+    void release(CrawlRequest request) {
+        lock.lock();
+        try {
+            hostQueues.get(request.getHost()).active--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭边界，等待中的线程立即返回，之后不再接收新请求
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 单个站点的队列和调度状态
+     */
+    private static final class HostQueue {
+
+        private final ArrayDeque<CrawlRequest> requests = new ArrayDeque<>();
+
+        /**
+         * 正在抓取的请求数
+         */
+        private int active;
+
+        /**
+         * 请求速率限制（不限速时为null）
+         */
+        private final TokenBucketRateLimiter limiter;
+
+        private HostQueue(TokenBucketRateLimiter limiter) {
+            this.limiter = limiter;
+        }
+    }
+}
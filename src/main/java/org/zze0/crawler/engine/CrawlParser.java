@@ -0,0 +1,22 @@
+package org.zze0.crawler.engine;
+
+/**
+ * 解析阶段（解析页面内容，产出结果、发现新的请求，在解析线程中并发执行，实现类需要线程安全）
+ *
+ * @param <T> 结果类型
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@FunctionalInterface
+public interface CrawlParser<T> {
+
+    /**
+     * 解析页面
+     *
+     * @param request 抓取请求
+     * @param content 页面内容
+     * @param emitter 结果和新请求的发射器
+     * @throws RuntimeException 解析失败
+     */
+    void parse(CrawlRequest request, String content, CrawlEmitter<T> emitter);
+}
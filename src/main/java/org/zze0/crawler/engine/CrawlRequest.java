@@ -0,0 +1,108 @@
+package org.zze0.crawler.engine;
+
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+/**
+ * 抓取请求（不可变）
+ * <p>
+ * 去重键用来判断两个请求是不是同一个页面，默认是请求地址；
+ * 地址里带时间戳等每次都不一样的参数时，应该指定去重键（如只取查询条件）。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+public final class CrawlRequest {
+
+    /**
+     * 请求地址
+     */
+    private final String url;
+
+    /**
+     * 去重键
+     */
+    private final String key;
+
+    /**
+     * 站点（请求地址中的主机名，按站点限制并发和请求间隔）
+     */
+    private final String host;
+
+    /**
+     * 接口（指标标签，区分同一个站点的不同接口，默认是站点）
+     */
+    private final String endpoint;
+
+    /**
+     * 附加信息（由解析器自己解释，如页面类型、查询条件），可以为null
+     */
+    private final Object attachment;
+
+    private CrawlRequest(String url, String key, String endpoint, Object attachment) {
+        Assert.hasText(url, "请求地址不能为空");
+        Assert.hasText(key, "去重键不能为空");
+
+        this.url = url;
+        this.key = key;
+        this.host = hostOf(url);
+        this.endpoint = null == endpoint ? host : endpoint;
+        this.attachment = attachment;
+    }
+
+    /**
+     * @param url 请求地址（同时作为去重键）
+     * @return 抓取请求
+     */
+    public static CrawlRequest of(String url) {
+        return new CrawlRequest(url, url, null, null);
+    }
+
+    /**
+     * @param url        请求地址
+     * @param key        去重键
+     * @param attachment 附加信息
+     * @return 抓取请求
+     */
+    public static CrawlRequest of(String url, String key, Object attachment) {
+        return new CrawlRequest(url, key, null, attachment);
+    }
+
+    /**
+     * @param url        请求地址
+     * @param key        去重键
+     * @param endpoint   接口（指标标签，取值个数应该是有限的，为null时是站点）
+     * @param attachment 附加信息
+     * @return 抓取请求
+     */
+    public static CrawlRequest of(String url, String key, String endpoint, Object attachment) {
+        return new CrawlRequest(url, key, endpoint, attachment);
+    }
+
+    /**
+     * 取出请求地址中的主机名（地址可以是未编码的，不经过{@link java.net.URI}解析）
+     *
+     * @param url 请求地址
+     * @return 主机名（小写），没有主机名时返回空字符串
+     */
+    static String hostOf(String url) {
+        int from = url.indexOf("://");
+        from = from < 0 ? 0 : from + 3;
+        int to = from;
+        while (to < url.length() && "/?#".indexOf(url.charAt(to)) < 0) {
+            to++;
+        }
+        String authority = url.substring(from, to);
+
+        //去掉用户信息、端口（IPv6地址在方括号中，本身带冒号）
+        authority = authority.substring(authority.lastIndexOf('@') + 1);
+        int portStart = authority.startsWith("[") ? authority.indexOf(':', authority.indexOf(']')) : authority.indexOf(':');
+        return (portStart < 0 ? authority : authority.substring(0, portStart)).toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+        return key.equals(url) ? url : key + " " + url;
+    }
+}
@@ -0,0 +1,20 @@
+package org.zze0.crawler.engine;
+
+/**
+ * 输出阶段（接收解析结果，只在一个输出线程中按到达顺序执行，实现类不需要线程安全）
+ *
+ * @param <T> 结果类型
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@FunctionalInterface
+public interface CrawlSink<T> {
+
+    /**
+     * 接收一个结果
+     *
+     * @param item 结果
+     * @throws RuntimeException 输出失败
+     */
+    void accept(T item);
+}
@@ -0,0 +1,47 @@
+package org.zze0.crawler.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 一次抓取的统计信息（不可变）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class CrawlStats {
+
+    /**
+     * 接收的请求数（去重后）
+     */
+    private final long requests;
+
+    /**
+     * 因去重键重复被丢弃的请求数
+     */
+    private final long duplicates;
+
+    /**
+     * 抓取成功的页面数
+     */
+    private final long fetched;
+
+    /**
+     * 抓取或解析失败的请求数
+     */
+    private final long failed;
+
+    /**
+     * 输出的结果数
+     */
+    private final long items;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private final long elapsedMillis;
+}
@@ -0,0 +1,246 @@
+package org.zze0.crawler.holiday;
+
+import org.springframework.util.Assert;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 节假日日历二进制导出（供下游服务在本地缓存日期状态表，不必每次查询都走网络）
+ * <p>
+ * 直接导出{@link CalendarYear 年度日期状态表}的2bit压缩位图，50年只有5KB左右，读取时不需要解析JSON、重新编译，微秒级即可还原成{@link HolidayCalendar}。
+ * 支持增量导出：只包含某个快照版本之后有变化的年度，客户端记住上次同步的版本号，用{@link #applyTo(HolidayCalendar)}合并到本地日历即可。
+ * 格式（大端序）：
+ * <pre>
+ * int    魔数 "ZCAL"
+ * short  格式版本
+ * long   快照版本号
+ * long   增量基准版本号（0表示全量导出）
+ * short  收录的第一个年份
+ * short  收录的最后一个年份（没有收录任何年度时小于第一个年份）
+ * short  年度数
+ * 每个年度：
+ *   short  年份
+ *   long[] 日期状态（每天2个bit，平年、闰年都是12个long）
+ * int    CRC32校验和（校验前面的所有字节）
+ * </pre>
+ * 快照发布时只会新增、替换年度，不会删除年度，所以增量导出不需要记录删除的年度；
+ * 合并时以收录年份范围为准，范围之外的本地年度会被丢弃。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class CalendarExport {
+
+    /**
+     * 魔数："ZCAL"
+     */
+    private static final int MAGIC = 0x5A43414C;
+
+    /**
+     * 格式版本
+     */
+    private static final short FORMAT_VERSION = 1;
+
+    /**
+     * 头部长度（魔数 ~ 年度数）
+     */
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 2 + 2 + 2;
+
+    /**
+     * 快照版本号
+     */
+    private final long version;
+
+    /**
+     * 增量基准版本号（0表示全量导出）
+     */
+    private final long baseVersion;
+
+    /**
+     * 收录的第一个年份
+     */
+    private final int firstYear;
+
+    /**
+     * 收录的最后一个年份
+     */
+    private final int lastYear;
+
+    /**
+     * 导出的年度日期状态表（key是年份，按年份顺序排列）
+     */
+    private final SortedMap<Integer, CalendarYear> years;
+
+    private CalendarExport(long version, long baseVersion, int firstYear, int lastYear, SortedMap<Integer, CalendarYear> years) {
+        this.version = version;
+        this.baseVersion = baseVersion;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        this.years = Collections.unmodifiableSortedMap(years);
+    }
+
+    /**
+     * 全量导出
+     *
+     * @param snapshot 节假日快照
+     * @return 二进制导出
+     */
+    public static byte[] encode(HolidaySnapshot snapshot) {
+        return encode(snapshot, 0);
+    }
+
+    /**
+     * 增量导出：只包含基准版本之后有变化的年度
+     * <p>
+     * 基准版本号不大于0，或者大于快照版本号（如服务端快照丢失后重新爬取，版本号重新开始）时退化成全量导出。
+     *
+     * @param snapshot    节假日快照
+     * @param baseVersion 增量基准版本号（客户端上次同步的快照版本号）
+     * @return 二进制导出
+     */
+    public static byte[] encode(HolidaySnapshot snapshot, long baseVersion) {
+
+        long base = baseVersion > 0 && baseVersion <= snapshot.getVersion() ? baseVersion : 0;
+        HolidayCalendar calendar = snapshot.getCalendar();
+
+        List<CalendarYear> exportYears = new ArrayList<>();
+        int size = HEADER_SIZE + 4;
+        for (Map.Entry<Integer, Long> entry : snapshot.getYearVersions().entrySet()) {
+            if (entry.getValue() > base) {
+                CalendarYear calendarYear = calendar.getYear(entry.getKey());
+                exportYears.add(calendarYear);
+                size += 2 + calendarYear.getBlockCount() * 8;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putLong(snapshot.getVersion());
+        buffer.putLong(base);
+        buffer.putShort((short) calendar.getFirstYear());
+        buffer.putShort((short) calendar.getLastYear());
+        buffer.putShort((short) exportYears.size());
+        for (CalendarYear calendarYear : exportYears) {
+            buffer.putShort((short) calendarYear.getYear());
+            for (int block = 0; block < calendarYear.getBlockCount(); block++) {
+                buffer.putLong(calendarYear.getBlock(block));
+            }
+        }
+
+        //校验和
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * 读取二进制导出
+     *
+     * @param buffer 二进制导出
+     * @return 节假日日历导出
+     * @throws IllegalStateException 数据已损坏或格式不兼容
+     */
+    public static CalendarExport decode(ByteBuffer buffer) {
+
+        //先校验，再解析
+        Assert.state(buffer.remaining() >= HEADER_SIZE + 4, "节假日日历导出已损坏：长度不足");
+        int crcOffset = buffer.limit() - 4;
+        ByteBuffer content = buffer.duplicate();
+        content.limit(crcOffset);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Assert.state((int) crc.getValue() == buffer.getInt(crcOffset), "节假日日历导出已损坏：校验和不一致");
+
+        Assert.state(buffer.getInt() == MAGIC, "不是节假日日历导出");
+        short formatVersion = buffer.getShort();
+        Assert.state(formatVersion == FORMAT_VERSION, "不支持的节假日日历导出格式版本：" + formatVersion);
+
+        long version = buffer.getLong();
+        long baseVersion = buffer.getLong();
+        int firstYear = buffer.getShort();
+        int lastYear = buffer.getShort();
+
+        int yearCount = buffer.getShort();
+        SortedMap<Integer, CalendarYear> years = new TreeMap<>();
+        for (int yearIndex = 0; yearIndex < yearCount; yearIndex++) {
+            int year = buffer.getShort();
+            Assert.state(year >= firstYear && year <= lastYear, () -> "节假日日历导出已损坏：年份超出收录范围：" + year);
+            Assert.state(buffer.remaining() - 4 >= 12 * 8, "节假日日历导出已损坏：长度不一致");
+
+            long[] bits = new long[12];
+            buffer.asLongBuffer().get(bits);
+            buffer.position(buffer.position() + bits.length * 8);
+            years.put(year, CalendarYear.of(year, bits));
+        }
+        Assert.state(buffer.position() == crcOffset, "节假日日历导出已损坏：长度不一致");
+
+        return new CalendarExport(version, baseVersion, firstYear, lastYear, years);
+    }
+
+    /**
+     * 还原成节假日日历（只适用于全量导出）
+     *
+     * @return 节假日日历
+     * @throws IllegalStateException 增量导出
+     */
+    public HolidayCalendar toCalendar() {
+        Assert.state(isFull(), () -> "增量导出需要合并到本地日历：基准版本=" + baseVersion);
+        return assemble(null);
+    }
+
+    /**
+     * 合并到本地日历（本地日历不受影响）
+     * <p>
+     * 全量导出直接还原；增量导出用导出的年度替换本地日历中的对应年度，其余年度共享本地日历的年度日期状态表。
+     * 本地日历必须是基准版本或更新版本的快照导出的。
+     *
+     * @param base 本地日历（全量导出时可以为null）
+     * @return 合并后的节假日日历
+     */
+    public HolidayCalendar applyTo(HolidayCalendar base) {
+        Assert.isTrue(isFull() || null != base, () -> "增量导出需要合并到本地日历：基准版本=" + baseVersion);
+        return assemble(isFull() ? null : base);
+    }
+
+    /**
+     * @return 是否全量导出
+     */
+    public boolean isFull() {
+        return baseVersion == 0;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    /**
+     * @return 导出的年份（按年份顺序）
+     */
+    public Set<Integer> getYears() {
+        return years.keySet();
+    }
+
+    /**
+     * 组装收录年份范围内的节假日日历
+     *
+     * @param base 本地日历（为null时只使用导出的年度）
+     * @return 节假日日历
+     */
+    private HolidayCalendar assemble(HolidayCalendar base) {
+        CalendarYear[] calendarYears = new CalendarYear[Math.max(0, lastYear - firstYear + 1)];
+        for (int index = 0; index < calendarYears.length; index++) {
+            int year = firstYear + index;
+            CalendarYear calendarYear = years.get(year);
+            calendarYears[index] = null != calendarYear || null == base ? calendarYear : base.getYear(year);
+        }
+        return HolidayCalendar.of(firstYear, calendarYears);
+    }
+}
@@ -0,0 +1,279 @@
+package org.zze0.crawler.holiday;
+
+import java.time.Year;
+import java.util.Arrays;
+
+/**
+ * 年度日期状态表（不可变）
+ * <p>
+ * 每天的日期状态占2个bit，一个long存32天，一年只需要12个long（96字节）。
+ * 另外按long分块记录累计工作日数，结合位运算可以O(1)统计年内任意一天之前的工作日数。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class CalendarYear {
+
+    /**
+     * 年份
+     */
+    private final int year;
+
+    /**
+     * 本年度第一天（epochDay）
+     */
+    private final int firstDay;
+
+    /**
+     * 本年度天数
+     */
+    private final int length;
+
+    /**
+     * 日期状态（每天2个bit）
+     */
+    private final long[] bits;
+
+    /**
+     * 累计工作日数（第i个元素是前i个分块中的工作日数，一个分块即一个long、32天）
+     */
+    private final short[] blockWorkdays;
+
+    /**
+     * 每天状态的低位bit掩码
+     */
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private CalendarYear(int year, long[] bits) {
+        this.year = year;
+        this.firstDay = firstDayOf(year);
+        this.length = Year.isLeap(year) ? 366 : 365;
+        this.bits = bits;
+
+        this.blockWorkdays = new short[bits.length + 1];
+        for (int block = 0; block < bits.length; block++) {
+            int blockLength = Math.min(32, length - (block << 5));
+            blockWorkdays[block + 1] = (short) (blockWorkdays[block] + workdaysInBlock(block, blockLength));
+        }
+    }
+
+    /**
+     * 编译年度日期状态表：先按周六、周日标记周末，再覆盖法定节假日、补班日
+     *
+     * @param year        年份
+     * @param holidayDays 本年度的法定节假日（epochDay，不在本年度的会被忽略）
+     * @param addWorkDays 本年度的补班日（epochDay，不在本年度的会被忽略）
+     * @return 年度日期状态表
+     */
+    public static CalendarYear compile(int year, int[] holidayDays, int[] addWorkDays) {
+
+        int firstDay = firstDayOf(year);
+        int length = Year.isLeap(year) ? 366 : 365;
+        long[] bits = new long[(length + 31) >>> 5];
+
+        for (int dayOfYear = 0; dayOfYear < length; dayOfYear++) {
+            if (isWeekend(firstDay + dayOfYear)) {
+                set(bits, dayOfYear, DayStatus.WEEKEND);
+            }
+        }
+        for (int day : holidayDays) {
+            if (day >= firstDay && day < firstDay + length) {
+                set(bits, day - firstDay, DayStatus.HOLIDAY);
+            }
+        }
+        for (int day : addWorkDays) {
+            if (day >= firstDay && day < firstDay + length) {
+                set(bits, day - firstDay, DayStatus.ADD_WORKDAY);
+            }
+        }
+        return new CalendarYear(year, bits);
+    }
+
+    /**
+     * 还原年度日期状态表（如从二进制导出读取）
+     *
+     * @param year 年份
+     * @param bits 日期状态（每天2个bit，长度必须是本年度天数对应的long数）
+     * @return 年度日期状态表
+     */
+    static CalendarYear of(int year, long[] bits) {
+        int length = Year.isLeap(year) ? 366 : 365;
+        if (bits.length != (length + 31) >>> 5) {
+            throw new IllegalArgumentException(year + "年度日期状态长度有误：" + bits.length);
+        }
+        return new CalendarYear(year, bits);
+    }
+
+    /**
+     * 基于本表创建新表：修改指定日期的状态，其余日期不变（本表不受影响）
+     *
+     * @param days     日期（epochDay，不在本年度的会被忽略）
+     * @param statuses 日期对应的新状态（同一天出现多次时以最后一次为准）
+     * @return 新的年度日期状态表
+     */
+    public CalendarYear withStatuses(int[] days, DayStatus[] statuses) {
+        long[] newBits = bits.clone();
+        for (int index = 0; index < days.length; index++) {
+            if (days[index] >= firstDay && days[index] < firstDay + length) {
+                set(newBits, days[index] - firstDay, statuses[index]);
+            }
+        }
+        return new CalendarYear(year, newBits);
+    }
+
+    /**
+     * 查询日期状态码
+     *
+     * @param dayOfYear 本年度第几天（从0开始）
+     * @return 日期状态码
+     */
+    public int statusCode(int dayOfYear) {
+        return (int) (bits[dayOfYear >>> 5] >>> ((dayOfYear & 31) << 1)) & 3;
+    }
+
+    /**
+     * 查询日期状态
+     *
+     * @param dayOfYear 本年度第几天（从0开始）
+     * @return 日期状态
+     */
+    public DayStatus status(int dayOfYear) {
+        return DayStatus.ofCode(statusCode(dayOfYear));
+    }
+
+    /**
+     * 统计本年度某天之前的工作日数（工作日、补班日都算，不包含当天）
+     *
+     * @param dayOfYear 本年度第几天（从0开始，取值0~本年度天数）
+     * @return 工作日数
+     */
+    public int workdaysBefore(int dayOfYear) {
+        int block = dayOfYear >>> 5;
+        int offset = dayOfYear & 31;
+        return offset == 0 ? blockWorkdays[block] : blockWorkdays[block] + workdaysInBlock(block, offset);
+    }
+
+    /**
+     * @return 本年度工作日数
+     */
+    public int getWorkdays() {
+        return blockWorkdays[bits.length];
+    }
+
+    /**
+     * 查找本年度的第rank个工作日（先二分定位分块，再在分块内逐位定位）
+     *
+     * @param rank 工作日序号（从0开始，小于本年度工作日数）
+     * @return 本年度第几天（从0开始）
+     */
+    public int findWorkday(int rank) {
+
+        //定位第rank个工作日所在的分块：blockWorkdays[block] <= rank < blockWorkdays[block+1]
+        int low = 0;
+        int high = bits.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockWorkdays[mid] <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        //分块内工作日的掩码（每天占低位bit），清掉前面的工作日，剩下最低位就是目标工作日
+        long mask = workdayMask(low);
+        for (int skip = rank - blockWorkdays[low]; skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return (low << 5) + (Long.numberOfTrailingZeros(mask) >>> 1);
+    }
+
+    /**
+     * @return 日期状态的long数
+     */
+    int getBlockCount() {
+        return bits.length;
+    }
+
+    /**
+     * @param block 分块下标
+     * @return 分块的日期状态（32天，每天2个bit）
+     */
+    long getBlock(int block) {
+        return bits[block];
+    }
+
+    /**
+     * 与另一个年度日期状态表的每一天状态是否都相同
+     *
+     * @param other 另一个年度日期状态表（可以为null）
+     * @return 是否相同
+     */
+    boolean sameStatuses(CalendarYear other) {
+        return null != other && year == other.year && Arrays.equals(bits, other.bits);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 年度第一天（epochDay，纯算术计算，不创建对象）
+     *
+     * @param year 年份（公元1年及以后）
+     * @return epochDay
+     */
+    public static int firstDayOf(int year) {
+        //公元1年1月1日到本年度1月1日的天数，减去公元1年1月1日到1970年1月1日的天数
+        int y = year - 1;
+        return 365 * y + y / 4 - y / 100 + y / 400 - 719162;
+    }
+
+    /**
+     * 是否周末（1970-01-01是周四）
+     *
+     * @param epochDay epochDay
+     * @return 是否周六、周日
+     */
+    public static boolean isWeekend(long epochDay) {
+        return Math.floorMod(epochDay + 3, 7) >= 5;
+    }
+
+    /**
+     * 统计分块中前count天的工作日数
+     *
+     * @param block 分块下标
+     * @param count 天数（1~32）
+     * @return 工作日数
+     */
+    private int workdaysInBlock(int block, int count) {
+        long mask = workdayMask(block);
+        return Long.bitCount(count == 32 ? mask : mask & ((1L << (count << 1)) - 1));
+    }
+
+    /**
+     * 分块中工作日的掩码：工作日(00)、补班日(11)的高低位相同，异或为0，对应的低位bit置1
+     *
+     * @param block 分块下标
+     * @return 掩码（超出本年度的天数不会置1）
+     */
+    private long workdayMask(int block) {
+        long word = bits[block];
+        long mask = ~(word ^ (word >>> 1)) & LOW_BITS;
+        int blockLength = Math.min(32, length - (block << 5));
+        return blockLength == 32 ? mask : mask & ((1L << (blockLength << 1)) - 1);
+    }
+
+    private static void set(long[] bits, int dayOfYear, DayStatus status) {
+        int shift = (dayOfYear & 31) << 1;
+        bits[dayOfYear >>> 5] = bits[dayOfYear >>> 5] & ~(3L << shift) | ((long) status.getCode() << shift);
+    }
+}
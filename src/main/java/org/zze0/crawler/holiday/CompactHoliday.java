@@ -0,0 +1,118 @@
+package org.zze0.crawler.holiday;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 节假日（紧凑格式，不可变）
+ * <p>
+ * 与{@link Holiday}内容一致，但日期都用epochDay（1970-01-01起的天数）表示，假期、补班日是int数组，
+ * 爬取、分析节假日时不需要创建{@link Date}对象，需要对外提供时再转换成{@link Holiday}。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+public final class CompactHoliday {
+
+    private static final int[] EMPTY_DAYS = new int[0];
+
+    /**
+     * 年份
+     */
+    private final int year;
+
+    /**
+     * 日期（epochDay）
+     */
+    private final int date;
+
+    /**
+     * 名称
+     */
+    private final String name;
+
+    /**
+     * 假期（epochDay，升序）
+     */
+    @Getter(AccessLevel.NONE)
+    private final int[] holidayDays;
+
+    /**
+     * 补班日（epochDay，升序）
+     */
+    @Getter(AccessLevel.NONE)
+    private final int[] addWorkDays;
+
+    /**
+     * @param year        年份
+     * @param date        日期（epochDay）
+     * @param name        名称
+     * @param holidayDays 假期（epochDay，升序，数组由本对象持有，调用方不能再修改）
+     * @param addWorkDays 补班日（epochDay，升序，数组由本对象持有，调用方不能再修改）
+     */
+    public CompactHoliday(int year, int date, String name, int[] holidayDays, int[] addWorkDays) {
+        this.year = year;
+        this.date = date;
+        this.name = name;
+        this.holidayDays = holidayDays.length == 0 ? EMPTY_DAYS : holidayDays;
+        this.addWorkDays = addWorkDays.length == 0 ? EMPTY_DAYS : addWorkDays;
+    }
+
+    /**
+     * @return 假期天数
+     */
+    public int getHolidayDayCount() {
+        return holidayDays.length;
+    }
+
+    /**
+     * @param index 下标
+     * @return 第index天假期（epochDay）
+     */
+    public int getHolidayDay(int index) {
+        return holidayDays[index];
+    }
+
+    /**
+     * @return 补班天数
+     */
+    public int getAddWorkDayCount() {
+        return addWorkDays.length;
+    }
+
+    /**
+     * @param index 下标
+     * @return 第index个补班日（epochDay）
+     */
+    public int getAddWorkDay(int index) {
+        return addWorkDays[index];
+    }
+
+    /**
+     * 转换成节假日
+     *
+     * @return 节假日
+     */
+    public Holiday toHoliday() {
+        Holiday holiday = new Holiday();
+        holiday.setYear(year);
+        holiday.setDate(EpochDays.toDate(date));
+        holiday.setName(name);
+        holiday.setHolidayDateList(toDates(holidayDays));
+        holiday.setAddWorkDateList(toDates(addWorkDays));
+        return holiday;
+    }
+
+    private static List<Date> toDates(int[] days) {
+        List<Date> dateList = new ArrayList<>(days.length);
+        for (int day : days) {
+            dateList.add(EpochDays.toDate(day));
+        }
+        return dateList;
+    }
+}
@@ -0,0 +1,60 @@
+package org.zze0.crawler.holiday;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 日期状态
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+@AllArgsConstructor
+public enum DayStatus {
+
+    /**
+     * 工作日
+     */
+    WORKDAY(0, true),
+
+    /**
+     * 周末
+     */
+    WEEKEND(1, false),
+
+    /**
+     * 法定节假日
+     */
+    HOLIDAY(2, false),
+
+    /**
+     * 补班日
+     */
+    ADD_WORKDAY(3, true);
+
+    /**
+     * 状态码（占2个bit，用于紧凑存储）
+     */
+    private final int code;
+
+    /**
+     * 是否需要上班
+     */
+    private final boolean workday;
+
+    /**
+     * 状态码对应的日期状态
+     */
+    private static final DayStatus[] CODES = values();
+
+    /**
+     * 根据状态码获取日期状态
+     *
+     * @param code 状态码
+     * @return 日期状态
+     */
+    public static DayStatus ofCode(int code) {
+        return CODES[code];
+    }
+}
@@ -0,0 +1,153 @@
+package org.zze0.crawler.holiday;
+
+import cn.hutool.core.date.LocalDateTimeUtil;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * epochDay（1970-01-01起的天数）与日期的转换工具
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class EpochDays {
+
+    /**
+     * 平年各月1日是一年中的第几天（从0开始）
+     */
+    private static final int[] MONTH_FIRST_DAYS = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    /**
+     * 中国时区（节假日都是按北京时间划分的日期）
+     */
+    public static final ZoneId CHINA_ZONE = ZoneId.of("Asia/Shanghai");
+
+    /**
+     * 一天的毫秒数
+     */
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 中国时区历次偏移量变更的时间点（毫秒时间戳，升序，取自时区规则，如1986~1991年的夏令时）
+     */
+    private static final long[] CHINA_TRANSITION_MILLIS;
+
+    /**
+     * 每个变更时间点之后的偏移量（毫秒），第0个元素是第一个变更时间点之前的偏移量
+     */
+    private static final long[] CHINA_OFFSET_MILLIS;
+
+    /**
+     * 最后一次变更之后的固定偏移量（毫秒，+08:00）
+     */
+    private static final long CHINA_FIXED_OFFSET_MILLIS;
+
+    /**
+     * 从这个时间戳（毫秒）起中国时区的偏移量固定不变，之后的时间戳只需要加上固定偏移量
+     */
+    private static final long CHINA_FIXED_SINCE_MILLIS;
+
+    static {
+        ZoneRules rules = CHINA_ZONE.getRules();
+        List<ZoneOffsetTransition> transitions = rules.getTransitions();
+        Assert.isTrue(rules.getTransitionRules().isEmpty(), "中国时区不应再有周期性的夏令时规则");
+
+        CHINA_TRANSITION_MILLIS = new long[transitions.size()];
+        CHINA_OFFSET_MILLIS = new long[transitions.size() + 1];
+        CHINA_OFFSET_MILLIS[0] = transitions.isEmpty()
+                ? rules.getStandardOffset(Instant.EPOCH).getTotalSeconds() * 1000L
+                : transitions.get(0).getOffsetBefore().getTotalSeconds() * 1000L;
+        for (int index = 0; index < transitions.size(); index++) {
+            CHINA_TRANSITION_MILLIS[index] = transitions.get(index).toEpochSecond() * 1000L;
+            CHINA_OFFSET_MILLIS[index + 1] = transitions.get(index).getOffsetAfter().getTotalSeconds() * 1000L;
+        }
+        CHINA_FIXED_OFFSET_MILLIS = CHINA_OFFSET_MILLIS[transitions.size()];
+        CHINA_FIXED_SINCE_MILLIS = transitions.isEmpty() ? Long.MIN_VALUE : CHINA_TRANSITION_MILLIS[transitions.size() - 1];
+    }
+
+    private EpochDays() {
+    }
+
+    /**
+     * 年月日转换成epochDay（纯算术计算，不创建对象，不校验日是否超出当月天数）
+     *
+     * @param year  年（公元1年及以后）
+     * @param month 月（1~12）
+     * @param day   日（1~31）
+     * @return epochDay
+     */
+    public static int of(int year, int month, int day) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("月份有误：" + month);
+        }
+        int dayOfYear = MONTH_FIRST_DAYS[month - 1] + day - 1;
+        if (month > 2 && Year.isLeap(year)) {
+            dayOfYear++;
+        }
+        return CalendarYear.firstDayOf(year) + dayOfYear;
+    }
+
+    /**
+     * 日期转换成epochDay（按系统默认时区，与爬虫解析日期的时区一致）
+     *
+     * @param date 日期
+     * @return epochDay
+     */
+    public static int of(Date date) {
+        Assert.notNull(date, "日期为空");
+        return (int) LocalDateTimeUtil.of(date).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * 时间戳转换成北京时间的epochDay（与服务器时区无关，纯算术计算，不创建对象）
+     * <p>
+     * 1991年9月以后中国时区固定是+08:00，直接加上固定偏移量；更早的时间戳按时区规则（如夏令时）二分查找偏移量。
+     * 如日历接口的oDate "2021-04-30T16:00:00.000Z" 是北京时间2021-05-01。
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @return epochDay
+     */
+    public static int ofChinaMillis(long epochMillis) {
+        long offsetMillis = epochMillis >= CHINA_FIXED_SINCE_MILLIS ? CHINA_FIXED_OFFSET_MILLIS : chinaOffsetMillis(epochMillis);
+        return (int) Math.floorDiv(epochMillis + offsetMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * 按时区规则查找中国时区在某个时间戳的偏移量
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @return 偏移量（毫秒）
+     */
+    private static long chinaOffsetMillis(long epochMillis) {
+        //最后一个不晚于时间戳的变更时间点
+        int low = 0;
+        int high = CHINA_TRANSITION_MILLIS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (CHINA_TRANSITION_MILLIS[mid] <= epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return CHINA_OFFSET_MILLIS[low];
+    }
+
+    /**
+     * epochDay转换成日期（系统默认时区的零点）
+     *
+     * @param epochDay epochDay
+     * @return 日期
+     */
+    public static Date toDate(int epochDay) {
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
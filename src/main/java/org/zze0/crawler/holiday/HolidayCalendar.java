@@ -0,0 +1,734 @@
+package org.zze0.crawler.holiday;
+
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * 节假日日历（由爬取到的节假日列表编译而成的日期状态索引，不可变）
+ * <p>
+ * 每个年度一张{@link CalendarYear}日期状态表，按epochDay查询日期状态是O(1)的，且不会创建任何对象。
+ * 另外按年度记录累计工作日数，工作日推算（加减工作日、统计区间工作日数）是O(1)或O(log n)的，不需要逐天遍历。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class HolidayCalendar {
+
+    /**
+     * 批量查询时，超过这个数量才拆分成fork/join任务并行处理
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * 一天的毫秒数
+     */
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * 逐日状态码表中未收录日期的状态码
+     */
+    private static final byte NOT_COVERED = -1;
+
+    /**
+     * 第一个年份
+     */
+    private final int firstYear;
+
+    /**
+     * 年度日期状态表（下标是 年份-第一个年份，没有收录的年度为null）
+     */
+    private final CalendarYear[] years;
+
+    /**
+     * 收录的第一天（epochDay，包含）
+     */
+    private final int firstDay;
+
+    /**
+     * 收录的最后一天（epochDay，不包含）
+     */
+    private final int endDay;
+
+    /**
+     * 累计工作日数（第i个元素是前i个年度的工作日数）
+     */
+    private final int[] yearWorkdays;
+
+    /**
+     * 累计未收录年度数（第i个元素是前i个年度中未收录的年度数，用来判断推算区间是否跨越了未收录年度）
+     */
+    private final int[] yearMissing;
+
+    /**
+     * 逐日状态码表（下标是 日期-收录的第一天，每天一个字节，未收录的日期为{@link #NOT_COVERED}），
+     * 批量查询时才按需展开，省掉逐个日期定位年度、移位的开销
+     */
+    private volatile byte[] dayCodes;
+
+    private HolidayCalendar(int firstYear, CalendarYear[] years) {
+        this.firstYear = firstYear;
+        this.years = years;
+        this.firstDay = years.length == 0 ? 0 : CalendarYear.firstDayOf(firstYear);
+        this.endDay = years.length == 0 ? 0 : CalendarYear.firstDayOf(firstYear + years.length);
+
+        this.yearWorkdays = new int[years.length + 1];
+        this.yearMissing = new int[years.length + 1];
+        for (int index = 0; index < years.length; index++) {
+            yearWorkdays[index + 1] = yearWorkdays[index] + (null == years[index] ? 0 : years[index].getWorkdays());
+            yearMissing[index + 1] = yearMissing[index] + (null == years[index] ? 1 : 0);
+        }
+    }
+
+    /**
+     * 编译节假日日历
+     * <p>
+     * 假期、补班日按日期实际所在的年度标记（如春节的补班日可能在上一年的12月），
+     * 落在未收录年度的日期会被忽略。
+     *
+     * @param holidays 年度法定节假日（key是年份，value是节假日列表）
+     * @return 节假日日历
+     */
+    public static HolidayCalendar compile(Map<Integer, List<Holiday>> holidays) {
+
+        //所有节假日的假期、补班日
+        int[] holidayDays = holidays.values().stream()
+                .flatMap(List::stream)
+                .flatMap(holiday -> holiday.getHolidayDateList().stream())
+                .mapToInt(EpochDays::of)
+                .toArray();
+        int[] addWorkDays = holidays.values().stream()
+                .flatMap(List::stream)
+                .flatMap(holiday -> holiday.getAddWorkDateList().stream())
+                .mapToInt(EpochDays::of)
+                .toArray();
+        return compile(holidays.keySet(), holidayDays, addWorkDays);
+    }
+
+    /**
+     * 由紧凑格式的节假日编译节假日日历（直接使用epochDay，不经过{@link java.util.Date}转换）
+     * <p>
+     * 假期、补班日按日期实际所在的年度标记，落在未收录年度的日期会被忽略。
+     *
+     * @param holidays 年度法定节假日（key是年份，value是节假日列表）
+     * @return 节假日日历
+     */
+    public static HolidayCalendar compileCompact(Map<Integer, List<CompactHoliday>> holidays) {
+        List<CompactHoliday> allHolidays = new ArrayList<>();
+        holidays.values().forEach(allHolidays::addAll);
+        return compile(holidays.keySet(), holidayDaysOf(allHolidays), addWorkDaysOf(allHolidays));
+    }
+
+    /**
+     * 编译收录年度的日期状态表
+     *
+     * @param years       收录的年份
+     * @param holidayDays 所有假期（epochDay）
+     * @param addWorkDays 所有补班日（epochDay）
+     * @return 节假日日历
+     */
+    private static HolidayCalendar compile(Set<Integer> years, int[] holidayDays, int[] addWorkDays) {
+
+        if (years.isEmpty()) {
+            return new HolidayCalendar(0, new CalendarYear[0]);
+        }
+
+        int firstYear = years.stream().mapToInt(Integer::intValue).min().getAsInt();
+        int lastYear = years.stream().mapToInt(Integer::intValue).max().getAsInt();
+
+        CalendarYear[] calendarYears = new CalendarYear[lastYear - firstYear + 1];
+        for (Integer year : years) {
+            calendarYears[year - firstYear] = CalendarYear.compile(year, holidayDays, addWorkDays);
+        }
+        return new HolidayCalendar(firstYear, calendarYears);
+    }
+
+    /**
+     * @param holidays 紧凑格式的节假日
+     * @return 所有假期（epochDay）
+     */
+    static int[] holidayDaysOf(List<CompactHoliday> holidays) {
+        int[] days = new int[holidays.stream().mapToInt(CompactHoliday::getHolidayDayCount).sum()];
+        int offset = 0;
+        for (CompactHoliday holiday : holidays) {
+            for (int index = 0; index < holiday.getHolidayDayCount(); index++) {
+                days[offset++] = holiday.getHolidayDay(index);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * @param holidays 紧凑格式的节假日
+     * @return 所有补班日（epochDay）
+     */
+    static int[] addWorkDaysOf(List<CompactHoliday> holidays) {
+        int[] days = new int[holidays.stream().mapToInt(CompactHoliday::getAddWorkDayCount).sum()];
+        int offset = 0;
+        for (CompactHoliday holiday : holidays) {
+            for (int index = 0; index < holiday.getAddWorkDayCount(); index++) {
+                days[offset++] = holiday.getAddWorkDay(index);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * 由年度日期状态表组装节假日日历（如从二进制导出还原）
+     *
+     * @param firstYear 第一个年份
+     * @param years     年度日期状态表（第i个元素是 firstYear+i 年度，未收录的年度为null）
+     * @return 节假日日历
+     */
+    static HolidayCalendar of(int firstYear, CalendarYear[] years) {
+        return years.length == 0 ? new HolidayCalendar(0, years) : new HolidayCalendar(firstYear, years);
+    }
+
+    /**
+     * 叠加租户的调整，编译成新的节假日日历（本日历不受影响）
+     * <p>
+     * 没有调整的年度直接共享本日历的年度日期状态表（写时复制），只有被调整的年度会复制一份；
+     * 合并后的日历与本日历的查询速度完全一样。落在未收录年度的调整会被忽略。
+     *
+     * @param overlay 节假日叠加层
+     * @return 合并后的节假日日历
+     */
+    public HolidayCalendar withOverlay(HolidayOverlay overlay) {
+        CalendarYear[] mergedYears = years.clone();
+        for (int index = 0; index < mergedYears.length; index++) {
+            if (null != mergedYears[index]) {
+                mergedYears[index] = overlay.applyTo(mergedYears[index]);
+            }
+        }
+        return new HolidayCalendar(firstYear, mergedYears);
+    }
+
+    /**
+     * 查询日期状态
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 日期状态
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public DayStatus status(int epochDay) {
+        return DayStatus.ofCode(statusCode(epochDay));
+    }
+
+    /**
+     * 查询日期状态
+     *
+     * @param date 日期
+     * @return 日期状态
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public DayStatus status(LocalDate date) {
+        return status((int) date.toEpochDay());
+    }
+
+    /**
+     * 是否需要上班（工作日、补班日）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 是否需要上班
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public boolean isWorkday(int epochDay) {
+        //工作日=0，补班日=3
+        int code = statusCode(epochDay);
+        return code == 0 || code == 3;
+    }
+
+    /**
+     * 查询时间戳在北京时间所在日期的状态（与服务器时区无关，不创建Date、Calendar对象）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @return 日期状态
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public DayStatus statusAt(long epochMillis) {
+        return status(EpochDays.ofChinaMillis(epochMillis));
+    }
+
+    /**
+     * 时间戳在北京时间所在日期是否需要上班（工作日、补班日，与服务器时区无关）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @return 是否需要上班
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public boolean isWorkdayAt(long epochMillis) {
+        return isWorkday(EpochDays.ofChinaMillis(epochMillis));
+    }
+
+    /**
+     * 是否法定节假日
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 是否法定节假日
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public boolean isHoliday(int epochDay) {
+        return statusCode(epochDay) == 2;
+    }
+
+    /**
+     * 统计区间内的工作日数（工作日、补班日都算）
+     *
+     * @param from 开始日期（epochDay，包含）
+     * @param to   结束日期（epochDay，不包含），小于开始日期时返回负数
+     * @return 工作日数
+     * @throws IllegalArgumentException 区间内有未收录的年度
+     */
+    public int workdaysBetween(int from, int to) {
+        if (to < from) {
+            return -workdaysBetween(to, from);
+        }
+        checkSpan(from, to);
+        return workdaysBefore(to) - workdaysBefore(from);
+    }
+
+    /**
+     * 统计区间内的工作日数（工作日、补班日都算）
+     *
+     * @param from 开始日期（包含）
+     * @param to   结束日期（不包含），小于开始日期时返回负数
+     * @return 工作日数
+     * @throws IllegalArgumentException 区间内有未收录的年度
+     */
+    public int workdaysBetween(LocalDate from, LocalDate to) {
+        return workdaysBetween((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * 加减工作日
+     *
+     * @param epochDay 日期（epochDay）
+     * @param n        工作日数：大于0时返回之后的第n个工作日，小于0时返回之前的第-n个工作日，等于0时返回日期本身
+     * @return 推算出的工作日（epochDay）
+     * @throws IllegalArgumentException 推算结果超出了收录范围，或跨越了未收录的年度
+     */
+    public int addWorkdays(int epochDay, int n) {
+        if (n == 0) {
+            return epochDay;
+        }
+
+        //目标工作日在所有工作日中的序号
+        long rank = n > 0
+                ? (long) workdaysBefore(epochDay + 1) + n - 1
+                : (long) workdaysBefore(epochDay) + n;
+        if (rank < 0 || rank >= yearWorkdays[years.length]) {
+            throw new IllegalArgumentException("工作日推算超出节假日日历收录范围：" + LocalDate.ofEpochDay(epochDay) + (n > 0 ? " + " : " - ") + Math.abs(n));
+        }
+
+        int target = findWorkday((int) rank);
+        checkSpan(Math.min(epochDay, target), Math.max(epochDay, target));
+        return target;
+    }
+
+    /**
+     * 加减工作日
+     *
+     * @param date 日期
+     * @param n    工作日数：大于0时返回之后的第n个工作日，小于0时返回之前的第-n个工作日，等于0时返回日期本身
+     * @return 推算出的工作日
+     * @throws IllegalArgumentException 推算结果超出了收录范围，或跨越了未收录的年度
+     */
+    public LocalDate addWorkdays(LocalDate date, int n) {
+        return LocalDate.ofEpochDay(addWorkdays((int) date.toEpochDay(), n));
+    }
+
+    /**
+     * 下一个工作日（不包含当天）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 下一个工作日（epochDay）
+     */
+    public int nextWorkday(int epochDay) {
+        return addWorkdays(epochDay, 1);
+    }
+
+    /**
+     * 下一个工作日（不包含当天）
+     *
+     * @param date 日期
+     * @return 下一个工作日
+     */
+    public LocalDate nextWorkday(LocalDate date) {
+        return addWorkdays(date, 1);
+    }
+
+    /**
+     * 上一个工作日（不包含当天）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 上一个工作日（epochDay）
+     */
+    public int previousWorkday(int epochDay) {
+        return addWorkdays(epochDay, -1);
+    }
+
+    /**
+     * 上一个工作日（不包含当天）
+     *
+     * @param date 日期
+     * @return 上一个工作日
+     */
+    public LocalDate previousWorkday(LocalDate date) {
+        return addWorkdays(date, -1);
+    }
+
+    /**
+     * 批量查询日期状态码（一次调用填充整个结果数组，不装箱、不创建对象；数量大时用fork/join并行处理）
+     *
+     * @param epochDays 日期（epochDay）
+     * @param result    日期状态码（{@link DayStatus#getCode()}），长度不小于日期个数
+     * @throws IllegalArgumentException 有日期所在年度未收录
+     */
+    public void statusCodes(int[] epochDays, byte[] result) {
+        Assert.isTrue(result.length >= epochDays.length, "结果数组长度不足");
+        classify(new BulkTask(epochDays, null, false, 0, result, null, 0, epochDays.length));
+    }
+
+    /**
+     * 批量查询日期状态码（时间戳按时区偏移量换算成日期）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @param offset      时区偏移量（如北京时间+08:00）
+     * @param result      日期状态码（{@link DayStatus#getCode()}），长度不小于时间戳个数
+     * @throws IllegalArgumentException 有日期所在年度未收录
+     */
+    public void statusCodes(long[] epochMillis, ZoneOffset offset, byte[] result) {
+        Assert.isTrue(result.length >= epochMillis.length, "结果数组长度不足");
+        classify(new BulkTask(null, epochMillis, false, offset.getTotalSeconds() * 1000L, result, null, 0, epochMillis.length));
+    }
+
+    /**
+     * 批量判断是否需要上班（工作日、补班日）
+     *
+     * @param epochDays 日期（epochDay）
+     * @param result    是否需要上班，长度不小于日期个数
+     * @throws IllegalArgumentException 有日期所在年度未收录
+     */
+    public void workdays(int[] epochDays, boolean[] result) {
+        Assert.isTrue(result.length >= epochDays.length, "结果数组长度不足");
+        classify(new BulkTask(epochDays, null, false, 0, null, result, 0, epochDays.length));
+    }
+
+    /**
+     * 批量判断是否需要上班（工作日、补班日，时间戳按时区偏移量换算成日期）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @param offset      时区偏移量（如北京时间+08:00）
+     * @param result      是否需要上班，长度不小于时间戳个数
+     * @throws IllegalArgumentException 有日期所在年度未收录
+     */
+    public void workdays(long[] epochMillis, ZoneOffset offset, boolean[] result) {
+        Assert.isTrue(result.length >= epochMillis.length, "结果数组长度不足");
+        classify(new BulkTask(null, epochMillis, false, offset.getTotalSeconds() * 1000L, null, result, 0, epochMillis.length));
+    }
+
+    /**
+     * 批量查询时间戳在北京时间所在日期的状态码（与服务器时区无关）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @param result      日期状态码（{@link DayStatus#getCode()}），长度不小于时间戳个数
+     * @throws IllegalArgumentException 有日期所在年度未收录
+     */
+    public void statusCodesAt(long[] epochMillis, byte[] result) {
+        Assert.isTrue(result.length >= epochMillis.length, "结果数组长度不足");
+        classify(new BulkTask(null, epochMillis, true, 0, result, null, 0, epochMillis.length));
+    }
+
+    /**
+     * 批量判断时间戳在北京时间所在日期是否需要上班（与服务器时区无关）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @param result      是否需要上班，长度不小于时间戳个数
+     * @throws IllegalArgumentException 有日期所在年度未收录
+     */
+    public void workdaysAt(long[] epochMillis, boolean[] result) {
+        Assert.isTrue(result.length >= epochMillis.length, "结果数组长度不足");
+        classify(new BulkTask(null, epochMillis, true, 0, null, result, 0, epochMillis.length));
+    }
+
+    /**
+     * 逐个查询日期状态码（流式处理，不装箱；并行流同样适用）
+     *
+     * @param epochDays 日期（epochDay）
+     * @return 日期状态码（{@link DayStatus#getCode()}）
+     */
+    public IntStream statusCodes(IntStream epochDays) {
+        return epochDays.map(this::statusCode);
+    }
+
+    /**
+     * 逐个查询日期状态码（流式处理，不装箱；时间戳按时区偏移量换算成日期）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @param offset      时区偏移量（如北京时间+08:00）
+     * @return 日期状态码（{@link DayStatus#getCode()}）
+     */
+    public IntStream statusCodes(LongStream epochMillis, ZoneOffset offset) {
+        long offsetMillis = offset.getTotalSeconds() * 1000L;
+        return epochMillis.mapToInt(millis -> statusCode((int) Math.floorDiv(millis + offsetMillis, MILLIS_PER_DAY)));
+    }
+
+    /**
+     * 执行批量查询：数量少时在当前线程处理，否则交给公共fork/join线程池拆分并行处理
+     *
+     * @param task 批量查询任务
+     */
+    private static void classify(BulkTask task) {
+        if (task.to - task.from <= PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * 获取逐日状态码表（首次使用时展开，并发展开的结果一致，不需要加锁）
+     *
+     * @return 逐日状态码表
+     */
+    private byte[] dayCodes() {
+        byte[] table = dayCodes;
+        if (null == table) {
+            table = new byte[endDay - firstDay];
+            for (CalendarYear calendarYear : years) {
+                if (null != calendarYear) {
+                    int offset = calendarYear.getFirstDay() - firstDay;
+                    for (int dayOfYear = 0; dayOfYear < calendarYear.getLength(); dayOfYear++) {
+                        table[offset + dayOfYear] = (byte) calendarYear.statusCode(dayOfYear);
+                    }
+                }
+            }
+            for (int index = 0; index < years.length; index++) {
+                if (null == years[index]) {
+                    Arrays.fill(table, CalendarYear.firstDayOf(firstYear + index) - firstDay, CalendarYear.firstDayOf(firstYear + index + 1) - firstDay, NOT_COVERED);
+                }
+            }
+            dayCodes = table;
+        }
+        return table;
+    }
+
+    /**
+     * 是否收录了该日期
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 是否收录
+     */
+    public boolean covers(int epochDay) {
+        return null != findYear(epochDay);
+    }
+
+    /**
+     * 查询日期状态码
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 日期状态码
+     */
+    private int statusCode(int epochDay) {
+        CalendarYear calendarYear = findYear(epochDay);
+        if (null == calendarYear) {
+            throw new IllegalArgumentException("节假日日历未收录该日期：" + LocalDate.ofEpochDay(epochDay));
+        }
+        return calendarYear.statusCode(epochDay - calendarYear.getFirstDay());
+    }
+
+    /**
+     * 统计某天之前（不包含当天）收录的工作日总数
+     *
+     * @param epochDay 日期（epochDay），取值为收录的第一天 ~ 收录的最后一天的后一天
+     * @return 工作日数
+     */
+    private int workdaysBefore(int epochDay) {
+        if (epochDay == endDay && years.length > 0) {
+            return yearWorkdays[years.length];
+        }
+        int index = findYearIndex(epochDay);
+        if (index < 0 || null == years[index]) {
+            throw new IllegalArgumentException("节假日日历未收录该日期：" + LocalDate.ofEpochDay(epochDay));
+        }
+        return yearWorkdays[index] + years[index].workdaysBefore(epochDay - years[index].getFirstDay());
+    }
+
+    /**
+     * 按序号查找工作日（先二分定位年度，再在年度内定位）
+     *
+     * @param rank 工作日序号（从0开始）
+     * @return 工作日（epochDay）
+     */
+    private int findWorkday(int rank) {
+
+        //定位第rank个工作日所在的年度：yearWorkdays[index] <= rank < yearWorkdays[index+1]
+        int low = 0;
+        int high = years.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (yearWorkdays[mid] <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        //跳过没有工作日的（未收录）年度
+        while (null == years[low] || yearWorkdays[low + 1] <= rank) {
+            low++;
+        }
+        CalendarYear calendarYear = years[low];
+        return calendarYear.getFirstDay() + calendarYear.findWorkday(rank - yearWorkdays[low]);
+    }
+
+    /**
+     * 检查区间内没有未收录的年度
+     *
+     * @param from 开始日期（epochDay，包含）
+     * @param to   结束日期（epochDay，包含收录的最后一天的后一天）
+     */
+    private void checkSpan(int from, int to) {
+        int fromIndex = findYearIndex(from);
+        int toIndex = to == endDay && years.length > 0 ? years.length - 1 : findYearIndex(to);
+        if (fromIndex < 0 || toIndex < 0 || yearMissing[toIndex + 1] != yearMissing[fromIndex]) {
+            throw new IllegalArgumentException("节假日日历未完整收录该区间：" + LocalDate.ofEpochDay(from) + " ~ " + LocalDate.ofEpochDay(to));
+        }
+    }
+
+    /**
+     * 定位日期所在的年度日期状态表
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 年度日期状态表，未收录时返回null
+     */
+    private CalendarYear findYear(int epochDay) {
+        int index = findYearIndex(epochDay);
+        return index < 0 ? null : years[index];
+    }
+
+    /**
+     * 定位日期所在年度的下标（先按平均年长估算下标，再修正一次）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 年度下标，不在收录范围内时返回-1
+     */
+    private int findYearIndex(int epochDay) {
+        if (epochDay < firstDay || epochDay >= endDay) {
+            return -1;
+        }
+
+        //400年共146097天
+        int index = (int) ((epochDay - firstDay) * 400L / 146097);
+        if (index >= years.length) {
+            index = years.length - 1;
+        }
+        int yearFirstDay = CalendarYear.firstDayOf(firstYear + index);
+        if (epochDay < yearFirstDay) {
+            index--;
+        } else if (epochDay >= yearFirstDay + 365 && epochDay >= CalendarYear.firstDayOf(firstYear + index + 1)) {
+            index++;
+        }
+        return index;
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * @return 最后一个年份（没有收录任何年度时小于第一个年份）
+     */
+    public int getLastYear() {
+        return firstYear + years.length - 1;
+    }
+
+    /**
+     * 获取年度日期状态表
+     *
+     * @param year 年份
+     * @return 年度日期状态表，未收录时返回null
+     */
+    public CalendarYear getYear(int year) {
+        int index = year - firstYear;
+        return index >= 0 && index < years.length ? years[index] : null;
+    }
+
+    /**
+     * 批量查询任务（处理[from, to)区间，区间较大时对半拆分）
+     * <p>
+     * 日期或时间戳二选一，结果数组（状态码或是否需要上班）二选一。
+     */
+    private final class BulkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] epochDays;
+
+        private final long[] epochMillis;
+
+        /**
+         * 时间戳是否按中国时区规则换算（否则按固定的时区偏移量换算）
+         */
+        private final boolean chinaLocal;
+
+        private final long offsetMillis;
+
+        private final byte[] codes;
+
+        private final boolean[] workdays;
+
+        private final int from;
+
+        private final int to;
+
+        private BulkTask(int[] epochDays, long[] epochMillis, boolean chinaLocal, long offsetMillis, byte[] codes, boolean[] workdays, int from, int to) {
+            this.epochDays = epochDays;
+            this.epochMillis = epochMillis;
+            this.chinaLocal = chinaLocal;
+            this.offsetMillis = offsetMillis;
+            this.codes = codes;
+            this.workdays = workdays;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BulkTask(epochDays, epochMillis, chinaLocal, offsetMillis, codes, workdays, from, mid),
+                        new BulkTask(epochDays, epochMillis, chinaLocal, offsetMillis, codes, workdays, mid, to));
+                return;
+            }
+
+            byte[] table = dayCodes();
+            for (int index = from; index < to; index++) {
+                int epochDay = null != epochDays ? epochDays[index]
+                        : chinaLocal ? EpochDays.ofChinaMillis(epochMillis[index])
+                        : (int) Math.floorDiv(epochMillis[index] + offsetMillis, MILLIS_PER_DAY);
+                int offset = epochDay - firstDay;
+                int code = offset >= 0 && offset < table.length ? table[offset] : NOT_COVERED;
+                if (code == NOT_COVERED) {
+                    throw new IllegalArgumentException("节假日日历未收录该日期：" + LocalDate.ofEpochDay(epochDay));
+                }
+                if (null != codes) {
+                    codes[index] = (byte) code;
+                } else {
+                    //工作日(00)、补班日(11)的高低位相同（按位判断，不产生分支）
+                    workdays[index] = ((code ^ (code >>> 1)) & 1) == 0;
+                }
+            }
+        }
+    }
+}
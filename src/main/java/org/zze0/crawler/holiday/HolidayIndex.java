@@ -0,0 +1,289 @@
+package org.zze0.crawler.holiday;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 节假日区间索引（所有假期周期、补班日按日期排序的基本类型数组，不可变）
+ * <p>
+ * 用于倒计时、排班等场景：查询日期所在的假期周期、下一个/上一个假期周期、距离下一个假期的天数、补班日归属，
+ * 都是二分查找，O(log n)，查询过程不创建任何对象。
+ * <p>
+ * 同一个假期周期只收录一次（如中秋节、国庆节合在一起放假时，名称是"中秋节、国庆节"），
+ * 假期周期的范围是假期的第一天到最后一天，有重叠的假期周期会合并。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class HolidayIndex {
+
+    /**
+     * 假期周期第一天（epochDay，升序）
+     */
+    private final int[] starts;
+
+    /**
+     * 假期周期最后一天（epochDay，包含，升序）
+     */
+    private final int[] ends;
+
+    /**
+     * 假期周期名称
+     */
+    private final String[] names;
+
+    /**
+     * 补班日（epochDay，升序）
+     */
+    private final int[] addWorkDays;
+
+    /**
+     * 补班日归属的假期周期（下标）
+     */
+    private final int[] addWorkPeriods;
+
+    private HolidayIndex(int[] starts, int[] ends, String[] names, int[] addWorkDays, int[] addWorkPeriods) {
+        this.starts = starts;
+        this.ends = ends;
+        this.names = names;
+        this.addWorkDays = addWorkDays;
+        this.addWorkPeriods = addWorkPeriods;
+    }
+
+    /**
+     * 编译节假日区间索引
+     *
+     * @param holidays 年度法定节假日（key是年份，value是节假日列表）
+     * @return 节假日区间索引
+     */
+    public static HolidayIndex compile(Map<Integer, List<Holiday>> holidays) {
+
+        //按假期周期第一天排序，没有假期的节假日不收录
+        List<PeriodBuilder> builders = new ArrayList<>();
+        for (List<Holiday> yearHolidays : holidays.values()) {
+            for (Holiday holiday : yearHolidays) {
+                if (!holiday.getHolidayDateList().isEmpty()) {
+                    builders.add(new PeriodBuilder(holiday));
+                }
+            }
+        }
+        builders.sort(Comparator.comparingInt((PeriodBuilder builder) -> builder.start).thenComparingInt(builder -> builder.end));
+
+        //合并相同、重叠的假期周期
+        List<PeriodBuilder> periods = new ArrayList<>();
+        for (PeriodBuilder builder : builders) {
+            PeriodBuilder last = periods.isEmpty() ? null : periods.get(periods.size() - 1);
+            if (null != last && builder.start <= last.end) {
+                last.merge(builder);
+            } else {
+                periods.add(builder);
+            }
+        }
+
+        int[] starts = new int[periods.size()];
+        int[] ends = new int[periods.size()];
+        String[] names = new String[periods.size()];
+        TreeMap<Integer, Integer> addWorkDayPeriods = new TreeMap<>();
+        for (int period = 0; period < periods.size(); period++) {
+            PeriodBuilder builder = periods.get(period);
+            starts[period] = builder.start;
+            ends[period] = builder.end;
+            names[period] = String.join("、", builder.names);
+            for (int addWorkDay : builder.addWorkDays) {
+                addWorkDayPeriods.putIfAbsent(addWorkDay, period);
+            }
+        }
+
+        int[] addWorkDays = addWorkDayPeriods.keySet().stream().mapToInt(Integer::intValue).toArray();
+        int[] addWorkPeriods = addWorkDayPeriods.values().stream().mapToInt(Integer::intValue).toArray();
+        return new HolidayIndex(starts, ends, names, addWorkDays, addWorkPeriods);
+    }
+
+    /**
+     * @return 假期周期数
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * 查询日期所在的假期周期
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 假期周期下标，不在任何假期周期内时返回-1
+     */
+    public int periodOf(int epochDay) {
+        int period = lastStartAtOrBefore(epochDay);
+        return period >= 0 && ends[period] >= epochDay ? period : -1;
+    }
+
+    /**
+     * 查询下一个假期周期（第一天在日期之后，不包含日期所在的假期周期）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 假期周期下标，没有时返回-1
+     */
+    public int nextPeriod(int epochDay) {
+        int period = lastStartAtOrBefore(epochDay) + 1;
+        return period < starts.length ? period : -1;
+    }
+
+    /**
+     * 查询上一个假期周期（最后一天在日期之前，不包含日期所在的假期周期）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 假期周期下标，没有时返回-1
+     */
+    public int previousPeriod(int epochDay) {
+        //假期周期不重叠，最后一天和第一天一样是升序的
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * 距离下一个假期还有多少天
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 天数（下一个假期周期第一天 - 日期），没有下一个假期周期时返回-1
+     */
+    public int daysUntilNextPeriod(int epochDay) {
+        int period = nextPeriod(epochDay);
+        return period < 0 ? -1 : starts[period] - epochDay;
+    }
+
+    /**
+     * 查询补班日归属的假期周期
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 假期周期下标，不是补班日时返回-1
+     */
+    public int addWorkPeriodOf(int epochDay) {
+        int index = Arrays.binarySearch(addWorkDays, epochDay);
+        return index < 0 ? -1 : addWorkPeriods[index];
+    }
+
+    /**
+     * 查询下一个补班日（不包含当天）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 补班日下标（用{@link #getAddWorkDay(int)}、{@link #getAddWorkPeriod(int)}读取），没有时返回-1
+     */
+    public int nextAddWork(int epochDay) {
+        int index = Arrays.binarySearch(addWorkDays, epochDay);
+        index = index < 0 ? -index - 1 : index + 1;
+        return index < addWorkDays.length ? index : -1;
+    }
+
+    /**
+     * @return 补班日数
+     */
+    public int addWorkCount() {
+        return addWorkDays.length;
+    }
+
+    /**
+     * @param addWork 补班日下标
+     * @return 补班日（epochDay）
+     */
+    public int getAddWorkDay(int addWork) {
+        return addWorkDays[addWork];
+    }
+
+    /**
+     * @param addWork 补班日下标
+     * @return 补班日归属的假期周期（下标）
+     */
+    public int getAddWorkPeriod(int addWork) {
+        return addWorkPeriods[addWork];
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 假期周期第一天（epochDay）
+     */
+    public int getStart(int period) {
+        return starts[period];
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 假期周期最后一天（epochDay，包含）
+     */
+    public int getEnd(int period) {
+        return ends[period];
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 假期周期名称（多个节假日合在一起放假时用"、"连接）
+     */
+    public String getName(int period) {
+        return names[period];
+    }
+
+    /**
+     * 最后一个第一天不晚于日期的假期周期
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 假期周期下标，没有时返回-1
+     */
+    private int lastStartAtOrBefore(int epochDay) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("HolidayIndex{");
+        for (int period = 0; period < starts.length; period++) {
+            builder.append(period == 0 ? "" : ", ").append(names[period])
+                    .append('[').append(LocalDate.ofEpochDay(starts[period])).append(" ~ ").append(LocalDate.ofEpochDay(ends[period])).append(']');
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * 编译过程中的假期周期
+     */
+    private static class PeriodBuilder {
+
+        private final int start;
+
+        private int end;
+
+        private final Set<String> names = new LinkedHashSet<>();
+
+        private final Set<Integer> addWorkDays = new TreeSet<>();
+
+        private PeriodBuilder(Holiday holiday) {
+            this.start = holiday.getHolidayDateList().stream().mapToInt(EpochDays::of).min().getAsInt();
+            this.end = holiday.getHolidayDateList().stream().mapToInt(EpochDays::of).max().getAsInt();
+            this.names.add(holiday.getName());
+            holiday.getAddWorkDateList().forEach(date -> addWorkDays.add(EpochDays.of(date)));
+        }
+
+        private void merge(PeriodBuilder other) {
+            end = Math.max(end, other.end);
+            names.addAll(other.names);
+            addWorkDays.addAll(other.addWorkDays);
+        }
+    }
+}
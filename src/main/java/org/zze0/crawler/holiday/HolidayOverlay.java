@@ -0,0 +1,163 @@
+package org.zze0.crawler.holiday;
+
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 节假日叠加层（某个租户在法定节假日之上的调整，不可变）
+ * <p>
+ * 每个叠加层可以增加、取消法定节假日和补班日：
+ * <ul>
+ *     <li>增加放假：当天变成法定节假日（如业务单位额外的停工日）</li>
+ *     <li>取消放假：当天是法定节假日时，恢复成普通的工作日/周末</li>
+ *     <li>增加补班：当天变成补班日</li>
+ *     <li>取消补班：当天是补班日时，恢复成普通的工作日/周末（如不执行某个调休补班）</li>
+ * </ul>
+ * 先取消、再增加，同一天既增加放假又增加补班时以补班为准。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class HolidayOverlay {
+
+    /**
+     * 叠加层名称（租户）
+     */
+    private final String name;
+
+    /**
+     * 增加的放假日期（epochDay，升序去重，下同）
+     */
+    private final int[] addHolidays;
+
+    /**
+     * 取消的放假日期
+     */
+    private final int[] removeHolidays;
+
+    /**
+     * 增加的补班日期
+     */
+    private final int[] addWorkdays;
+
+    /**
+     * 取消的补班日期
+     */
+    private final int[] removeWorkdays;
+
+    private HolidayOverlay(String name, int[] addHolidays, int[] removeHolidays, int[] addWorkdays, int[] removeWorkdays) {
+        this.name = name;
+        this.addHolidays = addHolidays;
+        this.removeHolidays = removeHolidays;
+        this.addWorkdays = addWorkdays;
+        this.removeWorkdays = removeWorkdays;
+    }
+
+    /**
+     * 创建叠加层
+     *
+     * @param name           叠加层名称（租户）
+     * @param addHolidays    增加的放假日期
+     * @param removeHolidays 取消的放假日期
+     * @param addWorkdays    增加的补班日期
+     * @param removeWorkdays 取消的补班日期
+     * @return 叠加层
+     */
+    public static HolidayOverlay of(String name, Collection<LocalDate> addHolidays, Collection<LocalDate> removeHolidays,
+                                    Collection<LocalDate> addWorkdays, Collection<LocalDate> removeWorkdays) {
+        Assert.hasText(name, "叠加层名称不能为空");
+        return new HolidayOverlay(name, toDays(addHolidays), toDays(removeHolidays), toDays(addWorkdays), toDays(removeWorkdays));
+    }
+
+    /**
+     * 叠加到年度日期状态表上（本年度没有调整时直接返回原表，与基础日历共享）
+     *
+     * @param base 基础的年度日期状态表
+     * @return 合并后的年度日期状态表
+     */
+    public CalendarYear applyTo(CalendarYear base) {
+
+        int firstDay = base.getFirstDay();
+        int endDay = firstDay + base.getLength();
+
+        //本年度涉及的调整：[from, to)
+        int[] from = {
+                lowerBound(removeHolidays, firstDay), lowerBound(removeWorkdays, firstDay),
+                lowerBound(addHolidays, firstDay), lowerBound(addWorkdays, firstDay)};
+        int[] to = {
+                lowerBound(removeHolidays, endDay), lowerBound(removeWorkdays, endDay),
+                lowerBound(addHolidays, endDay), lowerBound(addWorkdays, endDay)};
+        int count = 0;
+        for (int index = 0; index < from.length; index++) {
+            count += to[index] - from[index];
+        }
+        if (count == 0) {
+            return base;
+        }
+
+        int[] days = new int[count];
+        DayStatus[] statuses = new DayStatus[count];
+        int size = 0;
+        for (int index = from[0]; index < to[0]; index++) {
+            int day = removeHolidays[index];
+            if (base.statusCode(day - firstDay) == DayStatus.HOLIDAY.getCode()) {
+                days[size] = day;
+                statuses[size++] = naturalStatus(day);
+            }
+        }
+        for (int index = from[1]; index < to[1]; index++) {
+            int day = removeWorkdays[index];
+            if (base.statusCode(day - firstDay) == DayStatus.ADD_WORKDAY.getCode()) {
+                days[size] = day;
+                statuses[size++] = naturalStatus(day);
+            }
+        }
+        for (int index = from[2]; index < to[2]; index++) {
+            days[size] = addHolidays[index];
+            statuses[size++] = DayStatus.HOLIDAY;
+        }
+        for (int index = from[3]; index < to[3]; index++) {
+            days[size] = addWorkdays[index];
+            statuses[size++] = DayStatus.ADD_WORKDAY;
+        }
+        return size == 0 ? base : base.withStatuses(Arrays.copyOf(days, size), Arrays.copyOf(statuses, size));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 调整的天数（各类调整之和）
+     */
+    public int size() {
+        return addHolidays.length + removeHolidays.length + addWorkdays.length + removeWorkdays.length;
+    }
+
+    /**
+     * 没有法定节假日、补班日时的日期状态
+     *
+     * @param day epochDay
+     * @return 周末或工作日
+     */
+    private static DayStatus naturalStatus(int day) {
+        return CalendarYear.isWeekend(day) ? DayStatus.WEEKEND : DayStatus.WORKDAY;
+    }
+
+    /**
+     * @param days 升序去重的数组
+     * @param day  epochDay
+     * @return 第一个不小于day的元素下标
+     */
+    private static int lowerBound(int[] days, int day) {
+        int index = Arrays.binarySearch(days, day);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    private static int[] toDays(Collection<LocalDate> dates) {
+        return null == dates ? new int[0] : dates.stream().mapToInt(date -> (int) date.toEpochDay()).sorted().distinct().toArray();
+    }
+}
@@ -0,0 +1,254 @@
+package org.zze0.crawler.holiday;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * 假期周期划分（由一段连续日期的状态一次扫描划分出所有假期周期，并确定每个补班日的归属，不可变）
+ * <p>
+ * 连续的法定节假日是一个假期周期（如中秋节、国庆节合在一起放假时是同一个假期周期），
+ * 补班日归属离它最近的假期周期，离前后两个假期周期一样近时归属后面的假期周期。
+ * 补班日只会在假期周期前后两个周末的范围内查找：从假期周期前后第二天算起，经过4个周末日之后的补班日不再归属该假期周期。
+ * 每个补班日最多归属一个假期周期，前后都查找不到时不归属任何假期周期。
+ * 原来逐个节假日前后扫描时，前一个假期往后扫描可能在遇到后一个假期之前就因为周末数用完而停止，
+ * 这时夹在中间的补班日会同时归属前后两个假期；现在只归属离得更近的那个。
+ * <p>
+ * 划分过程只顺序扫描一遍日期状态，时间复杂度O(n)，周末数按算术统计，不需要逐天回溯。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class HolidayPeriods {
+
+    /**
+     * 补班日查找范围：假期周期前后最多经过的周末天数
+     */
+    private static final int MAX_WEEKEND_DAYS = 4;
+
+    private static final int[] EMPTY_DAYS = new int[0];
+
+    /**
+     * 扫描的第一天（epochDay）
+     */
+    private final int firstDay;
+
+    /**
+     * 每天所属的假期周期（下标是 日期-第一天，不是法定节假日的为-1）
+     */
+    private final int[] dayPeriods;
+
+    /**
+     * 假期周期第一天（epochDay，升序）
+     */
+    private final int[] periodStarts;
+
+    /**
+     * 假期周期最后一天（epochDay，包含）
+     */
+    private final int[] periodEnds;
+
+    /**
+     * 假期周期的补班日（epochDay，升序）
+     */
+    private final int[][] periodAddWorkDays;
+
+    private HolidayPeriods(int firstDay, int[] dayPeriods, int[] periodStarts, int[] periodEnds, int[][] periodAddWorkDays) {
+        this.firstDay = firstDay;
+        this.dayPeriods = dayPeriods;
+        this.periodStarts = periodStarts;
+        this.periodEnds = periodEnds;
+        this.periodAddWorkDays = periodAddWorkDays;
+    }
+
+    /**
+     * 划分假期周期
+     *
+     * @param firstDay 第一天（epochDay）
+     * @param length   天数
+     * @param statusOf 第i天的日期状态（法定节假日为{@link DayStatus#HOLIDAY}，补班日为{@link DayStatus#ADD_WORKDAY}，其余状态不区分）
+     * @return 假期周期划分
+     */
+    public static HolidayPeriods segment(int firstDay, int length, IntFunction<DayStatus> statusOf) {
+
+        int[] dayPeriods = new int[length];
+        int[] periodStarts = new int[8];
+        int[] periodEnds = new int[8];
+        int[] addWorkDays = new int[8];
+        int[] addWorkPeriods = new int[8];
+        int periodCount = 0;
+        int addWorkCount = 0;
+
+        //上一个假期周期之后、还未确定归属的补班日，从这个下标开始
+        int pendingFrom = 0;
+
+        for (int index = 0; index < length; index++) {
+            DayStatus status = statusOf.apply(index);
+            int day = firstDay + index;
+
+            if (DayStatus.HOLIDAY == status) {
+                if (periodCount > 0 && periodEnds[periodCount - 1] == day - 1) {
+                    //假期连续，延长当前假期周期
+                    periodEnds[periodCount - 1] = day;
+                } else {
+                    //新的假期周期，前面未确定归属的补班日都在上一个假期周期与本假期周期之间
+                    if (periodCount == periodStarts.length) {
+                        periodStarts = Arrays.copyOf(periodStarts, periodCount * 2);
+                        periodEnds = Arrays.copyOf(periodEnds, periodCount * 2);
+                    }
+                    periodStarts[periodCount] = day;
+                    periodEnds[periodCount] = day;
+                    periodCount++;
+
+                    for (int addWorkIndex = pendingFrom; addWorkIndex < addWorkCount; addWorkIndex++) {
+                        addWorkPeriods[addWorkIndex] = assign(addWorkDays[addWorkIndex], periodCount - 2, periodCount - 1, periodEnds, periodStarts);
+                    }
+                    pendingFrom = addWorkCount;
+                }
+                dayPeriods[index] = periodCount - 1;
+            } else {
+                dayPeriods[index] = -1;
+
+                if (DayStatus.ADD_WORKDAY == status) {
+                    if (addWorkCount == addWorkDays.length) {
+                        addWorkDays = Arrays.copyOf(addWorkDays, addWorkCount * 2);
+                        addWorkPeriods = Arrays.copyOf(addWorkPeriods, addWorkCount * 2);
+                    }
+                    addWorkDays[addWorkCount++] = day;
+                }
+            }
+        }
+
+        //最后一个假期周期之后的补班日
+        for (int addWorkIndex = pendingFrom; addWorkIndex < addWorkCount; addWorkIndex++) {
+            addWorkPeriods[addWorkIndex] = assign(addWorkDays[addWorkIndex], periodCount - 1, -1, periodEnds, periodStarts);
+        }
+
+        //按假期周期归集补班日（补班日本身是升序的，归集后也是升序的）
+        int[] periodAddWorkCounts = new int[periodCount];
+        for (int addWorkIndex = 0; addWorkIndex < addWorkCount; addWorkIndex++) {
+            if (addWorkPeriods[addWorkIndex] >= 0) {
+                periodAddWorkCounts[addWorkPeriods[addWorkIndex]]++;
+            }
+        }
+        int[][] periodAddWorkDays = new int[periodCount][];
+        for (int period = 0; period < periodCount; period++) {
+            periodAddWorkDays[period] = periodAddWorkCounts[period] == 0 ? EMPTY_DAYS : new int[periodAddWorkCounts[period]];
+            periodAddWorkCounts[period] = 0;
+        }
+        for (int addWorkIndex = 0; addWorkIndex < addWorkCount; addWorkIndex++) {
+            int period = addWorkPeriods[addWorkIndex];
+            if (period >= 0) {
+                periodAddWorkDays[period][periodAddWorkCounts[period]++] = addWorkDays[addWorkIndex];
+            }
+        }
+
+        return new HolidayPeriods(firstDay, dayPeriods,
+                Arrays.copyOf(periodStarts, periodCount), Arrays.copyOf(periodEnds, periodCount), periodAddWorkDays);
+    }
+
+    /**
+     * 确定补班日归属
+     *
+     * @param addWorkDay   补班日（epochDay）
+     * @param prevPeriod   补班日前面的假期周期（没有时为-1）
+     * @param nextPeriod   补班日后面的假期周期（没有时为-1）
+     * @param periodEnds   假期周期最后一天
+     * @param periodStarts 假期周期第一天
+     * @return 归属的假期周期，前后两个假期周期都查找不到时为-1
+     */
+    private static int assign(int addWorkDay, int prevPeriod, int nextPeriod, int[] periodEnds, int[] periodStarts) {
+
+        //补班日和前一个假期周期最后一天的天数偏移量（查找不到时为-1）
+        int prevOffset = prevPeriod >= 0 && weekendDaysBetween(periodEnds[prevPeriod] + 2, addWorkDay - 1) < MAX_WEEKEND_DAYS
+                ? addWorkDay - periodEnds[prevPeriod] : -1;
+
+        //补班日和后一个假期周期第一天的天数偏移量（查找不到时为-1）
+        int nextOffset = nextPeriod >= 0 && weekendDaysBetween(addWorkDay + 1, periodStarts[nextPeriod] - 2) < MAX_WEEKEND_DAYS
+                ? periodStarts[nextPeriod] - addWorkDay : -1;
+
+        if (prevOffset < 0) {
+            return nextOffset < 0 ? -1 : nextPeriod;
+        }
+        if (nextOffset < 0) {
+            return prevPeriod;
+        }
+
+        //离前后假期周期一样近时，优先分配给后面的假期周期
+        return nextOffset <= prevOffset ? nextPeriod : prevPeriod;
+    }
+
+    /**
+     * 统计[fromDay, toDay]中的周末天数（纯算术计算）
+     *
+     * @param fromDay 开始日期（epochDay，包含）
+     * @param toDay   结束日期（epochDay，包含）
+     * @return 周末天数，fromDay大于toDay时为0
+     */
+    private static int weekendDaysBetween(int fromDay, int toDay) {
+        return fromDay > toDay ? 0 : weekendDaysBefore(toDay + 1) - weekendDaysBefore(fromDay);
+    }
+
+    /**
+     * @param day epochDay
+     * @return epochDay小于day的周末天数（相对于某个周一，可以为负数）
+     */
+    private static int weekendDaysBefore(int day) {
+        //1970-01-01是周四，往前3天是周一
+        int fromMonday = day + 3;
+        return 2 * Math.floorDiv(fromMonday, 7) + Math.max(0, Math.floorMod(fromMonday, 7) - 5);
+    }
+
+    /**
+     * @return 假期周期数
+     */
+    public int size() {
+        return periodStarts.length;
+    }
+
+    /**
+     * 查询日期所在的假期周期
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 假期周期下标，不是法定节假日或不在扫描范围内时为-1
+     */
+    public int indexOf(int epochDay) {
+        int index = epochDay - firstDay;
+        return index < 0 || index >= dayPeriods.length ? -1 : dayPeriods[index];
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 假期周期第一天（epochDay）
+     */
+    public int getStart(int period) {
+        return periodStarts[period];
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 假期周期最后一天（epochDay，包含）
+     */
+    public int getEnd(int period) {
+        return periodEnds[period];
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 假期（epochDay，升序，每次返回新数组）
+     */
+    public int[] getHolidayDays(int period) {
+        int[] days = new int[periodEnds[period] - periodStarts[period] + 1];
+        for (int index = 0; index < days.length; index++) {
+            days[index] = periodStarts[period] + index;
+        }
+        return days;
+    }
+
+    /**
+     * @param period 假期周期下标
+     * @return 补班日（epochDay，升序，每次返回新数组）
+     */
+    public int[] getAddWorkDays(int period) {
+        return periodAddWorkDays[period].clone();
+    }
+}
@@ -0,0 +1,171 @@
+package org.zze0.crawler.holiday;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 节假日快照（某一时刻的年度法定节假日及编译好的节假日日历，不可变）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+public final class HolidaySnapshot {
+
+    /**
+     * 快照版本号（每发布一次新快照递增）
+     */
+    private final long version;
+
+    /**
+     * 快照创建时间（毫秒时间戳）
+     */
+    private final long createTime;
+
+    /**
+     * 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     */
+    private final Map<Integer, List<Holiday>> holidays;
+
+    /**
+     * 节假日日历
+     */
+    private final HolidayCalendar calendar;
+
+    /**
+     * 节假日区间索引（查询所在假期、下一个/上一个假期）
+     */
+    private final HolidayIndex holidayIndex;
+
+    /**
+     * 各年度节假日的内容哈希（key是年份），用来判断年度数据是否有变化
+     */
+    private final Map<Integer, Long> yearHashes;
+
+    /**
+     * 各年度最近一次变化（节假日数据或日期状态表）时的快照版本号（key是年份），用来导出某个版本之后有变化的年度
+     */
+    private final Map<Integer, Long> yearVersions;
+
+    private HolidaySnapshot(long version, long createTime, Map<Integer, List<Holiday>> holidays, Map<Integer, Long> yearVersions,
+                            HolidayCalendar previousCalendar) {
+        this.version = version;
+        this.createTime = createTime;
+
+        Map<Integer, List<Holiday>> sortedHolidays = new LinkedHashMap<>();
+        new TreeMap<>(holidays).forEach((year, yearHolidays) -> sortedHolidays.put(year, Collections.unmodifiableList(new ArrayList<>(yearHolidays))));
+        this.holidays = Collections.unmodifiableMap(sortedHolidays);
+        this.calendar = HolidayCalendar.compile(this.holidays);
+        this.holidayIndex = HolidayIndex.compile(this.holidays);
+
+        Map<Integer, Long> hashes = new LinkedHashMap<>();
+        this.holidays.forEach((year, yearHolidays) -> hashes.put(year, hash(yearHolidays)));
+        this.yearHashes = Collections.unmodifiableMap(hashes);
+
+        Map<Integer, Long> versions = new LinkedHashMap<>();
+        this.holidays.keySet().forEach(year -> {
+            //节假日会跨年度（如元旦假期、补班日在上一年12月底），一个年度的数据变化可能改变相邻年度的日期状态表
+            boolean statusesChanged = null != previousCalendar && !calendar.getYear(year).sameStatuses(previousCalendar.getYear(year));
+            versions.put(year, statusesChanged ? version : yearVersions.getOrDefault(year, version));
+        });
+        this.yearVersions = Collections.unmodifiableMap(versions);
+    }
+
+    /**
+     * 创建节假日快照
+     *
+     * @param version  快照版本号
+     * @param holidays 年度法定节假日（key是年份，value是节假日列表）
+     * @return 节假日快照
+     */
+    public static HolidaySnapshot of(long version, Map<Integer, List<Holiday>> holidays) {
+        return new HolidaySnapshot(version, System.currentTimeMillis(), holidays, Collections.emptyMap(), null);
+    }
+
+    /**
+     * 还原节假日快照（如从本地快照文件读取）
+     *
+     * @param version    快照版本号
+     * @param createTime 快照创建时间（毫秒时间戳）
+     * @param holidays   年度法定节假日（key是年份，value是节假日列表）
+     * @return 节假日快照
+     */
+    public static HolidaySnapshot of(long version, long createTime, Map<Integer, List<Holiday>> holidays) {
+        return new HolidaySnapshot(version, createTime, holidays, Collections.emptyMap(), null);
+    }
+
+    /**
+     * 还原节假日快照，同时还原各年度最近一次变化时的版本号
+     *
+     * @param version      快照版本号
+     * @param createTime   快照创建时间（毫秒时间戳）
+     * @param holidays     年度法定节假日（key是年份，value是节假日列表）
+     * @param yearVersions 各年度最近一次变化时的快照版本号（缺少的年度取快照版本号）
+     * @return 节假日快照
+     */
+    public static HolidaySnapshot of(long version, long createTime, Map<Integer, List<Holiday>> holidays, Map<Integer, Long> yearVersions) {
+        return new HolidaySnapshot(version, createTime, holidays, yearVersions, null);
+    }
+
+    /**
+     * 基于本快照创建新快照：用新数据替换对应年度，其余年度保持不变（本快照不受影响）
+     * <p>
+     * 替换的年度、以及日期状态表因此变化的年度（如替换了元旦假期在上一年12月底的年度，上一年的日期状态表也会变化）记为新版本号，
+     * 其余年度沿用原来的版本号。
+     *
+     * @param version  新快照版本号
+     * @param holidays 需要替换的年度法定节假日（key是年份，value是节假日列表）
+     * @return 新快照
+     */
+    public HolidaySnapshot withYears(long version, Map<Integer, List<Holiday>> holidays) {
+        Map<Integer, List<Holiday>> merged = new TreeMap<>(this.holidays);
+        merged.putAll(holidays);
+
+        Map<Integer, Long> versions = new HashMap<>(this.yearVersions);
+        holidays.keySet().forEach(year -> versions.put(year, version));
+        return new HolidaySnapshot(version, System.currentTimeMillis(), merged, versions, calendar);
+    }
+
+    /**
+     * 获取某个年度的法定节假日
+     *
+     * @param year 年份
+     * @return 节假日列表，未收录时返回null
+     */
+    public List<Holiday> getHolidays(int year) {
+        return holidays.get(year);
+    }
+
+    /**
+     * 计算年度节假日的内容哈希（64位FNV-1a，覆盖名称、日期、假期、补班日）
+     *
+     * @param yearHolidays 年度节假日列表
+     * @return 内容哈希
+     */
+    public static long hash(List<Holiday> yearHolidays) {
+        long hash = 0xcbf29ce484222325L;
+        for (Holiday holiday : yearHolidays) {
+            hash = hash(hash, EpochDays.of(holiday.getDate()));
+            for (int index = 0; index < holiday.getName().length(); index++) {
+                hash = hash(hash, holiday.getName().charAt(index));
+            }
+            hash = hash(hash, holiday.getHolidayDateList().size());
+            for (Date date : holiday.getHolidayDateList()) {
+                hash = hash(hash, EpochDays.of(date));
+            }
+            hash = hash(hash, holiday.getAddWorkDateList().size());
+            for (Date date : holiday.getAddWorkDateList()) {
+                hash = hash(hash, EpochDays.of(date));
+            }
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
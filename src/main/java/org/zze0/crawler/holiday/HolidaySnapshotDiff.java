@@ -0,0 +1,92 @@
+package org.zze0.crawler.holiday;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 节假日快照差异（按年度比较内容哈希）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+public final class HolidaySnapshotDiff {
+
+    /**
+     * 旧快照版本号
+     */
+    private final long fromVersion;
+
+    /**
+     * 新快照版本号
+     */
+    private final long toVersion;
+
+    /**
+     * 新增的年度（只读）
+     */
+    private final List<Integer> addedYears;
+
+    /**
+     * 有变化的年度（只读）
+     */
+    private final List<Integer> changedYears;
+
+    /**
+     * 删除的年度（只读）
+     */
+    private final List<Integer> removedYears;
+
+    private HolidaySnapshotDiff(long fromVersion, long toVersion, List<Integer> addedYears, List<Integer> changedYears, List<Integer> removedYears) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.addedYears = Collections.unmodifiableList(addedYears);
+        this.changedYears = Collections.unmodifiableList(changedYears);
+        this.removedYears = Collections.unmodifiableList(removedYears);
+    }
+
+    /**
+     * 比较两个快照的差异
+     *
+     * @param from 旧快照
+     * @param to   新快照
+     * @return 快照差异
+     */
+    public static HolidaySnapshotDiff between(HolidaySnapshot from, HolidaySnapshot to) {
+
+        Map<Integer, Long> fromHashes = from.getYearHashes();
+        Map<Integer, Long> toHashes = to.getYearHashes();
+
+        List<Integer> addedYears = new ArrayList<>();
+        List<Integer> changedYears = new ArrayList<>();
+        List<Integer> removedYears = new ArrayList<>();
+        toHashes.forEach((year, hash) -> {
+            if (!fromHashes.containsKey(year)) {
+                addedYears.add(year);
+            } else if (!Objects.equals(fromHashes.get(year), hash)) {
+                changedYears.add(year);
+            }
+        });
+        fromHashes.keySet().stream()
+                .filter(year -> !toHashes.containsKey(year))
+                .forEach(removedYears::add);
+        return new HolidaySnapshotDiff(from.getVersion(), to.getVersion(), addedYears, changedYears, removedYears);
+    }
+
+    /**
+     * @return 是否没有任何差异
+     */
+    public boolean isEmpty() {
+        return addedYears.isEmpty() && changedYears.isEmpty() && removedYears.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "版本" + fromVersion + "->" + toVersion + "：新增" + addedYears + "，变化" + changedYears + "，删除" + removedYears;
+    }
+}
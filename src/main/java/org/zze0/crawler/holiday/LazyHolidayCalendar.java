@@ -0,0 +1,463 @@
+package org.zze0.crawler.holiday;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按需加载的节假日日历
+ * <p>
+ * 不需要启动时预先确定年度范围：某个年度第一次被查询时才爬取、编译，之后常驻内存。
+ * 并发查询同一个未加载的年度时共享同一个加载请求；常驻的年度数有上限，超出后淘汰最久未查询的年度，
+ * 但当前年度及前后各一年（北京时间）固定常驻，不会被淘汰。长期运行的进程查询历史年度时内存不会持续增长。
+ * <p>
+ * 年度Y的日期状态除了本年度的节假日，还受下一年度节假日的影响（如元旦假期、补班日可能在上一年12月），
+ * 所以加载年度Y时会一并加载 Y ~ Y+1 年度的法定节假日。下一年度尚未公布时（如当前年度），本年度是不完整的：
+ * 之后加载了下一年度时直接补上跨年的假期、补班日重新编译；超过重新加载间隔仍然不完整时重新加载。
+ * 未收录的年度同样只保留一个重新加载间隔，长期运行的进程可以查询到之后才公布的年度。
+ * 只支持单日查询；跨年度的推算（工作日数、加减工作日）请使用全量编译的{@link HolidayCalendar}。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public class LazyHolidayCalendar {
+
+    /**
+     * 查询时年度已常驻的次数（所有实例共用）
+     */
+    private static final Counter HITS = CrawlerMetrics.cacheGets("holiday.lazy.year", true);
+
+    /**
+     * 查询时需要加载年度的次数（所有实例共用，包括等待其他线程进行中的加载）
+     */
+    private static final Counter MISSES = CrawlerMetrics.cacheGets("holiday.lazy.year", false);
+
+    /**
+     * 默认的重新加载间隔
+     */
+    private static final Duration DEFAULT_RELOAD_INTERVAL = Duration.ofHours(1);
+
+    /**
+     * 年度法定节假日加载器
+     */
+    private final YearLoader loader;
+
+    /**
+     * 最多常驻的年度数（包括固定常驻的年度）
+     */
+    private final int maxResidentYears;
+
+    /**
+     * 不完整的年度（未收录、缺少下一年度的数据）的重新加载间隔（毫秒）
+     */
+    private final long reloadIntervalMillis;
+
+    /**
+     * 时钟（用来确定当前年度、判断是否需要重新加载）
+     */
+    private final Clock clock;
+
+    /**
+     * 常驻的年度（key是年份，按查询顺序排列，最久未查询的在最前面）
+     */
+    private final LinkedHashMap<Integer, ResidentYear> residentYears = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 进行中的年度加载（key是年份），用来合并相同年度的并发加载
+     */
+    private final ConcurrentHashMap<Integer, CompletableFuture<ResidentYear>> loadingYears = new ConcurrentHashMap<>();
+
+    /**
+     * @param loader           年度法定节假日加载器
+     * @param maxResidentYears 最多常驻的年度数（不少于3，当前年度及前后各一年固定常驻）
+     */
+    public LazyHolidayCalendar(YearLoader loader, int maxResidentYears) {
+        this(loader, maxResidentYears, Clock.system(EpochDays.CHINA_ZONE));
+    }
+
+    /**
+     * @param loader           年度法定节假日加载器
+     * @param maxResidentYears 最多常驻的年度数（不少于3，当前年度及前后各一年固定常驻）
+     * @param clock            时钟（用来确定当前年度）
+     */
+    public LazyHolidayCalendar(YearLoader loader, int maxResidentYears, Clock clock) {
+        this(loader, maxResidentYears, DEFAULT_RELOAD_INTERVAL, clock);
+    }
+
+    /**
+     * @param loader           年度法定节假日加载器
+     * @param maxResidentYears 最多常驻的年度数（不少于3，当前年度及前后各一年固定常驻）
+     * @param reloadInterval   不完整的年度（未收录、缺少下一年度的数据）的重新加载间隔
+     * @param clock            时钟（用来确定当前年度、判断是否需要重新加载）
+     */
+    public LazyHolidayCalendar(YearLoader loader, int maxResidentYears, Duration reloadInterval, Clock clock) {
+        Assert.notNull(loader, "年度法定节假日加载器不能为空");
+        Assert.isTrue(maxResidentYears >= 3, "最多常驻的年度数不能少于3：" + maxResidentYears);
+        Assert.isTrue(null != reloadInterval && !reloadInterval.isNegative() && !reloadInterval.isZero(), "重新加载间隔必须大于0：" + reloadInterval);
+        this.loader = loader;
+        this.maxResidentYears = maxResidentYears;
+        this.reloadIntervalMillis = reloadInterval.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * 查询日期状态（所在年度未加载时先加载）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 日期状态
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public DayStatus status(int epochDay) {
+        CalendarYear calendarYear = requireYear(yearOf(epochDay));
+        return calendarYear.status(epochDay - calendarYear.getFirstDay());
+    }
+
+    /**
+     * 查询日期状态（所在年度未加载时先加载）
+     *
+     * @param date 日期
+     * @return 日期状态
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public DayStatus status(LocalDate date) {
+        return status((int) date.toEpochDay());
+    }
+
+    /**
+     * 是否需要上班（工作日、补班日）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 是否需要上班
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public boolean isWorkday(int epochDay) {
+        return status(epochDay).isWorkday();
+    }
+
+    /**
+     * 查询时间戳在北京时间所在日期的状态（与服务器时区无关）
+     *
+     * @param epochMillis 时间戳（毫秒）
+     * @return 日期状态
+     * @throws IllegalArgumentException 日期所在年度未收录
+     */
+    public DayStatus statusAt(long epochMillis) {
+        return status(EpochDays.ofChinaMillis(epochMillis));
+    }
+
+    /**
+     * 获取年度日期状态表（未加载时先加载）
+     *
+     * @param year 年份
+     * @return 年度日期状态表，未收录时返回null
+     */
+    public CalendarYear getYear(int year) {
+        return residentYear(year).calendarYear;
+    }
+
+    /**
+     * 获取年度法定节假日（未加载时先加载）
+     *
+     * @param year 年份
+     * @return 节假日列表，未收录时返回null
+     */
+    public List<Holiday> getHolidays(int year) {
+        return residentYear(year).holidays;
+    }
+
+    /**
+     * 获取年度的加载时间（未加载时先加载）
+     * <p>
+     * 年度重新加载、补编下一年度后加载时间都会变化，可以和年份一起作为响应缓存的key；
+     * 先取加载时间、再取数据，取到的数据不会比加载时间旧。
+     *
+     * @param year 年份
+     * @return 加载时间（毫秒时间戳）
+     */
+    public long getLoadMillis(int year) {
+        return residentYear(year).loadMillis;
+    }
+
+    /**
+     * @return 当前常驻的年份（按年份顺序）
+     */
+    public SortedSet<Integer> getResidentYears() {
+        synchronized (residentYears) {
+            return new TreeSet<>(residentYears.keySet());
+        }
+    }
+
+    /**
+     * 获取常驻的年度，未加载或需要重新加载时加载（同一个年度并发加载时共享同一个请求）
+     *
+     * @param year 年份
+     * @return 常驻的年度
+     */
+    private ResidentYear residentYear(int year) {
+
+        ResidentYear resident = getResident(year);
+        if (null != resident && isFresh(resident)) {
+            HITS.increment();
+            return resident;
+        }
+        MISSES.increment();
+
+        CompletableFuture<ResidentYear> future = new CompletableFuture<>();
+        CompletableFuture<ResidentYear> existing = loadingYears.putIfAbsent(year, future);
+        if (null != existing) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            //其他线程可能刚加载完（加载完才会移除进行中的加载）
+            resident = getResident(year);
+            if (null == resident || !isFresh(resident)) {
+                resident = reload(year, resident);
+                putResident(resident);
+            }
+            future.complete(resident);
+            return resident;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            //失败的加载不缓存，允许后续重试
+            loadingYears.remove(year, future);
+        }
+    }
+
+    /**
+     * 年度是否不需要重新加载（完整的年度，或者距离加载还没有超过重新加载间隔）
+     *
+     * @param resident 常驻的年度
+     * @return 是否不需要重新加载
+     */
+    private boolean isFresh(ResidentYear resident) {
+        return resident.complete || clock.millis() - resident.loadMillis < reloadIntervalMillis;
+    }
+
+    /**
+     * 加载或重新加载年度：重新加载失败、或者原来收录的年度变成了未收录（上游临时异常）时继续使用原来的数据，等下一个间隔再重试
+     *
+     * @param year  年份
+     * @param stale 原来的常驻年度（首次加载时为null）
+     * @return 常驻的年度
+     */
+    private ResidentYear reload(int year, ResidentYear stale) {
+        ResidentYear loaded;
+        try {
+            loaded = load(year);
+        } catch (RuntimeException e) {
+            if (null == stale) {
+                throw e;
+            }
+            log.warn("{}年度节假日重新加载失败，继续使用原来的数据", year, e);
+            return stale.retainedAt(clock.millis());
+        }
+        if (null != stale && null != stale.calendarYear && null == loaded.calendarYear) {
+            log.warn("{}年度节假日重新加载时未收录，继续使用原来的数据", year);
+            return stale.retainedAt(clock.millis());
+        }
+        return loaded;
+    }
+
+    /**
+     * 加载年度：加载 year ~ year+1 年度的法定节假日，编译本年度的日期状态表
+     *
+     * @param year 年份
+     * @return 常驻的年度（未收录时日期状态表、节假日列表为null）
+     */
+    private ResidentYear load(int year) {
+
+        long ts = System.currentTimeMillis();
+        Map<Integer, List<CompactHoliday>> holidays = loader.load(year, year + 1);
+
+        List<CompactHoliday> yearHolidays = holidays.get(year);
+        if (null == yearHolidays) {
+            log.warn("{}年度未收录", year);
+            return new ResidentYear(year, null, null, null, false, clock.millis());
+        }
+
+        List<CompactHoliday> nextYearHolidays = holidays.get(year + 1);
+        List<Holiday> holidayList = new ArrayList<>(yearHolidays.size());
+        for (CompactHoliday holiday : yearHolidays) {
+            holidayList.add(holiday.toHoliday());
+        }
+        log.info("{}年度节假日按需加载完成{}，耗时{}ms", year, null == nextYearHolidays ? "（下一年度尚未收录）" : "",
+                System.currentTimeMillis() - ts);
+        return new ResidentYear(year, yearHolidays, Collections.unmodifiableList(holidayList),
+                compile(year, yearHolidays, nextYearHolidays), null != nextYearHolidays, clock.millis());
+    }
+
+    /**
+     * 编译年度日期状态表
+     *
+     * @param year             年份
+     * @param yearHolidays     本年度的节假日
+     * @param nextYearHolidays 下一年度的节假日（未收录时为null）
+     * @return 年度日期状态表
+     */
+    private static CalendarYear compile(int year, List<CompactHoliday> yearHolidays, List<CompactHoliday> nextYearHolidays) {
+        //本年度、下一年度节假日中落在本年度的假期、补班日（不在本年度的会被忽略）
+        List<CompactHoliday> relatedHolidays = new ArrayList<>(yearHolidays);
+        if (null != nextYearHolidays) {
+            relatedHolidays.addAll(nextYearHolidays);
+        }
+        return CalendarYear.compile(year, HolidayCalendar.holidayDaysOf(relatedHolidays), HolidayCalendar.addWorkDaysOf(relatedHolidays));
+    }
+
+    private CalendarYear requireYear(int year) {
+        CalendarYear calendarYear = getYear(year);
+        if (null == calendarYear) {
+            throw new IllegalArgumentException("节假日日历未收录该年度：" + year);
+        }
+        return calendarYear;
+    }
+
+    private ResidentYear getResident(int year) {
+        synchronized (residentYears) {
+            return residentYears.get(year);
+        }
+    }
+
+    /**
+     * 放入常驻的年度，超出上限时从最久未查询的年度开始淘汰（跳过固定常驻的年度和刚放入的年度）
+     * <p>
+     * 刚放入的年度不淘汰，否则上限是3、固定常驻的年度都已加载时，刚加载的历史年度会被立即淘汰，每次查询都要重新爬取；
+     * 这时常驻的年度数暂时比上限多一个，放入下一个年度时再淘汰。
+     * <p>
+     * 上一年度已常驻但缺少本年度的数据时，用本年度的节假日补上跨年的假期、补班日，重新编译上一年度。
+     *
+     * @param resident 常驻的年度
+     */
+    private void putResident(ResidentYear resident) {
+        int currentYear = LocalDate.now(clock).getYear();
+        synchronized (residentYears) {
+            residentYears.put(resident.year, resident);
+
+            ResidentYear previous = residentYears.get(resident.year - 1);
+            if (null != previous && !previous.complete && null != previous.calendarYear && null != resident.compactHolidays) {
+                residentYears.put(previous.year, previous.withNextYear(resident.compactHolidays, clock.millis()));
+                log.info("{}年度已收录，{}年度节假日已重新编译", resident.year, previous.year);
+            }
+
+            Iterator<Integer> iterator = residentYears.keySet().iterator();
+            while (residentYears.size() > maxResidentYears && iterator.hasNext()) {
+                int year = iterator.next();
+                if (year != resident.year && Math.abs(year - currentYear) > 1) {
+                    iterator.remove();
+                    log.debug("{}年度节假日已淘汰", year);
+                }
+            }
+        }
+    }
+
+    /**
+     * 日期所在的年份（纯算术计算，不创建对象）
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 年份
+     */
+    private static int yearOf(int epochDay) {
+        //400年共146097天，先估算再修正
+        int year = 1970 + (int) Math.floorDiv(epochDay * 400L, 146097L);
+        while (epochDay < CalendarYear.firstDayOf(year)) {
+            year--;
+        }
+        while (epochDay >= CalendarYear.firstDayOf(year + 1)) {
+            year++;
+        }
+        return year;
+    }
+
+    /**
+     * 年度法定节假日加载器（如爬取年度法定节假日）
+     */
+    @FunctionalInterface
+    public interface YearLoader {
+
+        /**
+         * 加载年度法定节假日
+         *
+         * @param startYear 开始年度
+         * @param endYear   结束年度
+         * @return 年度法定节假日（key是年份，value是紧凑格式的节假日列表），未收录的年度不包含在内
+         */
+        Map<Integer, List<CompactHoliday>> load(int startYear, int endYear);
+    }
+
+    /**
+     * 常驻的年度
+     */
+    private static class ResidentYear {
+
+        private final int year;
+
+        /**
+         * 年度法定节假日，紧凑格式（未收录时为null），用来补编上一年度
+         */
+        private final List<CompactHoliday> compactHolidays;
+
+        /**
+         * 年度法定节假日（未收录时为null）
+         */
+        private final List<Holiday> holidays;
+
+        /**
+         * 年度日期状态表（未收录时为null）
+         */
+        private final CalendarYear calendarYear;
+
+        /**
+         * 是否完整（已收录，并且编译时包含了下一年度的节假日）
+         */
+        private final boolean complete;
+
+        /**
+         * 加载时间（毫秒时间戳，补编下一年度时也会更新）
+         */
+        private final long loadMillis;
+
+        private ResidentYear(int year, List<CompactHoliday> compactHolidays, List<Holiday> holidays, CalendarYear calendarYear,
+                             boolean complete, long loadMillis) {
+            this.year = year;
+            this.compactHolidays = compactHolidays;
+            this.holidays = holidays;
+            this.calendarYear = calendarYear;
+            this.complete = complete;
+            this.loadMillis = loadMillis;
+        }
+
+        /**
+         * @param nextYearHolidays 下一年度的节假日
+         * @param nowMillis        当前时间（毫秒时间戳）
+         * @return 补上下一年度节假日后重新编译的年度（加载时间一定与原来不同，同一毫秒内补编时顺延1毫秒）
+         */
+        private ResidentYear withNextYear(List<CompactHoliday> nextYearHolidays, long nowMillis) {
+            return new ResidentYear(year, compactHolidays, holidays, compile(year, compactHolidays, nextYearHolidays), true,
+                    Math.max(nowMillis, loadMillis + 1));
+        }
+
+        /**
+         * @param loadMillis 新的加载时间
+         * @return 数据不变、加载时间更新的年度（重新加载失败时继续使用，等下一个间隔再重试）
+         */
+        private ResidentYear retainedAt(long loadMillis) {
+            return new ResidentYear(year, compactHolidays, holidays, calendarYear, complete, loadMillis);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.zze0.crawler.holiday;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 租户节假日日历（各租户的叠加层编译到节假日快照上得到的日历，不可变）
+ * <p>
+ * 每个租户一个独立的{@link HolidayCalendar}，与基础日历共享没有调整的年度，查询速度与基础日历一样。
+ * 节假日快照或叠加层变化时整体重新编译，通过原子引用替换发布。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Getter
+public final class TenantCalendars {
+
+    /**
+     * 编译时使用的节假日快照版本号
+     */
+    private final long snapshotVersion;
+
+    /**
+     * 叠加层版本号（每次重新加载叠加层递增）
+     */
+    private final long overlayVersion;
+
+    /**
+     * 各租户的叠加层（key是租户）
+     */
+    private final Map<String, HolidayOverlay> overlays;
+
+    /**
+     * 各租户的节假日日历（key是租户）
+     */
+    private final Map<String, HolidayCalendar> calendars;
+
+    private TenantCalendars(long snapshotVersion, long overlayVersion, Map<String, HolidayOverlay> overlays, Map<String, HolidayCalendar> calendars) {
+        this.snapshotVersion = snapshotVersion;
+        this.overlayVersion = overlayVersion;
+        this.overlays = overlays;
+        this.calendars = calendars;
+    }
+
+    /**
+     * 编译各租户的节假日日历
+     *
+     * @param snapshot       节假日快照
+     * @param overlayVersion 叠加层版本号
+     * @param overlays       各租户的叠加层（key是租户）
+     * @return 租户节假日日历
+     */
+    public static TenantCalendars compile(HolidaySnapshot snapshot, long overlayVersion, Map<String, HolidayOverlay> overlays) {
+        Map<String, HolidayOverlay> copiedOverlays = new LinkedHashMap<>(overlays);
+        Map<String, HolidayCalendar> calendars = new LinkedHashMap<>();
+        copiedOverlays.forEach((tenant, overlay) -> calendars.put(tenant, snapshot.getCalendar().withOverlay(overlay)));
+        return new TenantCalendars(snapshot.getVersion(), overlayVersion,
+                Collections.unmodifiableMap(copiedOverlays), Collections.unmodifiableMap(calendars));
+    }
+
+    /**
+     * 基于新的节假日快照重新编译（叠加层不变）
+     *
+     * @param snapshot 节假日快照
+     * @return 租户节假日日历，快照版本没有变化时返回本对象
+     */
+    public TenantCalendars withSnapshot(HolidaySnapshot snapshot) {
+        return snapshot.getVersion() == snapshotVersion ? this : compile(snapshot, overlayVersion, overlays);
+    }
+
+    /**
+     * 获取租户的节假日日历
+     *
+     * @param tenant 租户
+     * @return 节假日日历，没有配置该租户时返回null
+     */
+    public HolidayCalendar getCalendar(String tenant) {
+        return calendars.get(tenant);
+    }
+}
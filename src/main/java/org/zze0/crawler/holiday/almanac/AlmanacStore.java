@@ -0,0 +1,653 @@
+package org.zze0.crawler.holiday.almanac;
+
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * 黄历列式存储（农历、干支、节气、节日、宜忌，不可变）
+ * <p>
+ * 按epochDay连续存储，每个字段一个基本类型数组（列），按天查询是数组下标访问：
+ * <ul>
+ *     <li>农历年、月、日，闰月、大月标记：short/byte</li>
+ *     <li>年、月、日干支：六十甲子序号（0~59），生肖由年干支推算</li>
+ *     <li>节气、节日、宜忌：字典编码，字符串只在字典里存一份，每天只存字典序号</li>
+ *     <li>宜、忌：每天的词条序号按天顺序拼接成一个short数组，另用一个int数组记录每天的起始位置</li>
+ * </ul>
+ * 宜忌词条（如"嫁娶"、"祭祀"）大量重复，字典只有几百个词条，2000~2050年整个存储约1MB。
+ * 区间扫描（如查找某段时间内宜嫁娶的日子）只比较词条序号，不比较字符串。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class AlmanacStore {
+
+    /**
+     * 天干
+     */
+    private static final String STEMS = "甲乙丙丁戊己庚辛壬癸";
+
+    /**
+     * 地支
+     */
+    private static final String BRANCHES = "子丑寅卯辰巳午未申酉戌亥";
+
+    /**
+     * 生肖（与地支一一对应）
+     */
+    private static final String[] ANIMALS = {"鼠", "牛", "虎", "兔", "龙", "蛇", "马", "羊", "猴", "鸡", "狗", "猪"};
+
+    /**
+     * 六十甲子名称
+     */
+    private static final String[] GAN_ZHI_NAMES = new String[60];
+
+    static {
+        for (int index = 0; index < GAN_ZHI_NAMES.length; index++) {
+            GAN_ZHI_NAMES[index] = "" + STEMS.charAt(index % 10) + BRANCHES.charAt(index % 12);
+        }
+    }
+
+    /**
+     * 标记：有数据
+     */
+    private static final int FLAG_PRESENT = 1;
+
+    /**
+     * 标记：闰月
+     */
+    private static final int FLAG_LEAP_MONTH = 1 << 1;
+
+    /**
+     * 标记：农历大月（30天）
+     */
+    private static final int FLAG_BIG_MONTH = 1 << 2;
+
+    /**
+     * 没有字典值（节气、节日为空）
+     */
+    private static final short NONE = -1;
+
+    /**
+     * 构建序号（进程内每构建一个黄历存储递增）
+     */
+    private static final AtomicLong BUILDS = new AtomicLong();
+
+    /**
+     * 版本号（构建序号），重新爬取后版本号变化，可以用来区分缓存
+     */
+    private final long version = BUILDS.incrementAndGet();
+
+    /**
+     * 第一天（epochDay）
+     */
+    private final int firstDay;
+
+    private final byte[] flags;
+
+    private final short[] lunarYears;
+
+    private final byte[] lunarMonths;
+
+    private final byte[] lunarDays;
+
+    /**
+     * 年、月、日干支（六十甲子序号，未知为-1）
+     */
+    private final byte[] yearGanZhis;
+
+    private final byte[] monthGanZhis;
+
+    private final byte[] dayGanZhis;
+
+    /**
+     * 节气、节日（字典序号，没有时为-1）
+     */
+    private final short[] terms;
+
+    private final short[] festivals;
+
+    /**
+     * 宜：第i天的词条是 suitTokens[suitOffsets[i] ~ suitOffsets[i+1])
+     */
+    private final int[] suitOffsets;
+
+    private final short[] suitTokens;
+
+    /**
+     * 忌：第i天的词条是 avoidTokens[avoidOffsets[i] ~ avoidOffsets[i+1])
+     */
+    private final int[] avoidOffsets;
+
+    private final short[] avoidTokens;
+
+    /**
+     * 字典（节气、节日、宜忌词条共用）
+     */
+    private final String[] dictionary;
+
+    /**
+     * 字典反查（词条 -> 字典序号）
+     */
+    private final Map<String, Short> dictionaryIndex;
+
+    private AlmanacStore(Builder builder, int firstDay, int length) {
+        this.firstDay = firstDay;
+        this.flags = new byte[length];
+        this.lunarYears = new short[length];
+        this.lunarMonths = new byte[length];
+        this.lunarDays = new byte[length];
+        this.yearGanZhis = new byte[length];
+        this.monthGanZhis = new byte[length];
+        this.dayGanZhis = new byte[length];
+        this.terms = new short[length];
+        this.festivals = new short[length];
+        this.suitOffsets = new int[length + 1];
+        this.avoidOffsets = new int[length + 1];
+
+        Arrays.fill(yearGanZhis, (byte) -1);
+        Arrays.fill(monthGanZhis, (byte) -1);
+        Arrays.fill(dayGanZhis, (byte) -1);
+        Arrays.fill(terms, NONE);
+        Arrays.fill(festivals, NONE);
+
+        int suitCount = 0;
+        int avoidCount = 0;
+        for (DayRecord record : builder.records.values()) {
+            suitCount += record.suit.length;
+            avoidCount += record.avoid.length;
+        }
+        this.suitTokens = new short[suitCount];
+        this.avoidTokens = new short[avoidCount];
+
+        Iterator<Map.Entry<Integer, DayRecord>> iterator = builder.records.entrySet().iterator();
+        Map.Entry<Integer, DayRecord> next = iterator.hasNext() ? iterator.next() : null;
+        int suitSize = 0;
+        int avoidSize = 0;
+        for (int index = 0; index < length; index++) {
+            suitOffsets[index] = suitSize;
+            avoidOffsets[index] = avoidSize;
+            if (null == next || next.getKey() != firstDay + index) {
+                continue;
+            }
+
+            DayRecord record = next.getValue();
+            flags[index] = (byte) (FLAG_PRESENT | (record.leapMonth ? FLAG_LEAP_MONTH : 0) | (record.bigMonth ? FLAG_BIG_MONTH : 0));
+            lunarYears[index] = (short) record.lunarYear;
+            lunarMonths[index] = (byte) record.lunarMonth;
+            lunarDays[index] = (byte) record.lunarDay;
+            yearGanZhis[index] = (byte) record.yearGanZhi;
+            monthGanZhis[index] = (byte) record.monthGanZhi;
+            dayGanZhis[index] = (byte) record.dayGanZhi;
+            terms[index] = record.term;
+            festivals[index] = record.festival;
+            System.arraycopy(record.suit, 0, suitTokens, suitSize, record.suit.length);
+            suitSize += record.suit.length;
+            System.arraycopy(record.avoid, 0, avoidTokens, avoidSize, record.avoid.length);
+            avoidSize += record.avoid.length;
+
+            next = iterator.hasNext() ? iterator.next() : null;
+        }
+        suitOffsets[length] = suitSize;
+        avoidOffsets[length] = avoidSize;
+
+        this.dictionary = builder.dictionary.toArray(new String[0]);
+        this.dictionaryIndex = Collections.unmodifiableMap(new HashMap<>(builder.dictionaryIndex));
+    }
+
+    /**
+     * 是否收录了该日期
+     *
+     * @param epochDay 日期（epochDay）
+     * @return 是否收录
+     */
+    public boolean covers(int epochDay) {
+        int index = epochDay - firstDay;
+        return index >= 0 && index < flags.length && (flags[index] & FLAG_PRESENT) != 0;
+    }
+
+    public int getLunarYear(int epochDay) {
+        return lunarYears[indexOf(epochDay)];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 农历月（1~12，闰月与所闰的月份相同，用{@link #isLeapMonth(int)}区分）
+     */
+    public int getLunarMonth(int epochDay) {
+        return lunarMonths[indexOf(epochDay)];
+    }
+
+    public int getLunarDay(int epochDay) {
+        return lunarDays[indexOf(epochDay)];
+    }
+
+    public boolean isLeapMonth(int epochDay) {
+        return (flags[indexOf(epochDay)] & FLAG_LEAP_MONTH) != 0;
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 农历月是否大月（30天）
+     */
+    public boolean isBigMonth(int epochDay) {
+        return (flags[indexOf(epochDay)] & FLAG_BIG_MONTH) != 0;
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 年干支（六十甲子序号0~59，未知时为-1），用{@link #ganZhiName(int)}转换成名称
+     */
+    public int getYearGanZhi(int epochDay) {
+        return yearGanZhis[indexOf(epochDay)];
+    }
+
+    public int getMonthGanZhi(int epochDay) {
+        return monthGanZhis[indexOf(epochDay)];
+    }
+
+    public int getDayGanZhi(int epochDay) {
+        return dayGanZhis[indexOf(epochDay)];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 生肖（由年干支推算），年干支未知时返回null
+     */
+    public String getAnimal(int epochDay) {
+        int ganZhi = getYearGanZhi(epochDay);
+        return ganZhi < 0 ? null : ANIMALS[ganZhi % 12];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 节气，没有时返回null
+     */
+    public String getTerm(int epochDay) {
+        return word(terms[indexOf(epochDay)]);
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 节日，没有时返回null
+     */
+    public String getFestival(int epochDay) {
+        return word(festivals[indexOf(epochDay)]);
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 宜的词条数
+     */
+    public int getSuitCount(int epochDay) {
+        int index = indexOf(epochDay);
+        return suitOffsets[index + 1] - suitOffsets[index];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @param i        第几个词条
+     * @return 宜的第i个词条（字典中的字符串，不创建新对象）
+     */
+    public String getSuit(int epochDay, int i) {
+        return dictionary[suitTokens[suitOffsets[indexOf(epochDay)] + i]];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 忌的词条数
+     */
+    public int getAvoidCount(int epochDay) {
+        int index = indexOf(epochDay);
+        return avoidOffsets[index + 1] - avoidOffsets[index];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @param i        第几个词条
+     * @return 忌的第i个词条（字典中的字符串，不创建新对象）
+     */
+    public String getAvoid(int epochDay, int i) {
+        return dictionary[avoidTokens[avoidOffsets[indexOf(epochDay)] + i]];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 宜的全部词条
+     */
+    public List<String> getSuits(int epochDay) {
+        int index = indexOf(epochDay);
+        return words(suitTokens, suitOffsets[index], suitOffsets[index + 1]);
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 忌的全部词条
+     */
+    public List<String> getAvoids(int epochDay) {
+        int index = indexOf(epochDay);
+        return words(avoidTokens, avoidOffsets[index], avoidOffsets[index + 1]);
+    }
+
+    /**
+     * 区间扫描：宜某个词条的日期
+     *
+     * @param from  开始日期（epochDay，包含）
+     * @param to    结束日期（epochDay，不包含）
+     * @param token 词条（如"嫁娶"）
+     * @return 日期（epochDay，升序），未收录的日期会被跳过
+     */
+    public IntStream findSuitDays(int from, int to, String token) {
+        return scan(from, to, token, suitOffsets, suitTokens);
+    }
+
+    /**
+     * 区间扫描：忌某个词条的日期
+     *
+     * @param from  开始日期（epochDay，包含）
+     * @param to    结束日期（epochDay，不包含）
+     * @param token 词条（如"动土"）
+     * @return 日期（epochDay，升序），未收录的日期会被跳过
+     */
+    public IntStream findAvoidDays(int from, int to, String token) {
+        return scan(from, to, token, avoidOffsets, avoidTokens);
+    }
+
+    /**
+     * 区间扫描：某个节气的日期
+     *
+     * @param from 开始日期（epochDay，包含）
+     * @param to   结束日期（epochDay，不包含）
+     * @param term 节气（如"清明"）
+     * @return 日期（epochDay，升序）
+     */
+    public IntStream findTermDays(int from, int to, String term) {
+        Short id = dictionaryIndex.get(term);
+        if (null == id) {
+            return IntStream.empty();
+        }
+        short termId = id;
+        return IntStream.range(Math.max(from, firstDay), Math.min(to, firstDay + flags.length))
+                .filter(day -> terms[day - firstDay] == termId);
+    }
+
+    /**
+     * @return 版本号（进程内每构建一个黄历存储递增）
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return 第一天（epochDay）
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return 最后一天的后一天（epochDay）
+     */
+    public int getEndDay() {
+        return firstDay + flags.length;
+    }
+
+    /**
+     * @return 收录的天数
+     */
+    public int getDayCount() {
+        int count = 0;
+        for (byte flag : flags) {
+            count += flag & FLAG_PRESENT;
+        }
+        return count;
+    }
+
+    /**
+     * @return 字典大小
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * @return 列数据占用的字节数（不含字典字符串、对象头）
+     */
+    public long getColumnBytes() {
+        long days = flags.length;
+        return days * (1 + 2 + 1 + 1 + 1 + 1 + 1 + 2 + 2 + 4 + 4) + 2L * (suitTokens.length + avoidTokens.length);
+    }
+
+    /**
+     * 六十甲子序号转换成名称
+     *
+     * @param ganZhi 六十甲子序号（0~59）
+     * @return 干支名称（如"甲子"），序号为-1时返回null
+     */
+    public static String ganZhiName(int ganZhi) {
+        return ganZhi < 0 ? null : GAN_ZHI_NAMES[ganZhi];
+    }
+
+    /**
+     * 干支名称转换成六十甲子序号
+     *
+     * @param name 干支名称（如"甲子"）
+     * @return 六十甲子序号（0~59），不是合法的干支时返回-1
+     */
+    public static int ganZhiOf(String name) {
+        if (null == name || name.length() != 2) {
+            return -1;
+        }
+        int stem = STEMS.indexOf(name.charAt(0));
+        int branch = BRANCHES.indexOf(name.charAt(1));
+        if (stem < 0 || branch < 0 || (stem & 1) != (branch & 1)) {
+            return -1;
+        }
+        //序号i满足 i%10=天干、i%12=地支
+        return Math.floorMod(6 * stem - 5 * branch, 60);
+    }
+
+    private IntStream scan(int from, int to, String token, int[] offsets, short[] tokens) {
+        Short id = dictionaryIndex.get(token);
+        if (null == id) {
+            return IntStream.empty();
+        }
+        short tokenId = id;
+        return IntStream.range(Math.max(from, firstDay), Math.min(to, firstDay + flags.length))
+                .filter(day -> {
+                    int index = day - firstDay;
+                    for (int position = offsets[index]; position < offsets[index + 1]; position++) {
+                        if (tokens[position] == tokenId) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
+    }
+
+    private List<String> words(short[] tokens, int from, int to) {
+        List<String> words = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            words.add(dictionary[tokens[position]]);
+        }
+        return words;
+    }
+
+    private String word(short id) {
+        return id == NONE ? null : dictionary[id];
+    }
+
+    /**
+     * @param epochDay 日期（epochDay）
+     * @return 下标
+     * @throws IllegalArgumentException 未收录该日期
+     */
+    private int indexOf(int epochDay) {
+        if (!covers(epochDay)) {
+            throw new IllegalArgumentException("黄历未收录该日期：" + LocalDate.ofEpochDay(epochDay));
+        }
+        return epochDay - firstDay;
+    }
+
+    /**
+     * 黄历存储构建器（解析日历接口响应时逐天添加，线程安全，同一天重复添加时以最后一次为准）
+     */
+    public static final class Builder {
+
+        /**
+         * 宜忌词条的分隔符
+         */
+        private static final char TOKEN_SEPARATOR = '.';
+
+        private final TreeMap<Integer, DayRecord> records = new TreeMap<>();
+
+        private final List<String> dictionary = new ArrayList<>();
+
+        private final Map<String, Short> dictionaryIndex = new HashMap<>();
+
+        /**
+         * 添加一天的黄历
+         *
+         * @param epochDay    日期（epochDay）
+         * @param lunarYear   农历年
+         * @param lunarMonth  农历月
+         * @param lunarDay    农历日
+         * @param leapMonth   是否闰月
+         * @param bigMonth    农历月是否大月
+         * @param yearGanZhi  年干支名称（如"辛丑"）
+         * @param monthGanZhi 月干支名称
+         * @param dayGanZhi   日干支名称
+         * @param term        节气，没有时为空
+         * @param festival    节日，没有时为空
+         * @param suit        宜（"."分隔的词条）
+         * @param avoid       忌（"."分隔的词条）
+         */
+        public synchronized void add(int epochDay, int lunarYear, int lunarMonth, int lunarDay, boolean leapMonth, boolean bigMonth,
+                                     String yearGanZhi, String monthGanZhi, String dayGanZhi,
+                                     String term, String festival, String suit, String avoid) {
+            DayRecord record = new DayRecord();
+            record.lunarYear = lunarYear;
+            record.lunarMonth = lunarMonth;
+            record.lunarDay = lunarDay;
+            record.leapMonth = leapMonth;
+            record.bigMonth = bigMonth;
+            record.yearGanZhi = ganZhiOf(yearGanZhi);
+            record.monthGanZhi = ganZhiOf(monthGanZhi);
+            record.dayGanZhi = ganZhiOf(dayGanZhi);
+            record.term = encode(term);
+            record.festival = encode(festival);
+            record.suit = tokenize(suit);
+            record.avoid = tokenize(avoid);
+            records.put(epochDay, record);
+        }
+
+        /**
+         * 合并已有的黄历存储：只补充尚未添加的日期（已添加的日期以构建器中的为准）
+         *
+         * @param store 黄历存储
+         */
+        public synchronized void merge(AlmanacStore store) {
+            for (int epochDay = store.getFirstDay(); epochDay < store.getEndDay(); epochDay++) {
+                if (!store.covers(epochDay) || records.containsKey(epochDay)) {
+                    continue;
+                }
+                add(epochDay, store.getLunarYear(epochDay), store.getLunarMonth(epochDay), store.getLunarDay(epochDay),
+                        store.isLeapMonth(epochDay), store.isBigMonth(epochDay),
+                        ganZhiName(store.getYearGanZhi(epochDay)), ganZhiName(store.getMonthGanZhi(epochDay)), ganZhiName(store.getDayGanZhi(epochDay)),
+                        store.getTerm(epochDay), store.getFestival(epochDay),
+                        String.join(String.valueOf(TOKEN_SEPARATOR), store.getSuits(epochDay)),
+                        String.join(String.valueOf(TOKEN_SEPARATOR), store.getAvoids(epochDay)));
+            }
+        }
+
+        /**
+         * @return 已添加的天数
+         */
+        public synchronized int size() {
+            return records.size();
+        }
+
+        /**
+         * 构建黄历存储（覆盖已添加的第一天到最后一天，中间缺失的日期视为未收录）
+         *
+         * @return 黄历存储
+         */
+        public synchronized AlmanacStore build() {
+            if (records.isEmpty()) {
+                return new AlmanacStore(this, 0, 0);
+            }
+            int firstDay = records.firstKey();
+            return new AlmanacStore(this, firstDay, records.lastKey() - firstDay + 1);
+        }
+
+        private short encode(String word) {
+            if (null == word || word.isEmpty()) {
+                return NONE;
+            }
+            Short id = dictionaryIndex.get(word);
+            if (null == id) {
+                Assert.isTrue(dictionary.size() < Short.MAX_VALUE, "黄历字典已满");
+                id = (short) dictionary.size();
+                dictionary.add(word);
+                dictionaryIndex.put(word, id);
+            }
+            return id;
+        }
+
+        private short[] tokenize(String words) {
+            if (null == words || words.isEmpty()) {
+                return new short[0];
+            }
+            short[] tokens = new short[8];
+            int size = 0;
+            int start = 0;
+            while (start <= words.length()) {
+                int end = words.indexOf(TOKEN_SEPARATOR, start);
+                if (end < 0) {
+                    end = words.length();
+                }
+                if (end > start) {
+                    if (size == tokens.length) {
+                        tokens = Arrays.copyOf(tokens, size * 2);
+                    }
+                    tokens[size++] = encode(words.substring(start, end));
+                }
+                start = end + 1;
+            }
+            return Arrays.copyOf(tokens, size);
+        }
+    }
+
+    /**
+     * 构建过程中的一天的黄历
+     */
+    private static final class DayRecord {
+
+        private int lunarYear;
+
+        private int lunarMonth;
+
+        private int lunarDay;
+
+        private boolean leapMonth;
+
+        private boolean bigMonth;
+
+        private int yearGanZhi;
+
+        private int monthGanZhi;
+
+        private int dayGanZhi;
+
+        private short term;
+
+        private short festival;
+
+        private short[] suit;
+
+        private short[] avoid;
+    }
+}
@@ -0,0 +1,288 @@
+package org.zze0.crawler.holiday.baidu;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 百度日历窗口缓存
+ * <p>
+ * 日历接口按"yyyy年M月"查询时，会返回查询月份及其前后月份共90天左右的数据（一个窗口）。
+ * 本缓存在一次爬取内按窗口实际覆盖的日期范围缓存查询结果，同一个窗口只查询一次，
+ * 并发查询同一个窗口时共享同一个进行中的请求。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public class BaiDuAlmanacCache {
+
+    /**
+     * 一个窗口覆盖的月份数（查询月份及其前后各一个月）
+     */
+    private static final int WINDOW_MONTHS = 3;
+
+    /**
+     * 截取时已完整覆盖的次数（所有实例共用）
+     */
+    private static final Counter SLICE_HITS = CrawlerMetrics.cacheGets("baidu.almanac", true);
+
+    /**
+     * 截取时需要按需补齐窗口的次数（所有实例共用）
+     */
+    private static final Counter SLICE_MISSES = CrawlerMetrics.cacheGets("baidu.almanac", false);
+
+    /**
+     * 全部覆盖（查找未覆盖日期的返回值；1970年之前的epochDay是负数，不能用-1）
+     */
+    private static final long ALL_COVERED = Long.MIN_VALUE;
+
+    /**
+     * 日历窗口加载器（入参是"yyyy年M月"格式的查询月份，出参是日历日期列表）
+     */
+    private final Function<String, BaiDuAlmanacDays> loader;
+
+    /**
+     * 已加载的日历窗口（key是窗口第一天的epochDay）
+     */
+    private final ConcurrentSkipListMap<Long, AlmanacWindow> windows = new ConcurrentSkipListMap<>();
+
+    /**
+     * 进行中/已完成的窗口查询（key是"yyyy年M月"格式的查询月份），用来合并相同的查询
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<AlmanacWindow>> queries = new ConcurrentHashMap<>();
+
+    /**
+     * 通过加载器发出的窗口查询次数（不含{@link #put(String, BaiDuAlmanacDays) 放入}的窗口，失败的查询也计入）
+     */
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    public BaiDuAlmanacCache(Function<String, BaiDuAlmanacDays> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * 规划覆盖年度范围所需的最少查询月份
+     * <p>
+     * 分析节假日时需要用到节假日前后一段时间的日历（元旦前面的补班日在上一年12月），
+     * 所以覆盖范围是 开始年度上一年的12月 ~ 结束年度的11月，每隔3个月查询一次即可无缝覆盖。
+     *
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @return 查询月份列表（格式：yyyy年M月）
+     */
+    public static List<String> planQueries(int startYear, int endYear) {
+
+        Assert.isTrue(startYear <= endYear, "年度入参有误，请检查！开始年度=" + startYear + "; 结束年度=" + endYear);
+
+        //覆盖范围的第一个月、最后一个月（按 年*12+月-1 换算成月份序号）
+        int firstMonth = (startYear - 1) * 12 + 11;
+        int lastMonth = endYear * 12 + 10;
+
+        List<String> queryList = new ArrayList<>();
+
+        //每次查询以中间月份为准，覆盖 [中间月份-1, 中间月份+1]
+        for (int centerMonth = firstMonth + 1; centerMonth - 1 <= lastMonth; centerMonth += WINDOW_MONTHS) {
+            queryList.add(toQuery(centerMonth));
+        }
+        return queryList;
+    }
+
+    /**
+     * 预先加载覆盖年度范围的所有日历窗口
+     *
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     */
+    public void prefetch(int startYear, int endYear) {
+        prefetch(startYear, endYear, Runnable::run);
+    }
+
+    /**
+     * 预先并发加载覆盖年度范围的所有日历窗口（每个窗口一个任务）
+     *
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @param executor  执行加载任务的线程池
+     */
+    public void prefetch(int startYear, int endYear, Executor executor) {
+        try {
+            CompletableFuture.allOf(
+                    planQueries(startYear, endYear).stream()
+                            .map(query -> CompletableFuture.runAsync(() -> load(query), executor))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * 放入已经查询到的日历窗口（如抓取引擎输出的日历页面），之后同一个查询月份不会再查询
+     *
+     * @param query 查询月份（格式：yyyy年M月）
+     * @param days  日历日期列表
+     */
+    public void put(String query, BaiDuAlmanacDays days) {
+        AlmanacWindow window = new AlmanacWindow(query, days);
+        windows.put(window.firstDay, window);
+        queries.put(query, CompletableFuture.completedFuture(window));
+    }
+
+    /**
+     * 截取一段连续的日历日期列表（未覆盖的日期会按需查询）
+     *
+     * @param fromDay 开始日期（epochDay，包含）
+     * @param toDay   结束日期（epochDay，包含）
+     * @return 日历日期列表，第i个元素是 fromDay+i 天
+     */
+    public BaiDuAlmanacDays slice(int fromDay, int toDay) {
+
+        Assert.isTrue(fromDay <= toDay, () -> "日期入参有误，请检查！开始日期=" + LocalDate.ofEpochDay(fromDay) + "; 结束日期=" + LocalDate.ofEpochDay(toDay));
+
+        //补齐缺失的窗口
+        Set<String> attemptedQueries = new HashSet<>();
+        long uncoveredDay = findUncovered(fromDay, toDay);
+        (uncoveredDay == ALL_COVERED ? SLICE_HITS : SLICE_MISSES).increment();
+        for (; uncoveredDay != ALL_COVERED; uncoveredDay = findUncovered(fromDay, toDay)) {
+
+            //查询缺失日期的下一个月，窗口就会完整覆盖缺失日期所在的月份
+            LocalDate uncoveredDate = LocalDate.ofEpochDay(uncoveredDay);
+            String query = toQuery(uncoveredDate.getYear() * 12 + uncoveredDate.getMonthValue());
+
+            if (!attemptedQueries.add(query)) {
+                throw new IllegalArgumentException(query + "日历信息未覆盖日期：" + uncoveredDate);
+            }
+            load(query);
+        }
+
+        //按窗口整段拼接
+        BaiDuAlmanacDays.Builder builder = new BaiDuAlmanacDays.Builder(toDay - fromDay + 1);
+        for (long day = fromDay; day <= toDay; ) {
+            AlmanacWindow window = windows.floorEntry(day).getValue();
+            int count = (int) (Math.min(toDay, window.lastDay) - day + 1);
+            window.days.copyTo(builder, (int) (day - window.firstDay), count);
+            day += count;
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return 通过加载器实际发出的窗口查询次数（不含放入的窗口；合并的并发查询只计一次，失败后重试的查询每次都计入）
+     */
+    public int getQueryCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * 查找[fromDay, toDay]中第一个未被窗口覆盖的日期
+     *
+     * @param fromDay 开始日期（epochDay，包含）
+     * @param toDay   结束日期（epochDay，包含）
+     * @return 未覆盖日期的epochDay，全部覆盖时返回{@link #ALL_COVERED}
+     */
+    private long findUncovered(long fromDay, long toDay) {
+        long day = fromDay;
+        while (day <= toDay) {
+            Map.Entry<Long, AlmanacWindow> entry = windows.floorEntry(day);
+            if (null == entry || entry.getValue().lastDay < day) {
+                return day;
+            }
+            day = entry.getValue().lastDay + 1;
+        }
+        return ALL_COVERED;
+    }
+
+    /**
+     * 加载日历窗口（同一个查询月份只会真正查询一次，并发时共享同一个请求）
+     *
+     * @param query 查询月份（格式：yyyy年M月）
+     * @return 日历窗口
+     */
+    private AlmanacWindow load(String query) {
+
+        CompletableFuture<AlmanacWindow> future = new CompletableFuture<>();
+        CompletableFuture<AlmanacWindow> existing = queries.putIfAbsent(query, future);
+        if (null != existing) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+
+        loadCount.incrementAndGet();
+        try {
+            AlmanacWindow window = new AlmanacWindow(query, loader.apply(query));
+            windows.put(window.firstDay, window);
+            future.complete(window);
+            return window;
+        } catch (RuntimeException e) {
+            //失败的查询不缓存，允许后续重试
+            queries.remove(query, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 取出异步任务中抛出的原始异常
+     *
+     * @param e 异步任务异常
+     * @return 原始异常
+     */
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+    }
+
+    /**
+     * 月份序号转换成查询月份
+     *
+     * @param monthIndex 月份序号（年*12+月-1）
+     * @return 查询月份（格式：yyyy年M月）
+     */
+    private static String toQuery(int monthIndex) {
+        return (monthIndex / 12) + "年" + (monthIndex % 12 + 1) + "月";
+    }
+
+    /**
+     * 日历窗口（一次查询返回的连续日期的日历信息）
+     */
+    private static class AlmanacWindow {
+
+        /**
+         * 窗口第一天（epochDay）
+         */
+        private final long firstDay;
+
+        /**
+         * 窗口最后一天（epochDay）
+         */
+        private final long lastDay;
+
+        /**
+         * 日历日期列表
+         */
+        private final BaiDuAlmanacDays days;
+
+        private AlmanacWindow(String query, BaiDuAlmanacDays days) {
+            this.firstDay = days.getEpochDay(0);
+            this.lastDay = days.getEpochDay(days.size() - 1);
+            this.days = days;
+
+            Assert.isTrue(lastDay - firstDay + 1 == days.size(), () -> query + "日历信息日期不连续");
+            log.debug("日历窗口加载完成：{} [{} ~ {}]", query, LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(lastDay));
+        }
+    }
+}
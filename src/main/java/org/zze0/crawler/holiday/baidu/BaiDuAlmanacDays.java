@@ -0,0 +1,148 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.springframework.util.Assert;
+import org.zze0.crawler.holiday.EpochDays;
+
+/**
+ * 紧凑的日历日期列表（只保留分析节假日用到的 年、月、日、状态）
+ * <p>
+ * 每天的年月日打包成一个int（年&lt;&lt;9 | 月&lt;&lt;5 | 日），状态占一个byte，没有状态时为-1。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class BaiDuAlmanacDays {
+
+    /**
+     * 状态：法定节假日
+     */
+    public static final int STATUS_HOLIDAY = 1;
+
+    /**
+     * 状态：补班日
+     */
+    public static final int STATUS_ADD_WORK = 2;
+
+    /**
+     * 状态：无
+     */
+    public static final int STATUS_NONE = -1;
+
+    /**
+     * 打包的年月日
+     */
+    private final int[] dates;
+
+    /**
+     * 状态
+     */
+    private final byte[] statuses;
+
+    /**
+     * 天数
+     */
+    private final int size;
+
+    BaiDuAlmanacDays(int[] dates, byte[] statuses, int size) {
+        this.dates = dates;
+        this.statuses = statuses;
+        this.size = size;
+    }
+
+    /**
+     * @return 天数
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getYear(int index) {
+        return dates[index] >>> 9;
+    }
+
+    public int getMonth(int index) {
+        return (dates[index] >>> 5) & 15;
+    }
+
+    public int getDay(int index) {
+        return dates[index] & 31;
+    }
+
+    /**
+     * @param index 下标
+     * @return 状态（1：法定节假日，2：补班日，-1：无）
+     */
+    public int getStatus(int index) {
+        return statuses[index];
+    }
+
+    /**
+     * @param index 下标
+     * @return 日期（epochDay，纯算术计算）
+     */
+    public int getEpochDay(int index) {
+        return EpochDays.of(getYear(index), getMonth(index), getDay(index));
+    }
+
+    /**
+     * 拼接另一个日期列表的一段
+     *
+     * @param target 目标日期列表（容量需足够）
+     * @param from   本列表的开始下标（包含）
+     * @param count  拼接天数
+     */
+    void copyTo(Builder target, int from, int count) {
+        Assert.isTrue(target.size + count <= target.dates.length, () -> "日历日期列表容量不足：" + target.dates.length);
+        System.arraycopy(dates, from, target.dates, target.size, count);
+        System.arraycopy(statuses, from, target.statuses, target.size, count);
+        target.size += count;
+    }
+
+    /**
+     * 打包年月日
+     *
+     * @param year  年
+     * @param month 月
+     * @param day   日
+     * @return 打包的年月日
+     */
+    static int pack(int year, int month, int day) {
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * 日历日期列表构建器
+     */
+    static final class Builder {
+
+        private int[] dates;
+
+        private byte[] statuses;
+
+        private int size;
+
+        Builder(int capacity) {
+            this.dates = new int[capacity];
+            this.statuses = new byte[capacity];
+        }
+
+        void add(int year, int month, int day, int status) {
+            if (size == dates.length) {
+                int capacity = Math.max(16, size * 2);
+                int[] newDates = new int[capacity];
+                byte[] newStatuses = new byte[capacity];
+                System.arraycopy(dates, 0, newDates, 0, size);
+                System.arraycopy(statuses, 0, newStatuses, 0, size);
+                dates = newDates;
+                statuses = newStatuses;
+            }
+            dates[size] = pack(year, month, day);
+            statuses[size] = (byte) status;
+            size++;
+        }
+
+        BaiDuAlmanacDays build() {
+            return new BaiDuAlmanacDays(dates, statuses, size);
+        }
+    }
+}
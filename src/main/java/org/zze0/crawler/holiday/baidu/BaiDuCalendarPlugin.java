@@ -0,0 +1,156 @@
+package org.zze0.crawler.holiday.baidu;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.zze0.crawler.engine.CrawlEmitter;
+import org.zze0.crawler.engine.CrawlParser;
+import org.zze0.crawler.engine.CrawlRequest;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 百度日历抓取插件（{@link org.zze0.crawler.engine.CrawlEngine 抓取引擎}的解析阶段）
+ * <p>
+ * 处理两种页面：
+ * <ul>
+ *     <li>年度法定节假日列表：截取要爬取的年度范围，按{@link BaiDuAlmanacCache#planQueries(int, int) 最少查询月份}发现日历查询请求；</li>
+ *     <li>日历：解析成日历窗口输出（需要采集黄历时同时写入黄历存储构建器）。</li>
+ * </ul>
+ * 日历请求的地址带时间戳，去重键只取查询月份，同一个月份只会查询一次。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+final class BaiDuCalendarPlugin implements CrawlParser<BaiDuCalendarPlugin.AlmanacPage> {
+
+    /**
+     * 年度法定节假日列表请求的附加信息（日历请求的附加信息是查询月份）
+     */
+    static final Object YEAR_HOLIDAYS = new Object();
+
+    private final int startYear;
+
+    private final int endYear;
+
+    /**
+     * 黄历存储构建器（为null时不采集黄历）
+     */
+    private final AlmanacStore.Builder details;
+
+    /**
+     * 要爬取的年度法定节假日（按年份顺序，解析完年度法定节假日列表后才有）
+     */
+    private volatile List<BaiDuPayloadParser.YearHolidays> yearHolidayList = Collections.emptyList();
+
+    /**
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @param details   黄历存储构建器（为null时不采集黄历）
+     */
+    BaiDuCalendarPlugin(int startYear, int endYear, AlmanacStore.Builder details) {
+        this.startYear = startYear;
+        this.endYear = endYear;
+        this.details = details;
+    }
+
+    @Override
+    public void parse(CrawlRequest request, String content, CrawlEmitter<AlmanacPage> emitter) {
+        if (YEAR_HOLIDAYS == request.getAttachment()) {
+            parseYearHolidays(content, emitter);
+        } else {
+            String yearMonth = (String) request.getAttachment();
+            emitter.emit(new AlmanacPage(yearMonth, parseAlmanac(yearMonth, content, details)));
+        }
+    }
+
+    /**
+     * 解析年度法定节假日列表，发现覆盖年度范围所需的日历请求
+     *
+     * @param content 页面内容
+     * @param emitter 发射器
+     */
+    private void parseYearHolidays(String content, CrawlEmitter<AlmanacPage> emitter) {
+
+        //获取年度节假日列表（流式解析，只取年份、节假日日期、名称）
+        List<BaiDuPayloadParser.YearHolidays> allYearHolidays = StrUtil.isBlank(content) ? null : BaiDuPayloadParser.parseYearHolidays(content);
+        if (null == allYearHolidays || allYearHolidays.isEmpty()) {
+            throw new IllegalArgumentException("年度法定节假日查询失败");
+        }
+
+        //年度法定节假日列表中第一个年份
+        Integer firstYear = allYearHolidays.get(0).getYear();
+        if (null == firstYear) {
+            throw new IllegalArgumentException("年度法定节假日列表中第一个年份获取失败");
+        }
+
+        //开始年度不早于第一个年份，结束年度不超过年度法定节假日列表中最后一个年份
+        int fromYear = Math.max(startYear, firstYear);
+        int toYear = Math.min(endYear, firstYear + allYearHolidays.size() - 1);
+        if (fromYear > toYear) {
+            log.warn("{}~{}年度不在年度法定节假日列表中", startYear, endYear);
+            return;
+        }
+        yearHolidayList = allYearHolidays.subList(fromYear - firstYear, toYear - firstYear + 1);
+
+        //日历窗口按最少查询次数一次性覆盖整个年度范围（各节假日共享，不再每个节假日查询一次）
+        for (String yearMonth : BaiDuAlmanacCache.planQueries(fromYear, toYear)) {
+            emitter.follow(BaiDuHolidayCrawler.almanacRequest(yearMonth));
+        }
+
+        //采集黄历时多查询一次下一年度1月（覆盖结束年度的12月），黄历覆盖整个年度范围
+        if (null != details) {
+            emitter.follow(BaiDuHolidayCrawler.almanacRequest((toYear + 1) + "年1月"));
+        }
+    }
+
+    /**
+     * 解析日历
+     *
+     * @param yearMonth 查询月份（格式：yyyy年M月）
+     * @param content   页面内容
+     * @param details   黄历存储构建器（为null时不采集黄历）
+     * @return 日历日期列表
+     */
+    static BaiDuAlmanacDays parseAlmanac(String yearMonth, String content, AlmanacStore.Builder details) {
+
+        //获取日历日期列表（流式解析，只取年、月、日、状态，需要采集黄历时才解析宜忌、农历等字段）
+        BaiDuAlmanacDays days = StrUtil.isBlank(content) ? null : BaiDuPayloadParser.parseAlmanac(content, details);
+        if (null == days || days.size() == 0) {
+            throw new IllegalArgumentException(yearMonth + "日历信息查询失败");
+        }
+        return days;
+    }
+
+    /**
+     * @return 要爬取的年度法定节假日（按年份顺序，年度范围不在列表中时为空）
+     */
+    List<BaiDuPayloadParser.YearHolidays> getYearHolidayList() {
+        return yearHolidayList;
+    }
+
+    /**
+     * 日历页面（一次日历查询的结果）
+     */
+    @Getter
+    static final class AlmanacPage {
+
+        /**
+         * 查询月份（格式：yyyy年M月）
+         */
+        private final String yearMonth;
+
+        /**
+         * 日历日期列表
+         */
+        private final BaiDuAlmanacDays days;
+
+        private AlmanacPage(String yearMonth, BaiDuAlmanacDays days) {
+            this.yearMonth = yearMonth;
+            this.days = days;
+        }
+    }
+}
@@ -1,31 +1,40 @@
 package org.zze0.crawler.holiday.baidu;
 
-import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.date.DateUnit;
 import cn.hutool.core.date.DateUtil;
-import cn.hutool.core.date.Week;
-import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.StrUtil;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
-import com.alibaba.fastjson.JSONObject;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
-import org.springframework.web.client.RestTemplate;
+import org.zze0.crawler.engine.CrawlEngine;
+import org.zze0.crawler.engine.CrawlFetcher;
+import org.zze0.crawler.engine.CrawlRequest;
+import org.zze0.crawler.engine.CrawlSink;
+import org.zze0.crawler.engine.CrawlStats;
+import org.zze0.crawler.holiday.CompactHoliday;
+import org.zze0.crawler.holiday.DayStatus;
+import org.zze0.crawler.holiday.EpochDays;
 import org.zze0.crawler.holiday.Holiday;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import org.zze0.crawler.holiday.HolidayCalendar;
+import org.zze0.crawler.holiday.HolidayPeriods;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.holiday.LazyHolidayCalendar;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+import org.zze0.crawler.transport.CrawlerTransport;
+import org.zze0.crawler.transport.PooledHttpTransport;
+import org.zze0.crawler.util.TokenBucketRateLimiter;
+
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.BiFunction;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * 法定节假日爬虫（百度版）
- * //TODO 理论上应该定时一天同步一次，并持久化到数据库，爬虫接口不能强依赖，需考虑planB方案（业务系统可自己修改配置）
+ * <p>
+ * 每天定时同步、本地快照持久化、本地节假日文件兜底见{@link org.zze0.crawler.holiday.service.HolidayService}。
  *
  * @author Zze0
  * @since 2021/6/13
@@ -33,36 +42,378 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BaiDuHolidayCrawler {
 
+    /**
+     * 接口根地址（离线测试、基准测试通过传入本地桩传输层替换，不修改地址）
+     */
+    private static final String BASE_URL = "https://sp0.baidu.com/8aQDcjqpAAV3otqbppnN2DJv";
+
     /**
      * 年度法定节假日查询接口地址
      */
-    private static final String YEAR_HOLIDAY_URL = "https://sp0.baidu.com/8aQDcjqpAAV3otqbppnN2DJv/api.php?query=法定节假日&resource_id=39042&t=%s&ie=utf8&oe=gbk&format=json&tn=wisetpl&_=%s";
+    private static final String YEAR_HOLIDAY_URL = BASE_URL + "/api.php?query=法定节假日&resource_id=39042&t=%s&ie=utf8&oe=gbk&format=json&tn=wisetpl&_=%s";
 
     /**
      * 日历查询接口地址
      */
-    private static final String CALENDAR_URL = "https://sp0.baidu.com/8aQDcjqpAAV3otqbppnN2DJv/api.php?query=%s&resource_id=39043&t=%s&ie=utf8&oe=gbk&format=json&tn=wisetpl&_=%s";
+    private static final String CALENDAR_URL = BASE_URL + "/api.php?query=%s&resource_id=39043&t=%s&ie=utf8&oe=gbk&format=json&tn=wisetpl&_=%s";
+
+    /**
+     * 节假日爬取引擎名称（线程名前缀、指标标签）
+     */
+    private static final String HOLIDAY_CRAWLER = "holiday-crawler";
+
+    /**
+     * 年度假期周期划分耗时（含截取日历）
+     */
+    private static final Timer YEAR_ANALYSIS_TIMER = CrawlerMetrics.holidayAnalysisTimer("year");
+
+    /**
+     * 单个节假日的假期、补班日归集耗时
+     */
+    private static final Timer HOLIDAY_ANALYSIS_TIMER = CrawlerMetrics.holidayAnalysisTimer("holiday");
+
+    /**
+     * 默认的请求截止时间
+     */
+    static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
 
     /**
-     * http请求工具类
+     * 默认每秒请求上游接口的次数
      */
-    private static final RestTemplate REST_TEMPLATE = new RestTemplate();
+    private static final double DEFAULT_PERMITS_PER_SECOND = 5;
 
     /**
-     * 年度法定节假日（key是年份，value是节假日列表）
+     * 年度法定节假日快照（每次初始化都发布一个新的不可变快照，读取方无需加锁，也不会读到中间状态）
      */
-    private static final Map<Integer, List<Holiday>> HOLIDAYS = new LinkedHashMap<>();
+    private static final AtomicReference<HolidaySnapshot> SNAPSHOT = new AtomicReference<>(HolidaySnapshot.of(0, Collections.emptyMap()));
 
+    /**
+     * 按需加载的节假日日历（开启按需加载模式后才有）
+     */
+    private static volatile LazyHolidayCalendar lazyCalendar;
 
     /**
-     * 初始化年度法定节假日
+     * 初始化年度法定节假日（单线程逐年爬取）
      *
      * @param startYear 开始年度
      * @param endYear   结束年度
      */
     public static void initHolidays(int startYear, int endYear) {
+        initHolidays(startYear, endYear, 1, DEFAULT_PERMITS_PER_SECOND);
+    }
+
+    /**
+     * 初始化年度法定节假日（并发爬取）
+     * <p>
+     * 日历窗口查询由抓取引擎并发抓取、解析，限制上游站点的并发数和请求间隔，
+     * 结果按年度顺序合并，与单线程爬取的结果一致。
+     * 爬取到的年度会整体替换快照中的同一年度，重复初始化不会产生重复的节假日。
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     */
+    public static void initHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond) {
+        initHolidays(startYear, endYear, parallelism, permitsPerSecond, DefaultTransport.get(), DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * 初始化年度法定节假日（并发爬取，使用调用方持有的传输层）
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param transport        爬虫传输层（由调用方持有、关闭）
+     * @param requestTimeout   请求截止时间
+     */
+    public static void initHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond,
+                                    CrawlerTransport transport, Duration requestTimeout) {
+
+        Map<Integer, List<Holiday>> holidays = crawlHolidays(startYear, endYear, parallelism, permitsPerSecond, null, transport, requestTimeout);
+        SNAPSHOT.updateAndGet(current -> current.withYears(current.getVersion() + 1, holidays));
+    }
+
+    /**
+     * 开启按需加载模式（单线程爬取）
+     *
+     * @param maxResidentYears 最多常驻的年度数（不少于3，当前年度及前后各一年固定常驻）
+     * @see #initLazyHolidays(int, int, double)
+     */
+    public static void initLazyHolidays(int maxResidentYears) {
+        initLazyHolidays(maxResidentYears, 1, DEFAULT_PERMITS_PER_SECOND);
+    }
+
+    /**
+     * 开启按需加载模式：不预先爬取，某个年度第一次被查询时才爬取、编译，常驻的年度数有上限
+     * <p>
+     * 重复调用会丢弃之前已加载的年度。按需加载的日历通过{@link #getLazyCalendar()}查询，与{@link #getCalendar()}互不影响。
+     *
+     * @param maxResidentYears 最多常驻的年度数（不少于3，当前年度及前后各一年固定常驻）
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     */
+    public static void initLazyHolidays(int maxResidentYears, int parallelism, double permitsPerSecond) {
+        Assert.isTrue(parallelism > 0, "并发数必须大于0：" + parallelism);
+        Assert.isTrue(permitsPerSecond > 0, "每秒请求次数必须大于0：" + permitsPerSecond);
+        //各年度的加载共用一个令牌桶，同时加载多个年度时总请求速率也不超过限制
+        TokenBucketRateLimiter limiter = newHostLimiter(permitsPerSecond, parallelism);
+        lazyCalendar = new LazyHolidayCalendar((startYear, endYear) -> crawlCompactHolidays(startYear, endYear, parallelism, limiter,
+                null, DefaultTransport.get(), DEFAULT_REQUEST_TIMEOUT), maxResidentYears);
+    }
+
+    /**
+     * 爬取年度法定节假日（并发爬取，不修改本类持有的年度法定节假日）
+     * <p>
+     * 基于{@link CrawlEngine 抓取引擎}：先查询年度法定节假日列表，解析时发现覆盖年度范围的日历查询，
+     * 日历查询并发抓取、边抓取边解析，解析出的日历窗口输出到日历窗口缓存；全部抓取完后逐年分析节假日。
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     */
+    public static Map<Integer, List<Holiday>> crawlHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond) {
+        return crawlHolidays(startYear, endYear, parallelism, permitsPerSecond, null);
+    }
+
+    /**
+     * 爬取年度法定节假日，同时从同一批日历页面采集黄历
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param almanac          黄历存储构建器（为null时不采集黄历）
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     * @see #crawlCompactHolidays(int, int, int, double, AlmanacStore.Builder)
+     */
+    public static Map<Integer, List<Holiday>> crawlHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond,
+                                                            AlmanacStore.Builder almanac) {
+        return crawlHolidays(startYear, endYear, parallelism, permitsPerSecond, almanac, DefaultTransport.get(), DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * 爬取年度法定节假日，使用调用方持有的传输层（不使用本类的默认传输层）
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param almanac          黄历存储构建器（为null时不采集黄历）
+     * @param transport        爬虫传输层（由调用方持有、关闭）
+     * @param requestTimeout   请求截止时间
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     */
+    public static Map<Integer, List<Holiday>> crawlHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond,
+                                                            AlmanacStore.Builder almanac, CrawlerTransport transport, Duration requestTimeout) {
+        return crawlHolidays(startYear, endYear, parallelism, newHostLimiter(permitsPerSecond, parallelism), almanac, transport, requestTimeout);
+    }
+
+    /**
+     * 爬取年度法定节假日，使用调用方持有的传输层、令牌桶
+     *
+     * @param startYear      开始年度
+     * @param endYear        结束年度
+     * @param parallelism    最大并发数
+     * @param limiter        上游站点的令牌桶（由调用方持有，同时进行的多次爬取共用一个令牌桶，总请求速率才不超过限制）
+     * @param almanac        黄历存储构建器（为null时不采集黄历）
+     * @param transport      爬虫传输层（由调用方持有、关闭）
+     * @param requestTimeout 请求截止时间
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     * @see #newHostLimiter(double, int)
+     */
+    public static Map<Integer, List<Holiday>> crawlHolidays(int startYear, int endYear, int parallelism, TokenBucketRateLimiter limiter,
+                                                            AlmanacStore.Builder almanac, CrawlerTransport transport, Duration requestTimeout) {
+        Map<Integer, List<Holiday>> holidays = new LinkedHashMap<>();
+        crawlCompactHolidays(startYear, endYear, parallelism, limiter, almanac, transport, requestTimeout).forEach((year, yearHolidays) ->
+                holidays.put(year, yearHolidays.stream().map(CompactHoliday::toHoliday).collect(Collectors.toList())));
+        return holidays;
+    }
+
+    /**
+     * 爬取年度法定节假日，返回紧凑格式（日期都是epochDay，可以直接{@link HolidayCalendar#compileCompact(Map) 编译}，不需要转换成{@link Date}）
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     * @see #crawlHolidays(int, int, int, double)
+     */
+    public static Map<Integer, List<CompactHoliday>> crawlCompactHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond) {
+        return crawlCompactHolidays(startYear, endYear, parallelism, permitsPerSecond, null);
+    }
+
+    /**
+     * 爬取年度法定节假日，返回紧凑格式，同时从同一批日历页面采集黄历（不需要再单独爬取黄历）
+     * <p>
+     * 节假日分析只需要覆盖到结束年度的11月，采集黄历时多查询一次，覆盖结束年度的12月。
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param almanac          黄历存储构建器（为null时不采集黄历）
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     */
+    public static Map<Integer, List<CompactHoliday>> crawlCompactHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond,
+                                                                          AlmanacStore.Builder almanac) {
+        return crawlCompactHolidays(startYear, endYear, parallelism, permitsPerSecond, almanac, DefaultTransport.get(), DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * 爬取年度法定节假日，返回紧凑格式（使用调用方持有的传输层，不使用本类的默认传输层）
+     * <p>
+     * 令牌桶只在本次爬取内使用，同时进行的多次爬取要限制总请求速率时，使用{@link #crawlCompactHolidays(int, int, int, TokenBucketRateLimiter, AlmanacStore.Builder, CrawlerTransport, Duration) 共用令牌桶}的重载。
+     *
+     * @param startYear        开始年度
+     * @param endYear          结束年度
+     * @param parallelism      最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param almanac          黄历存储构建器（为null时不采集黄历）
+     * @param transport        爬虫传输层（由调用方持有、关闭）
+     * @param requestTimeout   请求截止时间
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     * @see #crawlCompactHolidays(int, int, int, double, AlmanacStore.Builder)
+     */
+    public static Map<Integer, List<CompactHoliday>> crawlCompactHolidays(int startYear, int endYear, int parallelism, double permitsPerSecond,
+                                                                          AlmanacStore.Builder almanac, CrawlerTransport transport, Duration requestTimeout) {
+        return crawlCompactHolidays(startYear, endYear, parallelism, newHostLimiter(permitsPerSecond, parallelism), almanac, transport, requestTimeout);
+    }
+
+    /**
+     * 爬取年度法定节假日，返回紧凑格式（使用调用方持有的传输层、令牌桶）
+     * <p>
+     * 上游只有一个站点，抓取引擎和日历窗口的按需查询都从同一个令牌桶取令牌；
+     * 令牌桶由调用方持有，同时进行的多次爬取（全量刷新、增量同步、按需加载等）共用一个令牌桶，对上游站点的总请求速率才不超过限制。
+     *
+     * @param startYear      开始年度
+     * @param endYear        结束年度
+     * @param parallelism    最大并发数
+     * @param limiter        上游站点的令牌桶（由调用方持有）
+     * @param almanac        黄历存储构建器（为null时不采集黄历）
+     * @param transport      爬虫传输层（由调用方持有、关闭）
+     * @param requestTimeout 请求截止时间
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     * @see #newHostLimiter(double, int)
+     */
+    public static Map<Integer, List<CompactHoliday>> crawlCompactHolidays(int startYear, int endYear, int parallelism, TokenBucketRateLimiter limiter,
+                                                                          AlmanacStore.Builder almanac, CrawlerTransport transport, Duration requestTimeout) {
 
         Assert.isTrue(startYear <= endYear, "年度入参有误，请检查！开始年度=" + startYear + "; 结束年度=" + endYear);
+        Assert.isTrue(parallelism > 0, "并发数必须大于0：" + parallelism);
+        Assert.notNull(limiter, "令牌桶不能为空");
+        Assert.notNull(transport, "爬虫传输层不能为空");
+        Assert.isTrue(null != requestTimeout && !requestTimeout.isNegative() && !requestTimeout.isZero(), "请求截止时间必须大于0：" + requestTimeout);
+
+        long ts = System.currentTimeMillis();
+
+        //日历窗口缓存（抓取引擎的输出阶段），各节假日共享，不再每个节假日查询一次；未覆盖的日期按需直接查询
+        CrawlFetcher fetcher = request -> transport.get(request.getUrl(), requestTimeout);
+        BaiDuAlmanacCache almanacCache = new BaiDuAlmanacCache(yearMonth -> queryAlmanac(yearMonth, almanac, fetcher, limiter));
+        BaiDuCalendarPlugin plugin = new BaiDuCalendarPlugin(startYear, endYear, almanac);
+        CrawlStats stats = newEngine(HOLIDAY_CRAWLER, parallelism, limiter, plugin,
+                page -> almanacCache.put(page.getYearMonth(), page.getDays()), fetcher)
+                .run(yearHolidaysRequest());
+
+        List<BaiDuPayloadParser.YearHolidays> yearHolidayList = plugin.getYearHolidayList();
+        if (yearHolidayList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        //逐年分析节假日（纯计算，日历窗口都已在缓存中），按年度顺序收集结果
+        Map<Integer, List<CompactHoliday>> holidays = new LinkedHashMap<>();
+        for (BaiDuPayloadParser.YearHolidays yearHolidays : yearHolidayList) {
+            for (CompactHoliday holiday : crawlYearHolidays(yearHolidays, almanacCache)) {
+                holidays.computeIfAbsent(holiday.getYear(), y -> new ArrayList<>())
+                        .add(holiday);
+            }
+        }
+
+        log.info("{}~{}年度法定节假日爬取完成，请求{}次，按需补查日历{}次，耗时{}ms", yearHolidayList.get(0).getYear(),
+                yearHolidayList.get(yearHolidayList.size() - 1).getYear(), stats.getFetched(), almanacCache.getQueryCount(),
+                System.currentTimeMillis() - ts);
+        return holidays;
+    }
+
+    /**
+     * 创建上游站点的令牌桶（按每秒请求次数生成令牌，空闲之后允许最大并发数个请求突发）
+     *
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param parallelism      最大并发数
+     * @return 令牌桶
+     */
+    public static TokenBucketRateLimiter newHostLimiter(double permitsPerSecond, int parallelism) {
+        Assert.isTrue(permitsPerSecond > 0, "每秒请求次数必须大于0：" + permitsPerSecond);
+        Assert.isTrue(parallelism > 0, "并发数必须大于0：" + parallelism);
+        return new TokenBucketRateLimiter(permitsPerSecond, parallelism);
+    }
+
+    /**
+     * 获取节假日日历（用于快速查询某天是否工作日、节假日）
+     *
+     * @return 节假日日历
+     */
+    public static HolidayCalendar getCalendar() {
+        return SNAPSHOT.get().getCalendar();
+    }
+
+    /**
+     * 获取按需加载的节假日日历
+     *
+     * @return 按需加载的节假日日历
+     * @throws IllegalStateException 未开启按需加载模式
+     */
+    public static LazyHolidayCalendar getLazyCalendar() {
+        LazyHolidayCalendar calendar = lazyCalendar;
+        Assert.state(null != calendar, "未开启按需加载模式，请先调用initLazyHolidays");
+        return calendar;
+    }
+
+    /**
+     * 获取年度法定节假日快照
+     *
+     * @return 节假日快照
+     */
+    public static HolidaySnapshot getSnapshot() {
+        return SNAPSHOT.get();
+    }
+
+    /**
+     * 创建百度日历抓取引擎（上游只有一个站点，站点并发数就是最大并发数）
+     *
+     * @param name        引擎名称
+     * @param parallelism 最大并发数
+     * @param limiter     上游站点的令牌桶
+     * @param plugin      百度日历抓取插件
+     * @param sink        日历页面的输出阶段（为null时丢弃）
+     * @param fetcher     抓取阶段（通过传输层请求上游）
+     * @return 抓取引擎
+     */
+    private static CrawlEngine<BaiDuCalendarPlugin.AlmanacPage> newEngine(String name, int parallelism, TokenBucketRateLimiter limiter,
+                                                                          BaiDuCalendarPlugin plugin, CrawlSink<BaiDuCalendarPlugin.AlmanacPage> sink,
+                                                                          CrawlFetcher fetcher) {
+        return CrawlEngine.<BaiDuCalendarPlugin.AlmanacPage>builder()
+                .name(name)
+                .fetcher(fetcher)
+                .parser(plugin)
+                .sink(sink)
+                .fetchThreads(parallelism)
+                .parseThreads(Math.min(parallelism, Runtime.getRuntime().availableProcessors()))
+                .maxConcurrencyPerHost(parallelism)
+                .hostLimiters(host -> limiter)
+                .build();
+    }
+
+    /**
+     * 年度法定节假日列表请求
+     *
+     * @return 抓取请求
+     */
+    private static CrawlRequest yearHolidaysRequest() {
 
         long ts = System.currentTimeMillis();
 
@@ -117,113 +468,100 @@ public class BaiDuHolidayCrawler {
             ]
         }
          */
-        String result = REST_TEMPLATE.getForObject(String.format(YEAR_HOLIDAY_URL, ts, ts), String.class);
-
-        //获取年度节假日列表
-        JSONArray yearHolidayArr =
-                Optional.ofNullable(result)
-                        .filter(StrUtil::isNotBlank)
-                        .map(JSON::parseObject)
-                        .filter(MapUtil::isNotEmpty)
-                        .map(json -> json.getJSONArray("data"))
-                        .filter(CollUtil::isNotEmpty)
-                        .map(dataJsonArr -> dataJsonArr.getJSONObject(0))
-                        .filter(MapUtil::isNotEmpty)
-                        .map(dataJson -> dataJson.getJSONArray("holiday"))
-                        .filter(CollUtil::isNotEmpty)
-                        .orElseThrow(() -> new IllegalArgumentException("年度法定节假日查询失败"));
-
-        //----------------下面定位本节假日在日历中的下标位位置--------------------
-
-        //年份获取函数
-        Function<JSONObject, Integer> yearGetter = yearHoliday -> yearHoliday.getInteger("year");
-
-        //年度法定节假日列表中第一个年份
-        int firstYear =
-                Optional.of(yearHolidayArr)
-                        .map(arr -> arr.getJSONObject(0))
-                        .map(yearGetter)
-                        .orElseThrow(() -> new IllegalArgumentException("年度法定节假日列表中第一个年份获取失败"));
-
-        if (startYear < firstYear) {
-            startYear = firstYear;
+        return CrawlRequest.of(String.format(YEAR_HOLIDAY_URL, ts, ts), "39042", "39042", BaiDuCalendarPlugin.YEAR_HOLIDAYS);
+    }
+
+    /**
+     * 爬取一个年度的法定节假日
+     *
+     * @param yearHolidays 年度法定节假日信息
+     * @param almanacCache 日历窗口缓存
+     * @return 本年度的节假日列表
+     */
+    static List<CompactHoliday> crawlYearHolidays(BaiDuPayloadParser.YearHolidays yearHolidays, BaiDuAlmanacCache almanacCache) {
+
+        List<CompactHoliday> holidays = new ArrayList<>();
+
+        Integer year = yearHolidays.getYear();
+        if (null == year) {
+            log.warn("年份获取失败，本年度共{}个节假日", yearHolidays.size());
+            return holidays;
+        }
+
+        //本年度的节假日列表
+        if (yearHolidays.size() == 0) {
+            log.warn("{}年没有节假日", year);
+            return holidays;
         }
 
-        for (int index = startYear - firstYear; index < yearHolidayArr.size() && firstYear + index <= endYear; index++) {
+        //截取上一年12月到本年11月的日历（与预先加载的窗口范围一致），一次扫描划分出所有假期周期（元旦的假期、补班日可能在上一年12月）
+        long yearStartNanos = System.nanoTime();
+        int fromDay = EpochDays.of(year - 1, 12, 1);
+        int toDay = EpochDays.of(year, 11, 30);
+        BaiDuAlmanacDays almanacDays = almanacCache.slice(fromDay, toDay);
+        HolidayPeriods periods = HolidayPeriods.segment(fromDay, almanacDays.size(), index -> toDayStatus(almanacDays.getStatus(index)));
+        YEAR_ANALYSIS_TIMER.record(System.nanoTime() - yearStartNanos, TimeUnit.NANOSECONDS);
+
+        for (int holidayIndex = 0; holidayIndex < yearHolidays.size(); holidayIndex++) {
+            long holidayStartNanos = System.nanoTime();
 
-            JSONObject yearHoliday = yearHolidayArr.getJSONObject(index);
-            if (MapUtil.isEmpty(yearHoliday)) {
+            //节假日日期
+            if (!yearHolidays.hasDate(holidayIndex)) {
+                log.warn("{}年的第{}个节假日日期是空的？", year, holidayIndex);
                 continue;
             }
+            int date = EpochDays.of(yearHolidays.getYear(holidayIndex), yearHolidays.getMonth(holidayIndex), yearHolidays.getDay(holidayIndex));
 
-            Integer year = yearGetter.apply(yearHoliday);
-            if (null == year) {
-                log.warn("年份获取失败：{}", yearHoliday);
+            //节假日名称
+            String name = yearHolidays.getName(holidayIndex);
+            if (StrUtil.isBlank(name)) {
+                log.warn("{}年的第{}个节假日名称是空的？{}", year, holidayIndex, LocalDate.ofEpochDay(date));
                 continue;
             }
-
-            //本年度的节假日列表
-            JSONArray holidayInfoArr = yearHoliday.getJSONArray("list");
-            if (CollUtil.isEmpty(holidayInfoArr)) {
-                log.warn("{}年没有节假日：{}", year, yearHoliday);
+            if ("除夕".equals(StrUtil.trim(name))) {
+                //忽略“除夕”节假日，因为会和“春节”重复
                 continue;
             }
 
-            //本年度的节假日个数（其实根据"list#num#baidu"key也可取到）
-            //long holidayCount = holidayInfoArr.size();
-
-            for (int holidayIndex = 0; holidayIndex < holidayInfoArr.size(); holidayIndex++) {
-
-                //节假日详情
-                JSONObject holidayInfo = holidayInfoArr.getJSONObject(holidayIndex);
-                if (MapUtil.isEmpty(holidayInfo)) {
-                    log.warn("{}年的第{}个节假日是空的？{}", year, holidayIndex, yearHoliday);
-                    continue;
-                }
-
-                //节假日日期
-                Date date = DateUtil.parse(holidayInfo.getString("date"));
-                if (null == date) {
-                    log.warn("{}年的第{}个节假日日期是空的？{}", year, holidayIndex, holidayInfo);
-                    continue;
-                }
-
-                //节假日名称
-                String name = holidayInfo.getString("name");
-                if (StrUtil.isBlank(name)) {
-                    log.warn("{}年的第{}个节假日名称是空的？{}", year, holidayIndex, holidayInfo);
-                    continue;
-                }
-                if ("除夕".equals(StrUtil.trim(name))) {
-                    //忽略“除夕”节假日，因为会和“春节”重复
-                    continue;
-                }
-
-                Holiday holiday = new Holiday();
-                holiday.setDate(date);
-                holiday.setYear(year);
-                holiday.setName(name);
-
-                //补全节假日详情（如 假期、补班日 等等）
-                initHolidayDetails(holiday);
-
-                //TODO 持久化到数据库
-                HOLIDAYS.computeIfAbsent(year, y -> new ArrayList<>())
-                        .add(holiday);
+            //节假日所在的假期周期（如中秋节、国庆节合在一起放假时，两个节假日是同一个假期周期）
+            int period = periods.indexOf(date);
+            if (period < 0) {
+                log.warn("{}年的{}不在假期中？{}", year, name, LocalDate.ofEpochDay(date));
+                holidays.add(new CompactHoliday(year, date, name, new int[0], new int[0]));
+                continue;
             }
+            holidays.add(new CompactHoliday(year, date, name, periods.getHolidayDays(period), periods.getAddWorkDays(period)));
+            HOLIDAY_ANALYSIS_TIMER.record(System.nanoTime() - holidayStartNanos, TimeUnit.NANOSECONDS);
         }
+        return holidays;
     }
 
     /**
-     * 补全节假日详情（如 假期、补班日 等等）
+     * 百度日历状态转换成日期状态
      *
-     * @param holiday 节假日
+     * @param status 百度日历状态（1：法定节假日，2：补班日）
+     * @return 日期状态，不是法定节假日、补班日时返回null
      */
-    private static void initHolidayDetails(Holiday holiday) {
+    private static DayStatus toDayStatus(int status) {
+        switch (status) {
+            case BaiDuAlmanacDays.STATUS_HOLIDAY:
+                return DayStatus.HOLIDAY;
+            case BaiDuAlmanacDays.STATUS_ADD_WORK:
+                return DayStatus.ADD_WORKDAY;
+            default:
+                return null;
+        }
+    }
 
-        long ts = System.currentTimeMillis();
+    /**
+     * 日历查询请求（去重键只取查询月份，同一个月份只会查询一次）
+     *
+     * @param yearMonth 查询月份（格式：yyyy年M月）
+     * @return 抓取请求
+     */
+    static CrawlRequest almanacRequest(String yearMonth) {
 
-        Date holidayDate = holiday.getDate();
+        long ts = System.currentTimeMillis();
 
         /*
          查询日历信息(指定月份查询，会查出来前后共90天左右的数据)，格式如下：
@@ -262,232 +600,76 @@ public class BaiDuHolidayCrawler {
             ]
         }
          */
-        String yearMonth = new SimpleDateFormat("yyyy年M月").format(holidayDate);
-        String result = REST_TEMPLATE.getForObject(String.format(CALENDAR_URL, yearMonth, ts, ts), String.class);
-
-
-        //获取日历信息列表
-        JSONArray almanacArr =
-                Optional.ofNullable(result)
-                        .filter(StrUtil::isNotBlank)
-                        .map(JSON::parseObject)
-                        .filter(MapUtil::isNotEmpty)
-                        .map(json -> json.getJSONArray("data"))
-                        .filter(CollUtil::isNotEmpty)
-                        .map(dataJsonArr -> dataJsonArr.getJSONObject(0))
-                        .filter(MapUtil::isNotEmpty)
-                        .map(dataJson -> dataJson.getJSONArray("almanac"))
-                        .filter(CollUtil::isNotEmpty)
-                        .orElseThrow(() -> new IllegalArgumentException(yearMonth + "日历信息查询失败"));
-
-        //----------------下面定位本节假日在日历中的下标位位置--------------------
-
-        int almanacCount = almanacArr.size();
-
-        //日历列表第一天日期
-        Date firstAlmanacDate = getAlmanac(almanacArr, 0, (almanac, almanacDate) -> almanacDate);
-
-        //本节假日所在日历中的下标位（后面根据这个下标位前后推算哪些是假期或者补班日）
-        int holidayIndex = (int) DateUtil.between(firstAlmanacDate, holidayDate, DateUnit.DAY, true);
-        Assert.isTrue(
-                holidayIndex < almanacCount && DateUtil.isSameDay(getAlmanac(almanacArr, holidayIndex, (almanac, almanacDate) -> almanacDate), holidayDate),
-                "未在日历中查找到节假日日期！" + DateUtil.formatDate(holidayDate));
-
-//        //----------------下面使用二分查找算法，快速定位本节假日位置--------------------
-//
-//        long holidayTs = holidayDate.getTime();
-//
-//        //本节假日所在日历中的下标位（后面根据这个下标位前后推算哪些是假期或者补班日）
-//        int holidayIndex = -1;
-//
-//        //查找范围起点
-//        int start = 0;
-//        //查找范围终点
-//        int end = almanacCount - 1;
-//        //查找范围中位数
-//        int mid;
-//
-//        while (start <= end) {
-//            //折半，取中间点
-//            mid = start + (end - start) / 2;
-//
-//            //从日历信息中提取中间位置日期的时间戳
-//            long midTs = getAlmanac(almanacArr, mid, (almanac, almanacDate) -> almanacDate.getTime());
-//
-//            if (holidayTs < midTs) {
-//                //下次查找从左半边继续折半查找
-//                end = mid - 1;
-//            } else if (holidayTs > midTs) {
-//                //下次查找从右半边继续折半查找
-//                start = mid + 1;
-//            } else {
-//                //刚巧中间位置就是节假日日期
-//                holidayIndex = mid;
-//                break;
-//            }
-//        }
-//
-//        Assert.isTrue(holidayIndex >= 0, "未在日历中查找到节假日日期！" + DateUtil.formatDate(holidayDate));
-
-        //----------------下面分析哪些是本节假日的假期、补班日--------------------
-
-        //补班日期列表
-        List<Date> addWorkDateList = new ArrayList<>();
-
-        //假期日期列表
-        List<Date> holidayDateList = new ArrayList<>();
-
-        //假期是否连续（用来判断是不是同一个假期周期）
-        AtomicBoolean holidayContinuous = new AtomicBoolean(true);
-
-        //周末计数（用来分析补班日时截至时间的辅助参数）
-        AtomicInteger weekendCount = new AtomicInteger(0);
-
-        //日历分析器，分析哪些是本节假日的假期、补班日。返回true表示需要继续分析，返回false将中断后续分析
-        Function<Integer, Boolean> analyzer =
-                index ->
-                        getAlmanac(almanacArr, index, (almanac, almanacDate) -> {
-                            int status = Optional.ofNullable(almanac.getInteger("status")).orElse(-1);
-
-                            if (holidayContinuous.get()) {
-                                if (1 == status) {
-                                    //记录假期
-                                    holidayDateList.add(almanacDate);
-                                } else {
-                                    //假期不再连续时，设置中断标识
-                                    holidayContinuous.set(false);
-
-                                    if (2 == status) {
-                                        //记录补班
-                                        addWorkDateList.add(almanacDate);
-                                    }
-                                }
-                            } else {
-                                if (1 == status) {
-                                    //如果是遇到另一个新假期，需要判断补班日的节假日归属问题，然后可以中断继续查找了
-
-                                    Optional.of(holidayDateList)
-                                            .map(list -> list.get(list.size() - 1))
-                                            .ifPresent(lastHolidayDate -> {
-
-                                                ListIterator<Date> iterator = addWorkDateList.listIterator(addWorkDateList.size());
-
-                                                while (iterator.hasPrevious()) {
-
-                                                    //补班日期
-                                                    Date addWorkDate = iterator.previous();
-
-                                                    //补班日和最后一天假期的天数偏移量
-                                                    long addWorkDayOffset = DateUtil.between(addWorkDate, lastHolidayDate, DateUnit.DAY, true);
-
-                                                    //补班日和新假期的天数偏移量
-                                                    long addWorkDayOffset2NewHoliday = DateUtil.between(addWorkDate, almanacDate, DateUnit.DAY, true);
-
-                                                    if (addWorkDayOffset > addWorkDayOffset2NewHoliday) {
-
-                                                        //另一个新假期离补班日更近，那这个补班日应该是属于它的，而不是属于当前节假日的。
-                                                        iterator.remove();
-
-                                                    } else if (addWorkDayOffset == addWorkDayOffset2NewHoliday) {
-
-                                                        //补班日离当前假期、新假期的偏移量一致，就按照优先分配给后面新假期的原则
-                                                        if (addWorkDate.before(lastHolidayDate)) {
-                                                            break;
-                                                        } else {
-                                                            iterator.remove();
-                                                        }
-
-                                                    } else {
-
-                                                        //补班日离当前假期更近，可以不用再继续判断补班日的节假日归属问题
-                                                        break;
-                                                    }
-                                                }
-                                            });
-
-                                    return false;
+        return CrawlRequest.of(String.format(CALENDAR_URL, yearMonth, ts, ts), "39043:" + yearMonth, "39043", yearMonth);
+    }
 
-                                } else if (2 == status) {
-                                    //记录补班
-                                    addWorkDateList.add(almanacDate);
-                                }
+    /**
+     * 直接查询日历信息列表（不经过抓取引擎，用于日历窗口缓存按需补齐未覆盖的日期）
+     *
+     * @param yearMonth 查询月份（格式：yyyy年M月）
+     * @param details   黄历存储构建器（为null时不采集黄历）
+     * @param fetcher   抓取阶段（与抓取引擎使用同一个传输层）
+     * @param limiter   上游站点的令牌桶（与抓取引擎共用，按需查询同样受请求速率限制）
+     * @return 日历日期列表
+     */
+    private static BaiDuAlmanacDays queryAlmanac(String yearMonth, AlmanacStore.Builder details, CrawlFetcher fetcher,
+                                                 TokenBucketRateLimiter limiter) {
+        CrawlRequest request = almanacRequest(yearMonth);
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待请求" + yearMonth + "日历时被中断", e);
+        }
 
-                                Week week = DateUtil.dayOfWeekEnum(almanacDate);
-                                if (Week.SATURDAY.equals(week) || Week.SUNDAY.equals(week)) {
-                                    //过了两个周末了，可以中断继续查找补班日了
-                                    return weekendCount.incrementAndGet() < 4;
-                                }
-                            }
-                            return true;
-                        });
-
-        //从节假日日期往前查找，看看节假日前面有多少天是假期，多少天是补班日
-        for (int index = holidayIndex; index > 0; index--) {
-            if (!analyzer.apply(index)) {
-                break;
-            }
+        long startNanos = System.nanoTime();
+        String content;
+        try {
+            content = fetcher.fetch(request);
+        } catch (RuntimeException e) {
+            CrawlerMetrics.recordFetch(HOLIDAY_CRAWLER, request.getEndpoint(), System.nanoTime() - startNanos, -1);
+            throw e;
         }
+        CrawlerMetrics.recordFetch(HOLIDAY_CRAWLER, request.getEndpoint(), System.nanoTime() - startNanos, null == content ? 0 : content.length());
+        return BaiDuCalendarPlugin.parseAlmanac(yearMonth, content, details);
+    }
 
-        //往前查找的日期，要把顺序反回来才是按时间先后排序
-        holidayDateList.sort(Date::compareTo);
-        addWorkDateList.sort(Date::compareTo);
+    /**
+     * 默认的爬虫传输层（复用长连接的HTTP连接池）：第一次调用不指定传输层的重载方法时才创建，JVM退出时关闭。
+     * 由调用方持有传输层的场景（如{@link org.zze0.crawler.holiday.service.HolidayService}）不会创建。
+     */
+    private static final class DefaultTransport {
 
-        //重置标识
-        holidayContinuous.set(true);
-        weekendCount.set(0);
+        private static final CrawlerTransport INSTANCE = create();
 
-        //从节假日日期往后查找，看看节假日后面有多少天是假期，多少天是补班日
-        for (int index = holidayIndex + 1; index < almanacCount; index++) {
-            if (!analyzer.apply(index)) {
-                break;
-            }
+        private DefaultTransport() {
         }
 
-        holiday.setHolidayDateList(holidayDateList);
-        holiday.setAddWorkDateList(addWorkDateList);
+        static CrawlerTransport get() {
+            return INSTANCE;
+        }
 
+        private static CrawlerTransport create() {
+            CrawlerTransport transport = new PooledHttpTransport();
+            Runtime.getRuntime().addShutdownHook(new Thread(transport::close, "crawler-transport-close"));
+            return transport;
+        }
     }
 
     /**
-     * 从日历信息列表提取某个日期的信息，并根据mapper转换成特定的类型返回
+     * 获取默认的爬虫传输层（第一次调用时创建）
      *
-     * @param almanacArr 日历信息列表
-     * @param index      日历日期下标位
-     * @param mapper     转换器（入参1:日历信息；入参2:日期）
-     * @param <T>        转换器输出值类型
-     * @return 转换器输出值
+     * @return 默认的爬虫传输层
      */
-    private static <T> T getAlmanac(JSONArray almanacArr, int index, BiFunction<JSONObject, Date, T> mapper) {
-        JSONObject almanac = almanacArr.getJSONObject(index);
-        Assert.notEmpty(almanac, "日历中第" + index + "个日期为空？");
-
-        String almanacStr = almanac.toString();
-
-        //年
-        Integer year = almanac.getInteger("year");
-        Assert.notNull(year, "日历中第" + index + "个日期年份为空？" + almanacStr);
-
-        //月
-        Integer month = almanac.getInteger("month");
-        Assert.notNull(month, "日历中第" + index + "个日期月份为空？" + almanacStr);
-
-        //日
-        Integer day = almanac.getInteger("day");
-        Assert.notNull(day, "日历中第" + index + "个日期日份为空？" + almanacStr);
-
-        try {
-            Date date = new SimpleDateFormat("yyyy-M-d").parse(year + "-" + month + "-" + day);
-            return mapper.apply(almanac, date);
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
+    static CrawlerTransport defaultTransport() {
+        return DefaultTransport.get();
     }
 
     public static void main(String[] args) {
         initHolidays(2020, 2021);
-        //System.out.println(JSON.toJSONStringWithDateFormat(HOLIDAYS, "yyyy-MM-dd", SerializerFeature.PrettyFormat));
+        //System.out.println(JSON.toJSONStringWithDateFormat(getSnapshot().getHolidays(), "yyyy-MM-dd", SerializerFeature.PrettyFormat));
 
-        HOLIDAYS.forEach((year, holidays) -> {
+        getSnapshot().getHolidays().forEach((year, holidays) -> {
             System.out.printf("\n【%d年度】----------------------------------------------------------------------------------------------------------------------------------\n", year);
             for (Holiday holiday : holidays) {
                 System.out.printf("\n%s 放假 %d 天，补班 %d 天：", holiday.getName(), holiday.getHolidayDateList().size(), holiday.getAddWorkDateList().size());
@@ -0,0 +1,126 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.zze0.crawler.holiday.CompactHoliday;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+import org.zze0.crawler.holiday.source.HolidaySource;
+import org.zze0.crawler.transport.CrawlerTransport;
+import org.zze0.crawler.util.TokenBucketRateLimiter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 百度节假日数据源（通过{@link BaiDuHolidayCrawler}并发爬取）
+ * <p>
+ * 设置了黄历监听器时，每次爬取成功后把同一批日历页面采集到的黄历交给监听器，不需要再单独爬取黄历。
+ * 指定了传输层时使用数据源自己持有的传输层，不使用{@link BaiDuHolidayCrawler}默认的传输层，多个数据源互不影响。
+ * 数据源持有上游站点的令牌桶，通过同一个数据源同时进行的多次爬取（全量刷新、增量同步、按需加载，以及对冲放弃后仍在进行的爬取）
+ * 共用这个令牌桶，对上游站点的总请求速率不超过每秒请求次数。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public class BaiDuHolidaySource implements HolidaySource {
+
+    /**
+     * 爬取的最大并发数
+     */
+    private final int parallelism;
+
+    /**
+     * 上游站点的令牌桶（每秒请求上游接口的最大次数，本数据源的所有爬取共用）
+     */
+    private final TokenBucketRateLimiter limiter;
+
+    /**
+     * 黄历监听器（接收每次爬取采集到的黄历，为null时不采集）
+     */
+    private final Consumer<AlmanacStore> almanacListener;
+
+    /**
+     * 爬虫传输层（由调用方持有、关闭，为null时使用{@link BaiDuHolidayCrawler}默认的传输层）
+     */
+    private final CrawlerTransport transport;
+
+    /**
+     * 请求截止时间（传输层为null时不使用）
+     */
+    private final Duration requestTimeout;
+
+    /**
+     * @param parallelism      爬取的最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     */
+    public BaiDuHolidaySource(int parallelism, double permitsPerSecond) {
+        this(parallelism, permitsPerSecond, null);
+    }
+
+    /**
+     * @param parallelism      爬取的最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param almanacListener  黄历监听器（接收每次爬取采集到的黄历，为null时不采集）
+     */
+    public BaiDuHolidaySource(int parallelism, double permitsPerSecond, Consumer<AlmanacStore> almanacListener) {
+        this(parallelism, permitsPerSecond, null, null, almanacListener);
+    }
+
+    /**
+     * @param parallelism      爬取的最大并发数
+     * @param permitsPerSecond 每秒请求上游接口的最大次数
+     * @param transport        爬虫传输层（由调用方持有、关闭，为null时使用{@link BaiDuHolidayCrawler}共用的传输层）
+     * @param requestTimeout   请求截止时间
+     * @param almanacListener  黄历监听器（接收每次爬取采集到的黄历，为null时不采集）
+     */
+    public BaiDuHolidaySource(int parallelism, double permitsPerSecond, CrawlerTransport transport, Duration requestTimeout,
+                              Consumer<AlmanacStore> almanacListener) {
+        this.parallelism = parallelism;
+        this.limiter = BaiDuHolidayCrawler.newHostLimiter(permitsPerSecond, parallelism);
+        this.transport = transport;
+        this.requestTimeout = requestTimeout;
+        this.almanacListener = almanacListener;
+    }
+
+    @Override
+    public String getName() {
+        return "baidu";
+    }
+
+    @Override
+    public Map<Integer, List<Holiday>> fetch(int startYear, int endYear) {
+        AlmanacStore.Builder almanac = null == almanacListener ? null : new AlmanacStore.Builder();
+        Map<Integer, List<Holiday>> holidays = BaiDuHolidayCrawler.crawlHolidays(startYear, endYear, parallelism, limiter, almanac,
+                transport(), requestTimeout());
+        if (null != almanac) {
+            almanacListener.accept(almanac.build());
+        }
+        return holidays;
+    }
+
+    /**
+     * 爬取年度法定节假日，返回紧凑格式（用于按需加载，不采集黄历）
+     *
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表）
+     */
+    public Map<Integer, List<CompactHoliday>> fetchCompact(int startYear, int endYear) {
+        return BaiDuHolidayCrawler.crawlCompactHolidays(startYear, endYear, parallelism, limiter, null, transport(), requestTimeout());
+    }
+
+    /**
+     * @return 爬虫传输层（没有指定时使用{@link BaiDuHolidayCrawler}默认的传输层）
+     */
+    private CrawlerTransport transport() {
+        return null == transport ? BaiDuHolidayCrawler.defaultTransport() : transport;
+    }
+
+    /**
+     * @return 请求截止时间（没有指定传输层时使用默认的请求截止时间）
+     */
+    private Duration requestTimeout() {
+        return null == transport ? BaiDuHolidayCrawler.DEFAULT_REQUEST_TIMEOUT : requestTimeout;
+    }
+}
@@ -0,0 +1,662 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.zze0.crawler.holiday.EpochDays;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 百度接口响应的流式解析器（按需取字段）
+ * <p>
+ * 日历接口（resource_id=39043）每天的日历信息有二十多个字段（宜、忌、农历等），分析节假日只需要 年、月、日、状态。
+ * 本解析器直接在响应字符串上顺序扫描，只解析需要的字段，其余字段原地跳过，不构建JSON对象树，
+ * 也不为跳过的字段创建字符串。需要采集黄历时，再额外解析农历、干支、节气、节日、宜忌字段。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class BaiDuPayloadParser {
+
+    private BaiDuPayloadParser() {
+    }
+
+    /**
+     * 解析日历接口（resource_id=39043）响应：data[0].almanac[]
+     *
+     * @param json 响应内容
+     * @return 日历日期列表，没有日历信息时返回null
+     * @throws IllegalArgumentException 响应格式有误
+     */
+    public static BaiDuAlmanacDays parseAlmanac(String json) {
+        return parseAlmanac(json, null);
+    }
+
+    /**
+     * 解析日历接口（resource_id=39043）响应：data[0].almanac[]，同时采集农历、干支、节气、节日、宜忌
+     *
+     * @param json    响应内容
+     * @param details 黄历存储构建器（为null时不采集，只解析分析节假日用到的字段）
+     * @return 日历日期列表，没有日历信息时返回null
+     * @throws IllegalArgumentException 响应格式有误
+     */
+    public static BaiDuAlmanacDays parseAlmanac(String json, AlmanacStore.Builder details) {
+
+        Scanner scanner = new Scanner(json);
+        if (!scanner.enterFirstData("almanac")) {
+            return null;
+        }
+
+        BaiDuAlmanacDays.Builder builder = new BaiDuAlmanacDays.Builder(96);
+        scanner.beginArray();
+        for (int index = 0; scanner.hasNext(']'); index++) {
+            int year = Scanner.MISSING;
+            int month = Scanner.MISSING;
+            int day = Scanner.MISSING;
+            int status = BaiDuAlmanacDays.STATUS_NONE;
+            AlmanacFields fields = null == details ? null : new AlmanacFields();
+
+            scanner.beginObject();
+            while (scanner.hasNext('}')) {
+                scanner.readKey();
+                if (scanner.keyEquals("year")) {
+                    year = scanner.readInt();
+                } else if (scanner.keyEquals("month")) {
+                    month = scanner.readInt();
+                } else if (scanner.keyEquals("day")) {
+                    day = scanner.readInt();
+                } else if (scanner.keyEquals("status")) {
+                    int value = scanner.readInt();
+                    status = value == Scanner.MISSING ? BaiDuAlmanacDays.STATUS_NONE : value;
+                } else if (null == fields || !fields.read(scanner)) {
+                    scanner.skipValue();
+                }
+            }
+
+            if (year == Scanner.MISSING || month == Scanner.MISSING || day == Scanner.MISSING) {
+                throw new IllegalArgumentException("日历中第" + index + "个日期年月日为空？");
+            }
+            builder.add(year, month, day, status);
+            if (null != fields) {
+                fields.addTo(details, EpochDays.of(year, month, day));
+            }
+        }
+
+        BaiDuAlmanacDays days = builder.build();
+        return days.size() == 0 ? null : days;
+    }
+
+    /**
+     * 解析年度法定节假日接口（resource_id=39042）响应：data[0].holiday[]
+     *
+     * @param json 响应内容
+     * @return 年度法定节假日列表（按响应中的顺序），没有节假日信息时返回null
+     * @throws IllegalArgumentException 响应格式有误
+     */
+    public static List<YearHolidays> parseYearHolidays(String json) {
+
+        Scanner scanner = new Scanner(json);
+        if (!scanner.enterFirstData("holiday")) {
+            return null;
+        }
+
+        List<YearHolidays> yearHolidaysList = new ArrayList<>();
+        scanner.beginArray();
+        while (scanner.hasNext(']')) {
+            YearHolidays yearHolidays = new YearHolidays();
+
+            scanner.beginObject();
+            while (scanner.hasNext('}')) {
+                scanner.readKey();
+                if (scanner.keyEquals("year")) {
+                    int year = scanner.readInt();
+                    yearHolidays.year = year == Scanner.MISSING ? null : year;
+                } else if (scanner.keyEquals("list")) {
+                    scanner.beginArray();
+                    while (scanner.hasNext(']')) {
+                        yearHolidays.addHoliday(scanner);
+                    }
+                } else {
+                    scanner.skipValue();
+                }
+            }
+            yearHolidaysList.add(yearHolidays);
+        }
+        return yearHolidaysList.isEmpty() ? null : yearHolidaysList;
+    }
+
+    /**
+     * 一个年度的法定节假日
+     */
+    public static final class YearHolidays {
+
+        /**
+         * 年份（没有年份时为null）
+         */
+        private Integer year;
+
+        /**
+         * 节假日日期（打包的年月日，没有日期时为0）
+         */
+        private int[] dates = new int[16];
+
+        /**
+         * 节假日名称（没有名称时为null）
+         */
+        private String[] names = new String[16];
+
+        /**
+         * 节假日个数
+         */
+        private int size;
+
+        public Integer getYear() {
+            return year;
+        }
+
+        /**
+         * @return 节假日个数
+         */
+        public int size() {
+            return size;
+        }
+
+        public int getYear(int index) {
+            return dates[index] >>> 9;
+        }
+
+        public int getMonth(int index) {
+            return (dates[index] >>> 5) & 15;
+        }
+
+        public int getDay(int index) {
+            return dates[index] & 31;
+        }
+
+        /**
+         * @param index 下标
+         * @return 是否有日期
+         */
+        public boolean hasDate(int index) {
+            return dates[index] != 0;
+        }
+
+        public String getName(int index) {
+            return names[index];
+        }
+
+        /**
+         * 解析一个节假日：{"date":"2021-1-1","name":"元旦节"}
+         */
+        private void addHoliday(Scanner scanner) {
+            int date = 0;
+            String name = null;
+
+            scanner.beginObject();
+            while (scanner.hasNext('}')) {
+                scanner.readKey();
+                if (scanner.keyEquals("date")) {
+                    date = scanner.readDate();
+                } else if (scanner.keyEquals("name")) {
+                    name = scanner.readString();
+                } else {
+                    scanner.skipValue();
+                }
+            }
+
+            if (size == dates.length) {
+                int[] newDates = new int[size * 2];
+                String[] newNames = new String[size * 2];
+                System.arraycopy(dates, 0, newDates, 0, size);
+                System.arraycopy(names, 0, newNames, 0, size);
+                dates = newDates;
+                names = newNames;
+            }
+            dates[size] = date;
+            names[size] = name;
+            size++;
+        }
+    }
+
+    /**
+     * 一天的黄历字段（只在需要采集黄历时解析）
+     */
+    private static final class AlmanacFields {
+
+        private int lunarYear;
+
+        private int lunarMonth;
+
+        private int lunarDay;
+
+        private boolean leapMonth;
+
+        private boolean bigMonth;
+
+        private String yearGanZhi;
+
+        private String monthGanZhi;
+
+        private String dayGanZhi;
+
+        private String term;
+
+        private String festival;
+
+        private String suit;
+
+        private String avoid;
+
+        /**
+         * 读取当前key对应的黄历字段
+         *
+         * @param scanner 扫描器（已读取key）
+         * @return 是否是黄历字段（不是时未消费值）
+         */
+        private boolean read(Scanner scanner) {
+            if (scanner.keyEquals("lunarYear")) {
+                lunarYear = scanner.readInt();
+            } else if (scanner.keyEquals("lunarMonth")) {
+                lunarMonth = scanner.readInt();
+            } else if (scanner.keyEquals("lunarDate")) {
+                lunarDay = scanner.readInt();
+            } else if (scanner.keyEquals("lMonth")) {
+                String value = scanner.readString();
+                leapMonth = null != value && value.startsWith("闰");
+            } else if (scanner.keyEquals("isBigMonth")) {
+                bigMonth = scanner.readInt() == 1;
+            } else if (scanner.keyEquals("gzYear")) {
+                yearGanZhi = scanner.readString();
+            } else if (scanner.keyEquals("gzMonth")) {
+                monthGanZhi = scanner.readString();
+            } else if (scanner.keyEquals("gzDate")) {
+                dayGanZhi = scanner.readString();
+            } else if (scanner.keyEquals("term")) {
+                term = scanner.readString();
+            } else if (scanner.keyEquals("value")) {
+                festival = scanner.readString();
+            } else if (scanner.keyEquals("suit")) {
+                suit = scanner.readString();
+            } else if (scanner.keyEquals("avoid")) {
+                avoid = scanner.readString();
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void addTo(AlmanacStore.Builder details, int epochDay) {
+            details.add(epochDay,
+                    lunarYear == Scanner.MISSING ? 0 : lunarYear,
+                    lunarMonth == Scanner.MISSING ? 0 : lunarMonth,
+                    lunarDay == Scanner.MISSING ? 0 : lunarDay,
+                    leapMonth, bigMonth, yearGanZhi, monthGanZhi, dayGanZhi, term, festival, suit, avoid);
+        }
+    }
+
+    /**
+     * JSON顺序扫描器
+     */
+    private static final class Scanner {
+
+        /**
+         * 数值字段缺失（null、空字符串）
+         */
+        private static final int MISSING = Integer.MIN_VALUE;
+
+        private final String json;
+
+        private final int length;
+
+        /**
+         * 当前位置
+         */
+        private int pos;
+
+        /**
+         * 当前对象/数组是否还没有读过元素
+         */
+        private boolean first;
+
+        /**
+         * 最近读取的key在json中的起止位置
+         */
+        private int keyStart;
+
+        private int keyEnd;
+
+        private Scanner(String json) {
+            this.json = null == json ? "" : json;
+            this.length = this.json.length();
+        }
+
+        /**
+         * 定位到 data[0].{field} 的值的起始位置
+         *
+         * @param field data[0]中的字段名
+         * @return 是否找到
+         */
+        private boolean enterFirstData(String field) {
+            skipWhitespace();
+            if (pos >= length) {
+                return false;
+            }
+            beginObject();
+            while (hasNext('}')) {
+                readKey();
+                if (!keyEquals("data")) {
+                    skipValue();
+                    continue;
+                }
+
+                skipWhitespace();
+                if (peek() != '[') {
+                    skipValue();
+                    continue;
+                }
+                beginArray();
+                if (!hasNext(']')) {
+                    return false;
+                }
+                skipWhitespace();
+                if (peek() != '{') {
+                    return false;
+                }
+                beginObject();
+                while (hasNext('}')) {
+                    readKey();
+                    if (keyEquals(field)) {
+                        skipWhitespace();
+                        return peek() == '[';
+                    }
+                    skipValue();
+                }
+                return false;
+            }
+            return false;
+        }
+
+        private void beginObject() {
+            expect('{');
+            first = true;
+        }
+
+        private void beginArray() {
+            expect('[');
+            first = true;
+        }
+
+        /**
+         * 当前对象/数组是否还有下一个元素（没有时消费掉结束符）
+         *
+         * @param close 结束符
+         * @return 是否还有下一个元素
+         */
+        private boolean hasNext(char close) {
+            skipWhitespace();
+            char c = peek();
+            if (c == close) {
+                pos++;
+                first = false;
+                return false;
+            }
+            if (!first) {
+                expect(',');
+            }
+            first = false;
+            return true;
+        }
+
+        /**
+         * 读取key（只记录位置，不创建字符串）并消费冒号
+         */
+        private void readKey() {
+            skipWhitespace();
+            expect('"');
+            keyStart = pos;
+            pos = skipStringBody(pos);
+            keyEnd = pos - 1;
+            skipWhitespace();
+            expect(':');
+        }
+
+        private boolean keyEquals(String name) {
+            return keyEnd - keyStart == name.length() && json.regionMatches(keyStart, name, 0, name.length());
+        }
+
+        /**
+         * 读取整数值（支持 "2021"、2021 两种形式）
+         *
+         * @return 整数值，null或空字符串时返回{@link #MISSING}
+         */
+        private int readInt() {
+            skipWhitespace();
+            boolean quoted = peek() == '"';
+            if (quoted) {
+                pos++;
+            } else if (peek() == 'n') {
+                skipValue();
+                return MISSING;
+            }
+
+            boolean negative = pos < length && json.charAt(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int start = pos;
+            int value = 0;
+            while (pos < length) {
+                char c = json.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (value > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                    throw error("整数超出范围");
+                }
+                value = value * 10 + (c - '0');
+                pos++;
+            }
+            boolean empty = pos == start;
+
+            //数字后面如果还有其他字符（如"1.5"、1e3），一并跳过；不是数字的值（如true、对象）整体跳过
+            if (quoted) {
+                pos = skipStringBody(pos);
+            } else {
+                skipValue();
+            }
+            return empty ? MISSING : (negative ? -value : value);
+        }
+
+        /**
+         * 读取 yyyy-M-d 格式的日期
+         *
+         * @return 打包的年月日，null或格式有误时返回0
+         */
+        private int readDate() {
+            skipWhitespace();
+            if (peek() != '"') {
+                skipValue();
+                return 0;
+            }
+            int start = pos + 1;
+            pos = skipStringBody(start);
+            int end = pos - 1;
+
+            int[] parts = new int[3];
+            int part = 0;
+            boolean hasDigit = false;
+            for (int index = start; index < end; index++) {
+                char c = json.charAt(index);
+                if (c >= '0' && c <= '9') {
+                    parts[part] = parts[part] * 10 + (c - '0');
+                    hasDigit = true;
+                } else if (c == '-' && hasDigit && part < 2) {
+                    part++;
+                    hasDigit = false;
+                } else {
+                    return 0;
+                }
+            }
+            if (part != 2 || !hasDigit || parts[1] < 1 || parts[1] > 12 || parts[2] < 1 || parts[2] > 31) {
+                return 0;
+            }
+            return BaiDuAlmanacDays.pack(parts[0], parts[1], parts[2]);
+        }
+
+        /**
+         * 读取字符串值
+         *
+         * @return 字符串，null时返回null
+         */
+        private String readString() {
+            skipWhitespace();
+            if (peek() != '"') {
+                skipValue();
+                return null;
+            }
+            int start = ++pos;
+            StringBuilder builder = null;
+            while (pos < length) {
+                char c = json.charAt(pos);
+                if (c == '"') {
+                    String value = null == builder ? json.substring(start, pos) : builder.toString();
+                    pos++;
+                    return value;
+                }
+                if (c == '\\') {
+                    if (null == builder) {
+                        builder = new StringBuilder().append(json, start, pos);
+                    }
+                    builder.append(unescape());
+                    continue;
+                }
+                if (null != builder) {
+                    builder.append(c);
+                }
+                pos++;
+            }
+            throw error("字符串未结束");
+        }
+
+        /**
+         * 解析当前位置的转义字符（当前位置是反斜杠）
+         */
+        private char unescape() {
+            if (pos + 1 >= length) {
+                throw error("转义字符未结束");
+            }
+            char c = json.charAt(pos + 1);
+            pos += 2;
+            switch (c) {
+                case 'n':
+                    return '\n';
+                case 't':
+                    return '\t';
+                case 'r':
+                    return '\r';
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'u':
+                    if (pos + 4 > length) {
+                        throw error("unicode转义字符未结束");
+                    }
+                    int unicode = 0;
+                    for (int index = pos; index < pos + 4; index++) {
+                        int digit = Character.digit(json.charAt(index), 16);
+                        if (digit < 0) {
+                            throw error("unicode转义字符有误");
+                        }
+                        unicode = unicode << 4 | digit;
+                    }
+                    pos += 4;
+                    return (char) unicode;
+                default:
+                    return c;
+            }
+        }
+
+        /**
+         * 跳过任意值（字符串、数字、对象、数组、true/false/null），不创建任何对象
+         */
+        private void skipValue() {
+            skipWhitespace();
+            char c = peek();
+            if (c == '"') {
+                pos = skipStringBody(pos + 1);
+            } else if (c == '{' || c == '[') {
+                int depth = 0;
+                while (pos < length) {
+                    c = json.charAt(pos);
+                    if (c == '"') {
+                        pos = skipStringBody(pos + 1);
+                        continue;
+                    }
+                    if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                        if (depth == 0) {
+                            pos++;
+                            return;
+                        }
+                    }
+                    pos++;
+                }
+                throw error("对象/数组未结束");
+            } else {
+                while (pos < length) {
+                    c = json.charAt(pos);
+                    if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                        break;
+                    }
+                    pos++;
+                }
+            }
+        }
+
+        /**
+         * 跳过字符串内容
+         *
+         * @param from 字符串内容的起始位置（左引号之后）
+         * @return 右引号之后的位置
+         */
+        private int skipStringBody(int from) {
+            int index = from;
+            while (index < length) {
+                char c = json.charAt(index);
+                if (c == '"') {
+                    return index + 1;
+                }
+                index += c == '\\' ? 2 : 1;
+            }
+            pos = length;
+            throw error("字符串未结束");
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= length) {
+                throw error("内容不完整");
+            }
+            return json.charAt(pos);
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("期望'" + c + "'");
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("百度接口响应格式有误，" + message + "，位置：" + pos);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.zze0.crawler.holiday.service;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import lombok.Data;
+import org.zze0.crawler.holiday.HolidayOverlay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 租户叠加层文件加载器（文件有变化时才重新解析，用于热加载）
+ * <p>
+ * 文件格式（key是租户，日期格式为yyyy-MM-dd，不需要的调整可以省略）：
+ * <pre>
+ * {
+ *     "tenant-a":{
+ *         "addHolidays":["2024-02-08"],
+ *         "removeHolidays":[],
+ *         "addWorkdays":[],
+ *         "removeWorkdays":["2024-02-04"]
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public class HolidayOverlayLoader {
+
+    private static final TypeReference<LinkedHashMap<String, OverlayConfig>> OVERLAYS_TYPE = new TypeReference<LinkedHashMap<String, OverlayConfig>>() {
+    };
+
+    /**
+     * 叠加层文件路径
+     */
+    private final Path path;
+
+    /**
+     * 上次加载时文件的修改时间、大小（文件不存在时为null）
+     */
+    private String lastStamp;
+
+    /**
+     * 是否加载过
+     */
+    private boolean loaded;
+
+    public HolidayOverlayLoader(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 文件有变化时重新加载
+     *
+     * @return 各租户的叠加层（key是租户；文件不存在时为空），文件没有变化时返回null
+     * @throws RuntimeException 文件读取或解析失败
+     */
+    public synchronized Map<String, HolidayOverlay> loadIfChanged() {
+
+        String stamp = stampOf(path);
+        if (loaded && Objects.equals(stamp, lastStamp)) {
+            return null;
+        }
+
+        Map<String, HolidayOverlay> overlays = null == stamp ? Collections.emptyMap() : parse(path);
+        lastStamp = stamp;
+        loaded = true;
+        return overlays;
+    }
+
+    /**
+     * @return 叠加层文件路径
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    private static Map<String, HolidayOverlay> parse(Path path) {
+        String content;
+        try {
+            content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("租户叠加层文件读取失败：" + path, e);
+        }
+
+        Map<String, OverlayConfig> configs = JSON.parseObject(content, OVERLAYS_TYPE);
+        Map<String, HolidayOverlay> overlays = new LinkedHashMap<>();
+        if (null != configs) {
+            configs.forEach((tenant, config) -> overlays.put(tenant, HolidayOverlay.of(tenant,
+                    toDates(config.getAddHolidays()), toDates(config.getRemoveHolidays()),
+                    toDates(config.getAddWorkdays()), toDates(config.getRemoveWorkdays()))));
+        }
+        return overlays;
+    }
+
+    /**
+     * @param path 文件路径
+     * @return 文件的修改时间、大小，文件不存在时返回null
+     */
+    private static String stampOf(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static List<LocalDate> toDates(List<String> dates) {
+        return null == dates ? Collections.emptyList() : dates.stream().map(LocalDate::parse).collect(Collectors.toList());
+    }
+
+    /**
+     * 文件中一个租户的配置
+     */
+    @Data
+    public static class OverlayConfig {
+
+        /**
+         * 增加的放假日期
+         */
+        private List<String> addHolidays;
+
+        /**
+         * 取消的放假日期
+         */
+        private List<String> removeHolidays;
+
+        /**
+         * 增加的补班日期
+         */
+        private List<String> addWorkdays;
+
+        /**
+         * 取消的补班日期
+         */
+        private List<String> removeWorkdays;
+    }
+}
@@ -0,0 +1,122 @@
+package org.zze0.crawler.holiday.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.zze0.crawler.holiday.EpochDays;
+
+import java.time.Duration;
+import java.time.Year;
+
+/**
+ * 节假日服务配置
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "crawler.holiday")
+public class HolidayProperties {
+
+    /**
+     * 开始年度（默认去年）
+     */
+    private int startYear = Year.now(EpochDays.CHINA_ZONE).getValue() - 1;
+
+    /**
+     * 结束年度（默认明年）
+     */
+    private int endYear = Year.now(EpochDays.CHINA_ZONE).getValue() + 1;
+
+    /**
+     * 爬取的最大并发数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 每秒请求上游接口的最大次数
+     */
+    private double permitsPerSecond = 5;
+
+    /**
+     * 上游接口的最大连接数（连接池复用长连接）
+     */
+    private int maxConnections = 8;
+
+    /**
+     * 建立连接超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 请求截止时间（单个上游请求的最长耗时）
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 本地节假日文件位置（文件路径，或"classpath:"开头的类路径资源；业务系统自己维护，百度接口不可用或太慢时使用；默认为空，不启用）
+     */
+    private String overridePath;
+
+    /**
+     * 延迟预算（百度接口超过这个时间还没有返回时，提前读取本地节假日文件备用；只有百度接口失败时才使用本地节假日文件）
+     */
+    private Duration hedgeDelay = Duration.ofSeconds(5);
+
+    /**
+     * 百度接口的截止时间（超过这个时间还没有返回、而本地节假日文件读取成功时，使用本地节假日文件，百度接口在后台继续完成；
+     * 不小于延迟预算，配置为空时一直等待百度接口，耗时没有上限）
+     */
+    private Duration hedgeDeadline = Duration.ofMinutes(1);
+
+    /**
+     * 数据源连续失败多少次后视为不可用
+     */
+    private int sourceFailureThreshold = 3;
+
+    /**
+     * 数据源不可用状态的冷却时间（冷却期间优先使用其他数据源）
+     */
+    private Duration sourceCooldown = Duration.ofMinutes(10);
+
+    /**
+     * 是否采集黄历（农历、干支、节气、节日、宜忌），从节假日爬取的同一批日历页面中采集，不单独爬取
+     */
+    private boolean almanacEnabled = true;
+
+    /**
+     * 是否按需加载快照未收录的年度（如开始年度之前的历史年度）：第一次查询该年度的节假日、日期状态时才爬取，不需要提前开始年度做全量爬取
+     */
+    private boolean lazyHistoryEnabled = false;
+
+    /**
+     * 按需加载时最多常驻的年度数（不少于3）
+     */
+    private int lazyMaxResidentYears = 16;
+
+    /**
+     * 本地快照文件路径（服务启动时优先从快照恢复，不依赖爬虫接口）
+     */
+    private String snapshotPath = "data/holiday-snapshot.bin";
+
+    /**
+     * 本地黄历文件路径（服务启动时从文件恢复黄历，之后每次节假日爬取采集到黄历时更新）
+     */
+    private String almanacPath = "data/almanac.bin";
+
+    /**
+     * 租户叠加层文件路径（各租户在法定节假日之上增加、取消放假和补班，修改后自动热加载，不需要重新爬取）
+     */
+    private String overlayPath = "data/holiday-overlays.json";
+
+    /**
+     * 检查租户叠加层文件是否有变化的间隔
+     */
+    private Duration overlayReloadInterval = Duration.ofSeconds(30);
+
+    /**
+     * 增量同步的cron表达式（北京时间，默认每天凌晨3点）
+     */
+    private String syncCron = "0 0 3 * * ?";
+}
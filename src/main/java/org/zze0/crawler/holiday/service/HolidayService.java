@@ -0,0 +1,430 @@
+package org.zze0.crawler.holiday.service;
+
+import cn.hutool.core.util.StrUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.zze0.crawler.holiday.EpochDays;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.holiday.HolidayOverlay;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.holiday.HolidaySnapshotDiff;
+import org.zze0.crawler.holiday.LazyHolidayCalendar;
+import org.zze0.crawler.holiday.TenantCalendars;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+import org.zze0.crawler.holiday.baidu.BaiDuHolidaySource;
+import org.zze0.crawler.holiday.source.HedgedHolidaySource;
+import org.zze0.crawler.holiday.source.HolidaySource;
+import org.zze0.crawler.holiday.source.LocalHolidaySource;
+import org.zze0.crawler.holiday.store.AlmanacSnapshotStore;
+import org.zze0.crawler.holiday.store.HolidaySnapshotStore;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+import org.zze0.crawler.transport.PooledHttpTransport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 节假日服务（持有当前的节假日快照，供查询接口使用）
+ * <p>
+ * 快照不可变，更新时构建新快照后通过一次原子引用替换发布，读取方无需加锁，也不会被阻塞。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+@Service
+public class HolidayService {
+
+    private final HolidayProperties properties;
+
+    /**
+     * Spring容器的指标注册表（本服务的仪表、刷新耗时记录到这里，不经过全局注册表）
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 本地快照存储
+     */
+    private final HolidaySnapshotStore snapshotStore;
+
+    /**
+     * 黄历本地存储
+     */
+    private final AlmanacSnapshotStore almanacSnapshotStore;
+
+    /**
+     * 爬虫传输层（复用长连接的HTTP连接池）
+     */
+    private final PooledHttpTransport transport;
+
+    /**
+     * 节假日数据源（百度接口，配置了本地节假日文件时是百度接口 + 本地文件的对冲组合）
+     */
+    private final HolidaySource holidaySource;
+
+    /**
+     * 按需加载的节假日日历（查询快照未收录的年度，未开启时为null）
+     */
+    private final LazyHolidayCalendar lazyCalendar;
+
+    /**
+     * 当前的节假日快照（尚未初始化完成时是版本号为0的空快照）
+     */
+    private final AtomicReference<HolidaySnapshot> snapshot = new AtomicReference<>(HolidaySnapshot.of(0, Collections.emptyMap()));
+
+    /**
+     * 当前的黄历存储（随节假日爬取采集，尚未爬取、也没有本地黄历文件时为null）
+     */
+    private final AtomicReference<AlmanacStore> almanacStore = new AtomicReference<>();
+
+    /**
+     * 保存快照、黄历的锁（并发发布时按发布顺序写文件，旧版本不会覆盖新版本）
+     */
+    private final Object saveLock = new Object();
+
+    /**
+     * 已保存到本地的快照版本号（持有{@link #saveLock}时读写）
+     */
+    private long savedVersion;
+
+    /**
+     * 已保存到本地的黄历版本号（持有{@link #saveLock}时读写）
+     */
+    private long savedAlmanacVersion;
+
+    /**
+     * 租户叠加层文件加载器
+     */
+    private final HolidayOverlayLoader overlayLoader;
+
+    /**
+     * 当前的租户节假日日历（快照或叠加层变化时重新编译）
+     */
+    private final AtomicReference<TenantCalendars> tenantCalendars = new AtomicReference<>(TenantCalendars.compile(snapshot.get(), 0, Collections.emptyMap()));
+
+    public HolidayService(HolidayProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.snapshotStore = new HolidaySnapshotStore(Paths.get(properties.getSnapshotPath()));
+        this.almanacSnapshotStore = new AlmanacSnapshotStore(Paths.get(properties.getAlmanacPath()));
+        this.overlayLoader = new HolidayOverlayLoader(Paths.get(properties.getOverlayPath()));
+
+        //传输层由本服务持有（不使用爬虫默认的传输层），多个应用上下文互不影响，销毁时关闭
+        this.transport = new PooledHttpTransport(properties.getMaxConnections(), properties.getConnectTimeout());
+
+        //全量刷新、增量同步、按需加载都通过同一个百度数据源爬取，共用它持有的令牌桶，对百度接口的总请求速率不超过配置的每秒请求次数
+        BaiDuHolidaySource baiDuSource = new BaiDuHolidaySource(properties.getParallelism(), properties.getPermitsPerSecond(),
+                transport, properties.getRequestTimeout(), properties.isAlmanacEnabled() ? this::publishAlmanac : null);
+        this.holidaySource = StrUtil.isBlank(properties.getOverridePath())
+                ? baiDuSource
+                : new HedgedHolidaySource(baiDuSource, new LocalHolidaySource(properties.getOverridePath()),
+                properties.getHedgeDelay(), properties.getHedgeDeadline(), properties.getSourceFailureThreshold(), properties.getSourceCooldown());
+        this.lazyCalendar = properties.isLazyHistoryEnabled()
+                ? new LazyHolidayCalendar(baiDuSource::fetchCompact, properties.getLazyMaxResidentYears())
+                : null;
+
+        //当前快照的年龄、版本号、年度数（快照长时间没有更新说明爬取一直失败），仪表只弱引用快照的原子引用，由本服务持有
+        TimeGauge.builder(CrawlerMetrics.SNAPSHOT_AGE, snapshot, TimeUnit.MILLISECONDS, current -> System.currentTimeMillis() - current.get().getCreateTime())
+                .register(meterRegistry);
+        Gauge.builder(CrawlerMetrics.SNAPSHOT_VERSION, snapshot, current -> current.get().getVersion())
+                .register(meterRegistry);
+        Gauge.builder(CrawlerMetrics.SNAPSHOT_YEARS, snapshot, current -> current.get().getHolidays().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 从本地快照恢复节假日数据、黄历（文件损坏时忽略，等待后台爬取），并加载租户叠加层
+     */
+    @PostConstruct
+    public void restore() {
+        long ts = System.currentTimeMillis();
+        try {
+            HolidaySnapshot restored = snapshotStore.load();
+            if (null != restored) {
+                snapshot.set(restored);
+                synchronized (saveLock) {
+                    savedVersion = restored.getVersion();
+                }
+                log.info("已从本地快照恢复节假日数据：版本={}，年度={}，耗时{}ms",
+                        restored.getVersion(), restored.getHolidays().keySet(), System.currentTimeMillis() - ts);
+            }
+        } catch (RuntimeException e) {
+            log.warn("本地节假日快照读取失败，等待后台爬取", e);
+        }
+        if (properties.isAlmanacEnabled()) {
+            restoreAlmanac();
+        }
+
+        reloadOverlays();
+        recompileTenantCalendars();
+    }
+
+    /**
+     * 服务启动后在后台刷新节假日快照，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        Thread initThread = new Thread(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.error("节假日快照刷新失败", e);
+            }
+        }, "holiday-refresh");
+        initThread.setDaemon(true);
+        initThread.start();
+    }
+
+    /**
+     * 应用上下文关闭时释放本服务持有的传输层（不影响其他应用上下文）
+     */
+    @PreDestroy
+    public void close() {
+        transport.close();
+    }
+
+    /**
+     * 每天定时增量同步
+     */
+    @Scheduled(cron = "#{@holidayProperties.syncCron}", zone = "Asia/Shanghai")
+    public void scheduledSync() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.error("节假日增量同步失败", e);
+        }
+    }
+
+    /**
+     * 定时检查租户叠加层文件，有变化时热加载
+     */
+    @Scheduled(fixedDelayString = "#{@holidayProperties.overlayReloadInterval.toMillis()}", initialDelayString = "#{@holidayProperties.overlayReloadInterval.toMillis()}")
+    public void scheduledReloadOverlays() {
+        reloadOverlays();
+    }
+
+    /**
+     * 租户叠加层文件有变化时重新加载，并基于当前快照重新编译租户节假日日历（不需要重新爬取）
+     *
+     * @return 是否重新加载了（文件没有变化或加载失败时返回false，继续使用原来的叠加层）
+     */
+    public boolean reloadOverlays() {
+        Map<String, HolidayOverlay> overlays;
+        try {
+            overlays = overlayLoader.loadIfChanged();
+        } catch (RuntimeException e) {
+            log.warn("租户叠加层文件加载失败，继续使用原来的叠加层：{}", overlayLoader.getPath(), e);
+            return false;
+        }
+        if (null == overlays) {
+            return false;
+        }
+
+        TenantCalendars calendars = tenantCalendars.updateAndGet(current ->
+                TenantCalendars.compile(snapshot.get(), current.getOverlayVersion() + 1, overlays));
+        log.info("租户叠加层已加载：版本={}，租户={}", calendars.getOverlayVersion(), calendars.getOverlays().keySet());
+        return true;
+    }
+
+    /**
+     * 重新爬取配置的全部年度，并发布有变化的年度
+     *
+     * @return 快照差异
+     */
+    public HolidaySnapshotDiff refresh() {
+        return publish(crawl("refresh", properties.getStartYear(), properties.getEndYear()));
+    }
+
+    /**
+     * 增量同步：只重新爬取可能发生变化的年度（今年、明年），并发布有变化的年度
+     *
+     * @return 快照差异
+     */
+    public HolidaySnapshotDiff sync() {
+        int currentYear = Year.now(EpochDays.CHINA_ZONE).getValue();
+        return publish(crawl("sync", currentYear, currentYear + 1));
+    }
+
+    /**
+     * 获取当前的黄历存储
+     *
+     * @return 黄历存储，尚未爬取、也没有本地黄历文件时返回null
+     */
+    public AlmanacStore getAlmanacStore() {
+        return almanacStore.get();
+    }
+
+    /**
+     * 获取当前的节假日快照
+     *
+     * @return 节假日快照，尚未初始化完成时是版本号为0的空快照
+     */
+    public HolidaySnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 获取按需加载的节假日日历（查询快照未收录的年度）
+     *
+     * @return 按需加载的节假日日历，未开启时返回null
+     */
+    public LazyHolidayCalendar getLazyCalendar() {
+        return lazyCalendar;
+    }
+
+    /**
+     * 获取当前的租户节假日日历
+     *
+     * @return 租户节假日日历
+     */
+    public TenantCalendars getTenantCalendars() {
+        return tenantCalendars.get();
+    }
+
+    /**
+     * 从本地黄历文件恢复黄历（文件损坏时忽略，等待下一次节假日爬取时采集）
+     */
+    private void restoreAlmanac() {
+        long ts = System.currentTimeMillis();
+        try {
+            AlmanacStore restored = almanacSnapshotStore.load();
+            if (null != restored) {
+                almanacStore.set(restored);
+                synchronized (saveLock) {
+                    savedAlmanacVersion = restored.getVersion();
+                }
+                log.info("已从本地文件恢复黄历：{}天，耗时{}ms", restored.getDayCount(), System.currentTimeMillis() - ts);
+            }
+        } catch (RuntimeException e) {
+            log.warn("本地黄历文件读取失败，等待下一次节假日爬取时采集", e);
+        }
+    }
+
+    /**
+     * 发布节假日爬取时采集到的黄历：与当前黄历合并（同一天以新采集的为准），增量同步只覆盖今年、明年，不会丢掉其他年度
+     *
+     * @param crawled 本次采集到的黄历
+     */
+    private void publishAlmanac(AlmanacStore crawled) {
+        if (crawled.getDayCount() == 0) {
+            return;
+        }
+        AlmanacStore store = almanacStore.updateAndGet(current -> {
+            if (null == current) {
+                return crawled;
+            }
+            AlmanacStore.Builder builder = new AlmanacStore.Builder();
+            builder.merge(crawled);
+            builder.merge(current);
+            return builder.build();
+        });
+        log.info("黄历已更新：本次采集{}天，共{}天", crawled.getDayCount(), store.getDayCount());
+        saveAlmanac();
+    }
+
+    /**
+     * 保存当前的黄历（保存时重新读取当前黄历，并发发布时最后保存的一定是最新的黄历）
+     */
+    private void saveAlmanac() {
+        synchronized (saveLock) {
+            AlmanacStore latest = almanacStore.get();
+            if (null == latest || latest.getVersion() <= savedAlmanacVersion) {
+                return;
+            }
+            try {
+                almanacSnapshotStore.save(latest);
+                savedAlmanacVersion = latest.getVersion();
+            } catch (RuntimeException e) {
+                log.warn("黄历保存失败", e);
+            }
+        }
+    }
+
+    /**
+     * 基于当前快照重新编译租户节假日日历（叠加层不变）
+     */
+    private void recompileTenantCalendars() {
+        tenantCalendars.updateAndGet(current -> current.withSnapshot(snapshot.get()));
+    }
+
+    /**
+     * 从数据源获取年度法定节假日（记录耗时）
+     *
+     * @param operation 操作（refresh/sync）
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @return 年度法定节假日
+     */
+    private Map<Integer, List<Holiday>> crawl(String operation, int startYear, int endYear) {
+        long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<Integer, List<Holiday>> holidays = holidaySource.fetch(startYear, endYear);
+            success = true;
+            return holidays;
+        } finally {
+            CrawlerMetrics.recordRefresh(meterRegistry, operation, System.nanoTime() - startNanos, success);
+        }
+    }
+
+    /**
+     * 发布新快照：按年度内容哈希找出有变化的年度，基于当前快照替换这些年度后原子替换
+     *
+     * @param holidays 爬取到的年度法定节假日
+     * @return 快照差异
+     */
+    HolidaySnapshotDiff publish(Map<Integer, List<Holiday>> holidays) {
+        while (true) {
+            HolidaySnapshot current = snapshot.get();
+
+            Map<Integer, List<Holiday>> changedHolidays = new TreeMap<>();
+            holidays.forEach((year, yearHolidays) -> {
+                if (!Objects.equals(current.getYearHashes().get(year), HolidaySnapshot.hash(yearHolidays))) {
+                    changedHolidays.put(year, yearHolidays);
+                }
+            });
+            if (changedHolidays.isEmpty()) {
+                log.info("节假日数据没有变化：版本={}，年度={}", current.getVersion(), holidays.keySet());
+                return HolidaySnapshotDiff.between(current, current);
+            }
+
+            HolidaySnapshot newSnapshot = current.withYears(current.getVersion() + 1, changedHolidays);
+            if (snapshot.compareAndSet(current, newSnapshot)) {
+                recompileTenantCalendars();
+                HolidaySnapshotDiff diff = HolidaySnapshotDiff.between(current, newSnapshot);
+                log.info("节假日快照已发布：{}", diff);
+                saveSnapshot();
+                return diff;
+            }
+        }
+    }
+
+    /**
+     * 保存当前的节假日快照（保存时重新读取当前快照，版本号不大于已保存版本时跳过，并发发布时旧快照不会覆盖新快照）
+     */
+    private void saveSnapshot() {
+        synchronized (saveLock) {
+            HolidaySnapshot latest = snapshot.get();
+            if (latest.getVersion() <= savedVersion) {
+                return;
+            }
+            try {
+                snapshotStore.save(latest);
+                savedVersion = latest.getVersion();
+            } catch (RuntimeException e) {
+                log.warn("节假日快照保存失败", e);
+            }
+        }
+    }
+}
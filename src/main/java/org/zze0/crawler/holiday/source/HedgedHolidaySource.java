@@ -0,0 +1,230 @@
+package org.zze0.crawler.holiday.source;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 对冲请求的组合数据源（主数据源 + 备选数据源）
+ * <p>
+ * 主数据源的结果是权威的：主数据源在截止时间内成功就使用主数据源的结果；主数据源失败时才使用备选数据源的结果。
+ * 主数据源超过延迟预算还没有返回时，提前并行请求备选数据源备用（对冲请求），主数据源最终失败时不必再等备选数据源；
+ * 主数据源成功时备用请求会被取消，主数据源的请求从不因为对冲而取消。两个数据源都失败时才抛出异常。
+ * 主数据源超过截止时间还没有返回、而备用请求成功时，使用备用结果，主数据源的请求在后台继续完成（只更新健康状态）；
+ * 备用请求也失败时继续等待主数据源。没有设置截止时间时一直等待主数据源，耗时没有上限。
+ * 每个数据源缓存健康状态：主数据源连续失败达到阈值后，在冷却时间内直接使用备选数据源（备选数据源失败时再请求主数据源），
+ * 冷却时间过后重新以主数据源为准。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public class HedgedHolidaySource implements HolidaySource {
+
+    /**
+     * 执行数据源请求的线程池（所有实例共用，守护线程）
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new NamedThreadFactory("holiday-source-", true));
+
+    private final HolidaySource primary;
+
+    private final HolidaySource secondary;
+
+    /**
+     * 延迟预算（先请求的数据源超过这个时间还没有返回时，请求另一个数据源）
+     */
+    private final Duration hedgeDelay;
+
+    /**
+     * 主数据源的截止时间（超过这个时间还没有返回时，备用请求成功就使用备用结果；为null时一直等待主数据源）
+     */
+    private final Duration primaryDeadline;
+
+    /**
+     * 各数据源的健康状态
+     */
+    private final Map<HolidaySource, SourceHealth> healths = new IdentityHashMap<>();
+
+    /**
+     * 不设置截止时间（一直等待主数据源，耗时没有上限）
+     *
+     * @param primary          主数据源
+     * @param secondary        备选数据源
+     * @param hedgeDelay       延迟预算
+     * @param failureThreshold 连续失败多少次后视为不可用
+     * @param cooldown         不可用状态的冷却时间
+     */
+    public HedgedHolidaySource(HolidaySource primary, HolidaySource secondary, Duration hedgeDelay, int failureThreshold, Duration cooldown) {
+        this(primary, secondary, hedgeDelay, null, failureThreshold, cooldown);
+    }
+
+    /**
+     * @param primary          主数据源
+     * @param secondary        备选数据源
+     * @param hedgeDelay       延迟预算
+     * @param primaryDeadline  主数据源的截止时间（不小于延迟预算；为null时一直等待主数据源，耗时没有上限）
+     * @param failureThreshold 连续失败多少次后视为不可用
+     * @param cooldown         不可用状态的冷却时间
+     */
+    public HedgedHolidaySource(HolidaySource primary, HolidaySource secondary, Duration hedgeDelay, Duration primaryDeadline,
+                               int failureThreshold, Duration cooldown) {
+        Assert.notNull(primary, "主数据源不能为空");
+        Assert.notNull(secondary, "备选数据源不能为空");
+        Assert.isTrue(null != hedgeDelay && !hedgeDelay.isNegative(), "延迟预算不能为负数：" + hedgeDelay);
+        Assert.isTrue(null == primaryDeadline || primaryDeadline.compareTo(hedgeDelay) >= 0,
+                "主数据源的截止时间不能小于延迟预算：" + primaryDeadline);
+        Assert.isTrue(failureThreshold > 0, "失败阈值必须大于0：" + failureThreshold);
+
+        this.primary = primary;
+        this.secondary = secondary;
+        this.hedgeDelay = hedgeDelay;
+        this.primaryDeadline = primaryDeadline;
+        this.healths.put(primary, new SourceHealth(failureThreshold, cooldown.toMillis()));
+        this.healths.put(secondary, new SourceHealth(failureThreshold, cooldown.toMillis()));
+    }
+
+    @Override
+    public String getName() {
+        return "hedged(" + primary.getName() + ", " + secondary.getName() + ")";
+    }
+
+    @Override
+    public Map<Integer, List<Holiday>> fetch(int startYear, int endYear) {
+
+        //主数据源在冷却中（且备选数据源可用）时，直接使用备选数据源
+        long now = System.currentTimeMillis();
+        if (!healths.get(primary).isAvailable(now) && healths.get(secondary).isAvailable(now)) {
+            log.warn("{}暂不可用，使用{}：{}", primary.getName(), secondary.getName(), healths.get(primary));
+            try {
+                return fetch(secondary, startYear, endYear);
+            } catch (RuntimeException secondaryFailure) {
+                try {
+                    return fetch(primary, startYear, endYear);
+                } catch (RuntimeException primaryFailure) {
+                    primaryFailure.addSuppressed(secondaryFailure);
+                    throw primaryFailure;
+                }
+            }
+        }
+
+        Future<Map<Integer, List<Holiday>>> primaryFuture = EXECUTOR.submit(() -> fetch(primary, startYear, endYear));
+        Future<Map<Integer, List<Holiday>>> standby = null;
+        try {
+            //主数据源超过延迟预算未返回时，提前请求备选数据源备用
+            if (!await(primaryFuture, hedgeDelay)) {
+                log.warn("{}超过{}ms未返回，提前请求{}备用", primary.getName(), hedgeDelay.toMillis(), secondary.getName());
+                standby = EXECUTOR.submit(() -> fetch(secondary, startYear, endYear));
+            }
+
+            //主数据源超过截止时间：备用请求成功时使用备用结果，主数据源的请求不取消，在后台继续完成
+            if (null != primaryDeadline && !await(primaryFuture, primaryDeadline.minus(hedgeDelay))) {
+                try {
+                    Map<Integer, List<Holiday>> holidays = getResult(standby);
+                    log.warn("{}超过截止时间{}ms未返回，使用{}的结果", primary.getName(), primaryDeadline.toMillis(), secondary.getName());
+                    return holidays;
+                } catch (RuntimeException standbyFailure) {
+                    log.warn("{}超过截止时间{}ms未返回，{}也失败了，继续等待{}", primary.getName(), primaryDeadline.toMillis(),
+                            secondary.getName(), primary.getName());
+                }
+            }
+
+            try {
+                return getResult(primaryFuture);
+            } catch (RuntimeException primaryFailure) {
+                try {
+                    return null == standby ? fetch(secondary, startYear, endYear) : getResult(standby);
+                } catch (RuntimeException secondaryFailure) {
+                    primaryFailure.addSuppressed(secondaryFailure);
+                    throw primaryFailure;
+                }
+            }
+        } catch (InterruptedException e) {
+            primaryFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待节假日数据源时被中断", e);
+        } finally {
+            //主数据源成功时不再需要备用结果（已完成的请求取消不会有影响）
+            if (null != standby) {
+                standby.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @param source 数据源
+     * @return 数据源的健康状态
+     */
+    public SourceHealth getHealth(HolidaySource source) {
+        return healths.get(source);
+    }
+
+    /**
+     * 请求一个数据源，并记录健康状态
+     *
+     * @param source    数据源
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @return 年度法定节假日
+     */
+    private Map<Integer, List<Holiday>> fetch(HolidaySource source, int startYear, int endYear) {
+        SourceHealth health = healths.get(source);
+        long ts = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        try {
+            Map<Integer, List<Holiday>> holidays = source.fetch(startYear, endYear);
+            health.recordSuccess(System.currentTimeMillis() - ts);
+            CrawlerMetrics.recordSourceFetch(source.getName(), System.nanoTime() - startNanos, CrawlerMetrics.OUTCOME_SUCCESS);
+            log.info("{}获取{}~{}年度法定节假日成功，耗时{}ms", source.getName(), startYear, endYear, System.currentTimeMillis() - ts);
+            return holidays;
+        } catch (RuntimeException e) {
+            //被取消的对冲请求不算数据源失败
+            if (Thread.currentThread().isInterrupted()) {
+                CrawlerMetrics.recordSourceFetch(source.getName(), System.nanoTime() - startNanos, CrawlerMetrics.OUTCOME_CANCELLED);
+            } else {
+                health.recordFailure(System.currentTimeMillis());
+                CrawlerMetrics.recordSourceFetch(source.getName(), System.nanoTime() - startNanos, CrawlerMetrics.OUTCOME_ERROR);
+                log.warn("{}获取{}~{}年度法定节假日失败：{}，{}", source.getName(), startYear, endYear, e.getMessage(), health);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 等待请求完成
+     *
+     * @param future  请求
+     * @param timeout 最长等待时间
+     * @return 是否已完成（成功或失败）
+     */
+    private static boolean await(Future<?> future, Duration timeout) throws InterruptedException {
+        try {
+            future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取请求结果（未完成时等待）
+     *
+     * @param future 请求
+     * @return 年度法定节假日
+     */
+    private static Map<Integer, List<Holiday>> getResult(Future<Map<Integer, List<Holiday>>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+}
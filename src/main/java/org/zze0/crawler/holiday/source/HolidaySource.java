@@ -0,0 +1,30 @@
+package org.zze0.crawler.holiday.source;
+
+import org.zze0.crawler.holiday.Holiday;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节假日数据源（百度爬虫、本地文件等，节假日服务不强依赖某一个数据源）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public interface HolidaySource {
+
+    /**
+     * @return 数据源名称（用于日志、健康状态）
+     */
+    String getName();
+
+    /**
+     * 获取年度法定节假日
+     *
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @return 年度法定节假日（key是年份，按年份顺序排列；value是节假日列表），数据源未收录的年度不返回
+     * @throws RuntimeException 获取失败
+     */
+    Map<Integer, List<Holiday>> fetch(int startYear, int endYear);
+}
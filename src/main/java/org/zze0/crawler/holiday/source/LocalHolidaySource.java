@@ -0,0 +1,106 @@
+package org.zze0.crawler.holiday.source;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StreamUtils;
+import org.zze0.crawler.holiday.Holiday;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 本地节假日数据源（业务系统自己维护的节假日配置文件，爬虫接口不可用时的备选方案）
+ * <p>
+ * 支持文件路径和"classpath:"开头的类路径资源，每次获取都重新读取，修改文件后下次刷新即生效。
+ * 文件必须收录请求的全部年度，缺少任何一个年度都视为获取失败。
+ * 文件格式与年度法定节假日查询接口的响应一致，按年份分组，日期格式为yyyy-MM-dd：
+ * <pre>
+ * {
+ *     "2021":[
+ *         {
+ *             "year":2021,
+ *             "date":"2021-10-01",
+ *             "name":"国庆节",
+ *             "holidayDateList":["2021-10-01","2021-10-02","2021-10-03","2021-10-04","2021-10-05","2021-10-06","2021-10-07"],
+ *             "addWorkDateList":["2021-09-26","2021-10-09"]
+ *         }
+ *     ]
+ * }
+ * </pre>
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public class LocalHolidaySource implements HolidaySource {
+
+    private static final TypeReference<Map<Integer, List<Holiday>>> HOLIDAYS_TYPE = new TypeReference<Map<Integer, List<Holiday>>>() {
+    };
+
+    /**
+     * 文件位置（文件路径，或"classpath:"开头的类路径资源）
+     */
+    private final String location;
+
+    /**
+     * @param location 文件位置（文件路径，或"classpath:"开头的类路径资源）
+     */
+    public LocalHolidaySource(String location) {
+        Assert.hasText(location, "本地节假日文件位置不能为空");
+        this.location = location;
+    }
+
+    @Override
+    public String getName() {
+        return "local:" + location;
+    }
+
+    @Override
+    public Map<Integer, List<Holiday>> fetch(int startYear, int endYear) {
+
+        Assert.isTrue(startYear <= endYear, "年度入参有误，请检查！开始年度=" + startYear + "; 结束年度=" + endYear);
+
+        Map<Integer, List<Holiday>> allHolidays = read();
+
+        Map<Integer, List<Holiday>> holidays = new LinkedHashMap<>();
+        List<Integer> missingYears = new ArrayList<>();
+        for (int year = startYear; year <= endYear; year++) {
+            List<Holiday> yearHolidays = allHolidays.get(year);
+            if (null != yearHolidays) {
+                holidays.put(year, yearHolidays);
+            } else {
+                missingYears.add(year);
+            }
+        }
+
+        //只收录了部分年度时视为获取失败，不用部分年度的数据冒充完整的结果
+        if (!missingYears.isEmpty()) {
+            throw new IllegalStateException("本地节假日文件未收录" + missingYears + "年度：" + location);
+        }
+        return holidays;
+    }
+
+    /**
+     * 读取整个文件
+     *
+     * @return 文件中的年度法定节假日
+     */
+    private Map<Integer, List<Holiday>> read() {
+        String content;
+        try (InputStream in = ResourceUtils.getURL(location).openStream()) {
+            content = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        } catch (FileNotFoundException e) {
+            throw new IllegalStateException("本地节假日文件不存在：" + location, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("本地节假日文件读取失败：" + location, e);
+        }
+
+        Map<Integer, List<Holiday>> holidays = JSON.parseObject(content, HOLIDAYS_TYPE);
+        return null == holidays ? Collections.emptyMap() : holidays;
+    }
+}
@@ -0,0 +1,101 @@
+package org.zze0.crawler.holiday.source;
+
+/**
+ * 数据源健康状态
+ * <p>
+ * 连续失败达到阈值后，数据源在冷却时间内视为不可用；冷却时间过后允许再试一次，成功即恢复。
+ * 同时记录最近的耗时（指数加权平均），便于观察上游变慢。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public class SourceHealth {
+
+    /**
+     * 耗时指数加权平均的权重（最近一次耗时所占的比例）
+     */
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    /**
+     * 连续失败多少次后视为不可用
+     */
+    private final int failureThreshold;
+
+    /**
+     * 不可用状态的冷却时间（毫秒）
+     */
+    private final long cooldownMillis;
+
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 最近一次失败的时间（毫秒）
+     */
+    private long lastFailureMillis;
+
+    /**
+     * 耗时的指数加权平均（毫秒，还没有成功过时为0）
+     */
+    private double averageLatencyMillis;
+
+    /**
+     * @param failureThreshold 连续失败多少次后视为不可用
+     * @param cooldownMillis   不可用状态的冷却时间（毫秒）
+     */
+    public SourceHealth(int failureThreshold, long cooldownMillis) {
+        this.failureThreshold = failureThreshold;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * @param nowMillis 当前时间（毫秒）
+     * @return 是否可用（连续失败未达到阈值，或已过冷却时间）
+     */
+    public synchronized boolean isAvailable(long nowMillis) {
+        return consecutiveFailures < failureThreshold || nowMillis - lastFailureMillis >= cooldownMillis;
+    }
+
+    /**
+     * 记录一次成功
+     *
+     * @param latencyMillis 耗时（毫秒）
+     */
+    public synchronized void recordSuccess(long latencyMillis) {
+        consecutiveFailures = 0;
+        averageLatencyMillis = averageLatencyMillis == 0
+                ? latencyMillis
+                : averageLatencyMillis + LATENCY_WEIGHT * (latencyMillis - averageLatencyMillis);
+    }
+
+    /**
+     * 记录一次失败
+     *
+     * @param nowMillis 当前时间（毫秒）
+     */
+    public synchronized void recordFailure(long nowMillis) {
+        consecutiveFailures++;
+        lastFailureMillis = nowMillis;
+    }
+
+    /**
+     * @return 连续失败次数
+     */
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return 耗时的指数加权平均（毫秒，还没有成功过时为0）
+     */
+    public synchronized long getAverageLatencyMillis() {
+        return Math.round(averageLatencyMillis);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SourceHealth{consecutiveFailures=" + consecutiveFailures + ", averageLatencyMillis=" + Math.round(averageLatencyMillis) + "}";
+    }
+}
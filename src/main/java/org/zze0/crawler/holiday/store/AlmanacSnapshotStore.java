@@ -0,0 +1,260 @@
+package org.zze0.crawler.holiday.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 黄历本地存储（二进制文件）
+ * <p>
+ * 黄历随节假日爬取一起采集，落地成二进制文件，服务重启时直接读取，不需要重新爬取。
+ * 文件格式（大端序）：
+ * <pre>
+ * int    魔数 "ZALM"
+ * short  文件格式版本
+ * int    字典词条数
+ * 每个词条：
+ *   short  字节数 + byte[] 词条（UTF-8）
+ * int    天数
+ * 每天：
+ *   int    日期（epochDay）
+ *   short  农历年
+ *   byte   农历月
+ *   byte   农历日
+ *   byte   标记（1：闰月，2：农历大月）
+ *   byte   年、月、日干支（六十甲子序号，未知为-1）× 3
+ *   short  节气、节日（词条序号，没有时为-1）× 2
+ *   short  宜的词条数 + short[] 词条序号
+ *   short  忌的词条数 + short[] 词条序号
+ * int    CRC32校验和（校验前面的所有字节）
+ * </pre>
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public class AlmanacSnapshotStore {
+
+    /**
+     * 魔数："ZALM"
+     */
+    private static final int MAGIC = 0x5A414C4D;
+
+    /**
+     * 文件格式版本
+     */
+    private static final short FORMAT_VERSION = 1;
+
+    private static final int FLAG_LEAP_MONTH = 1;
+
+    private static final int FLAG_BIG_MONTH = 1 << 1;
+
+    /**
+     * 黄历文件路径
+     */
+    private final Path path;
+
+    public AlmanacSnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 保存黄历（先写临时文件再原子替换，不会留下写了一半的黄历文件）
+     *
+     * @param store 黄历存储
+     */
+    public void save(AlmanacStore store) {
+        byte[] bytes = encode(store);
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+
+            Path tmpPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmpPath, bytes);
+                try {
+                    Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmpPath);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("黄历保存失败：" + path, e);
+        }
+        log.info("黄历已保存：{}天，{}字节，{}", store.getDayCount(), bytes.length, path);
+    }
+
+    /**
+     * 读取黄历（内存映射读取）
+     *
+     * @return 黄历存储，黄历文件不存在时返回null
+     * @throws IllegalStateException 黄历文件已损坏或格式不兼容
+     */
+    public AlmanacStore load() {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("黄历读取失败：" + path, e);
+        }
+    }
+
+    /**
+     * 黄历编码成二进制（词条重新编排字典，每天只存词条序号）
+     *
+     * @param store 黄历存储
+     * @return 二进制黄历
+     */
+    static byte[] encode(AlmanacStore store) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        ByteArrayOutputStream days = new ByteArrayOutputStream(64 * 1024);
+        int dayCount = 0;
+        try (DataOutputStream out = new DataOutputStream(days)) {
+            for (int epochDay = store.getFirstDay(); epochDay < store.getEndDay(); epochDay++) {
+                if (!store.covers(epochDay)) {
+                    continue;
+                }
+                dayCount++;
+                out.writeInt(epochDay);
+                out.writeShort(store.getLunarYear(epochDay));
+                out.writeByte(store.getLunarMonth(epochDay));
+                out.writeByte(store.getLunarDay(epochDay));
+                out.writeByte((store.isLeapMonth(epochDay) ? FLAG_LEAP_MONTH : 0) | (store.isBigMonth(epochDay) ? FLAG_BIG_MONTH : 0));
+                out.writeByte(store.getYearGanZhi(epochDay));
+                out.writeByte(store.getMonthGanZhi(epochDay));
+                out.writeByte(store.getDayGanZhi(epochDay));
+                out.writeShort(wordId(dictionary, store.getTerm(epochDay)));
+                out.writeShort(wordId(dictionary, store.getFestival(epochDay)));
+                writeWords(out, dictionary, store.getSuits(epochDay));
+                writeWords(out, dictionary, store.getAvoids(epochDay));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(days.size() + 16 * dictionary.size() + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+
+            out.writeInt(dictionary.size());
+            for (String word : dictionary.keySet()) {
+                byte[] wordBytes = word.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(wordBytes.length);
+                out.write(wordBytes);
+            }
+
+            out.writeInt(dayCount);
+            days.writeTo(out);
+
+            //校验和
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 二进制解码成黄历
+     *
+     * @param buffer 二进制黄历
+     * @return 黄历存储
+     */
+    static AlmanacStore decode(ByteBuffer buffer) {
+
+        //先校验，再解析
+        Assert.state(buffer.remaining() >= 18, "黄历文件已损坏：长度不足");
+        int crcOffset = buffer.limit() - 4;
+        ByteBuffer content = buffer.duplicate();
+        content.limit(crcOffset);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Assert.state((int) crc.getValue() == buffer.getInt(crcOffset), "黄历文件已损坏：校验和不一致");
+
+        Assert.state(buffer.getInt() == MAGIC, "不是黄历文件");
+        short formatVersion = buffer.getShort();
+        Assert.state(formatVersion == FORMAT_VERSION, "不支持的黄历文件格式版本：" + formatVersion);
+
+        int wordCount = buffer.getInt();
+        Assert.state(wordCount >= 0 && wordCount <= Short.MAX_VALUE, "黄历文件已损坏：字典词条数有误：" + wordCount);
+        String[] dictionary = new String[wordCount];
+        for (int index = 0; index < wordCount; index++) {
+            byte[] word = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(word);
+            dictionary[index] = new String(word, StandardCharsets.UTF_8);
+        }
+
+        int dayCount = buffer.getInt();
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        for (int dayIndex = 0; dayIndex < dayCount; dayIndex++) {
+            int epochDay = buffer.getInt();
+            int lunarYear = buffer.getShort();
+            int lunarMonth = buffer.get();
+            int lunarDay = buffer.get();
+            int flags = buffer.get();
+            String yearGanZhi = AlmanacStore.ganZhiName(buffer.get());
+            String monthGanZhi = AlmanacStore.ganZhiName(buffer.get());
+            String dayGanZhi = AlmanacStore.ganZhiName(buffer.get());
+            String term = word(dictionary, buffer.getShort());
+            String festival = word(dictionary, buffer.getShort());
+            String suit = readWords(buffer, dictionary);
+            String avoid = readWords(buffer, dictionary);
+            builder.add(epochDay, lunarYear, lunarMonth, lunarDay, (flags & FLAG_LEAP_MONTH) != 0, (flags & FLAG_BIG_MONTH) != 0,
+                    yearGanZhi, monthGanZhi, dayGanZhi, term, festival, suit, avoid);
+        }
+        Assert.state(buffer.position() == crcOffset, "黄历文件已损坏：长度不一致");
+
+        return builder.build();
+    }
+
+    private static int wordId(Map<String, Integer> dictionary, String word) {
+        return null == word ? -1 : dictionary.computeIfAbsent(word, w -> dictionary.size());
+    }
+
+    private static void writeWords(DataOutputStream out, Map<String, Integer> dictionary, List<String> words) throws IOException {
+        out.writeShort(words.size());
+        for (String word : words) {
+            out.writeShort(wordId(dictionary, word));
+        }
+    }
+
+    private static String word(String[] dictionary, short id) {
+        if (id < 0) {
+            return null;
+        }
+        Assert.state(id < dictionary.length, "黄历文件已损坏：词条序号超出字典：" + id);
+        return dictionary[id];
+    }
+
+    /**
+     * @return "."分隔的词条（与{@link AlmanacStore.Builder#add}的入参格式一致）
+     */
+    private static String readWords(ByteBuffer buffer, String[] dictionary) {
+        int count = buffer.getShort() & 0xFFFF;
+        StringJoiner words = new StringJoiner(".");
+        for (int index = 0; index < count; index++) {
+            words.add(word(dictionary, buffer.getShort()));
+        }
+        return words.toString();
+    }
+}
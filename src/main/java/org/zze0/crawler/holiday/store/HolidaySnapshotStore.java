@@ -0,0 +1,270 @@
+package org.zze0.crawler.holiday.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+import org.zze0.crawler.holiday.EpochDays;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 节假日快照本地存储（二进制文件）
+ * <p>
+ * 爬取结果落地成紧凑的二进制快照文件，服务重启时通过内存映射读取，不依赖爬虫接口即可在毫秒级恢复查询。
+ * 文件格式（大端序）：
+ * <pre>
+ * int    魔数 "ZHOL"
+ * short  文件格式版本
+ * long   快照版本号
+ * long   快照创建时间
+ * int    年度数
+ * 每个年度：
+ *   int    年份
+ *   long   年度最近一次变化时的快照版本号
+ *   int    节假日数
+ *   每个节假日：
+ *     int    节假日日期（epochDay）
+ *     short  名称字节数 + byte[] 名称（UTF-8）
+ *     short  假期天数 + int[] 假期（epochDay）
+ *     short  补班天数 + int[] 补班日（epochDay）
+ *   （short类型的长度都是无符号数，最大65535）
+ * int    CRC32校验和（校验前面的所有字节）
+ * </pre>
+ * 只读取当前格式版本的快照文件，其他版本视为不兼容（忽略后重新爬取）。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public class HolidaySnapshotStore {
+
+    /**
+     * 魔数："ZHOL"
+     */
+    private static final int MAGIC = 0x5A484F4C;
+
+    /**
+     * 文件格式版本
+     */
+    private static final short FORMAT_VERSION = 2;
+
+    /**
+     * 快照文件路径
+     */
+    private final Path path;
+
+    public HolidaySnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 保存节假日快照（先写临时文件再原子替换，不会留下写了一半的快照文件）
+     *
+     * @param snapshot 节假日快照
+     */
+    public void save(HolidaySnapshot snapshot) {
+        byte[] bytes = encode(snapshot);
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+
+            Path tmpPath = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmpPath, bytes);
+                try {
+                    Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmpPath);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("节假日快照保存失败：" + path, e);
+        }
+        log.info("节假日快照已保存：版本={}，{}字节，{}", snapshot.getVersion(), bytes.length, path);
+    }
+
+    /**
+     * 读取节假日快照（内存映射读取）
+     *
+     * @return 节假日快照，快照文件不存在时返回null
+     * @throws IllegalStateException 快照文件已损坏或格式不兼容
+     */
+    public HolidaySnapshot load() {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("节假日快照读取失败：" + path, e);
+        }
+    }
+
+    /**
+     * 快照编码成二进制
+     *
+     * @param snapshot 节假日快照
+     * @return 二进制快照
+     */
+    static byte[] encode(HolidaySnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(snapshot.getVersion());
+            out.writeLong(snapshot.getCreateTime());
+
+            Map<Integer, List<Holiday>> holidays = snapshot.getHolidays();
+            out.writeInt(holidays.size());
+            for (Map.Entry<Integer, List<Holiday>> entry : holidays.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(snapshot.getYearVersions().get(entry.getKey()));
+                out.writeInt(entry.getValue().size());
+                for (Holiday holiday : entry.getValue()) {
+                    out.writeInt(EpochDays.of(holiday.getDate()));
+
+                    byte[] name = holiday.getName().getBytes(StandardCharsets.UTF_8);
+                    writeLength(out, name.length);
+                    out.write(name);
+
+                    writeDays(out, holiday.getHolidayDateList());
+                    writeDays(out, holiday.getAddWorkDateList());
+                }
+            }
+
+            //校验和
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 二进制解码成快照
+     *
+     * @param buffer 二进制快照
+     * @return 节假日快照
+     */
+    static HolidaySnapshot decode(ByteBuffer buffer) {
+
+        //先校验，再解析
+        Assert.state(buffer.remaining() >= 30, "节假日快照文件已损坏：长度不足");
+        int crcOffset = buffer.limit() - 4;
+        ByteBuffer content = buffer.duplicate();
+        content.limit(crcOffset);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        Assert.state((int) crc.getValue() == buffer.getInt(crcOffset), "节假日快照文件已损坏：校验和不一致");
+        buffer.limit(crcOffset);
+
+        Assert.state(buffer.getInt() == MAGIC, "不是节假日快照文件");
+        short formatVersion = buffer.getShort();
+        Assert.state(formatVersion == FORMAT_VERSION, "不支持的节假日快照文件格式版本：" + formatVersion);
+
+        long version = buffer.getLong();
+        long createTime = buffer.getLong();
+
+        Map<Integer, List<Holiday>> holidays = new LinkedHashMap<>();
+        Map<Integer, Long> yearVersions = new HashMap<>();
+        try {
+            int yearCount = readCount(buffer);
+            for (int yearIndex = 0; yearIndex < yearCount; yearIndex++) {
+                int year = buffer.getInt();
+                yearVersions.put(year, buffer.getLong());
+                int holidayCount = readCount(buffer);
+
+                List<Holiday> yearHolidays = new ArrayList<>(holidayCount);
+                for (int holidayIndex = 0; holidayIndex < holidayCount; holidayIndex++) {
+                    Holiday holiday = new Holiday();
+                    holiday.setYear(year);
+                    holiday.setDate(EpochDays.toDate(buffer.getInt()));
+
+                    byte[] name = new byte[readLength(buffer, 1)];
+                    buffer.get(name);
+                    holiday.setName(new String(name, StandardCharsets.UTF_8));
+
+                    holiday.setHolidayDateList(readDays(buffer));
+                    holiday.setAddWorkDateList(readDays(buffer));
+                    yearHolidays.add(holiday);
+                }
+                holidays.put(year, yearHolidays);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("节假日快照文件已损坏：长度不一致", e);
+        }
+        Assert.state(!buffer.hasRemaining(), "节假日快照文件已损坏：长度不一致");
+
+        return HolidaySnapshot.of(version, createTime, holidays, yearVersions);
+    }
+
+    private static void writeDays(DataOutputStream out, List<Date> dateList) throws IOException {
+        writeLength(out, dateList.size());
+        for (Date date : dateList) {
+            out.writeInt(EpochDays.of(date));
+        }
+    }
+
+    private static List<Date> readDays(ByteBuffer buffer) {
+        int count = readLength(buffer, 4);
+        List<Date> dateList = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            dateList.add(EpochDays.toDate(buffer.getInt()));
+        }
+        return dateList;
+    }
+
+    /**
+     * 写入无符号short长度
+     *
+     * @param out    输出流
+     * @param length 长度
+     * @throws IllegalArgumentException 长度超过65535
+     */
+    private static void writeLength(DataOutputStream out, int length) throws IOException {
+        Assert.isTrue(length <= 0xFFFF, () -> "节假日快照字段过长：" + length);
+        out.writeShort(length);
+    }
+
+    /**
+     * 读取无符号short长度，并校验剩余字节足够
+     *
+     * @param buffer       二进制快照
+     * @param elementBytes 每个元素的字节数
+     * @return 长度
+     */
+    private static int readLength(ByteBuffer buffer, int elementBytes) {
+        int length = buffer.getShort() & 0xFFFF;
+        Assert.state((long) length * elementBytes <= buffer.remaining(), "节假日快照文件已损坏：长度不一致");
+        return length;
+    }
+
+    /**
+     * 读取int个数（年度数、节假日数），并校验不为负数、不超过剩余字节数
+     *
+     * @param buffer 二进制快照
+     * @return 个数
+     */
+    private static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        Assert.state(count >= 0 && count <= buffer.remaining(), "节假日快照文件已损坏：长度不一致");
+        return count;
+    }
+}
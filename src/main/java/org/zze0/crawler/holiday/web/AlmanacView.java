@@ -0,0 +1,85 @@
+package org.zze0.crawler.holiday.web;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 黄历（查询接口返回值）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Data
+public class AlmanacView {
+
+    /**
+     * 日期（yyyy-MM-dd）
+     */
+    private String date;
+
+    /**
+     * 农历年
+     */
+    private int lunarYear;
+
+    /**
+     * 农历月
+     */
+    private int lunarMonth;
+
+    /**
+     * 农历日
+     */
+    private int lunarDay;
+
+    /**
+     * 是否闰月
+     */
+    private boolean leapMonth;
+
+    /**
+     * 农历月是否大月
+     */
+    private boolean bigMonth;
+
+    /**
+     * 年干支
+     */
+    private String yearGanZhi;
+
+    /**
+     * 月干支
+     */
+    private String monthGanZhi;
+
+    /**
+     * 日干支
+     */
+    private String dayGanZhi;
+
+    /**
+     * 生肖
+     */
+    private String animal;
+
+    /**
+     * 节气
+     */
+    private String term;
+
+    /**
+     * 节日
+     */
+    private String festival;
+
+    /**
+     * 宜
+     */
+    private List<String> suit;
+
+    /**
+     * 忌
+     */
+    private List<String> avoid;
+}
@@ -0,0 +1,31 @@
+package org.zze0.crawler.holiday.web;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.zze0.crawler.holiday.DayStatus;
+
+/**
+ * 日期状态（查询接口返回值）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class DateStatusView {
+
+    /**
+     * 日期（yyyy-MM-dd）
+     */
+    private String date;
+
+    /**
+     * 日期状态
+     */
+    private DayStatus status;
+
+    /**
+     * 是否需要上班
+     */
+    private boolean workday;
+}
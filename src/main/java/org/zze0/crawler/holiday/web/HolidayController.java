@@ -0,0 +1,384 @@
+package org.zze0.crawler.holiday.web;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.zze0.crawler.holiday.CalendarExport;
+import org.zze0.crawler.holiday.CalendarYear;
+import org.zze0.crawler.holiday.DayStatus;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.holiday.HolidayCalendar;
+import org.zze0.crawler.holiday.HolidayIndex;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.holiday.LazyHolidayCalendar;
+import org.zze0.crawler.holiday.TenantCalendars;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+import org.zze0.crawler.holiday.service.HolidayService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 节假日查询接口
+ * <p>
+ * 所有查询都基于内存中的节假日快照，响应体按快照版本预先序列化并复用，支持ETag/If-None-Match协商缓存。
+ * 需要在本地缓存日期状态表的下游服务可以使用二进制导出接口，先全量导出一次，之后按版本号增量同步。
+ * 开启了按需加载时，快照未收录的年度的节假日、单日状态（不指定租户）由{@link LazyHolidayCalendar}加载后返回，
+ * 这些响应以该年度的加载时间为代次缓存，年度重新加载、补编后新代次的响应替换同一个key下的旧响应；
+ * 租户查询以叠加层版本、黄历查询以黄历版本为代次，同样原地替换，不会在快照版本不变时越积越多。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@RestController
+@RequestMapping("/holidays")
+public class HolidayController {
+
+    /**
+     * 响应类型
+     */
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    /**
+     * 响应头：导出的快照版本号（客户端下次增量同步时作为since参数）
+     */
+    private static final String VERSION_HEADER = "X-Calendar-Version";
+
+    /**
+     * 区间查询最多支持的天数
+     */
+    private static final int MAX_RANGE_DAYS = 366 * 5;
+
+    private final HolidayService holidayService;
+
+    private final HolidayResponseCache responseCache;
+
+    public HolidayController(HolidayService holidayService, HolidayResponseCache responseCache) {
+        this.holidayService = holidayService;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * 查询年度法定节假日
+     *
+     * @param year    年份
+     * @param request 请求
+     * @return 节假日列表
+     */
+    @GetMapping("/{year:\\d{4}}")
+    public ResponseEntity<byte[]> getYearHolidays(@PathVariable int year, WebRequest request) {
+
+        HolidaySnapshot snapshot = currentSnapshot();
+
+        List<Holiday> holidays = snapshot.getHolidays(year);
+        if (null == holidays) {
+            LazyHolidayCalendar lazyCalendar = holidayService.getLazyCalendar();
+            if (null == lazyCalendar) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, year + "年度未收录");
+            }
+            //先取加载时间、再取数据，缓存的数据不会比key旧
+            long loadMillis = loadLazily(year, () -> lazyCalendar.getLoadMillis(year));
+            List<Holiday> lazyHolidays = loadLazily(year, () -> lazyCalendar.getHolidays(year));
+            if (null == lazyHolidays) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, year + "年度未收录");
+            }
+            return respond(request, responseCache.get(snapshot, "lazy-year:" + year, loadMillis, () -> lazyHolidays));
+        }
+        return respond(request, responseCache.get(snapshot, "year:" + year, () -> holidays));
+    }
+
+    /**
+     * 查询日期状态
+     *
+     * @param date    日期（yyyy-MM-dd）
+     * @param tenant  租户（可选，查询叠加了该租户调整后的日期状态）
+     * @param request 请求
+     * @return 日期状态
+     */
+    @GetMapping("/status/{date}")
+    public ResponseEntity<byte[]> getDateStatus(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                @RequestParam(required = false) String tenant,
+                                                WebRequest request) {
+
+        HolidaySnapshot snapshot = currentSnapshot();
+        TenantCalendars tenantCalendars = holidayService.getTenantCalendars();
+        HolidayCalendar calendar = calendarOf(snapshot, tenantCalendars, tenant);
+
+        int epochDay = (int) date.toEpochDay();
+        LazyHolidayCalendar lazyCalendar = holidayService.getLazyCalendar();
+        if (null == tenant && null != lazyCalendar && !calendar.covers(epochDay)) {
+            long loadMillis = loadLazily(date.getYear(), () -> lazyCalendar.getLoadMillis(date.getYear()));
+            CalendarYear calendarYear = loadLazily(date.getYear(), () -> lazyCalendar.getYear(date.getYear()));
+            if (null != calendarYear) {
+                return respond(request, responseCache.get(snapshot, "lazy-date:" + epochDay, loadMillis, () -> {
+                    DayStatus status = calendarYear.status(epochDay - calendarYear.getFirstDay());
+                    return new DateStatusView(date.toString(), status, status.isWorkday());
+                }));
+            }
+        }
+        checkCovered(calendar, epochDay);
+        if (null == tenant) {
+            return respond(request, responseCache.get(snapshot, "date:" + epochDay, () -> toView(calendar, epochDay)));
+        }
+        if (tenantCalendars.getSnapshotVersion() != snapshot.getVersion()) {
+            //租户日历还没有按新快照重新编译完，不缓存
+            return respond(request, responseCache.serialize(toView(calendar, epochDay)));
+        }
+        //叠加层重新加载后替换同一个key的旧响应
+        return respond(request, responseCache.get(snapshot, "date:" + epochDay + "@" + tenant, tenantCalendars.getOverlayVersion(),
+                () -> toView(calendar, epochDay)));
+    }
+
+    /**
+     * 查询区间内每天的日期状态
+     *
+     * @param start   开始日期（yyyy-MM-dd，包含）
+     * @param end     结束日期（yyyy-MM-dd，包含）
+     * @param tenant  租户（可选，查询叠加了该租户调整后的日期状态）
+     * @param request 请求
+     * @return 日期状态列表
+     */
+    @GetMapping("/status")
+    public ResponseEntity<byte[]> getRangeStatus(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+                                                 @RequestParam(required = false) String tenant,
+                                                 WebRequest request) {
+
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        if (startDay > endDay || endDay - startDay >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "日期区间有误，最多支持查询" + MAX_RANGE_DAYS + "天：" + start + " ~ " + end);
+        }
+
+        HolidaySnapshot snapshot = currentSnapshot();
+        TenantCalendars tenantCalendars = holidayService.getTenantCalendars();
+        HolidayCalendar calendar = calendarOf(snapshot, tenantCalendars, tenant);
+        checkCovered(calendar, startDay);
+        checkCovered(calendar, endDay);
+
+        //区间的取值无限，不缓存（每次序列化，仍然支持ETag协商缓存）
+        List<DateStatusView> views = new ArrayList<>(endDay - startDay + 1);
+        for (int epochDay = startDay; epochDay <= endDay; epochDay++) {
+            checkCovered(calendar, epochDay);
+            views.add(toView(calendar, epochDay));
+        }
+        return respond(request, responseCache.serialize(views));
+    }
+
+    /**
+     * 查询假期倒计时：日期所在的假期、上一个/下一个假期、距离下一个假期的天数、下一个补班日（按{@link HolidayIndex}二分查找，只看法定节假日）
+     *
+     * @param date    日期（yyyy-MM-dd）
+     * @param request 请求
+     * @return 假期倒计时
+     */
+    @GetMapping("/countdown/{date}")
+    public ResponseEntity<byte[]> getCountdown(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, WebRequest request) {
+
+        HolidaySnapshot snapshot = currentSnapshot();
+        int epochDay = (int) date.toEpochDay();
+        checkCovered(snapshot.getCalendar(), epochDay);
+        return respond(request, responseCache.get(snapshot, "countdown:" + epochDay, () -> toCountdownView(snapshot.getHolidayIndex(), epochDay)));
+    }
+
+    /**
+     * 全量导出节假日日历（二进制，格式见{@link CalendarExport}）
+     *
+     * @param request 请求
+     * @return 二进制导出
+     */
+    @GetMapping("/export")
+    public ResponseEntity<byte[]> export(WebRequest request) {
+        HolidaySnapshot snapshot = currentSnapshot();
+        return respondBinary(request, snapshot, responseCache.getBinary(snapshot, "export", () -> CalendarExport.encode(snapshot)));
+    }
+
+    /**
+     * 增量导出节假日日历：只包含某个版本之后有变化的年度（二进制，格式见{@link CalendarExport}）
+     * <p>
+     * 客户端已经是最新版本时返回不包含任何年度的增量；客户端版本号比服务端还新（服务端快照重建过）时返回全量导出。
+     *
+     * @param since   客户端上次同步的快照版本号
+     * @param request 请求
+     * @return 二进制导出
+     */
+    @GetMapping("/export/delta")
+    public ResponseEntity<byte[]> exportDelta(@RequestParam long since, WebRequest request) {
+        HolidaySnapshot snapshot = currentSnapshot();
+        String key = since > 0 && since <= snapshot.getVersion() ? "export:" + since : "export";
+        return respondBinary(request, snapshot, responseCache.getBinary(snapshot, key, () -> CalendarExport.encode(snapshot, since)));
+    }
+
+    /**
+     * 获取当前的节假日快照
+     *
+     * @return 节假日快照
+     */
+    private HolidaySnapshot currentSnapshot() {
+        HolidaySnapshot snapshot = holidayService.getSnapshot();
+        if (snapshot.getVersion() == 0) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "节假日数据尚未初始化完成");
+        }
+        return snapshot;
+    }
+
+    /**
+     * 查询黄历（农历、干支、节气、节日、宜忌）
+     *
+     * @param date    日期（yyyy-MM-dd）
+     * @param request 请求
+     * @return 黄历
+     */
+    @GetMapping("/almanac/{date}")
+    public ResponseEntity<byte[]> getAlmanac(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, WebRequest request) {
+
+        HolidaySnapshot snapshot = currentSnapshot();
+        AlmanacStore store = holidayService.getAlmanacStore();
+        if (null == store) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "黄历数据尚未初始化完成");
+        }
+
+        int epochDay = (int) date.toEpochDay();
+        if (!store.covers(epochDay)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "黄历未收录该日期：" + date);
+        }
+        //黄历与节假日快照分别更新，以黄历版本号为代次替换旧响应
+        return respond(request, responseCache.get(snapshot, "almanac:" + epochDay, store.getVersion(), () -> toAlmanacView(store, epochDay)));
+    }
+
+    /**
+     * 获取查询使用的节假日日历
+     *
+     * @param snapshot        节假日快照
+     * @param tenantCalendars 租户节假日日历
+     * @param tenant          租户，为空时使用基础日历
+     * @return 节假日日历
+     */
+    private static HolidayCalendar calendarOf(HolidaySnapshot snapshot, TenantCalendars tenantCalendars, String tenant) {
+        if (null == tenant) {
+            return snapshot.getCalendar();
+        }
+        HolidayCalendar calendar = tenantCalendars.getCalendar(tenant);
+        if (null == calendar) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "未配置该租户：" + tenant);
+        }
+        return calendar;
+    }
+
+    /**
+     * 返回序列化好的响应，客户端缓存的ETag一致时直接返回304
+     *
+     * @param request  请求
+     * @param response 序列化好的响应
+     * @return 响应
+     */
+    private static ResponseEntity<byte[]> respond(WebRequest request, HolidayResponseCache.CachedResponse response) {
+        if (request.checkNotModified(response.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(JSON_UTF8)
+                .eTag(response.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(response.getBody());
+    }
+
+    /**
+     * 返回二进制导出，客户端缓存的ETag一致时直接返回304
+     *
+     * @param request  请求
+     * @param snapshot 节假日快照
+     * @param response 二进制导出
+     * @return 响应
+     */
+    private static ResponseEntity<byte[]> respondBinary(WebRequest request, HolidaySnapshot snapshot, HolidayResponseCache.CachedResponse response) {
+        if (request.checkNotModified(response.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(response.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .header(VERSION_HEADER, String.valueOf(snapshot.getVersion()))
+                .body(response.getBody());
+    }
+
+    /**
+     * 按需加载快照未收录的年度（上游不可用时返回503）
+     *
+     * @param year   年份
+     * @param loader 加载
+     * @param <T>    结果类型
+     * @return 加载结果，未收录时为null
+     */
+    private static <T> T loadLazily(int year, Supplier<T> loader) {
+        try {
+            return loader.get();
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, year + "年度节假日加载失败", e);
+        }
+    }
+
+    private static void checkCovered(HolidayCalendar calendar, int epochDay) {
+        if (!calendar.covers(epochDay)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "未收录该日期：" + LocalDate.ofEpochDay(epochDay));
+        }
+    }
+
+    private static DateStatusView toView(HolidayCalendar calendar, int epochDay) {
+        DayStatus status = calendar.status(epochDay);
+        return new DateStatusView(LocalDate.ofEpochDay(epochDay).toString(), status, status.isWorkday());
+    }
+
+    private static HolidayCountdownView toCountdownView(HolidayIndex index, int epochDay) {
+        HolidayCountdownView view = new HolidayCountdownView();
+        view.setDate(LocalDate.ofEpochDay(epochDay).toString());
+        view.setCurrentPeriod(toPeriodView(index, index.periodOf(epochDay)));
+        view.setPreviousPeriod(toPeriodView(index, index.previousPeriod(epochDay)));
+        view.setNextPeriod(toPeriodView(index, index.nextPeriod(epochDay)));
+        int daysUntilNextPeriod = index.daysUntilNextPeriod(epochDay);
+        view.setDaysUntilNextPeriod(daysUntilNextPeriod < 0 ? null : daysUntilNextPeriod);
+
+        int addWork = index.nextAddWork(epochDay);
+        if (addWork >= 0) {
+            view.setNextAddWorkday(LocalDate.ofEpochDay(index.getAddWorkDay(addWork)).toString());
+            view.setNextAddWorkdayPeriod(index.getName(index.getAddWorkPeriod(addWork)));
+        }
+        return view;
+    }
+
+    private static HolidayPeriodView toPeriodView(HolidayIndex index, int period) {
+        if (period < 0) {
+            return null;
+        }
+        return new HolidayPeriodView(index.getName(period), LocalDate.ofEpochDay(index.getStart(period)).toString(),
+                LocalDate.ofEpochDay(index.getEnd(period)).toString(), index.getEnd(period) - index.getStart(period) + 1);
+    }
+
+    private static AlmanacView toAlmanacView(AlmanacStore store, int epochDay) {
+        AlmanacView view = new AlmanacView();
+        view.setDate(LocalDate.ofEpochDay(epochDay).toString());
+        view.setLunarYear(store.getLunarYear(epochDay));
+        view.setLunarMonth(store.getLunarMonth(epochDay));
+        view.setLunarDay(store.getLunarDay(epochDay));
+        view.setLeapMonth(store.isLeapMonth(epochDay));
+        view.setBigMonth(store.isBigMonth(epochDay));
+        view.setYearGanZhi(AlmanacStore.ganZhiName(store.getYearGanZhi(epochDay)));
+        view.setMonthGanZhi(AlmanacStore.ganZhiName(store.getMonthGanZhi(epochDay)));
+        view.setDayGanZhi(AlmanacStore.ganZhiName(store.getDayGanZhi(epochDay)));
+        view.setAnimal(store.getAnimal(epochDay));
+        view.setTerm(store.getTerm(epochDay));
+        view.setFestival(store.getFestival(epochDay));
+        view.setSuit(store.getSuits(epochDay));
+        view.setAvoid(store.getAvoids(epochDay));
+        return view;
+    }
+}
@@ -0,0 +1,48 @@
+package org.zze0.crawler.holiday.web;
+
+import lombok.Data;
+
+/**
+ * 假期倒计时（查询接口返回值，用于倒计时、排班）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Data
+public class HolidayCountdownView {
+
+    /**
+     * 日期（yyyy-MM-dd）
+     */
+    private String date;
+
+    /**
+     * 日期所在的假期周期，不在假期中时为null
+     */
+    private HolidayPeriodView currentPeriod;
+
+    /**
+     * 上一个假期周期（已经结束的），没有时为null
+     */
+    private HolidayPeriodView previousPeriod;
+
+    /**
+     * 下一个假期周期（尚未开始的），没有时为null
+     */
+    private HolidayPeriodView nextPeriod;
+
+    /**
+     * 距离下一个假期周期的天数，没有下一个假期周期时为null
+     */
+    private Integer daysUntilNextPeriod;
+
+    /**
+     * 下一个补班日（yyyy-MM-dd，不包含当天），没有时为null
+     */
+    private String nextAddWorkday;
+
+    /**
+     * 下一个补班日归属的假期周期名称，没有下一个补班日时为null
+     */
+    private String nextAddWorkdayPeriod;
+}
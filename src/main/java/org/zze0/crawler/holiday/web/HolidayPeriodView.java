@@ -0,0 +1,35 @@
+package org.zze0.crawler.holiday.web;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 假期周期（查询接口返回值）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Data
+@AllArgsConstructor
+public class HolidayPeriodView {
+
+    /**
+     * 名称（多个节假日合在一起放假时用"、"连接）
+     */
+    private String name;
+
+    /**
+     * 第一天（yyyy-MM-dd）
+     */
+    private String start;
+
+    /**
+     * 最后一天（yyyy-MM-dd，包含）
+     */
+    private String end;
+
+    /**
+     * 放假天数
+     */
+    private int days;
+}
@@ -0,0 +1,235 @@
+package org.zze0.crawler.holiday.web;
+
+import com.alibaba.fastjson.JSON;
+import io.micrometer.core.instrument.Counter;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 查询接口响应缓存
+ * <p>
+ * 同一个快照版本内，相同查询的响应体只序列化一次，之后直接复用序列化好的字节数组和ETag；
+ * 快照版本变化后，旧版本的响应整体丢弃；版本只会前进，持有旧快照的请求不会把缓存换回旧版本。
+ * 快照版本之外还会变化的响应（按需加载的年度重新加载、租户叠加层重新加载、黄历更新）用同一个key、递增的代次缓存：
+ * 放入新代次的响应时直接替换旧代次，旧响应立即释放，不会在快照版本更新之前一直占着字节上限。
+ * 只应缓存取值有限的查询（单日、整年度等），任意区间这类取值无限的查询用{@link #serialize(Object)}每次重新序列化；
+ * 每个快照版本缓存的响应体总字节数有上限，超出后的响应不再缓存。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Component
+public class HolidayResponseCache {
+
+    /**
+     * 每个快照版本最多缓存的响应体总字节数（超出后的响应不再缓存，每次重新序列化）
+     */
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * 响应中日期的格式
+     */
+    private static final String DATE_FORMAT = "yyyy-MM-dd";
+
+    /**
+     * 命中次数
+     */
+    private static final Counter HITS = CrawlerMetrics.cacheGets("holiday.response", true);
+
+    /**
+     * 未命中次数（包括请求持有旧快照、超出缓存上限时的重新序列化）
+     */
+    private static final Counter MISSES = CrawlerMetrics.cacheGets("holiday.response", false);
+
+    /**
+     * 当前快照版本的响应缓存
+     */
+    private final AtomicReference<VersionedResponses> responses = new AtomicReference<>(new VersionedResponses(-1));
+
+    /**
+     * 每个快照版本最多缓存的响应体总字节数
+     */
+    private final long maxBytes;
+
+    public HolidayResponseCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    HolidayResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取序列化好的响应
+     *
+     * @param snapshot     节假日快照
+     * @param key          查询的唯一标识
+     * @param bodySupplier 响应体（缓存未命中时才会调用）
+     * @return 序列化好的响应
+     */
+    public CachedResponse get(HolidaySnapshot snapshot, String key, Supplier<Object> bodySupplier) {
+        return get(snapshot, key, 0, bodySupplier);
+    }
+
+    /**
+     * 获取序列化好的响应（同一个key的响应在快照版本之外还会变化）
+     *
+     * @param snapshot     节假日快照
+     * @param key          查询的唯一标识（不含代次）
+     * @param generation   响应的代次（只增不减，如按需加载的时间、叠加层版本号、黄历版本号）
+     * @param bodySupplier 响应体（缓存未命中时才会调用）
+     * @return 序列化好的响应
+     */
+    public CachedResponse get(HolidaySnapshot snapshot, String key, long generation, Supplier<Object> bodySupplier) {
+        return lookup(snapshot, key, generation, () -> CachedResponse.of(bodySupplier.get()));
+    }
+
+    /**
+     * 序列化响应（不缓存，用于取值无限的查询，如任意日期区间）
+     *
+     * @param body 响应体
+     * @return 序列化好的响应
+     */
+    public CachedResponse serialize(Object body) {
+        return CachedResponse.of(body);
+    }
+
+    /**
+     * 获取二进制响应（如节假日日历导出）
+     *
+     * @param snapshot     节假日快照
+     * @param key          查询的唯一标识
+     * @param bodySupplier 响应体（缓存未命中时才会调用）
+     * @return 二进制响应
+     */
+    public CachedResponse getBinary(HolidaySnapshot snapshot, String key, Supplier<byte[]> bodySupplier) {
+        return lookup(snapshot, key, 0, () -> new CachedResponse(bodySupplier.get()));
+    }
+
+    /**
+     * 查找缓存的响应，未命中时生成并缓存（替换同一个key的旧代次）
+     *
+     * @param snapshot         节假日快照
+     * @param key              查询的唯一标识
+     * @param generation       响应的代次
+     * @param responseSupplier 响应（缓存未命中时才会调用）
+     * @return 响应
+     */
+    private CachedResponse lookup(HolidaySnapshot snapshot, String key, long generation, Supplier<CachedResponse> responseSupplier) {
+
+        VersionedResponses current = responses.get();
+        while (current.version < snapshot.getVersion()) {
+            //快照已更新，丢弃旧版本的响应（CAS失败说明其他请求已经换成了新版本，重新比较，版本不会被换小）
+            VersionedResponses next = new VersionedResponses(snapshot.getVersion());
+            if (responses.compareAndSet(current, next)) {
+                current = next;
+            } else {
+                current = responses.get();
+            }
+        }
+
+        if (current.version != snapshot.getVersion()) {
+            //请求持有的是旧快照，不缓存
+            MISSES.increment();
+            return responseSupplier.get();
+        }
+
+        Entry cached = current.entries.get(key);
+        if (null != cached && cached.generation == generation) {
+            HITS.increment();
+            return cached.response;
+        }
+        MISSES.increment();
+        CachedResponse response = responseSupplier.get();
+        if (null != cached && cached.generation > generation) {
+            //请求持有的是旧代次，不缓存
+            return response;
+        }
+
+        Entry entry = new Entry(generation, response);
+        VersionedResponses versioned = current;
+        versioned.entries.compute(key, (k, existing) -> {
+            if (null != existing && existing.generation >= generation) {
+                //并发时其他线程已经缓存了同一代次或更新代次的响应
+                return existing;
+            }
+            //替换旧代次时释放旧响应的字节数
+            long freed = null == existing ? 0 : existing.response.body.length;
+            if (versioned.bytes.addAndGet(response.body.length - freed) > maxBytes) {
+                versioned.bytes.addAndGet(-response.body.length);
+                return null;
+            }
+            return entry;
+        });
+        return response;
+    }
+
+    /**
+     * 缓存的响应及其代次
+     */
+    private static class Entry {
+
+        private final long generation;
+
+        private final CachedResponse response;
+
+        private Entry(long generation, CachedResponse response) {
+            this.generation = generation;
+            this.response = response;
+        }
+    }
+
+    /**
+     * 某个快照版本的响应缓存
+     */
+    private static class VersionedResponses {
+
+        private final long version;
+
+        private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+        /**
+         * 已缓存的响应体总字节数
+         */
+        private final AtomicLong bytes = new AtomicLong();
+
+        private VersionedResponses(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * 序列化好的响应
+     */
+    @Getter
+    public static class CachedResponse {
+
+        /**
+         * 响应体（UTF-8编码的JSON，或二进制）
+         */
+        private final byte[] body;
+
+        /**
+         * 强ETag（响应体的MD5）
+         */
+        private final String etag;
+
+        private CachedResponse(byte[] body) {
+            this.body = body;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        }
+
+        private static CachedResponse of(Object body) {
+            return new CachedResponse(JSON.toJSONStringWithDateFormat(body, DATE_FORMAT).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.zze0.crawler.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 爬虫指标（统一的指标名称、标签，记录到{@link Metrics#globalRegistry 全局注册表}）
+ * <p>
+ * 爬虫、解析器等都是静态方法或普通对象，不经过Spring容器，所以统一记录到全局注册表；
+ * Spring Boot Actuator默认会把自己的注册表加入全局注册表，这些指标就可以通过 /actuator/metrics、/actuator/prometheus 查询。
+ * 不在Spring容器中运行时（如基准测试）全局注册表没有子注册表，记录指标几乎没有开销。
+ * Spring容器管理的节假日服务（快照仪表、刷新耗时）直接使用注入的注册表，不经过全局注册表。
+ * 静态字段持有的指标（如缓存命中次数）在类初始化时就绑定到全局注册表，这时可能还没有子注册表：
+ * 之后加入的子注册表会自动收到这些指标，但加入之前的计数不会补记。
+ * 延迟直方图的分桶在配置文件中按指标名称开启（management.metrics.distribution.percentiles-histogram.*）。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class CrawlerMetrics {
+
+    /**
+     * 上游请求耗时（标签：crawler、endpoint、outcome）
+     */
+    public static final String FETCH = "crawler.fetch";
+
+    /**
+     * 上游响应大小（字符数，标签：crawler、endpoint）
+     */
+    public static final String PAYLOAD = "crawler.fetch.payload";
+
+    /**
+     * 页面解析耗时（标签：crawler、endpoint、outcome）
+     */
+    public static final String PARSE = "crawler.parse";
+
+    /**
+     * 抓取请求数（标签：crawler、result=accepted/duplicate）
+     */
+    public static final String REQUESTS = "crawler.requests";
+
+    /**
+     * 节假日分析耗时（标签：scope=year/holiday，year是一个年度的假期周期划分，holiday是单个节假日的归集）
+     */
+    public static final String HOLIDAY_ANALYSIS = "crawler.holiday.analysis";
+
+    /**
+     * 缓存查询次数（沿用Micrometer缓存指标的命名，标签：cache、result=hit/miss）
+     */
+    public static final String CACHE_GETS = "cache.gets";
+
+    /**
+     * 节假日数据源请求耗时（标签：source、outcome=success/error/cancelled）
+     */
+    public static final String SOURCE_FETCH = "holiday.source.fetch";
+
+    /**
+     * 节假日刷新、增量同步耗时（标签：operation=refresh/sync、outcome）
+     */
+    public static final String HOLIDAY_REFRESH = "holiday.refresh";
+
+    /**
+     * 当前节假日快照的年龄（距离快照创建的时间）
+     */
+    public static final String SNAPSHOT_AGE = "holiday.snapshot.age";
+
+    /**
+     * 当前节假日快照的版本号
+     */
+    public static final String SNAPSHOT_VERSION = "holiday.snapshot.version";
+
+    /**
+     * 当前节假日快照收录的年度数
+     */
+    public static final String SNAPSHOT_YEARS = "holiday.snapshot.years";
+
+    public static final String OUTCOME_SUCCESS = "success";
+
+    public static final String OUTCOME_ERROR = "error";
+
+    public static final String OUTCOME_CANCELLED = "cancelled";
+
+    private CrawlerMetrics() {
+    }
+
+    /**
+     * @return 全局注册表
+     */
+    public static MeterRegistry registry() {
+        return Metrics.globalRegistry;
+    }
+
+    /**
+     * 记录一次上游请求
+     *
+     * @param crawler     爬虫名称
+     * @param endpoint    接口
+     * @param nanos       耗时（纳秒）
+     * @param payloadSize 响应大小（字符数），请求失败时为-1
+     */
+    public static void recordFetch(String crawler, String endpoint, long nanos, int payloadSize) {
+        Timer.builder(FETCH)
+                .tag("crawler", crawler)
+                .tag("endpoint", endpoint)
+                .tag("outcome", payloadSize < 0 ? OUTCOME_ERROR : OUTCOME_SUCCESS)
+                .register(registry())
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (payloadSize >= 0) {
+            DistributionSummary.builder(PAYLOAD)
+                    .baseUnit("chars")
+                    .tag("crawler", crawler)
+                    .tag("endpoint", endpoint)
+                    .register(registry())
+                    .record(payloadSize);
+        }
+    }
+
+    /**
+     * 记录一次页面解析
+     *
+     * @param crawler  爬虫名称
+     * @param endpoint 接口
+     * @param nanos    耗时（纳秒）
+     * @param success  是否解析成功
+     */
+    public static void recordParse(String crawler, String endpoint, long nanos, boolean success) {
+        Timer.builder(PARSE)
+                .tag("crawler", crawler)
+                .tag("endpoint", endpoint)
+                .tag("outcome", success ? OUTCOME_SUCCESS : OUTCOME_ERROR)
+                .register(registry())
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一个抓取请求
+     *
+     * @param crawler   爬虫名称
+     * @param duplicate 是否因去重键重复被丢弃
+     */
+    public static void countRequest(String crawler, boolean duplicate) {
+        registry().counter(REQUESTS, "crawler", crawler, "result", duplicate ? "duplicate" : "accepted").increment();
+    }
+
+    /**
+     * 记录一次节假日数据源请求
+     *
+     * @param source  数据源名称
+     * @param nanos   耗时（纳秒）
+     * @param outcome 结果（success/error/cancelled）
+     */
+    public static void recordSourceFetch(String source, long nanos, String outcome) {
+        registry().timer(SOURCE_FETCH, "source", source, "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次节假日刷新（节假日服务在Spring容器中，记录到容器的注册表）
+     *
+     * @param registry  指标注册表
+     * @param operation 操作（refresh/sync）
+     * @param nanos     耗时（纳秒）
+     * @param success   是否成功
+     */
+    public static void recordRefresh(MeterRegistry registry, String operation, long nanos, boolean success) {
+        registry.timer(HOLIDAY_REFRESH, "operation", operation, "outcome", success ? OUTCOME_SUCCESS : OUTCOME_ERROR)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param scope 分析范围（year/holiday）
+     * @return 节假日分析耗时
+     */
+    public static Timer holidayAnalysisTimer(String scope) {
+        return registry().timer(HOLIDAY_ANALYSIS, "scope", scope);
+    }
+
+    /**
+     * @param cache 缓存名称
+     * @param hit   是否命中
+     * @return 缓存查询次数
+     */
+    public static Counter cacheGets(String cache, boolean hit) {
+        return registry().counter(CACHE_GETS, "cache", cache, "result", hit ? "hit" : "miss");
+    }
+}
@@ -0,0 +1,29 @@
+package org.zze0.crawler.transport;
+
+import java.time.Duration;
+
+/**
+ * 爬虫传输层（爬虫通过它请求上游站点，可替换成本地桩，离线测试吞吐量和超时）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public interface CrawlerTransport extends AutoCloseable {
+
+    /**
+     * 发送GET请求
+     *
+     * @param url     请求地址（未编码，中文等字符由传输层编码）
+     * @param timeout 请求截止时间（从发起请求算起，包括建立连接、等待、读取响应）
+     * @return 响应文本
+     * @throws java.io.UncheckedIOException 请求失败或超时（超时的原因是{@link java.net.SocketTimeoutException}）
+     * @throws IllegalStateException        响应状态码不是2xx
+     */
+    String get(String url, Duration timeout);
+
+    /**
+     * 释放连接等资源
+     */
+    @Override
+    void close();
+}
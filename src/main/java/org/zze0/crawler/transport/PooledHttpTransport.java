@@ -0,0 +1,145 @@
+package org.zze0.crawler.transport;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.springframework.util.Assert;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池HTTP传输层（默认实现）
+ * <p>
+ * 基于Apache HttpClient连接池复用长连接，请求上游时不用每次都重新握手；
+ * 请求会带上 Accept-Encoding: gzip,deflate，压缩的响应自动解压。
+ * 每个请求有截止时间：建立连接、从连接池获取连接、读取响应都不会超过截止时间，
+ * 即使上游一直在慢慢地返回数据，到了截止时间也会中断请求。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+@Slf4j
+public class PooledHttpTransport implements CrawlerTransport {
+
+    /**
+     * 默认的最大连接数
+     */
+    private static final int DEFAULT_MAX_CONNECTIONS = 8;
+
+    /**
+     * 默认的建立连接超时时间
+     */
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
+
+    /**
+     * 空闲连接的最长保留时间
+     */
+    private static final long MAX_IDLE_SECONDS = 30;
+
+    /**
+     * 到截止时间中断请求的定时器（所有实例共用一个守护线程）
+     */
+    private static final ScheduledThreadPoolExecutor DEADLINE_TIMER = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("crawler-deadline-", true));
+
+    static {
+        //请求大多在截止时间前完成，取消的定时任务立即移出队列，不会堆积到截止时间
+        DEADLINE_TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * 建立连接超时时间
+     */
+    private final Duration connectTimeout;
+
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_CONNECTIONS, DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    /**
+     * @param maxConnections 最大连接数（上游只有一个站点，也是单个站点的最大连接数）
+     * @param connectTimeout 建立连接超时时间（不超过请求截止时间）
+     */
+    public PooledHttpTransport(int maxConnections, Duration connectTimeout) {
+        Assert.isTrue(maxConnections > 0, "最大连接数必须大于0：" + maxConnections);
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        this.connectTimeout = connectTimeout;
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(MAX_IDLE_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public String get(String url, Duration timeout) {
+
+        int timeoutMillis = (int) Math.max(1, timeout.toMillis());
+        HttpGet request = new HttpGet(UriComponentsBuilder.fromUriString(url).build().encode().toUri());
+        request.setConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setConnectTimeout((int) Math.min(timeoutMillis, connectTimeout.toMillis()))
+                .setSocketTimeout(timeoutMillis)
+                .build());
+
+        //读取超时只限制两次读取之间的间隔，到了截止时间还没读完的请求直接中断
+        ScheduledFuture<?> deadline = DEADLINE_TIMER.schedule(request::abort, timeoutMillis, TimeUnit.MILLISECONDS);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (statusCode < 200 || statusCode >= 300) {
+                EntityUtils.consumeQuietly(entity);
+                throw new IllegalStateException("请求失败，响应状态码：" + statusCode + "，" + url);
+            }
+            if (null == entity) {
+                return null;
+            }
+
+            //先整体读取字节再一次性解码，比逐段解码快（响应没有声明编码时按UTF-8解码）
+            byte[] body = EntityUtils.toByteArray(entity);
+            ContentType contentType = ContentType.get(entity);
+            Charset charset = null == contentType || null == contentType.getCharset() ? StandardCharsets.UTF_8 : contentType.getCharset();
+            return new String(body, charset);
+        } catch (IOException e) {
+            if (request.isAborted()) {
+                SocketTimeoutException timeoutException = new SocketTimeoutException("请求超过截止时间" + timeoutMillis + "ms：" + url);
+                timeoutException.initCause(e);
+                throw new UncheckedIOException(timeoutException);
+            }
+            throw new UncheckedIOException("请求失败：" + url, e);
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("HTTP连接池关闭失败", e);
+        }
+    }
+}
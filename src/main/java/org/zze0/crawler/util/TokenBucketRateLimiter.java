@@ -0,0 +1,99 @@
+package org.zze0.crawler.util;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 令牌桶限流器（用来限制对上游站点的请求速率）
+ * <p>
+ * 令牌按固定速率生成，桶满后不再累积：空闲一段时间后允许最多“桶容量”个请求突发，之后按生成速率匀速放行。
+ * 获取令牌不阻塞，没有可用令牌时返回需要等待的时间，由调用方决定如何等待（如在自己的条件变量上等待，等待期间还能响应其他事件）；
+ * 没有其他事件要响应的调用方可以用{@link #acquire()}阻塞到获取令牌为止。
+ * 同一个站点的所有请求共用一个限流器，才能保证站点的总请求速率不超过限制。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * 生成一个令牌所需的纳秒数
+     */
+    private final long nanosPerPermit;
+
+    /**
+     * 桶容量（允许的最大突发请求数）
+     */
+    private final double capacity;
+
+    /**
+     * 时间源（纳秒）
+     */
+    private final LongSupplier nanoTime;
+
+    /**
+     * 当前可用令牌数
+     */
+    private double permits;
+
+    /**
+     * 上次补充令牌的时间（纳秒）
+     */
+    private long lastRefillNanos;
+
+    /**
+     * @param permitsPerSecond 每秒生成的令牌数
+     * @param burst            桶容量（允许的最大突发请求数）
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * @param permitsPerSecond 每秒生成的令牌数
+     * @param burst            桶容量（允许的最大突发请求数）
+     * @param nanoTime         时间源（纳秒，测试时注入）
+     */
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoTime) {
+        Assert.isTrue(permitsPerSecond > 0, "每秒令牌数必须大于0：" + permitsPerSecond);
+        Assert.isTrue(burst > 0, "桶容量必须大于0：" + burst);
+
+        this.nanosPerPermit = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacity = burst;
+        this.permits = burst;
+        this.nanoTime = nanoTime;
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * 尝试获取一个令牌（不阻塞）
+     *
+     * @return 0表示已获取令牌；大于0表示没有可用令牌（未获取），是距离下一个令牌生成还需要等待的纳秒数
+     */
+    public synchronized long tryAcquire() {
+        long now = nanoTime.getAsLong();
+
+        //补充令牌
+        permits = Math.min(capacity, permits + (double) (now - lastRefillNanos) / nanosPerPermit);
+        lastRefillNanos = now;
+
+        if (permits >= 1) {
+            permits -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - permits) * nanosPerPermit));
+    }
+
+    /**
+     * 获取一个令牌（没有可用令牌时阻塞到获取为止）
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire() throws InterruptedException {
+        for (long waitNanos = tryAcquire(); waitNanos > 0; waitNanos = tryAcquire()) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
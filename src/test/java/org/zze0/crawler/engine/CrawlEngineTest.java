@@ -0,0 +1,140 @@
+package org.zze0.crawler.engine;
+
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.transport.StubTransport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 抓取引擎测试（失败处理、中止）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class CrawlEngineTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void allPagesAreParsedAndSunk() {
+        Set<String> sunk = ConcurrentHashMap.newKeySet();
+        CrawlStats stats = CrawlEngine.<String>builder()
+                .fetcher(CrawlRequest::getUrl)
+                .parser((request, content, emitter) -> emitter.emit(content))
+                .sink(sunk::add)
+                .hostDelay(Duration.ZERO)
+                .build()
+                .run(seeds(20));
+
+        assertEquals(20, stats.getRequests());
+        assertEquals(20, stats.getItems());
+        assertEquals(20, sunk.size());
+    }
+
+    @Test
+    void runtimeFailureIsSkippedWithoutFailFast() {
+        CrawlStats stats = CrawlEngine.<String>builder()
+                .fetcher(request -> {
+                    if (request.getUrl().endsWith("/3")) {
+                        throw new IllegalStateException("请求失败");
+                    }
+                    return request.getUrl();
+                })
+                .parser((request, content, emitter) -> emitter.emit(content))
+                .hostDelay(Duration.ZERO)
+                .failFast(false)
+                .build()
+                .run(seeds(10));
+
+        assertEquals(1, stats.getFailed());
+        assertEquals(9, stats.getItems());
+    }
+
+    @Test
+    void parserErrorAbortsRunEvenWithoutFailFast() {
+        CrawlEngine<String> engine = CrawlEngine.<String>builder()
+                .fetcher(CrawlRequest::getUrl)
+                .parser((request, content, emitter) -> {
+                    throw new AssertionError("解析出错");
+                })
+                .hostDelay(Duration.ZERO)
+                .failFast(false)
+                .build();
+
+        AssertionError e = assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(AssertionError.class, () -> engine.run(seeds(10))));
+        assertEquals("解析出错", e.getMessage());
+    }
+
+    @Test
+    void fetcherAndSinkErrorsAbortRun() {
+        CrawlEngine<String> fetchError = CrawlEngine.<String>builder()
+                .fetcher(request -> {
+                    throw new NoClassDefFoundError("抓取出错");
+                })
+                .parser((request, content, emitter) -> emitter.emit(content))
+                .hostDelay(Duration.ZERO)
+                .build();
+        assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(NoClassDefFoundError.class, () -> fetchError.run(seeds(10))));
+
+        CrawlEngine<String> sinkError = CrawlEngine.<String>builder()
+                .fetcher(CrawlRequest::getUrl)
+                .parser((request, content, emitter) -> emitter.emit(content))
+                .sink(item -> {
+                    throw new OutOfMemoryError("输出出错");
+                })
+                .hostDelay(Duration.ZERO)
+                .build();
+        assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(OutOfMemoryError.class, () -> sinkError.run(seeds(10))));
+    }
+
+    @Test
+    void abortWaitsForInFlightFetches() {
+        //每个请求模拟200ms的网络延迟，第一个页面解析失败时其余抓取线程都还在请求中
+        StubTransport transport = new StubTransport(url -> url, Duration.ofMillis(200));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger fetchesAfterRun = new AtomicInteger();
+        AtomicInteger finishedRuns = new AtomicInteger();
+
+        CrawlEngine<String> engine = CrawlEngine.<String>builder()
+                .fetcher(request -> {
+                    inFlight.incrementAndGet();
+                    try {
+                        return transport.get(request.getUrl(), TIMEOUT);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        if (finishedRuns.get() > 0) {
+                            fetchesAfterRun.incrementAndGet();
+                        }
+                    }
+                })
+                .parser((request, content, emitter) -> {
+                    throw new IllegalStateException("解析失败");
+                })
+                .fetchThreads(8)
+                .maxConcurrencyPerHost(8)
+                .hostDelay(Duration.ZERO)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> engine.run(seeds(50)));
+        finishedRuns.incrementAndGet();
+
+        assertEquals(0, inFlight.get());
+        assertEquals(0, fetchesAfterRun.get());
+        assertTrue(transport.getRequestCount() < 50, "中止后不应继续抓取：" + transport.getRequestCount());
+    }
+
+    private static List<CrawlRequest> seeds(int count) {
+        List<CrawlRequest> seeds = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            seeds.add(CrawlRequest.of("http://localhost/" + index));
+        }
+        return seeds;
+    }
+}
@@ -0,0 +1,102 @@
+package org.zze0.crawler.engine;
+
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.util.TokenBucketRateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 抓取边界测试（去重、站点并发上限、令牌桶限速）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class CrawlFrontierTest {
+
+    private static final Duration HOST_DELAY = Duration.ofMillis(200);
+
+    @Test
+    void duplicateKeysAreOfferedOnce() {
+        CrawlFrontier frontier = new CrawlFrontier(1, Duration.ZERO, 1);
+        assertTrue(frontier.offer(CrawlRequest.of("http://localhost/1")));
+        assertFalse(frontier.offer(CrawlRequest.of("http://localhost/1")));
+
+        frontier.close();
+        assertFalse(frontier.offer(CrawlRequest.of("http://localhost/2")));
+    }
+
+    @Test
+    void burstIsTakenWithoutWaiting() throws InterruptedException {
+        CrawlFrontier frontier = new CrawlFrontier(8, HOST_DELAY, 3);
+        offer(frontier, 4);
+
+        long start = System.nanoTime();
+        for (int count = 0; count < 3; count++) {
+            assertNotNull(frontier.take());
+        }
+        assertTrue(elapsedMillis(start) < 100, "突发请求不应等待：" + elapsedMillis(start) + "ms");
+
+        //令牌用完之后按请求间隔放行
+        assertNotNull(frontier.take());
+        assertTrue(elapsedMillis(start) >= 150, "令牌用完后应等待：" + elapsedMillis(start) + "ms");
+    }
+
+    @Test
+    void singlePermitPacesEveryRequest() throws InterruptedException {
+        CrawlFrontier frontier = new CrawlFrontier(8, HOST_DELAY, 1);
+        offer(frontier, 2);
+
+        long start = System.nanoTime();
+        assertNotNull(frontier.take());
+        assertTrue(elapsedMillis(start) < 100, "第一个请求不应等待：" + elapsedMillis(start) + "ms");
+        assertNotNull(frontier.take());
+        assertTrue(elapsedMillis(start) >= 150, "第二个请求应等待：" + elapsedMillis(start) + "ms");
+    }
+
+    @Test
+    void sharedLimiterCountsRequestsOutsideTheFrontier() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1);
+        CrawlFrontier frontier = new CrawlFrontier(8, host -> limiter);
+        offer(frontier, 1);
+
+        //引擎之外的请求先用掉了令牌，边界中的请求要等下一个令牌
+        assertEquals(0, limiter.tryAcquire());
+        long start = System.nanoTime();
+        assertNotNull(frontier.take());
+        assertTrue(elapsedMillis(start) >= 150, "共用的令牌桶没有令牌时应等待：" + elapsedMillis(start) + "ms");
+    }
+
+    @Test
+    void concurrencyLimitHoldsUntilRelease() throws InterruptedException {
+        CrawlFrontier frontier = new CrawlFrontier(1, Duration.ZERO, 1);
+        offer(frontier, 2);
+        CrawlRequest first = frontier.take();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frontier.release(first);
+        });
+        long start = System.nanoTime();
+        releaser.start();
+        assertNotNull(frontier.take());
+        assertTrue(elapsedMillis(start) >= 150, "站点并发已满时应等到请求抓取完：" + elapsedMillis(start) + "ms");
+        releaser.join();
+    }
+
+    private static void offer(CrawlFrontier frontier, int count) {
+        for (int index = 0; index < count; index++) {
+            assertTrue(frontier.offer(CrawlRequest.of("http://localhost/" + index)));
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
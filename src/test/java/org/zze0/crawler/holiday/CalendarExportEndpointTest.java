@@ -0,0 +1,146 @@
+package org.zze0.crawler.holiday;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.zze0.crawler.holiday.service.HolidayProperties;
+import org.zze0.crawler.holiday.service.HolidayService;
+import org.zze0.crawler.holiday.store.HolidaySnapshotStore;
+import org.zze0.crawler.holiday.web.HolidayController;
+import org.zze0.crawler.holiday.web.HolidayResponseCache;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日日历导出接口测试（全量导出、按版本增量导出、客户端版本号超前时退化成全量导出）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class CalendarExportEndpointTest {
+
+    /**
+     * 响应头：导出的快照版本号
+     */
+    private static final String VERSION_HEADER = "X-Calendar-Version";
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HolidayService service;
+
+    private MockMvc mvc;
+
+    /**
+     * 客户端在版本1全量导出的本地日历
+     */
+    private HolidayCalendar local;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        HolidayProperties properties = new HolidayProperties();
+        properties.setSnapshotPath(dir.resolve("holiday-snapshot.bin").toString());
+        properties.setAlmanacPath(dir.resolve("almanac.bin").toString());
+        properties.setOverlayPath(dir.resolve("holiday-overlays.json").toString());
+        service = new HolidayService(properties, meterRegistry);
+        mvc = MockMvcBuilders.standaloneSetup(new HolidayController(service, new HolidayResponseCache())).build();
+
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        publish(snapshot);
+        CalendarExport full = export("/holidays/export", 1);
+        assertTrue(full.isFull());
+        local = full.toCalendar();
+
+        //2022年国庆节少放一天
+        publish(snapshot.withYears(2, Collections.singletonMap(2022, Collections.singletonList(
+                holiday(2022, "国庆节", "2022-10-01", days("2022-10-01", "2022-10-06"), dates("2022-10-08", "2022-10-09"))))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        meterRegistry.close();
+    }
+
+    @Test
+    void deltaContainsYearsChangedSinceClientVersion() throws Exception {
+        CalendarExport delta = export("/holidays/export/delta?since=1", 2);
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.getBaseVersion());
+        assertEquals(Collections.singleton(2022), delta.getYears());
+
+        HolidayCalendar merged = delta.applyTo(local);
+        assertEquals(DayStatus.WORKDAY, merged.status(day("2022-10-07")));
+        assertEquals(service.getSnapshot().getCalendar().status(day("2022-10-07")), merged.status(day("2022-10-07")));
+    }
+
+    @Test
+    void upToDateClientGetsEmptyDelta() throws Exception {
+        CalendarExport delta = export("/holidays/export/delta?since=2", 2);
+        assertFalse(delta.isFull());
+        assertTrue(delta.getYears().isEmpty());
+    }
+
+    @Test
+    void clientAheadOfServerFallsBackToFullExport() throws Exception {
+        //服务端快照重建过，客户端记住的版本号比服务端还新
+        CalendarExport export = export("/holidays/export/delta?since=5", 2);
+        assertTrue(export.isFull());
+        assertEquals(0, export.getBaseVersion());
+        assertEquals(service.getSnapshot().getHolidays().keySet(), export.getYears());
+
+        //与全量导出接口的响应相同
+        byte[] full = mvc.perform(get("/holidays/export")).andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+        byte[] fallback = mvc.perform(get("/holidays/export/delta?since=5")).andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(full, fallback);
+    }
+
+    @Test
+    void deltaSupportsEtagRevalidation() throws Exception {
+        String etag = mvc.perform(get("/holidays/export/delta?since=1")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get("/holidays/export/delta?since=1").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+    }
+
+    /**
+     * 通过本地快照文件发布快照（与启动时从本地快照恢复的路径相同）
+     */
+    private void publish(HolidaySnapshot snapshot) {
+        new HolidaySnapshotStore(dir.resolve("holiday-snapshot.bin")).save(snapshot);
+        service.restore();
+        assertEquals(snapshot.getVersion(), service.getSnapshot().getVersion());
+    }
+
+    /**
+     * 请求导出接口并读取导出
+     *
+     * @param url             请求地址
+     * @param expectedVersion 预期的快照版本号（响应头、导出内容一致）
+     * @return 节假日日历导出
+     */
+    private CalendarExport export(String url, long expectedVersion) throws Exception {
+        MockHttpServletResponse response = mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse();
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE, response.getContentType());
+        assertEquals(String.valueOf(expectedVersion), response.getHeader(VERSION_HEADER));
+
+        CalendarExport export = CalendarExport.decode(ByteBuffer.wrap(response.getContentAsByteArray()));
+        assertEquals(expectedVersion, export.getVersion());
+        return export;
+    }
+}
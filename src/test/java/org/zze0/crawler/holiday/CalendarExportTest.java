@@ -0,0 +1,76 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日日历二进制导出测试（全量导出、增量导出合并到本地日历）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class CalendarExportTest {
+
+    @Test
+    void fullExportRoundTrips() {
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        CalendarExport export = CalendarExport.decode(ByteBuffer.wrap(CalendarExport.encode(snapshot)));
+
+        assertTrue(export.isFull());
+        assertEquals(1, export.getVersion());
+        assertEquals(snapshot.getHolidays().keySet(), export.getYears());
+        assertSameStatuses(snapshot.getCalendar(), export.toCalendar());
+    }
+
+    @Test
+    void januaryChangeExportsPreviousYear() {
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        HolidayCalendar local = CalendarExport.decode(ByteBuffer.wrap(CalendarExport.encode(snapshot))).toCalendar();
+
+        //2023年元旦假期提前到2022年12月30日开始，只改了2023年度的数据，但2022年度的日期状态表也变了
+        Map<Integer, List<Holiday>> changed = new HashMap<>();
+        changed.put(2023, Arrays.asList(
+                holiday(2023, "元旦节", "2023-01-01", days("2022-12-30", "2023-01-02"), dates()),
+                snapshot.getHolidays(2023).get(1)));
+        HolidaySnapshot next = snapshot.withYears(2, changed);
+        assertEquals(2L, next.getYearVersions().get(2022));
+        assertEquals(2L, next.getYearVersions().get(2023));
+        assertEquals(1L, next.getYearVersions().get(2021));
+
+        CalendarExport delta = CalendarExport.decode(ByteBuffer.wrap(CalendarExport.encode(next, 1)));
+        assertFalse(delta.isFull());
+        assertEquals(new TreeSet<>(Arrays.asList(2022, 2023)), delta.getYears());
+
+        HolidayCalendar merged = delta.applyTo(local);
+        assertEquals(DayStatus.HOLIDAY, merged.status(day("2022-12-30")));
+        assertSameStatuses(next.getCalendar(), merged);
+    }
+
+    @Test
+    void changeWithinYearExportsOnlyThatYear() {
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        HolidayCalendar local = CalendarExport.decode(ByteBuffer.wrap(CalendarExport.encode(snapshot))).toCalendar();
+
+        //2022年国庆节少放一天，不影响相邻年度
+        HolidaySnapshot next = snapshot.withYears(2, Collections.singletonMap(2022, Collections.singletonList(
+                holiday(2022, "国庆节", "2022-10-01", days("2022-10-01", "2022-10-06"), dates("2022-10-08", "2022-10-09")))));
+
+        CalendarExport delta = CalendarExport.decode(ByteBuffer.wrap(CalendarExport.encode(next, 1)));
+        assertEquals(Collections.singleton(2022), delta.getYears());
+        assertSameStatuses(next.getCalendar(), delta.applyTo(local));
+
+        //基准版本就是最新版本时没有需要同步的年度
+        assertTrue(CalendarExport.decode(ByteBuffer.wrap(CalendarExport.encode(next, 2))).getYears().isEmpty());
+    }
+
+    private static void assertSameStatuses(HolidayCalendar expected, HolidayCalendar actual) {
+        for (int epochDay = day("2018-01-01"); epochDay <= day("2023-12-31"); epochDay++) {
+            assertEquals(expected.status(epochDay), actual.status(epochDay), String.valueOf(epochDay));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 年度日期状态表测试
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class CalendarYearTest {
+
+    /**
+     * 2020年中秋节、国庆节合并放假：10月1日~8日放假，9月27日（周日）、10月10日（周六）补班
+     */
+    private static final CalendarYear YEAR_2020 = CalendarYear.compile(2020,
+            new int[]{day("2020-10-01"), day("2020-10-02"), day("2020-10-03"), day("2020-10-04"),
+                    day("2020-10-05"), day("2020-10-06"), day("2020-10-07"), day("2020-10-08")},
+            new int[]{day("2020-09-27"), day("2020-10-10")});
+
+    @Test
+    void compileMarksWeekendsHolidaysAndAddWorkdays() {
+        String[][] cases = {
+                {"2020-09-25", "WORKDAY"},
+                {"2020-09-26", "WEEKEND"},
+                {"2020-09-27", "ADD_WORKDAY"},
+                {"2020-09-30", "WORKDAY"},
+                {"2020-10-01", "HOLIDAY"},
+                {"2020-10-03", "HOLIDAY"},
+                {"2020-10-08", "HOLIDAY"},
+                {"2020-10-09", "WORKDAY"},
+                {"2020-10-10", "ADD_WORKDAY"},
+                {"2020-10-11", "WEEKEND"},
+                {"2020-01-01", "WORKDAY"},
+                {"2020-02-29", "WEEKEND"},
+                {"2020-12-31", "WORKDAY"},
+        };
+        for (String[] testCase : cases) {
+            assertEquals(DayStatus.valueOf(testCase[1]), status(YEAR_2020, testCase[0]), testCase[0]);
+        }
+        assertEquals(366, YEAR_2020.getLength());
+        assertEquals(day("2020-01-01"), YEAR_2020.getFirstDay());
+    }
+
+    @Test
+    void compileIgnoresDaysOutsideYear() {
+        CalendarYear year = CalendarYear.compile(2023, new int[]{day("2022-12-31"), day("2023-01-02")}, new int[]{day("2024-01-01")});
+        assertEquals(DayStatus.HOLIDAY, status(year, "2023-01-02"));
+        assertEquals(365, year.getLength());
+        assertEquals(CalendarYear.compile(2023, new int[]{day("2023-01-02")}, new int[0]).getWorkdays(), year.getWorkdays());
+    }
+
+    @Test
+    void twoBitPackingKeepsNeighboursAcrossBlockBoundaries() {
+        CalendarYear year = CalendarYear.compile(2021, new int[0], new int[0]);
+
+        //每个long存32天：第31天、第32天分别是两个分块的边界
+        for (int dayOfYear : new int[]{0, 30, 31, 32, 63, 64, 364}) {
+            for (DayStatus status : DayStatus.values()) {
+                CalendarYear changed = year.withStatuses(new int[]{year.getFirstDay() + dayOfYear}, new DayStatus[]{status});
+                for (int other = 0; other < year.getLength(); other++) {
+                    assertEquals(other == dayOfYear ? status : year.status(other), changed.status(other), "第" + other + "天");
+                }
+            }
+        }
+        //原表不受影响
+        assertEquals(CalendarYear.compile(2021, new int[0], new int[0]).getWorkdays(), year.getWorkdays());
+    }
+
+    @Test
+    void withStatusesLastWriteWins() {
+        int day = day("2021-03-01");
+        CalendarYear year = CalendarYear.compile(2021, new int[0], new int[0])
+                .withStatuses(new int[]{day, day, day("2022-01-01")}, new DayStatus[]{DayStatus.HOLIDAY, DayStatus.ADD_WORKDAY, DayStatus.HOLIDAY});
+        assertEquals(DayStatus.ADD_WORKDAY, status(year, "2021-03-01"));
+    }
+
+    @Test
+    void workdayPrefixSumsMatchBruteForce() {
+        for (CalendarYear year : new CalendarYear[]{YEAR_2020, CalendarYear.compile(2021, new int[0], new int[0])}) {
+            int workdays = 0;
+            for (int dayOfYear = 0; dayOfYear <= year.getLength(); dayOfYear++) {
+                assertEquals(workdays, year.workdaysBefore(dayOfYear), year.getYear() + "年第" + dayOfYear + "天");
+                if (dayOfYear < year.getLength() && year.status(dayOfYear).isWorkday()) {
+                    assertEquals(dayOfYear, year.findWorkday(workdays), year.getYear() + "年第" + workdays + "个工作日");
+                    workdays++;
+                }
+            }
+            assertEquals(workdays, year.getWorkdays());
+        }
+        //2020年：366天，104个周末日，8天假期中有2天是周末，补班2天
+        assertEquals(366 - 104 - 6 + 2, YEAR_2020.getWorkdays());
+    }
+
+    @Test
+    void firstDayOfAndWeekendAreArithmetic() {
+        for (int year = 1900; year <= 2100; year++) {
+            assertEquals(LocalDate.of(year, 1, 1).toEpochDay(), CalendarYear.firstDayOf(year), year + "年");
+        }
+        for (LocalDate date = LocalDate.of(1969, 12, 1); date.isBefore(LocalDate.of(1970, 2, 1)); date = date.plusDays(1)) {
+            assertEquals(date.getDayOfWeek().getValue() >= 6, CalendarYear.isWeekend(date.toEpochDay()), date.toString());
+        }
+    }
+
+    private static DayStatus status(CalendarYear year, String date) {
+        return year.status(day(date) - year.getFirstDay());
+    }
+}
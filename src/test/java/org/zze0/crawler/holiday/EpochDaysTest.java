@@ -0,0 +1,77 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 时间戳按北京时间换算日期的测试（与服务器时区无关）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class EpochDaysTest {
+
+    private static final HolidayCalendar CALENDAR = HolidayCalendar.compile(HolidayFixtures.holidays());
+
+    @Test
+    void chinaMillisMatchZoneRules() {
+        //覆盖1986~1991年的夏令时
+        Random random = new Random(19860504);
+        long from = Instant.parse("1940-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2040-01-01T00:00:00Z").toEpochMilli();
+        for (int i = 0; i < 1_000_000; i++) {
+            long millis = from + (long) (random.nextDouble() * (to - from));
+            assertChinaDay(millis);
+        }
+
+        //夏令时开始时刻前后、夏令时期间（UTC+9）的零点前后
+        for (String instant : new String[]{"1986-05-03T17:59:59.999Z", "1986-05-03T18:00:00Z",
+                "1986-09-13T14:59:59.999Z", "1986-09-13T15:00:00Z", "1991-09-14T14:59:59.999Z", "1991-09-14T15:00:00Z"}) {
+            assertChinaDay(Instant.parse(instant).toEpochMilli());
+        }
+    }
+
+    @Test
+    void almanacInstantIsNextChinaDay() {
+        //日历接口的oDate是UTC时间，北京时间是第二天零点
+        assertEquals(LocalDate.of(2021, 5, 1).toEpochDay(), EpochDays.ofChinaMillis(Instant.parse("2021-04-30T16:00:00.000Z").toEpochMilli()));
+        assertEquals(LocalDate.of(2021, 4, 30).toEpochDay(), EpochDays.ofChinaMillis(Instant.parse("2021-04-30T15:59:59.999Z").toEpochMilli()));
+    }
+
+    @Test
+    void statusAtIgnoresServerTimeZone() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            for (String zone : new String[]{"UTC", "America/New_York", "Asia/Shanghai", "Pacific/Kiritimati"}) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+
+                //北京时间2018-12-29是补班日，2018-12-30是元旦假期
+                long lastMillisOfAddWorkday = Instant.parse("2018-12-29T15:59:59.999Z").toEpochMilli();
+                long firstMillisOfHoliday = Instant.parse("2018-12-29T16:00:00Z").toEpochMilli();
+                assertEquals(DayStatus.ADD_WORKDAY, CALENDAR.statusAt(lastMillisOfAddWorkday), zone);
+                assertEquals(DayStatus.HOLIDAY, CALENDAR.statusAt(firstMillisOfHoliday), zone);
+                assertTrue(CALENDAR.isWorkdayAt(lastMillisOfAddWorkday), zone);
+                assertFalse(CALENDAR.isWorkdayAt(firstMillisOfHoliday), zone);
+
+                byte[] codes = new byte[2];
+                CALENDAR.statusCodesAt(new long[]{lastMillisOfAddWorkday, firstMillisOfHoliday}, codes);
+                assertArrayEquals(new byte[]{(byte) DayStatus.ADD_WORKDAY.getCode(), (byte) DayStatus.HOLIDAY.getCode()}, codes, zone);
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+        assertEquals(day("2018-12-30"), EpochDays.ofChinaMillis(Instant.parse("2018-12-29T16:00:00Z").toEpochMilli()));
+    }
+
+    private static void assertChinaDay(long millis) {
+        long expected = Instant.ofEpochMilli(millis).atZone(EpochDays.CHINA_ZONE).toLocalDate().toEpochDay();
+        assertEquals(expected, EpochDays.ofChinaMillis(millis), () -> Instant.ofEpochMilli(millis).toString());
+    }
+}
@@ -0,0 +1,129 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 节假日日历批量查询测试（包括超过并行阈值、拆分成fork/join任务的情况）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayCalendarBulkTest {
+
+    private static final HolidayCalendar CALENDAR = HolidayCalendar.compile(HolidayFixtures.holidays());
+
+    /**
+     * 超过并行阈值（1 << 16）的数量
+     */
+    private static final int LARGE = 200_000;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    @Test
+    void bulkCodesMatchSingleQueries() {
+        for (int count : new int[]{0, 1, 1000, LARGE}) {
+            int[] days = randomDays(new Random(count), count);
+
+            byte[] codes = new byte[count];
+            boolean[] workdays = new boolean[count];
+            CALENDAR.statusCodes(days, codes);
+            CALENDAR.workdays(days, workdays);
+
+            for (int index = 0; index < count; index++) {
+                DayStatus status = CALENDAR.status(days[index]);
+                assertEquals(status.getCode(), codes[index], "第" + index + "个");
+                assertEquals(status.isWorkday(), workdays[index], "第" + index + "个");
+            }
+        }
+    }
+
+    @Test
+    void bulkMillisMatchSingleQueries() {
+        Random random = new Random(20201001);
+        int[] days = randomDays(random, LARGE);
+        long[] millis = new long[LARGE];
+        for (int index = 0; index < LARGE; index++) {
+            //北京时间当天内的随机时刻
+            millis[index] = days[index] * MILLIS_PER_DAY - 8 * 3_600_000L + random.nextInt((int) MILLIS_PER_DAY);
+        }
+
+        byte[] codesAt = new byte[LARGE];
+        byte[] codesAtOffset = new byte[LARGE];
+        boolean[] workdaysAt = new boolean[LARGE];
+        boolean[] workdaysAtOffset = new boolean[LARGE];
+        CALENDAR.statusCodesAt(millis, codesAt);
+        CALENDAR.statusCodes(millis, ZoneOffset.ofHours(8), codesAtOffset);
+        CALENDAR.workdaysAt(millis, workdaysAt);
+        CALENDAR.workdays(millis, ZoneOffset.ofHours(8), workdaysAtOffset);
+
+        for (int index = 0; index < LARGE; index++) {
+            DayStatus status = CALENDAR.status(days[index]);
+            assertEquals(status.getCode(), codesAt[index], "第" + index + "个");
+            assertEquals(status.getCode(), codesAtOffset[index], "第" + index + "个");
+            assertEquals(status.isWorkday(), workdaysAt[index], "第" + index + "个");
+            assertEquals(status.isWorkday(), workdaysAtOffset[index], "第" + index + "个");
+        }
+    }
+
+    @Test
+    void streamsMatchSingleQueries() {
+        int[] days = randomDays(new Random(7), LARGE);
+        int[] codes = CALENDAR.statusCodes(IntStream.of(days).parallel()).toArray();
+        for (int index = 0; index < LARGE; index++) {
+            assertEquals(CALENDAR.status(days[index]).getCode(), codes[index], "第" + index + "个");
+        }
+
+        //UTC零点换算成UTC当天
+        int[] utcCodes = CALENDAR.statusCodes(IntStream.of(days).asLongStream().map(day -> day * MILLIS_PER_DAY), ZoneOffset.UTC).toArray();
+        for (int index = 0; index < LARGE; index++) {
+            assertEquals(codes[index], utcCodes[index], "第" + index + "个");
+        }
+    }
+
+    @Test
+    void uncoveredDateFailsWholeBatch() {
+        for (int count : new int[]{1000, LARGE}) {
+            int[] days = randomDays(new Random(count), count);
+            days[count - 1] = day("2024-01-01");
+            assertThrows(IllegalArgumentException.class, () -> CALENDAR.statusCodes(days, new byte[count]));
+            assertThrows(IllegalArgumentException.class, () -> CALENDAR.workdays(days, new boolean[count]));
+        }
+
+        //收录范围中间缺失的年度同样不能查询
+        Map<Integer, List<Holiday>> holidays = HolidayFixtures.holidays();
+        holidays.remove(2021);
+        HolidayCalendar calendar = HolidayCalendar.compile(holidays);
+        int[] days = {day("2020-06-01"), day("2021-06-01")};
+        assertThrows(IllegalArgumentException.class, () -> calendar.statusCodes(days, new byte[2]));
+    }
+
+    @Test
+    void shortResultArrayIsRejected() {
+        int[] days = {day("2020-06-01"), day("2020-06-02")};
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.statusCodes(days, new byte[1]));
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.workdays(days, new boolean[1]));
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.statusCodesAt(new long[2], new byte[1]));
+    }
+
+    /**
+     * 收录范围内的随机日期
+     */
+    private static int[] randomDays(Random random, int count) {
+        int firstDay = day("2018-01-01");
+        int lastDay = day("2023-12-31");
+        int[] days = new int[count];
+        for (int index = 0; index < count; index++) {
+            days[index] = firstDay + random.nextInt(lastDay - firstDay + 1);
+        }
+        return days;
+    }
+}
@@ -0,0 +1,99 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 节假日日历查询测试
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayCalendarTest {
+
+    private static final HolidayCalendar CALENDAR = HolidayCalendar.compile(HolidayFixtures.holidays());
+
+    @Test
+    void daysAreMarkedInTheYearTheyFallIn() {
+        String[][] cases = {
+                //2019年元旦的假期、补班日在2018年12月
+                {"2018-12-29", "ADD_WORKDAY"},
+                {"2018-12-30", "HOLIDAY"},
+                {"2018-12-31", "HOLIDAY"},
+                {"2019-01-01", "HOLIDAY"},
+                {"2019-01-02", "WORKDAY"},
+                //2023年元旦的假期从2022年12月31日开始
+                {"2022-12-30", "WORKDAY"},
+                {"2022-12-31", "HOLIDAY"},
+                {"2023-01-02", "HOLIDAY"},
+                {"2023-01-03", "WORKDAY"},
+                {"2023-01-28", "ADD_WORKDAY"},
+                {"2020-10-08", "HOLIDAY"},
+                {"2020-10-10", "ADD_WORKDAY"},
+        };
+        for (String[] testCase : cases) {
+            assertEquals(DayStatus.valueOf(testCase[1]), CALENDAR.status(day(testCase[0])), testCase[0]);
+        }
+        assertTrue(CALENDAR.isWorkday(day("2018-12-29")));
+        assertTrue(CALENDAR.isHoliday(day("2022-12-31")));
+        assertFalse(CALENDAR.isWorkday(day("2020-10-11")));
+    }
+
+    @Test
+    void uncoveredDatesAreRejected() {
+        assertEquals(2018, CALENDAR.getFirstYear());
+        assertEquals(2023, CALENDAR.getLastYear());
+        assertTrue(CALENDAR.covers(day("2018-01-01")));
+        assertTrue(CALENDAR.covers(day("2023-12-31")));
+        assertFalse(CALENDAR.covers(day("2017-12-31")));
+        assertFalse(CALENDAR.covers(day("2024-01-01")));
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.status(day("2024-01-01")));
+    }
+
+    @Test
+    void missingYearsAreNotCovered() {
+        Map<Integer, List<Holiday>> holidays = HolidayFixtures.holidays();
+        holidays.remove(2021);
+        HolidayCalendar calendar = HolidayCalendar.compile(holidays);
+
+        assertNull(calendar.getYear(2021));
+        assertFalse(calendar.covers(day("2021-06-01")));
+        assertTrue(calendar.covers(day("2022-06-01")));
+        assertThrows(IllegalArgumentException.class, () -> calendar.status(day("2021-06-01")));
+    }
+
+    @Test
+    void emptyCalendarCoversNothing() {
+        HolidayCalendar calendar = HolidayCalendar.compile(Collections.emptyMap());
+        assertFalse(calendar.covers(0));
+        assertTrue(calendar.getLastYear() < calendar.getFirstYear());
+    }
+
+    @Test
+    void compactHolidaysCompileToTheSameCalendar() {
+        Map<Integer, List<CompactHoliday>> compactHolidays = new TreeMap<>();
+        HolidayFixtures.holidays().forEach((year, yearHolidays) -> {
+            List<CompactHoliday> compactYearHolidays = new ArrayList<>();
+            for (Holiday holiday : yearHolidays) {
+                compactYearHolidays.add(new CompactHoliday(year, EpochDays.of(holiday.getDate()), holiday.getName(),
+                        holiday.getHolidayDateList().stream().mapToInt(EpochDays::of).toArray(),
+                        holiday.getAddWorkDateList().stream().mapToInt(EpochDays::of).toArray()));
+            }
+            compactHolidays.put(year, compactYearHolidays);
+        });
+        HolidayCalendar calendar = HolidayCalendar.compileCompact(compactHolidays);
+
+        assertEquals(CALENDAR.getFirstYear(), calendar.getFirstYear());
+        assertEquals(CALENDAR.getLastYear(), calendar.getLastYear());
+        for (int epochDay = day("2018-01-01"); epochDay <= day("2023-12-31"); epochDay++) {
+            assertEquals(CALENDAR.status(epochDay), calendar.status(epochDay), LocalDate.ofEpochDay(epochDay)::toString);
+        }
+        assertEquals(CALENDAR.workdaysBetween(day("2018-01-01"), day("2023-12-31")),
+                calendar.workdaysBetween(day("2018-01-01"), day("2023-12-31")));
+    }
+}
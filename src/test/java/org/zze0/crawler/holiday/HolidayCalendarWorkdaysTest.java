@@ -0,0 +1,125 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 工作日推算测试
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayCalendarWorkdaysTest {
+
+    private static final HolidayCalendar CALENDAR = HolidayCalendar.compile(HolidayFixtures.holidays());
+
+    @Test
+    void addWorkdaysAcrossYearBoundaries() {
+        String[][] cases = {
+                //2018年12月29日（周六）补班
+                {"2018-12-28", "1", "2018-12-29"},
+                {"2018-12-29", "1", "2019-01-02"},
+                {"2019-01-02", "-1", "2018-12-29"},
+                //2022年12月31日 ~ 2023年1月2日放假
+                {"2022-12-30", "1", "2023-01-03"},
+                {"2023-01-03", "-1", "2022-12-30"},
+                {"2022-12-31", "1", "2023-01-03"},
+                {"2022-12-31", "-1", "2022-12-30"},
+                //2020年国庆：9月27日补班，10月1日~8日放假，10月10日补班
+                {"2020-09-25", "1", "2020-09-27"},
+                {"2020-09-30", "1", "2020-10-09"},
+                {"2020-10-09", "1", "2020-10-10"},
+                {"2020-10-10", "1", "2020-10-12"},
+                {"2020-10-01", "0", "2020-10-01"},
+                {"2018-01-01", "300", "2019-02-26"},
+        };
+        for (String[] testCase : cases) {
+            LocalDate expected = LocalDate.parse(testCase[2]);
+            assertEquals(expected, CALENDAR.addWorkdays(LocalDate.parse(testCase[0]), Integer.parseInt(testCase[1])), testCase[0] + " + " + testCase[1]);
+        }
+    }
+
+    @Test
+    void addWorkdaysMatchesDayByDayWalk() {
+        int first = day("2018-01-01");
+        int last = day("2023-12-31");
+        for (int start = first; start <= last; start += 37) {
+            for (int n : new int[]{1, 2, 5, 10, 22, 250, -1, -3, -22, -250}) {
+                int expected = walk(start, n, first, last);
+                if (expected < 0) {
+                    int from = start;
+                    assertThrows(IllegalArgumentException.class, () -> CALENDAR.addWorkdays(from, n), LocalDate.ofEpochDay(start) + " + " + n);
+                } else {
+                    assertEquals(expected, CALENDAR.addWorkdays(start, n), LocalDate.ofEpochDay(start) + " + " + n);
+                }
+            }
+        }
+    }
+
+    @Test
+    void workdaysBetweenMatchesBruteForce() {
+        int first = day("2018-01-01");
+        int end = day("2024-01-01");
+        int[] prefix = new int[end - first + 1];
+        for (int day = first; day < end; day++) {
+            prefix[day - first + 1] = prefix[day - first] + (CALENDAR.isWorkday(day) ? 1 : 0);
+        }
+        for (int from = first; from <= end; from += 23) {
+            for (int to = from; to <= end; to += 97) {
+                assertEquals(prefix[to - first] - prefix[from - first], CALENDAR.workdaysBetween(from, to), LocalDate.ofEpochDay(from) + " ~ " + LocalDate.ofEpochDay(to));
+                assertEquals(prefix[from - first] - prefix[to - first], CALENDAR.workdaysBetween(to, from));
+            }
+        }
+        //2020年10月：22个工作日减去国庆假期中的6个工作日，加上10月10日补班
+        assertEquals(22 - 6 + 1, CALENDAR.workdaysBetween(LocalDate.of(2020, 10, 1), LocalDate.of(2020, 11, 1)));
+        assertEquals(CALENDAR.workdaysBetween(first, end), CALENDAR.workdaysBetween(first, end));
+    }
+
+    @Test
+    void nextAndPreviousWorkday() {
+        assertEquals(LocalDate.of(2023, 1, 3), CALENDAR.nextWorkday(LocalDate.of(2022, 12, 30)));
+        assertEquals(LocalDate.of(2022, 12, 30), CALENDAR.previousWorkday(LocalDate.of(2023, 1, 3)));
+        assertEquals(LocalDate.of(2023, 1, 28), CALENDAR.nextWorkday(LocalDate.of(2023, 1, 20)));
+    }
+
+    @Test
+    void arithmeticOutsideCoverageOrAcrossMissingYearsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.addWorkdays(LocalDate.of(2023, 12, 29), 1));
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.addWorkdays(LocalDate.of(2018, 1, 1), -1));
+        assertThrows(IllegalArgumentException.class, () -> CALENDAR.workdaysBetween(LocalDate.of(2017, 12, 1), LocalDate.of(2018, 2, 1)));
+
+        Map<Integer, List<Holiday>> holidays = HolidayFixtures.holidays();
+        holidays.remove(2021);
+        HolidayCalendar calendar = HolidayCalendar.compile(holidays);
+        assertThrows(IllegalArgumentException.class, () -> calendar.addWorkdays(LocalDate.of(2020, 12, 31), 1));
+        assertThrows(IllegalArgumentException.class, () -> calendar.workdaysBetween(LocalDate.of(2020, 6, 1), LocalDate.of(2022, 6, 1)));
+        assertEquals(LocalDate.of(2022, 1, 4), calendar.addWorkdays(LocalDate.of(2022, 1, 3), 1));
+        assertEquals(LocalDate.of(2020, 12, 31), calendar.addWorkdays(LocalDate.of(2020, 12, 30), 1));
+    }
+
+    /**
+     * 逐天推算工作日
+     *
+     * @return 推算出的工作日，超出[first, last]时返回-1
+     */
+    private static int walk(int start, int n, int first, int last) {
+        int step = n > 0 ? 1 : -1;
+        int day = start;
+        for (int remaining = Math.abs(n); remaining > 0; ) {
+            day += step;
+            if (day < first || day > last) {
+                return -1;
+            }
+            if (CALENDAR.isWorkday(day)) {
+                remaining--;
+            }
+        }
+        return day;
+    }
+}
@@ -0,0 +1,97 @@
+package org.zze0.crawler.holiday;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 测试用的法定节假日（按国务院办公厅公布的放假安排）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class HolidayFixtures {
+
+    private HolidayFixtures() {
+    }
+
+    /**
+     * 2018 ~ 2023年度的部分法定节假日（覆盖跨年度的假期、补班日，以及中秋、国庆合并放假）
+     *
+     * @return 年度法定节假日（key是年份，value是节假日列表）
+     */
+    public static Map<Integer, List<Holiday>> holidays() {
+        Map<Integer, List<Holiday>> holidays = new TreeMap<>();
+        holidays.put(2018, new ArrayList<>());
+        holidays.put(2019, list(
+                //元旦：假期从2018年12月30日开始，2018年12月29日（周六）补班
+                holiday(2019, "元旦节", "2019-01-01", days("2018-12-30", "2019-01-01"), dates("2018-12-29"))));
+        holidays.put(2020, list(
+                //中秋节、国庆节合并放假
+                holiday(2020, "中秋节", "2020-10-01", days("2020-10-01", "2020-10-08"), dates("2020-09-27", "2020-10-10")),
+                holiday(2020, "国庆节", "2020-10-01", days("2020-10-01", "2020-10-08"), dates("2020-09-27", "2020-10-10"))));
+        holidays.put(2021, new ArrayList<>());
+        holidays.put(2022, list(
+                holiday(2022, "国庆节", "2022-10-01", days("2022-10-01", "2022-10-07"), dates("2022-10-08", "2022-10-09"))));
+        holidays.put(2023, list(
+                //元旦：假期从2022年12月31日开始，没有补班
+                holiday(2023, "元旦节", "2023-01-01", days("2022-12-31", "2023-01-02"), dates()),
+                holiday(2023, "春节", "2023-01-22", days("2023-01-21", "2023-01-27"), dates("2023-01-28", "2023-01-29"))));
+        return holidays;
+    }
+
+    /**
+     * 创建节假日
+     *
+     * @param year         年份
+     * @param name         名称
+     * @param date         节假日日期（yyyy-MM-dd）
+     * @param holidayDates 假期（yyyy-MM-dd）
+     * @param addWorkDates 补班日（yyyy-MM-dd）
+     * @return 节假日
+     */
+    public static Holiday holiday(int year, String name, String date, List<String> holidayDates, List<String> addWorkDates) {
+        Holiday holiday = new Holiday();
+        holiday.setYear(year);
+        holiday.setName(name);
+        holiday.setDate(toDate(date));
+        holiday.setHolidayDateList(holidayDates.stream().map(HolidayFixtures::toDate).collect(Collectors.toList()));
+        holiday.setAddWorkDateList(addWorkDates.stream().map(HolidayFixtures::toDate).collect(Collectors.toList()));
+        return holiday;
+    }
+
+    /**
+     * 连续的日期
+     *
+     * @param from 开始日期（yyyy-MM-dd，包含）
+     * @param to   结束日期（yyyy-MM-dd，包含）
+     * @return 日期列表（yyyy-MM-dd）
+     */
+    public static List<String> days(String from, String to) {
+        return Stream.iterate(LocalDate.parse(from), date -> date.plusDays(1))
+                .limit(LocalDate.parse(to).toEpochDay() - LocalDate.parse(from).toEpochDay() + 1)
+                .map(LocalDate::toString)
+                .collect(Collectors.toList());
+    }
+
+    public static List<String> dates(String... dates) {
+        return Arrays.asList(dates);
+    }
+
+    /**
+     * @param date 日期（yyyy-MM-dd）
+     * @return epochDay
+     */
+    public static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static Date toDate(String date) {
+        return EpochDays.toDate(day(date));
+    }
+
+    private static List<Holiday> list(Holiday... holidays) {
+        return new ArrayList<>(Arrays.asList(holidays));
+    }
+}
@@ -0,0 +1,138 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日区间索引测试（第一个假期之前、最后一个假期之后、假期第一天和最后一天、重叠假期合并）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayIndexTest {
+
+    private final HolidayIndex index = HolidayIndex.compile(HolidayFixtures.holidays());
+
+    @Test
+    void periodsAreSortedAndMerged() {
+        //2020年中秋节、国庆节是同一个假期周期
+        assertEquals(5, index.size());
+        assertEquals("元旦节", index.getName(0));
+        assertEquals("中秋节、国庆节", index.getName(1));
+        assertEquals(day("2020-10-01"), index.getStart(1));
+        assertEquals(day("2020-10-08"), index.getEnd(1));
+        assertEquals("春节", index.getName(4));
+        assertEquals(7, index.addWorkCount());
+    }
+
+    @Test
+    void beforeFirstPeriod() {
+        int epochDay = day("2018-06-01");
+        assertEquals(-1, index.periodOf(epochDay));
+        assertEquals(-1, index.previousPeriod(epochDay));
+        assertEquals(0, index.nextPeriod(epochDay));
+        assertEquals(day("2018-12-30") - epochDay, index.daysUntilNextPeriod(epochDay));
+
+        int addWork = index.nextAddWork(epochDay);
+        assertEquals(0, addWork);
+        assertEquals(day("2018-12-29"), index.getAddWorkDay(addWork));
+        assertEquals(0, index.getAddWorkPeriod(addWork));
+    }
+
+    @Test
+    void afterLastPeriod() {
+        int epochDay = day("2023-06-01");
+        assertEquals(-1, index.periodOf(epochDay));
+        assertEquals(4, index.previousPeriod(epochDay));
+        assertEquals(-1, index.nextPeriod(epochDay));
+        assertEquals(-1, index.daysUntilNextPeriod(epochDay));
+        assertEquals(-1, index.nextAddWork(epochDay));
+
+        //最后一个补班日当天，下一个补班日不包含当天
+        assertEquals(-1, index.nextAddWork(day("2023-01-29")));
+        assertEquals(4, index.addWorkPeriodOf(day("2023-01-29")));
+    }
+
+    @Test
+    void startAndEndDaysAreInsidePeriod() {
+        for (int epochDay : new int[]{day("2018-12-30"), day("2019-01-01")}) {
+            assertEquals(0, index.periodOf(epochDay));
+            assertEquals(-1, index.previousPeriod(epochDay));
+            assertEquals(1, index.nextPeriod(epochDay));
+            assertEquals(day("2020-10-01") - epochDay, index.daysUntilNextPeriod(epochDay));
+        }
+
+        //第一天的前一天、最后一天的后一天
+        assertEquals(-1, index.periodOf(day("2018-12-29")));
+        assertEquals(0, index.nextPeriod(day("2018-12-29")));
+        assertEquals(1, index.daysUntilNextPeriod(day("2018-12-29")));
+        assertEquals(-1, index.periodOf(day("2019-01-02")));
+        assertEquals(0, index.previousPeriod(day("2019-01-02")));
+
+        //最后一个假期周期的最后一天
+        assertEquals(4, index.periodOf(day("2023-01-27")));
+        assertEquals(3, index.previousPeriod(day("2023-01-27")));
+        assertEquals(-1, index.nextPeriod(day("2023-01-27")));
+    }
+
+    @Test
+    void addWorkdaysBelongToTheirPeriod() {
+        assertEquals(0, index.addWorkPeriodOf(day("2018-12-29")));
+        assertEquals(1, index.addWorkPeriodOf(day("2020-09-27")));
+        assertEquals(1, index.addWorkPeriodOf(day("2020-10-10")));
+        assertEquals(-1, index.addWorkPeriodOf(day("2020-10-09")));
+
+        //补班日当天查询的是之后的补班日
+        int addWork = index.nextAddWork(day("2020-09-27"));
+        assertEquals(day("2020-10-10"), index.getAddWorkDay(addWork));
+        assertEquals(day("2022-10-08"), index.getAddWorkDay(index.nextAddWork(day("2020-10-10"))));
+    }
+
+    @Test
+    void overlappingPeriodsAreMerged() {
+        Map<Integer, List<Holiday>> holidays = Collections.singletonMap(2024, Arrays.asList(
+                holiday(2024, "甲", "2024-10-01", days("2024-10-01", "2024-10-05"), dates("2024-09-29")),
+                holiday(2024, "乙", "2024-10-04", days("2024-10-04", "2024-10-08"), dates("2024-09-29", "2024-10-12")),
+                //紧挨着但不重叠的假期周期不合并
+                holiday(2024, "丙", "2024-10-09", days("2024-10-09", "2024-10-10"), dates()),
+                //被其他假期周期完全包含
+                holiday(2024, "丁", "2024-10-02", days("2024-10-02", "2024-10-03"), dates()),
+                //没有假期的节假日不收录
+                holiday(2024, "戊", "2024-11-01", dates(), dates("2024-11-02"))));
+        HolidayIndex merged = HolidayIndex.compile(holidays);
+
+        assertEquals(2, merged.size());
+        assertEquals("甲、丁、乙", merged.getName(0));
+        assertEquals(day("2024-10-01"), merged.getStart(0));
+        assertEquals(day("2024-10-08"), merged.getEnd(0));
+        assertEquals("丙", merged.getName(1));
+        assertEquals(1, merged.periodOf(day("2024-10-09")));
+        assertEquals(0, merged.previousPeriod(day("2024-10-09")));
+
+        //补班日只收录一次
+        assertEquals(2, merged.addWorkCount());
+        assertEquals(0, merged.addWorkPeriodOf(day("2024-09-29")));
+        assertEquals(0, merged.addWorkPeriodOf(day("2024-10-12")));
+        assertEquals(-1, merged.addWorkPeriodOf(day("2024-11-02")));
+    }
+
+    @Test
+    void emptyIndex() {
+        HolidayIndex empty = HolidayIndex.compile(Collections.emptyMap());
+        int epochDay = day("2022-10-01");
+        assertEquals(0, empty.size());
+        assertEquals(-1, empty.periodOf(epochDay));
+        assertEquals(-1, empty.previousPeriod(epochDay));
+        assertEquals(-1, empty.nextPeriod(epochDay));
+        assertEquals(-1, empty.daysUntilNextPeriod(epochDay));
+        assertEquals(-1, empty.nextAddWork(epochDay));
+        assertEquals(-1, empty.addWorkPeriodOf(epochDay));
+    }
+}
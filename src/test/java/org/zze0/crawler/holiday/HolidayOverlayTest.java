@@ -0,0 +1,121 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日叠加层、租户节假日日历测试（调整的优先级、不修改基础日历、快照发布后重新编译）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayOverlayTest {
+
+    @Test
+    void removesApplyBeforeAdds() {
+        HolidayCalendar base = HolidaySnapshot.of(1, HolidayFixtures.holidays()).getCalendar();
+        HolidayOverlay overlay = HolidayOverlay.of("tenant",
+                //增加放假
+                localDates("2022-10-12", "2022-10-13", "2022-10-14"),
+                //取消放假：10-03（周一）恢复成工作日、10-01（周六）恢复成周末；10-13同时增加了放假，以增加为准；10-10本来就不是假期
+                localDates("2022-10-03", "2022-10-01", "2022-10-13", "2022-10-10"),
+                //增加补班：10-14同时增加了放假，以补班为准；10-09本来就是补班日
+                localDates("2022-10-14", "2022-10-15", "2022-10-09"),
+                //取消补班：10-08（周六）恢复成周末；10-09同时增加了补班，以增加为准；10-04是假期，不受影响
+                localDates("2022-10-08", "2022-10-09", "2022-10-04"));
+        HolidayCalendar merged = base.withOverlay(overlay);
+
+        assertEquals(DayStatus.WORKDAY, merged.status(day("2022-10-03")));
+        assertEquals(DayStatus.WEEKEND, merged.status(day("2022-10-01")));
+        assertEquals(DayStatus.HOLIDAY, merged.status(day("2022-10-12")));
+        assertEquals(DayStatus.HOLIDAY, merged.status(day("2022-10-13")));
+        assertEquals(DayStatus.WORKDAY, merged.status(day("2022-10-10")));
+        assertEquals(DayStatus.ADD_WORKDAY, merged.status(day("2022-10-14")));
+        assertEquals(DayStatus.ADD_WORKDAY, merged.status(day("2022-10-15")));
+        assertEquals(DayStatus.WEEKEND, merged.status(day("2022-10-08")));
+        assertEquals(DayStatus.ADD_WORKDAY, merged.status(day("2022-10-09")));
+        assertEquals(DayStatus.HOLIDAY, merged.status(day("2022-10-04")));
+        assertEquals(13, overlay.size());
+    }
+
+    @Test
+    void baseCalendarIsNotModified() {
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        HolidayCalendar base = snapshot.getCalendar();
+        CalendarYear baseYear = base.getYear(2022);
+        DayStatus[] before = statuses(base);
+
+        HolidayOverlay overlay = HolidayOverlay.of("tenant", localDates("2022-06-01"), localDates("2022-10-03"), localDates("2022-06-04"), localDates("2022-10-08"));
+        HolidayCalendar merged = base.withOverlay(overlay);
+
+        assertArrayEquals(before, statuses(base));
+        assertSame(baseYear, base.getYear(2022));
+        assertEquals(DayStatus.HOLIDAY, base.status(day("2022-10-03")));
+        assertEquals(DayStatus.WORKDAY, merged.status(day("2022-10-03")));
+
+        //只复制被调整的年度，其余年度与基础日历共享
+        assertNotSame(baseYear, merged.getYear(2022));
+        assertSame(base.getYear(2021), merged.getYear(2021));
+        assertSame(base.getYear(2023), merged.getYear(2023));
+
+        //调整后与基础日历一样的年度也共享（取消的不是假期）
+        HolidayOverlay noop = HolidayOverlay.of("noop", null, localDates("2021-03-01"), null, localDates("2021-03-02"));
+        assertSame(base.getYear(2021), base.withOverlay(noop).getYear(2021));
+    }
+
+    @Test
+    void tenantCalendarsAreRecompiledAfterSnapshotPublish() {
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        Map<String, HolidayOverlay> overlays = new LinkedHashMap<>();
+        overlays.put("a", HolidayOverlay.of("a", localDates("2022-10-10"), null, null, null));
+        overlays.put("b", HolidayOverlay.of("b", null, null, null, localDates("2022-10-08")));
+        TenantCalendars calendars = TenantCalendars.compile(snapshot, 1, overlays);
+
+        //编译后修改入参不影响
+        overlays.clear();
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), calendars.getOverlays().keySet());
+        assertNull(calendars.getCalendar("c"));
+        assertEquals(DayStatus.HOLIDAY, calendars.getCalendar("a").status(day("2022-10-10")));
+        assertEquals(DayStatus.WEEKEND, calendars.getCalendar("b").status(day("2022-10-08")));
+
+        //快照版本不变时不重新编译
+        assertSame(calendars, calendars.withSnapshot(snapshot));
+
+        //2022年国庆节改成10-01 ~ 10-05、10-08补班，叠加层基于新快照重新编译
+        HolidaySnapshot next = snapshot.withYears(2, Collections.singletonMap(2022, Collections.singletonList(
+                holiday(2022, "国庆节", "2022-10-01", days("2022-10-01", "2022-10-05"), dates("2022-10-08")))));
+        TenantCalendars recompiled = calendars.withSnapshot(next);
+        assertEquals(2, recompiled.getSnapshotVersion());
+        assertEquals(1, recompiled.getOverlayVersion());
+        assertEquals(DayStatus.WORKDAY, recompiled.getCalendar("a").status(day("2022-10-06")));
+        assertEquals(DayStatus.HOLIDAY, recompiled.getCalendar("a").status(day("2022-10-10")));
+        assertEquals(DayStatus.WEEKEND, recompiled.getCalendar("b").status(day("2022-10-08")));
+        assertEquals(DayStatus.WEEKEND, recompiled.getCalendar("b").status(day("2022-10-09")));
+
+        //原来的租户日历不受影响
+        assertEquals(DayStatus.HOLIDAY, calendars.getCalendar("a").status(day("2022-10-06")));
+    }
+
+    private static DayStatus[] statuses(HolidayCalendar calendar) {
+        int from = day("2018-01-01");
+        int to = day("2023-12-31");
+        DayStatus[] statuses = new DayStatus[to - from + 1];
+        for (int epochDay = from; epochDay <= to; epochDay++) {
+            statuses[epochDay - from] = calendar.status(epochDay);
+        }
+        return statuses;
+    }
+
+    private static List<LocalDate> localDates(String... dates) {
+        List<LocalDate> list = new ArrayList<>();
+        for (String date : dates) {
+            list.add(LocalDate.parse(date));
+        }
+        return list;
+    }
+}
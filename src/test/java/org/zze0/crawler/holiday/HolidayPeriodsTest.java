@@ -0,0 +1,299 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 假期周期划分测试（与改造前逐个节假日前后扫描的分析结果对照）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayPeriodsTest {
+
+    private static final HolidayCalendar CALENDAR = HolidayCalendar.compile(HolidayFixtures.holidays());
+
+    @Test
+    void periodsOfFixtureHolidays() {
+        //节假日日期，假期第一天，假期最后一天，补班日
+        String[][] cases = {
+                //中秋节、国庆节合在一起放假，是同一个假期周期
+                {"2020-10-01", "2020-10-01", "2020-10-08", "2020-09-27,2020-10-10"},
+                {"2020-10-08", "2020-10-01", "2020-10-08", "2020-09-27,2020-10-10"},
+                //元旦假期从上一年开始，没有补班日
+                {"2023-01-01", "2022-12-31", "2023-01-02", ""},
+                //春节的补班日紧跟在假期后面，不会归属前面的元旦
+                {"2023-01-22", "2023-01-21", "2023-01-27", "2023-01-28,2023-01-29"},
+                //补班日在上一年12月
+                {"2019-01-01", "2018-12-30", "2019-01-01", "2018-12-29"},
+                {"2022-10-01", "2022-10-01", "2022-10-07", "2022-10-08,2022-10-09"},
+        };
+
+        HolidayPeriods periods = segment(day("2018-01-01"), day("2023-12-31"));
+        for (String[] testCase : cases) {
+            int period = periods.indexOf(day(testCase[0]));
+            assertTrue(period >= 0, testCase[0]);
+            assertEquals(day(testCase[1]), periods.getStart(period), testCase[0]);
+            assertEquals(day(testCase[2]), periods.getEnd(period), testCase[0]);
+            assertArrayEquals(days(testCase[1], testCase[2]), periods.getHolidayDays(period), testCase[0]);
+            assertArrayEquals(dates(testCase[3]), periods.getAddWorkDays(period), testCase[0]);
+        }
+        assertEquals(-1, periods.indexOf(day("2020-10-09")));
+        assertEquals(-1, periods.indexOf(day("2017-12-31")));
+    }
+
+    @Test
+    void fixtureHolidaysMatchBaselineAnalyzer() {
+        int firstDay = day("2018-01-01");
+        int lastDay = day("2023-12-31");
+        assertMatchesBaseline(firstDay, statuses(firstDay, lastDay, CALENDAR::status));
+    }
+
+    @Test
+    void randomCalendarsMatchBaselineAnalyzer() {
+        Random random = new Random(20201001);
+        int firstDay = day("2024-01-01");
+        for (int round = 0; round < 500; round++) {
+            assertMatchesBaseline(firstDay, randomStatuses(random, firstDay, 400));
+        }
+    }
+
+    @Test
+    void tiedAddWorkDayBelongsToLaterPeriod() {
+        //补班日01-06（周六）离前后两个假期都是3天，归属后面的假期
+        int firstDay = day("2023-12-01");
+        DayStatus[] statuses = statuses(firstDay, day("2024-01-31"), HolidayPeriodsTest::weekStatus);
+        statuses[day("2024-01-03") - firstDay] = DayStatus.HOLIDAY;
+        statuses[day("2024-01-06") - firstDay] = DayStatus.ADD_WORKDAY;
+        statuses[day("2024-01-09") - firstDay] = DayStatus.HOLIDAY;
+
+        HolidayPeriods periods = HolidayPeriods.segment(firstDay, statuses.length, index -> statuses[index]);
+        assertEquals(2, periods.size());
+        assertArrayEquals(new int[0], periods.getAddWorkDays(periods.indexOf(day("2024-01-03"))));
+        assertArrayEquals(new int[]{day("2024-01-06")}, periods.getAddWorkDays(periods.indexOf(day("2024-01-09"))));
+        assertMatchesBaseline(firstDay, statuses);
+    }
+
+    @Test
+    void addWorkDayBelongsToExactlyOnePeriod() {
+        //2024-01-01是周一，前一个假期往后扫描经过4个周末日后停止，没有扫描到后一个假期，原来的分析会把补班日01-13同时归属前后两个假期
+        int firstDay = day("2023-12-01");
+        DayStatus[] statuses = statuses(firstDay, day("2024-02-29"), HolidayPeriodsTest::weekStatus);
+        statuses[day("2024-01-01") - firstDay] = DayStatus.HOLIDAY;
+        statuses[day("2024-01-13") - firstDay] = DayStatus.ADD_WORKDAY;
+        statuses[day("2024-01-16") - firstDay] = DayStatus.HOLIDAY;
+
+        int addWorkDay = day("2024-01-13");
+        assertArrayEquals(new int[]{addWorkDay}, baseline(firstDay, statuses, day("2024-01-01") - firstDay)[1]);
+        assertArrayEquals(new int[]{addWorkDay}, baseline(firstDay, statuses, day("2024-01-16") - firstDay)[1]);
+
+        //现在只归属离得更近的后一个假期
+        HolidayPeriods periods = HolidayPeriods.segment(firstDay, statuses.length, index -> statuses[index]);
+        assertArrayEquals(new int[0], periods.getAddWorkDays(periods.indexOf(day("2024-01-01"))));
+        assertArrayEquals(new int[]{addWorkDay}, periods.getAddWorkDays(periods.indexOf(day("2024-01-16"))));
+    }
+
+    @Test
+    void addWorkDayBeyondFourWeekendDaysBelongsToNoPeriod() {
+        //补班日前后各有4个以上周末日才到假期，不归属任何假期周期
+        int firstDay = day("2023-12-01");
+        DayStatus[] statuses = statuses(firstDay, day("2024-03-31"), HolidayPeriodsTest::weekStatus);
+        statuses[day("2024-01-01") - firstDay] = DayStatus.HOLIDAY;
+        statuses[day("2024-01-27") - firstDay] = DayStatus.ADD_WORKDAY;
+        statuses[day("2024-02-26") - firstDay] = DayStatus.HOLIDAY;
+
+        HolidayPeriods periods = HolidayPeriods.segment(firstDay, statuses.length, index -> statuses[index]);
+        assertEquals(2, periods.size());
+        assertArrayEquals(new int[0], periods.getAddWorkDays(periods.indexOf(day("2024-01-01"))));
+        assertArrayEquals(new int[0], periods.getAddWorkDays(periods.indexOf(day("2024-02-26"))));
+        assertMatchesBaseline(firstDay, statuses);
+    }
+
+    /**
+     * 与改造前的分析结果对照：
+     * 假期都一致；只被一个假期周期收录的补班日归属一致；被前后两个假期周期都收录的补班日，现在只归属离得更近的（一样近时归属后面的）
+     *
+     * @param firstDay 第一天（epochDay）
+     * @param statuses 日期状态
+     */
+    private static void assertMatchesBaseline(int firstDay, DayStatus[] statuses) {
+
+        HolidayPeriods periods = HolidayPeriods.segment(firstDay, statuses.length, index -> statuses[index]);
+
+        //补班日 -> 改造前收录它的假期周期
+        Map<Integer, Set<Integer>> baselineOwners = new TreeMap<>();
+        for (int index = 0; index < statuses.length; index++) {
+            if (DayStatus.HOLIDAY != statuses[index]) {
+                continue;
+            }
+            int period = periods.indexOf(firstDay + index);
+            int[][] baseline = baseline(firstDay, statuses, index);
+            String message = "节假日" + LocalDate.ofEpochDay(firstDay + index);
+            assertArrayEquals(baseline[0], periods.getHolidayDays(period), message);
+            for (int addWorkDay : baseline[1]) {
+                baselineOwners.computeIfAbsent(addWorkDay, d -> new TreeSet<>()).add(period);
+            }
+        }
+
+        for (int index = 0; index < statuses.length; index++) {
+            if (DayStatus.ADD_WORKDAY != statuses[index]) {
+                continue;
+            }
+            int addWorkDay = firstDay + index;
+            Set<Integer> owners = baselineOwners.getOrDefault(addWorkDay, Collections.emptySet());
+            Integer expected;
+            if (owners.size() <= 1) {
+                expected = owners.isEmpty() ? null : owners.iterator().next();
+            } else {
+                assertEquals(2, owners.size());
+                int prev = Collections.min(owners);
+                int next = Collections.max(owners);
+                expected = periods.getStart(next) - addWorkDay <= addWorkDay - periods.getEnd(prev) ? next : prev;
+            }
+            assertEquals(expected, ownerOf(periods, addWorkDay), "补班日" + LocalDate.ofEpochDay(addWorkDay));
+        }
+    }
+
+    private static Integer ownerOf(HolidayPeriods periods, int addWorkDay) {
+        Integer owner = null;
+        for (int period = 0; period < periods.size(); period++) {
+            if (Arrays.binarySearch(periods.getAddWorkDays(period), addWorkDay) >= 0) {
+                assertNull(owner, () -> "补班日归属多个假期周期：" + LocalDate.ofEpochDay(addWorkDay));
+                owner = period;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * 改造前的分析逻辑：从节假日往前、往后逐天扫描，连续的假期是本节假日的假期，
+     * 假期之后经过4个周末日停止查找补班日，遇到另一个假期时把离另一个假期更近（一样近时优先后面的假期）的补班日让出去
+     *
+     * @param firstDay     第一天（epochDay）
+     * @param statuses     日期状态
+     * @param holidayIndex 节假日下标
+     * @return [假期, 补班日]（epochDay，升序）
+     */
+    private static int[][] baseline(int firstDay, DayStatus[] statuses, int holidayIndex) {
+        List<Integer> holidayDays = new ArrayList<>();
+        List<Integer> addWorkDays = new ArrayList<>();
+
+        //往前扫描（与原来一样不扫描第0天）
+        scan(firstDay, statuses, holidayIndex, -1, holidayDays, addWorkDays);
+        Collections.sort(holidayDays);
+        Collections.sort(addWorkDays);
+        //往后扫描
+        scan(firstDay, statuses, holidayIndex + 1, 1, holidayDays, addWorkDays);
+
+        return new int[][]{
+                holidayDays.stream().mapToInt(Integer::intValue).toArray(),
+                addWorkDays.stream().mapToInt(Integer::intValue).toArray()};
+    }
+
+    private static void scan(int firstDay, DayStatus[] statuses, int from, int step, List<Integer> holidayDays, List<Integer> addWorkDays) {
+        boolean continuous = true;
+        int weekendCount = 0;
+        for (int index = from; step < 0 ? index > 0 : index < statuses.length; index += step) {
+            DayStatus status = statuses[index];
+            int day = firstDay + index;
+
+            if (continuous) {
+                if (DayStatus.HOLIDAY == status) {
+                    holidayDays.add(day);
+                } else {
+                    continuous = false;
+                    if (DayStatus.ADD_WORKDAY == status) {
+                        addWorkDays.add(day);
+                    }
+                }
+                continue;
+            }
+
+            if (DayStatus.HOLIDAY == status) {
+                //遇到另一个假期，从离它最近的补班日开始，把离它更近的补班日让出去
+                int lastHolidayDay = holidayDays.get(holidayDays.size() - 1);
+                ListIterator<Integer> iterator = addWorkDays.listIterator(addWorkDays.size());
+                while (iterator.hasPrevious()) {
+                    int addWorkDay = iterator.previous();
+                    int offset = Math.abs(addWorkDay - lastHolidayDay);
+                    int newOffset = Math.abs(addWorkDay - day);
+                    if (offset > newOffset || (offset == newOffset && addWorkDay > lastHolidayDay)) {
+                        iterator.remove();
+                    } else {
+                        break;
+                    }
+                }
+                return;
+            }
+            if (DayStatus.ADD_WORKDAY == status) {
+                addWorkDays.add(day);
+            }
+            if (isWeekend(day) && ++weekendCount >= 4) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 随机日期状态：前后各留60天不放假，中间随机放置1~8天的假期，假期前后随机把周末调成补班日
+     */
+    private static DayStatus[] randomStatuses(Random random, int firstDay, int length) {
+        DayStatus[] statuses = new DayStatus[length];
+        for (int index = 0; index < length; index++) {
+            statuses[index] = weekStatus(firstDay + index);
+        }
+        for (int index = 60 + random.nextInt(10); index < length - 70; index += 2 + random.nextInt(30)) {
+            int holidayLength = 1 + random.nextInt(8);
+            for (int offset = 0; offset < holidayLength; offset++) {
+                statuses[index + offset] = DayStatus.HOLIDAY;
+            }
+            for (int offset = -12; offset < holidayLength + 12; offset++) {
+                if (DayStatus.WEEKEND == statuses[index + offset] && random.nextInt(4) == 0) {
+                    statuses[index + offset] = DayStatus.ADD_WORKDAY;
+                }
+            }
+            index += holidayLength;
+        }
+        return statuses;
+    }
+
+    private static DayStatus[] statuses(int firstDay, int lastDay, java.util.function.IntFunction<DayStatus> statusOf) {
+        DayStatus[] statuses = new DayStatus[lastDay - firstDay + 1];
+        for (int index = 0; index < statuses.length; index++) {
+            statuses[index] = statusOf.apply(firstDay + index);
+        }
+        return statuses;
+    }
+
+    private static HolidayPeriods segment(int firstDay, int lastDay) {
+        DayStatus[] statuses = statuses(firstDay, lastDay, CALENDAR::status);
+        return HolidayPeriods.segment(firstDay, statuses.length, index -> statuses[index]);
+    }
+
+    private static DayStatus weekStatus(int epochDay) {
+        return isWeekend(epochDay) ? DayStatus.WEEKEND : DayStatus.WORKDAY;
+    }
+
+    private static boolean isWeekend(int epochDay) {
+        DayOfWeek dayOfWeek = LocalDate.ofEpochDay(epochDay).getDayOfWeek();
+        return DayOfWeek.SATURDAY == dayOfWeek || DayOfWeek.SUNDAY == dayOfWeek;
+    }
+
+    private static int[] days(String from, String to) {
+        int[] days = new int[day(to) - day(from) + 1];
+        for (int index = 0; index < days.length; index++) {
+            days[index] = day(from) + index;
+        }
+        return days;
+    }
+
+    private static int[] dates(String dates) {
+        return dates.isEmpty() ? new int[0] : Arrays.stream(dates.split(",")).mapToInt(HolidayFixtures::day).toArray();
+    }
+}
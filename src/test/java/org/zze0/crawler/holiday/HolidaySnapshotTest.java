@@ -0,0 +1,83 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日快照、快照差异测试
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidaySnapshotTest {
+
+    @Test
+    void withYearsReplacesYearsWithoutTouchingOriginal() {
+        HolidaySnapshot original = HolidaySnapshot.of(1, HolidayFixtures.holidays());
+        List<Holiday> newYear2022 = Collections.singletonList(
+                holiday(2022, "元旦节", "2022-01-01", days("2022-01-01", "2022-01-03"), dates()));
+
+        HolidaySnapshot snapshot = original.withYears(2, Collections.singletonMap(2022, newYear2022));
+        assertEquals(2, snapshot.getVersion());
+        assertEquals(newYear2022, snapshot.getHolidays(2022));
+        assertEquals(DayStatus.HOLIDAY, snapshot.getCalendar().status(day("2022-01-03")));
+        //其余年度原样保留，按年份顺序排列
+        assertEquals(original.getHolidays(2020), snapshot.getHolidays(2020));
+        assertEquals(new ArrayList<>(original.getHolidays().keySet()), new ArrayList<>(snapshot.getHolidays().keySet()));
+
+        //原快照不受影响
+        assertEquals(1, original.getVersion());
+        assertEquals(HolidayFixtures.holidays().get(2022), original.getHolidays(2022));
+        assertEquals(DayStatus.WORKDAY, original.getCalendar().status(day("2022-01-03")));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getHolidays().put(2030, new ArrayList<>()));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getHolidays(2022).clear());
+    }
+
+    @Test
+    void withYearsBumpsChangedAndNeighbouringYears() {
+        Map<Integer, List<Holiday>> holidays = HolidayFixtures.holidays();
+        holidays.put(2019, new ArrayList<>());
+        HolidaySnapshot original = HolidaySnapshot.of(1, holidays);
+
+        //2019年元旦的假期、补班日在2018年12月底，2018年的日期状态表也随之变化
+        HolidaySnapshot snapshot = original.withYears(2, Collections.singletonMap(2019, HolidayFixtures.holidays().get(2019)));
+        assertEquals(2L, snapshot.getYearVersions().get(2019));
+        assertEquals(2L, snapshot.getYearVersions().get(2018));
+        assertEquals(1L, snapshot.getYearVersions().get(2020));
+        assertEquals(DayStatus.ADD_WORKDAY, snapshot.getCalendar().status(day("2018-12-29")));
+
+        //替换成同样的内容：替换的年度记为新版本号，日期状态表没有变化的相邻年度沿用原来的版本号
+        HolidaySnapshot same = snapshot.withYears(3, Collections.singletonMap(2019, snapshot.getHolidays(2019)));
+        assertEquals(3L, same.getYearVersions().get(2019));
+        assertEquals(2L, same.getYearVersions().get(2018));
+        assertEquals(1L, same.getYearVersions().get(2020));
+    }
+
+    @Test
+    void diffFindsAddedChangedAndRemovedYears() {
+        Map<Integer, List<Holiday>> holidays = HolidayFixtures.holidays();
+        HolidaySnapshot from = HolidaySnapshot.of(1, holidays);
+
+        assertTrue(HolidaySnapshotDiff.between(from, from).isEmpty());
+        assertTrue(HolidaySnapshotDiff.between(from, HolidaySnapshot.of(2, HolidayFixtures.holidays())).isEmpty());
+
+        Map<Integer, List<Holiday>> changed = new TreeMap<>(holidays);
+        changed.remove(2018);
+        changed.put(2022, new ArrayList<>());
+        changed.put(2024, new ArrayList<>());
+        HolidaySnapshotDiff diff = HolidaySnapshotDiff.between(from, HolidaySnapshot.of(2, changed));
+        assertFalse(diff.isEmpty());
+        assertEquals(1, diff.getFromVersion());
+        assertEquals(2, diff.getToVersion());
+        assertEquals(Collections.singletonList(2024), diff.getAddedYears());
+        assertEquals(Collections.singletonList(2022), diff.getChangedYears());
+        assertEquals(Collections.singletonList(2018), diff.getRemovedYears());
+        assertThrows(UnsupportedOperationException.class, () -> diff.getAddedYears().add(2025));
+        assertThrows(UnsupportedOperationException.class, () -> diff.getChangedYears().clear());
+        assertThrows(UnsupportedOperationException.class, () -> diff.getRemovedYears().remove(0));
+    }
+}
@@ -0,0 +1,218 @@
+package org.zze0.crawler.holiday;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 按需加载的节假日日历测试（未收录的年度、下一年度之后才公布、重新加载失败）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class LazyHolidayCalendarTest {
+
+    private static final Duration RELOAD_INTERVAL = Duration.ofHours(1);
+
+    /**
+     * 上游已公布的年度法定节假日（测试中可以修改）
+     */
+    private final Map<Integer, List<CompactHoliday>> published = new TreeMap<>();
+
+    /**
+     * 每次加载的开始年度
+     */
+    private final List<Integer> loads = new ArrayList<>();
+
+    private boolean failing;
+
+    private MutableClock clock;
+
+    private LazyHolidayCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        HolidayFixtures.holidays().forEach((year, holidays) -> published.put(year, toCompact(holidays)));
+        //2022年6月，2023年度尚未公布
+        published.remove(2023);
+        clock = new MutableClock(Instant.parse("2022-06-01T00:00:00Z"));
+        calendar = new LazyHolidayCalendar((startYear, endYear) -> {
+            loads.add(startYear);
+            if (failing) {
+                throw new IllegalStateException("上游不可用");
+            }
+            return new TreeMap<>(((TreeMap<Integer, List<CompactHoliday>>) published).subMap(startYear, true, endYear, true));
+        }, 8, RELOAD_INTERVAL, clock);
+    }
+
+    @Test
+    void unpublishedYearIsReloadedAfterInterval() {
+        assertNull(calendar.getYear(2023));
+        assertNull(calendar.getHolidays(2023));
+        assertThrows(IllegalArgumentException.class, () -> calendar.status(day("2023-06-01")));
+        assertEquals(Collections.singletonList(2023), loads);
+
+        //重新加载间隔内不会反复请求上游
+        published.put(2023, toCompact(HolidayFixtures.holidays().get(2023)));
+        assertNull(calendar.getYear(2023));
+        assertEquals(1, loads.size());
+
+        clock.advance(RELOAD_INTERVAL);
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2023-01-23")));
+        assertEquals(2, calendar.getHolidays(2023).size());
+        assertEquals(Arrays.asList(2023, 2023), loads);
+    }
+
+    @Test
+    void yearIsRecompiledWhenNextYearIsLoaded() {
+        //2023年元旦假期从2022年12月31日（周六）开始，2023年度公布之前只是周末
+        assertEquals(DayStatus.WEEKEND, calendar.status(day("2022-12-31")));
+
+        published.put(2023, toCompact(HolidayFixtures.holidays().get(2023)));
+        clock.advance(RELOAD_INTERVAL);
+        assertNotNull(calendar.getYear(2023));
+
+        //加载2023年度时直接补编2022年度，不需要重新请求上游
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-12-31")));
+        assertEquals(Arrays.asList(2022, 2023), loads);
+    }
+
+    @Test
+    void incompleteYearIsReloadedAfterInterval() {
+        assertEquals(DayStatus.WEEKEND, calendar.status(day("2022-12-31")));
+
+        published.put(2023, toCompact(HolidayFixtures.holidays().get(2023)));
+        assertEquals(DayStatus.WEEKEND, calendar.status(day("2022-12-31")));
+
+        clock.advance(RELOAD_INTERVAL);
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-12-31")));
+        assertEquals(Arrays.asList(2022, 2022), loads);
+
+        //完整的年度不再重新加载
+        clock.advance(RELOAD_INTERVAL.multipliedBy(24));
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-12-31")));
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void failedReloadKeepsPreviousData() {
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-10-03")));
+
+        failing = true;
+        clock.advance(RELOAD_INTERVAL);
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-10-03")));
+        assertEquals(2, loads.size());
+
+        //失败后同样等一个间隔再重试
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-10-03")));
+        assertEquals(2, loads.size());
+
+        //首次加载失败时没有可用的数据
+        assertThrows(IllegalStateException.class, () -> calendar.getYear(2019));
+        failing = false;
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2019-01-01")));
+        assertEquals(Arrays.asList(2022, 2022, 2019, 2019), loads);
+    }
+
+    @Test
+    void minimumCapacityKeepsTheLoadedHistoricalYear() {
+        List<Integer> minimumLoads = new ArrayList<>();
+        LazyHolidayCalendar minimum = new LazyHolidayCalendar((startYear, endYear) -> {
+            minimumLoads.add(startYear);
+            return new TreeMap<>(((TreeMap<Integer, List<CompactHoliday>>) published).subMap(startYear, true, endYear, true));
+        }, 3, RELOAD_INTERVAL, clock);
+
+        //当前年度及前后各一年固定常驻，已占满上限
+        for (int year = 2021; year <= 2023; year++) {
+            minimum.getYear(year);
+        }
+        assertEquals(Arrays.asList(2021, 2022, 2023), minimumLoads);
+
+        //刚加载的历史年度不会被立即淘汰，重复查询不再请求上游
+        assertNotNull(minimum.getYear(2019));
+        assertNotNull(minimum.getYear(2019));
+        assertEquals(Arrays.asList(2021, 2022, 2023, 2019), minimumLoads);
+
+        //放入下一个历史年度时才淘汰
+        assertNotNull(minimum.getYear(2020));
+        assertNotNull(minimum.getYear(2020));
+        assertEquals(Arrays.asList(2021, 2022, 2023, 2019, 2020), minimumLoads);
+        assertNotNull(minimum.getYear(2019));
+        assertEquals(Arrays.asList(2021, 2022, 2023, 2019, 2020, 2019), minimumLoads);
+    }
+
+    @Test
+    void completeYearIsNotReloaded() {
+        assertEquals(DayStatus.ADD_WORKDAY, calendar.status(day("2018-12-29")));
+        clock.advance(RELOAD_INTERVAL.multipliedBy(24 * 365));
+        assertEquals(DayStatus.ADD_WORKDAY, calendar.status(day("2018-12-29")));
+        assertEquals(Collections.singletonList(2018), loads);
+    }
+
+    @Test
+    void loadMillisChangesWhenYearIsReloadedOrRecompiled() {
+        long loadMillis = calendar.getLoadMillis(2022);
+        assertEquals(clock.millis(), loadMillis);
+        assertEquals(loadMillis, calendar.getLoadMillis(2022));
+
+        //同一毫秒内补编下一年度，加载时间也会变化
+        published.put(2023, toCompact(HolidayFixtures.holidays().get(2023)));
+        calendar.getYear(2023);
+        long recompiledMillis = calendar.getLoadMillis(2022);
+        assertNotEquals(loadMillis, recompiledMillis);
+        assertEquals(DayStatus.HOLIDAY, calendar.status(day("2022-12-31")));
+
+        //完整的年度不再重新加载，加载时间不变
+        clock.advance(RELOAD_INTERVAL);
+        assertEquals(recompiledMillis, calendar.getLoadMillis(2022));
+    }
+
+    private static List<CompactHoliday> toCompact(List<Holiday> holidays) {
+        List<CompactHoliday> compactHolidays = new ArrayList<>();
+        for (Holiday holiday : holidays) {
+            compactHolidays.add(new CompactHoliday(holiday.getYear(), EpochDays.of(holiday.getDate()), holiday.getName(),
+                    holiday.getHolidayDateList().stream().mapToInt(EpochDays::of).toArray(),
+                    holiday.getAddWorkDateList().stream().mapToInt(EpochDays::of).toArray()));
+        }
+        return compactHolidays;
+    }
+
+    /**
+     * 可以拨动的时钟
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return EpochDays.CHINA_ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
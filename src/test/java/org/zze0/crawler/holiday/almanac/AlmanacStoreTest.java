@@ -0,0 +1,162 @@
+package org.zze0.crawler.holiday.almanac;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 黄历列式存储测试（干支换算、宜忌分词、缺失日期、区间扫描、重复添加、合并）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class AlmanacStoreTest {
+
+    @Test
+    void ganZhiRoundTrips() {
+        Set<String> names = new HashSet<>();
+        for (int ganZhi = 0; ganZhi < 60; ganZhi++) {
+            String name = AlmanacStore.ganZhiName(ganZhi);
+            assertEquals(ganZhi, AlmanacStore.ganZhiOf(name), name);
+            names.add(name);
+        }
+        assertEquals(60, names.size());
+        assertEquals("甲子", AlmanacStore.ganZhiName(0));
+        assertEquals("癸亥", AlmanacStore.ganZhiName(59));
+        assertNull(AlmanacStore.ganZhiName(-1));
+    }
+
+    @Test
+    void invalidGanZhiIsRejected() {
+        //天干、地支的阴阳不一致
+        assertEquals(-1, AlmanacStore.ganZhiOf("甲丑"));
+        assertEquals(-1, AlmanacStore.ganZhiOf("乙子"));
+        assertEquals(-1, AlmanacStore.ganZhiOf(null));
+        assertEquals(-1, AlmanacStore.ganZhiOf(""));
+        assertEquals(-1, AlmanacStore.ganZhiOf("甲"));
+        assertEquals(-1, AlmanacStore.ganZhiOf("甲子年"));
+        assertEquals(-1, AlmanacStore.ganZhiOf("子甲"));
+    }
+
+    @Test
+    void emptyTokensAreSkipped() {
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        int epochDay = day("2021-05-01");
+        add(builder, epochDay, null, ".嫁娶..祭祀.", "");
+        add(builder, epochDay + 1, null, "...", null);
+        AlmanacStore store = builder.build();
+
+        assertEquals(Arrays.asList("嫁娶", "祭祀"), store.getSuits(epochDay));
+        assertEquals(2, store.getSuitCount(epochDay));
+        assertEquals("祭祀", store.getSuit(epochDay, 1));
+        assertEquals(0, store.getAvoidCount(epochDay));
+        assertEquals(Collections.emptyList(), store.getSuits(epochDay + 1));
+        assertEquals(Collections.emptyList(), store.getAvoids(epochDay + 1));
+    }
+
+    @Test
+    void missingMiddleDayIsNotCovered() {
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        int epochDay = day("2021-05-01");
+        add(builder, epochDay, null, "嫁娶", "动土");
+        add(builder, epochDay + 2, null, "嫁娶", "动土");
+        AlmanacStore store = builder.build();
+
+        assertEquals(epochDay, store.getFirstDay());
+        assertEquals(epochDay + 3, store.getEndDay());
+        assertEquals(2, store.getDayCount());
+        assertTrue(store.covers(epochDay));
+        assertFalse(store.covers(epochDay + 1));
+        assertFalse(store.covers(epochDay - 1));
+        assertFalse(store.covers(epochDay + 3));
+
+        assertThrows(IllegalArgumentException.class, () -> store.getLunarYear(epochDay + 1));
+        assertThrows(IllegalArgumentException.class, () -> store.getDayGanZhi(epochDay + 1));
+        assertThrows(IllegalArgumentException.class, () -> store.getTerm(epochDay + 1));
+        assertThrows(IllegalArgumentException.class, () -> store.getSuits(epochDay + 1));
+        assertThrows(IllegalArgumentException.class, () -> store.getAvoidCount(epochDay + 1));
+
+        //区间扫描跳过未收录的日期
+        assertEquals(Arrays.asList(epochDay, epochDay + 2), store.findSuitDays(epochDay, epochDay + 3, "嫁娶").boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void scansAreClippedToStoreRange() {
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        int firstDay = day("2021-04-01");
+        for (int epochDay = firstDay; epochDay < firstDay + 30; epochDay++) {
+            add(builder, epochDay, epochDay == day("2021-04-04") ? "清明" : null, epochDay % 2 == 0 ? "嫁娶" : "祭祀", "动土");
+        }
+        AlmanacStore store = builder.build();
+
+        //范围超出存储的两端
+        assertEquals(15, store.findSuitDays(firstDay - 100, firstDay + 100, "嫁娶").count());
+        assertEquals(30, store.findAvoidDays(Integer.MIN_VALUE, Integer.MAX_VALUE, "动土").count());
+        assertEquals(Collections.singletonList(day("2021-04-04")),
+                store.findTermDays(firstDay - 100, firstDay + 100, "清明").boxed().collect(Collectors.toList()));
+
+        //结束日期不包含
+        assertEquals(0, store.findTermDays(firstDay, day("2021-04-04"), "清明").count());
+        assertEquals(1, store.findTermDays(day("2021-04-04"), day("2021-04-05"), "清明").count());
+
+        //范围与存储不相交、结束早于开始、未知词条
+        assertEquals(0, store.findSuitDays(firstDay + 30, firstDay + 60, "嫁娶").count());
+        assertEquals(0, store.findSuitDays(firstDay - 60, firstDay, "嫁娶").count());
+        assertEquals(0, store.findSuitDays(firstDay + 10, firstDay, "嫁娶").count());
+        assertEquals(0, store.findSuitDays(firstDay, firstDay + 30, "出行").count());
+        assertEquals(0, store.findTermDays(firstDay, firstDay + 30, "谷雨").count());
+    }
+
+    @Test
+    void lastAddWins() {
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        int epochDay = day("2021-05-01");
+        add(builder, epochDay, "立夏", "嫁娶", "动土");
+        builder.add(epochDay, 2021, 3, 21, true, true, "辛丑", "壬辰", "乙未", null, "劳动节", "祭祀", "");
+        assertEquals(1, builder.size());
+
+        AlmanacStore store = builder.build();
+        assertEquals(21, store.getLunarDay(epochDay));
+        assertTrue(store.isLeapMonth(epochDay));
+        assertTrue(store.isBigMonth(epochDay));
+        assertEquals("乙未", AlmanacStore.ganZhiName(store.getDayGanZhi(epochDay)));
+        assertNull(store.getTerm(epochDay));
+        assertEquals("劳动节", store.getFestival(epochDay));
+        assertEquals(Collections.singletonList("祭祀"), store.getSuits(epochDay));
+        assertEquals(0, store.getAvoidCount(epochDay));
+        assertEquals(0, store.findSuitDays(epochDay, epochDay + 1, "嫁娶").count());
+    }
+
+    @Test
+    void mergeKeepsAddedDays() {
+        AlmanacStore.Builder oldBuilder = new AlmanacStore.Builder();
+        int epochDay = day("2021-05-01");
+        add(oldBuilder, epochDay, null, "嫁娶", "动土");
+        add(oldBuilder, epochDay + 1, null, "嫁娶", "动土");
+        AlmanacStore oldStore = oldBuilder.build();
+
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        add(builder, epochDay + 1, null, "祭祀", "");
+        add(builder, epochDay + 2, "小满", "祭祀", "");
+        builder.merge(oldStore);
+        AlmanacStore store = builder.build();
+
+        assertEquals(3, store.getDayCount());
+        assertEquals(Collections.singletonList("嫁娶"), store.getSuits(epochDay));
+        assertEquals("牛", store.getAnimal(epochDay));
+        assertEquals(Collections.singletonList("祭祀"), store.getSuits(epochDay + 1));
+        assertEquals("小满", store.getTerm(epochDay + 2));
+        assertTrue(store.getVersion() > oldStore.getVersion());
+    }
+
+    private static void add(AlmanacStore.Builder builder, int epochDay, String term, String suit, String avoid) {
+        builder.add(epochDay, 2021, 3, 20, false, false, "辛丑", "壬辰", "甲午", term, null, suit, avoid);
+    }
+}
@@ -0,0 +1,148 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 日历窗口缓存测试（查询规划、按需补齐窗口、合并并发查询、失败重试、1970年之前的日期）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class BaiDuAlmanacCacheTest {
+
+    /**
+     * 已发出的查询月份
+     */
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+    private final BaiDuAlmanacCache cache = new BaiDuAlmanacCache(this::window);
+
+    @Test
+    void missingWindowsAreLoadedOnDemand() {
+        BaiDuAlmanacDays days = cache.slice(day("2021-09-25"), day("2021-10-05"));
+
+        assertEquals(11, days.size());
+        assertEquals(day("2021-09-25"), days.getEpochDay(0));
+        assertEquals(day("2021-10-05"), days.getEpochDay(10));
+        assertEquals(Collections.singletonList("2021年10月"), queries);
+
+        //已覆盖时不再查询
+        cache.slice(day("2021-09-01"), day("2021-11-30"));
+        assertEquals(1, cache.getQueryCount());
+    }
+
+    @Test
+    void plannedQueriesCoverTheAnalysisRange() {
+        assertEquals(Arrays.asList("2021年1月", "2021年4月", "2021年7月", "2021年10月"), BaiDuAlmanacCache.planQueries(2021, 2021));
+
+        //每个年度分析的范围是上一年12月~当年11月，按规划放入窗口后整段都已覆盖，不再按需查询
+        for (String query : BaiDuAlmanacCache.planQueries(2020, 2023)) {
+            cache.put(query, window(query));
+        }
+        assertEquals(16, queries.size());
+        BaiDuAlmanacDays days = cache.slice(day("2019-12-01"), day("2023-11-30"));
+        assertEquals(day("2023-11-30") - day("2019-12-01") + 1, days.size());
+        assertEquals(0, cache.getQueryCount());
+    }
+
+    @Test
+    void concurrentSlicesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        BaiDuAlmanacCache blockingCache = new BaiDuAlmanacCache(query -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return window(query);
+        });
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<BaiDuAlmanacDays>> futures = new ArrayList<>();
+            for (int index = 0; index < threads; index++) {
+                futures.add(executor.submit(() -> blockingCache.slice(day("2021-10-01"), day("2021-10-07"))));
+            }
+            //第一个查询进行中时其他线程都在等它
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+
+            for (Future<BaiDuAlmanacDays> future : futures) {
+                assertEquals(7, future.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, blockingCache.getQueryCount());
+    }
+
+    @Test
+    void failedLoadIsRetried() {
+        AtomicInteger loads = new AtomicInteger();
+        BaiDuAlmanacCache flakyCache = new BaiDuAlmanacCache(query -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException(query + "日历信息查询失败");
+            }
+            return window(query);
+        });
+
+        assertThrows(IllegalStateException.class, () -> flakyCache.slice(day("2021-10-01"), day("2021-10-07")));
+        assertEquals(7, flakyCache.slice(day("2021-10-01"), day("2021-10-07")).size());
+        assertEquals(2, loads.get());
+        assertEquals(2, flakyCache.getQueryCount());
+    }
+
+    @Test
+    void daysBefore1970AreSliced() {
+        //1969年的epochDay是负数
+        BaiDuAlmanacDays days = cache.slice(day("1969-12-20"), day("1970-01-10"));
+
+        assertEquals(22, days.size());
+        assertEquals(day("1969-12-20"), days.getEpochDay(0));
+        assertEquals(1969, days.getYear(0));
+        assertEquals(day("1970-01-10"), days.getEpochDay(21));
+        assertEquals(Collections.singletonList("1970年1月"), queries);
+
+        //整段都在1970年之前，全部覆盖时不再查询
+        assertEquals(31, cache.slice(day("1969-12-01"), day("1969-12-31")).size());
+        assertEquals(1, queries.size());
+    }
+
+    /**
+     * 模拟日历接口：查询月份及前后各一个月
+     *
+     * @param query 查询月份（格式：yyyy年M月）
+     * @return 日历日期列表
+     */
+    private BaiDuAlmanacDays window(String query) {
+        queries.add(query);
+        String[] parts = query.replace("月", "").split("年");
+        YearMonth center = YearMonth.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+
+        BaiDuAlmanacDays.Builder builder = new BaiDuAlmanacDays.Builder(96);
+        for (LocalDate date = center.minusMonths(1).atDay(1); !date.isAfter(center.plusMonths(1).atEndOfMonth()); date = date.plusDays(1)) {
+            builder.add(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), BaiDuAlmanacDays.STATUS_NONE);
+        }
+        return builder.build();
+    }
+}
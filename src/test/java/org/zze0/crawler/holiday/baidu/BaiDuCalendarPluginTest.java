@@ -0,0 +1,92 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.engine.CrawlEmitter;
+import org.zze0.crawler.engine.CrawlRequest;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 百度日历抓取插件测试（空响应、没有数据的响应）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class BaiDuCalendarPluginTest {
+
+    private static final String[] EMPTY_YEAR_HOLIDAYS = {"", "  ", "{\"status\":\"0\",\"data\":[]}", "{\"status\":\"0\",\"data\":[{\"holiday\":[]}]}"};
+
+    private static final String[] EMPTY_ALMANACS = {"", "{\"status\":\"0\",\"data\":[]}", "{\"status\":\"0\",\"data\":[{\"almanac\":[]}]}"};
+
+    @Test
+    void emptyYearHolidaysAreRejected() {
+        BaiDuCalendarPlugin plugin = new BaiDuCalendarPlugin(2020, 2022, null);
+        CrawlRequest request = CrawlRequest.of("http://localhost/api.php", "39042", "39042", BaiDuCalendarPlugin.YEAR_HOLIDAYS);
+        for (String content : EMPTY_YEAR_HOLIDAYS) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> plugin.parse(request, content, emitter), content);
+            assertEquals("年度法定节假日查询失败", e.getMessage());
+            assertTrue(emitter.followed.isEmpty());
+        }
+        assertTrue(plugin.getYearHolidayList().isEmpty());
+    }
+
+    @Test
+    void emptyAlmanacsAreRejected() {
+        for (String content : EMPTY_ALMANACS) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> BaiDuCalendarPlugin.parseAlmanac("2021年5月", content, null), content);
+            assertEquals("2021年5月日历信息查询失败", e.getMessage());
+        }
+    }
+
+    @Test
+    void almanacPageIsEmitted() {
+        BaiDuCalendarPlugin plugin = new BaiDuCalendarPlugin(2021, 2021, null);
+        String content = "{\"status\":\"0\",\"data\":[{\"almanac\":[{\"year\":\"2021\",\"month\":\"5\",\"day\":\"1\",\"status\":\"1\"}]}]}";
+        RecordingEmitter emitter = new RecordingEmitter();
+        plugin.parse(BaiDuHolidayCrawler.almanacRequest("2021年5月"), content, emitter);
+
+        assertEquals(1, emitter.emitted.size());
+        assertEquals("2021年5月", emitter.emitted.get(0).getYearMonth());
+        assertEquals(1, emitter.emitted.get(0).getDays().size());
+    }
+
+    @Test
+    void almanacCollectionCoversLastDecember() {
+        String content = "{\"status\":\"0\",\"data\":[{\"holiday\":[{\"year\":\"2021\"},{\"year\":\"2022\"}]}]}";
+        CrawlRequest request = CrawlRequest.of("http://localhost/api.php", "39042", "39042", BaiDuCalendarPlugin.YEAR_HOLIDAYS);
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        new BaiDuCalendarPlugin(2021, 2021, null).parse(request, content, emitter);
+        assertEquals(BaiDuAlmanacCache.planQueries(2021, 2021).size(), emitter.followed.size());
+
+        //采集黄历时多查询一次下一年度1月，覆盖结束年度的12月
+        RecordingEmitter almanacEmitter = new RecordingEmitter();
+        new BaiDuCalendarPlugin(2021, 2021, new AlmanacStore.Builder()).parse(request, content, almanacEmitter);
+        assertEquals(emitter.followed.size() + 1, almanacEmitter.followed.size());
+        assertEquals("2022年1月", almanacEmitter.followed.get(almanacEmitter.followed.size() - 1).getAttachment());
+    }
+
+    private static final class RecordingEmitter implements CrawlEmitter<BaiDuCalendarPlugin.AlmanacPage> {
+
+        private final List<BaiDuCalendarPlugin.AlmanacPage> emitted = new ArrayList<>();
+
+        private final List<CrawlRequest> followed = new ArrayList<>();
+
+        @Override
+        public void emit(BaiDuCalendarPlugin.AlmanacPage item) {
+            emitted.add(item);
+        }
+
+        @Override
+        public boolean follow(CrawlRequest request) {
+            followed.add(request);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package org.zze0.crawler.holiday.baidu;
+
+import cn.hutool.core.date.chinese.GanZhi;
+import cn.hutool.core.date.chinese.LunarInfo;
+import cn.hutool.core.date.chinese.SolarTerms;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 百度接口响应样本（离线测试、基准测试用）
+ * <p>
+ * 样本文件在 fixtures/baidu 目录下，与接口响应格式一致：
+ * 39042.json 是2021~2023年度的法定节假日列表，39043-yyyy-MM.json 是按月份查询的日历（覆盖2020年12月~2023年11月）。
+ * 39043的样本是合成的（没有录制真实响应）：日期、星期、放假/补班状态与实际安排一致，
+ * 农历、干支、节气、生肖由{@link #putCalendarFields(JSONObject, LocalDate)}按历法计算，彼此一致；
+ * 宜忌按建除十二值取常见词条，格式、长度与真实响应相近，但不是真实黄历。
+ * 样本之外的年度按3年一个周期复用样本的放假/补班状态和节假日，黄历字段同样按历法计算，用来模拟任意年度范围（如2000~2050年）的接口响应。
+ * <p>
+ * {@link #responder(int, int)}按请求地址返回模拟的响应，配合{@link org.zze0.crawler.transport.StubTransport}离线爬取，不需要网络和桩服务。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public final class BaiDuFixtures {
+
+    /**
+     * 样本中的第一个年度
+     */
+    private static final int FIRST_YEAR = 2021;
+
+    /**
+     * 样本中的年度数
+     */
+    private static final int YEARS = 3;
+
+    /**
+     * 样本日历的第一个月（月份序号=年*12+月-1，即2020年12月）
+     */
+    private static final int FIRST_MONTH = (FIRST_YEAR - 1) * 12 + 11;
+
+    /**
+     * 日历查询月份（格式：yyyy年M月）
+     */
+    private static final Pattern QUERY_MONTH = Pattern.compile("query=(\\d{4})年(\\d{1,2})月");
+
+    /**
+     * 样本中的查询月份
+     */
+    private static final int[] QUERY_MONTHS = {1, 4, 7, 10};
+
+    /**
+     * 农历1900年正月初一
+     */
+    private static final long LUNAR_BASE_DAY = LocalDate.of(LunarInfo.BASE_YEAR, 1, 31).toEpochDay();
+
+    /**
+     * 农历日（下标是日-1）
+     */
+    private static final String[] LUNAR_DAYS = {
+            "初一", "初二", "初三", "初四", "初五", "初六", "初七", "初八", "初九", "初十",
+            "十一", "十二", "十三", "十四", "十五", "十六", "十七", "十八", "十九", "二十",
+            "廿一", "廿二", "廿三", "廿四", "廿五", "廿六", "廿七", "廿八", "廿九", "三十"};
+
+    /**
+     * 农历月（下标是月-1）
+     */
+    private static final String[] LUNAR_MONTHS = {"正", "二", "三", "四", "五", "六", "七", "八", "九", "十", "冬", "腊"};
+
+    /**
+     * 星期（下标是{@link java.time.DayOfWeek#getValue()}-1）
+     */
+    private static final String[] WEEK_DAYS = {"一", "二", "三", "四", "五", "六", "日"};
+
+    /**
+     * 生肖（下标是地支序号）
+     */
+    private static final String[] ANIMALS = {"鼠", "牛", "虎", "兔", "龙", "蛇", "马", "羊", "猴", "鸡", "狗", "猪"};
+
+    /**
+     * 地支
+     */
+    private static final String BRANCHES = "子丑寅卯辰巳午未申酉戌亥";
+
+    /**
+     * 建除十二值的宜（下标：0建 1除 2满 3平 4定 5执 6破 7危 8成 9收 10开 11闭）
+     */
+    private static final String[] SUITS = {
+            "出行.上任.会友.上书.见工.赴任.求财.祈福.祭祀.冠笄.纳采.求嗣.开光.订婚.谢土",
+            "沐浴.扫舍.求医.治病.祭祀.祈福.解除.除服.破土.安葬.启钻.成服.移柩.修坟.拆卸.针灸.理发",
+            "结婚.领证.订婚.嫁娶.纳采.祈福.祭祀.开市.交易.立券.纳财.开仓.入宅.移徙.栽种.牧养.纳畜.修造.上梁",
+            "修饰垣墙.平治道涂.祭祀.涂泥.扫舍.补垣.塞穴.余事勿取",
+            "结婚.领证.订婚.嫁娶.纳采.冠笄.祭祀.祈福.求嗣.开光.入宅.安床.交易.立券.纳财.纳畜.牧养.造仓.上梁.竖柱",
+            "结婚.领证.订婚.求嗣.修坟.赴任.祈福.祭祀.纳畜.启钻.捕捉.嫁娶.纳采.盖屋.栽种.斋醮.招赘.纳婿.藏宝",
+            "破屋.坏垣.求医.治病.祭祀.余事勿取",
+            "祭祀.祈福.求嗣.斋醮.纳采.订婚.安床.裁衣.合帐.经络.纳畜.牧养.立券.交易",
+            "结婚.领证.订婚.嫁娶.纳采.开市.开业.开张.交易.立券.纳财.入宅.搬家.移徙.安床.动土.修造.上梁.祈福.祭祀.求嗣.出行.入学",
+            "纳财.开仓.交易.立券.捕捉.畋猎.纳畜.牧养.祭祀.入学.进人口.求嗣.嫁娶.纳采.栽种.收养子女",
+            "结婚.领证.订婚.嫁娶.开市.开业.开张.交易.立券.纳财.入宅.搬家.移徙.出行.求医.治病.上任.祈福.祭祀.开光.修造.动土.入学.栽种",
+            "祭祀.祈福.筑堤.塞穴.补垣.安葬.破土.修坟.立碑.收养子女.作厕.余事勿取"};
+
+    /**
+     * 建除十二值的忌（下标同{@link #SUITS}）
+     */
+    private static final String[] AVOIDS = {
+            "动土.破土.开仓.掘井.开渠.安葬.修坟.行丧.伐木.作梁.结婚.领证.嫁娶.搬家.入宅.栽种.开市",
+            "结婚.领证.订婚.嫁娶.出行.搬家.入宅.移徙.开市.开业.开张.交易.立券.纳财.远行.赴任.上梁",
+            "安葬.破土.修坟.行丧.动土.栽种.求医.治病.服药.上任.赴任.掘井.开渠.词讼",
+            "结婚.领证.订婚.嫁娶.开市.开业.开张.入宅.搬家.移徙.出行.安葬.修坟.动土.破土.开仓.纳畜.栽种.上梁.祈福",
+            "出行.搬家.移徙.赴任.求医.治病.词讼.安葬.行丧.破土.开渠.掘井.伐木.出货.远行",
+            "搬家.装修.开业.入宅.开工.动土.出行.安葬.上梁.开张.旅游.破土.修造.开市.纳财.移徙.立券.竖柱.放水.分居.行丧.开仓.置产.筑堤.出货",
+            "诸事不宜",
+            "登高.行船.出行.远行.开市.开业.入宅.搬家.移徙.动土.破土.安葬.嫁娶.结婚.领证.上梁.竖柱",
+            "词讼.诉讼.安葬.行丧.破土.修坟.开渠.放水.伐木.掘井",
+            "出行.远行.安葬.行丧.破土.修坟.求医.治病.针灸.开市.开业.开张.动土.搬家.入宅.上任.赴任",
+            "安葬.行丧.破土.修坟.伐木.作梁.动土.开渠.掘井.放水.栽种.词讼",
+            "结婚.领证.订婚.嫁娶.开市.开业.开张.交易.立券.出行.搬家.入宅.移徙.上任.赴任.求医.治病.开渠.放水.开光.修造.动土.上梁.竖柱.祈福"};
+
+    /**
+     * 年度法定节假日列表原始响应
+     */
+    private static final String YEAR_HOLIDAYS = read("39042.json");
+
+    /**
+     * 日历原始响应（key是 年*100+月）
+     */
+    private static final Map<Integer, String> ALMANACS = new HashMap<>();
+
+    /**
+     * 样本中每天的日历信息
+     */
+    private static final Map<LocalDate, JSONObject> DAYS = new HashMap<>();
+
+    /**
+     * 样本中每个年度的节假日列表（key是年份）
+     */
+    private static final Map<Integer, JSONArray> HOLIDAY_LISTS = new HashMap<>();
+
+    static {
+        for (int year = FIRST_YEAR; year < FIRST_YEAR + YEARS; year++) {
+            for (int month : QUERY_MONTHS) {
+                String almanac = read(String.format("39043-%d-%02d.json", year, month));
+                ALMANACS.put(year * 100 + month, almanac);
+                for (Object item : data(almanac).getJSONArray("almanac")) {
+                    JSONObject day = (JSONObject) item;
+                    DAYS.put(LocalDate.of(day.getIntValue("year"), day.getIntValue("month"), day.getIntValue("day")), day);
+                }
+            }
+        }
+        for (Object item : data(YEAR_HOLIDAYS).getJSONArray("holiday")) {
+            JSONObject yearHolidays = (JSONObject) item;
+            HOLIDAY_LISTS.put(yearHolidays.getInteger("year"), yearHolidays.getJSONArray("list"));
+        }
+    }
+
+    private BaiDuFixtures() {
+    }
+
+    /**
+     * @return 年度法定节假日列表原始响应（2021~2023年度）
+     */
+    public static String yearHolidays() {
+        return YEAR_HOLIDAYS;
+    }
+
+    /**
+     * @param year  年（2021~2023）
+     * @param month 查询月份（1、4、7、10）
+     * @return 日历原始响应
+     */
+    public static String almanac(int year, int month) {
+        String almanac = ALMANACS.get(year * 100 + month);
+        Assert.notNull(almanac, () -> "没有日历样本：" + year + "年" + month + "月");
+        return almanac;
+    }
+
+    /**
+     * 百度接口的响应生成器（按请求地址返回模拟的响应，同一个查询月份的响应只生成一次）
+     *
+     * @param startYear 年度法定节假日列表的开始年度
+     * @param endYear   年度法定节假日列表的结束年度
+     * @return 响应生成器（入参是请求地址，出参是响应文本）
+     */
+    public static Function<String, String> responder(int startYear, int endYear) {
+        String yearHolidays = simulateYearHolidays(startYear, endYear);
+        Map<String, String> almanacs = new ConcurrentHashMap<>();
+        return url -> {
+            if (url.contains("resource_id=39042")) {
+                return yearHolidays;
+            }
+            Matcher matcher = QUERY_MONTH.matcher(url);
+            Assert.isTrue(matcher.find(), () -> "不是百度日历查询：" + url);
+            int year = Integer.parseInt(matcher.group(1));
+            int month = Integer.parseInt(matcher.group(2));
+            return almanacs.computeIfAbsent(matcher.group(), key -> simulateAlmanac(year, month));
+        };
+    }
+
+    /**
+     * 模拟年度法定节假日列表响应
+     *
+     * @param startYear 开始年度
+     * @param endYear   结束年度
+     * @return 响应
+     */
+    public static String simulateYearHolidays(int startYear, int endYear) {
+        JSONArray holiday = new JSONArray();
+        for (int year = startYear; year <= endYear; year++) {
+            JSONArray list = new JSONArray();
+            for (Object item : HOLIDAY_LISTS.get(sampleYear(year))) {
+                JSONObject sample = (JSONObject) item;
+                String[] date = sample.getString("date").split("-");
+                JSONObject entry = new JSONObject(true);
+                entry.put("date", year + "-" + date[1] + "-" + date[2]);
+                entry.put("name", sample.getString("name"));
+                list.add(entry);
+            }
+            JSONObject yearHolidays = new JSONObject(true);
+            yearHolidays.put("list", list);
+            yearHolidays.put("list#num#baidu", list.size());
+            yearHolidays.put("year", String.valueOf(year));
+            holiday.add(yearHolidays);
+        }
+        return response("holiday", holiday);
+    }
+
+    /**
+     * 模拟日历响应（查询月份及其前后各一个月）
+     *
+     * @param year  年
+     * @param month 查询月份
+     * @return 响应
+     */
+    public static String simulateAlmanac(int year, int month) {
+        LocalDate queryMonth = LocalDate.of(year, month, 1);
+        LocalDate lastDate = queryMonth.plusMonths(2).minusDays(1);
+
+        JSONArray almanac = new JSONArray();
+        for (LocalDate date = queryMonth.minusMonths(1); !date.isAfter(lastDate); date = date.plusDays(1)) {
+
+            //同一周期位置的样本月份（样本月份天数不够时，用样本月份最后一天且不带状态）
+            int sampleMonthIndex = FIRST_MONTH + Math.floorMod(date.getYear() * 12 + date.getMonthValue() - 1 - FIRST_MONTH, YEARS * 12);
+            LocalDate sampleMonth = LocalDate.of(sampleMonthIndex / 12, sampleMonthIndex % 12 + 1, 1);
+            boolean overflow = date.getDayOfMonth() > sampleMonth.lengthOfMonth();
+            JSONObject sample = DAYS.get(sampleMonth.withDayOfMonth(Math.min(date.getDayOfMonth(), sampleMonth.lengthOfMonth())));
+
+            JSONObject day = new JSONObject(true);
+            day.putAll(sample);
+            day.put("day", String.valueOf(date.getDayOfMonth()));
+            day.put("month", String.valueOf(date.getMonthValue()));
+            day.put("year", String.valueOf(date.getYear()));
+            putCalendarFields(day, date);
+            if (overflow) {
+                day.remove("status");
+            }
+            almanac.add(day);
+        }
+        return response("almanac", almanac);
+    }
+
+    /**
+     * 按历法填写某天的黄历字段（农历、干支、节气、生肖、星期），宜忌按建除十二值取常见词条
+     *
+     * @param day  日历信息
+     * @param date 日期
+     */
+    static void putCalendarFields(JSONObject day, LocalDate date) {
+
+        //从农历1900年正月初一逐年、逐月数到当天（闰月紧跟在所闰的月份之后）
+        int offset = (int) (date.toEpochDay() - LUNAR_BASE_DAY);
+        int lunarYear = LunarInfo.BASE_YEAR;
+        while (offset >= LunarInfo.yearDays(lunarYear)) {
+            offset -= LunarInfo.yearDays(lunarYear);
+            lunarYear++;
+        }
+        int leapMonth = LunarInfo.leapMonth(lunarYear);
+        int lunarMonth = 1;
+        boolean leap = false;
+        int monthDays = LunarInfo.monthDays(lunarYear, lunarMonth);
+        while (offset >= monthDays) {
+            offset -= monthDays;
+            if (!leap && lunarMonth == leapMonth) {
+                leap = true;
+                monthDays = LunarInfo.leapDays(lunarYear);
+            } else {
+                leap = false;
+                lunarMonth++;
+                monthDays = LunarInfo.monthDays(lunarYear, lunarMonth);
+            }
+        }
+
+        String yearGanZhi = GanZhi.getGanzhiOfYear(lunarYear);
+        String monthGanZhi = GanZhi.getGanzhiOfMonth(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        String dayGanZhi = GanZhi.getGanzhiOfDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        //建除十二值：日支相对月支的位置
+        int officer = Math.floorMod(BRANCHES.indexOf(dayGanZhi.charAt(1)) - BRANCHES.indexOf(monthGanZhi.charAt(1)), 12);
+
+        day.put("animal", ANIMALS[BRANCHES.indexOf(yearGanZhi.charAt(1))]);
+        day.put("avoid", AVOIDS[officer]);
+        day.put("cnDay", WEEK_DAYS[date.getDayOfWeek().getValue() - 1]);
+        day.put("gzDate", dayGanZhi);
+        day.put("gzMonth", monthGanZhi);
+        day.put("gzYear", yearGanZhi);
+        day.put("isBigMonth", monthDays == 30 ? "1" : "");
+        day.put("lDate", LUNAR_DAYS[offset]);
+        day.put("lMonth", (leap ? "闰" : "") + LUNAR_MONTHS[lunarMonth - 1]);
+        day.put("lunarDate", String.valueOf(offset + 1));
+        day.put("lunarMonth", String.valueOf(lunarMonth));
+        day.put("lunarYear", String.valueOf(lunarYear));
+        day.put("oDate", date.minusDays(1) + "T16:00:00.000Z");
+        day.put("suit", SUITS[officer]);
+        day.put("term", SolarTerms.getTerm(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+    }
+
+    /**
+     * 样本周期中对应的年度
+     *
+     * @param year 年度
+     * @return 样本年度
+     */
+    private static int sampleYear(int year) {
+        return FIRST_YEAR + Math.floorMod(year - FIRST_YEAR, YEARS);
+    }
+
+    private static String response(String key, JSONArray value) {
+        JSONObject data = new JSONObject(true);
+        data.put(key, value);
+        JSONObject response = new JSONObject(true);
+        response.put("status", "0");
+        response.put("t", String.valueOf(System.currentTimeMillis()));
+        response.put("data", new JSONArray(Collections.singletonList(data)));
+        return response.toJSONString();
+    }
+
+    private static JSONObject data(String response) {
+        return JSON.parseObject(response, Feature.OrderedField).getJSONArray("data").getJSONObject(0);
+    }
+
+    private static String read(String name) {
+        try (InputStream in = BaiDuFixtures.class.getResourceAsStream("/fixtures/baidu/" + name)) {
+            Assert.notNull(in, () -> "样本文件不存在：" + name);
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
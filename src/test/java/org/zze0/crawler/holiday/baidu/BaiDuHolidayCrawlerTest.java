@@ -0,0 +1,99 @@
+package org.zze0.crawler.holiday.baidu;
+
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.transport.StubTransport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 百度法定节假日爬虫离线测试（本地桩传输层返回百度接口响应样本，不访问网络）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class BaiDuHolidayCrawlerTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void crawlMatchesPublishedArrangement() {
+        StubTransport transport = new StubTransport(BaiDuFixtures.responder(2021, 2023));
+        Map<Integer, List<Holiday>> holidays = BaiDuHolidayCrawler.crawlHolidays(2021, 2023, 4, 1000, null, transport, REQUEST_TIMEOUT);
+
+        //2022年的放假安排（国务院办公厅公布），“除夕”与春节重复，不单独输出
+        List<Holiday> expected = Arrays.asList(
+                holiday(2022, "元旦节", "2022-01-01", days("2022-01-01", "2022-01-03"), dates()),
+                holiday(2022, "春节", "2022-02-01", days("2022-01-31", "2022-02-06"), dates("2022-01-29", "2022-01-30")),
+                holiday(2022, "清明节", "2022-04-05", days("2022-04-03", "2022-04-05"), dates("2022-04-02")),
+                holiday(2022, "劳动节", "2022-05-01", days("2022-04-30", "2022-05-04"), dates("2022-04-24", "2022-05-07")),
+                holiday(2022, "端午节", "2022-06-03", days("2022-06-03", "2022-06-05"), dates()),
+                holiday(2022, "中秋节", "2022-09-10", days("2022-09-10", "2022-09-12"), dates()),
+                holiday(2022, "国庆节", "2022-10-01", days("2022-10-01", "2022-10-07"), dates("2022-10-08", "2022-10-09")));
+        assertEquals(expected, holidays.get(2022));
+
+        //元旦的假期可能从上一年12月开始
+        assertEquals(holiday(2023, "元旦节", "2023-01-01", days("2022-12-31", "2023-01-02"), dates()), holidays.get(2023).get(0));
+
+        //年度法定节假日列表1次，日历查询每年4次（每次覆盖查询月份及其前后各一个月）
+        assertEquals(1 + 3 * 4, transport.getRequestCount());
+    }
+
+    @Test
+    void concurrentCrawlMergesInYearOrder() {
+        Map<Integer, List<Holiday>> serial = BaiDuHolidayCrawler.crawlHolidays(2021, 2023, 1, 1000, null,
+                new StubTransport(BaiDuFixtures.responder(2021, 2023)), REQUEST_TIMEOUT);
+        //日历查询有延迟，各年度的窗口乱序返回
+        Map<Integer, List<Holiday>> concurrent = BaiDuHolidayCrawler.crawlHolidays(2021, 2023, 4, 1000, null,
+                new StubTransport(BaiDuFixtures.responder(2021, 2023), Duration.ofMillis(5)), REQUEST_TIMEOUT);
+
+        assertEquals(Arrays.asList(2021, 2022, 2023), new ArrayList<>(concurrent.keySet()));
+        assertEquals(serial, concurrent);
+    }
+
+    @Test
+    void concurrentCrawlsShareTheHostRate() throws Exception {
+        //每秒20次，空闲之后允许并发数（2）个请求突发
+        double permitsPerSecond = 20;
+        int parallelism = 2;
+        StubTransport transport = new StubTransport(BaiDuFixtures.responder(2021, 2023));
+        BaiDuHolidaySource source = new BaiDuHolidaySource(parallelism, permitsPerSecond, transport, REQUEST_TIMEOUT, null);
+
+        //全量刷新和按需加载同时进行
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> refresh = executor.submit(() -> source.fetch(2021, 2023));
+            Future<?> lazy = executor.submit(() -> source.fetchCompact(2021, 2023));
+            refresh.get(10, TimeUnit.SECONDS);
+            lazy.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //任意一段时间内的请求数都不超过 突发数 + 速率 × 时长（留一个请求的计时误差）
+        List<Long> nanos = transport.getRequestNanos();
+        assertEquals(2 * (1 + 3 * 4), nanos.size());
+        for (int from = 0; from < nanos.size(); from++) {
+            for (int to = from; to < nanos.size(); to++) {
+                double seconds = (nanos.get(to) - nanos.get(from)) / 1e9;
+                assertTrue(to - from + 1 <= parallelism + permitsPerSecond * seconds + 1,
+                        "第" + from + "~" + to + "个请求间隔" + seconds + "s，超过了共用的请求速率");
+            }
+        }
+    }
+
+    @Test
+    void timedOutRequestFailsCrawl() {
+        StubTransport transport = new StubTransport(BaiDuFixtures.responder(2021, 2023), Duration.ofSeconds(1));
+        assertThrows(RuntimeException.class, () ->
+                BaiDuHolidayCrawler.crawlHolidays(2021, 2023, 2, 1000, null, transport, Duration.ofMillis(50)));
+    }
+}
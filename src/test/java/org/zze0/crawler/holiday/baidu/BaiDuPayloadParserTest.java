@@ -0,0 +1,222 @@
+package org.zze0.crawler.holiday.baidu;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.holiday.EpochDays;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 百度接口响应流式解析器测试（以fastjson完整解析的结果为准）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class BaiDuPayloadParserTest {
+
+    @Test
+    void yearHolidaysMatchFastjson() {
+        assertYearHolidaysMatchFastjson(BaiDuFixtures.yearHolidays());
+    }
+
+    @Test
+    void almanacFixturesMatchFastjson() {
+        for (int year = 2021; year <= 2023; year++) {
+            for (int month : new int[]{1, 4, 7, 10}) {
+                assertAlmanacMatchesFastjson(BaiDuFixtures.almanac(year, month));
+            }
+        }
+    }
+
+    @Test
+    void escapesAndUnicodeMatchFastjson() {
+        assertAlmanacMatchesFastjson(almanac(
+                "{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\",\"status\":\"1\",\"value\":\"国庆\\\"节\\\"\\\\\\/\\n\\t\","
+                        + "\"suit\":\"\\u796d\\u7940.\\u6c90\\u6d74\",\"avoid\":\"诸事\\u4E0D宜\",\"desc\":\"\\\"}]{[\\\\\"}"));
+        assertYearHolidaysMatchFastjson("{\"data\":[{\"holiday\":[{\"year\":\"2021\",\"list\":["
+                + "{\"name\":\"\\u56fd\\u5e86\\u8282\",\"date\":\"2021-10-1\"},{\"date\":\"2021-1-1\",\"name\":\"元旦\\\"节\\\"\"}]}]}]}");
+    }
+
+    @Test
+    void nullsAndEmptyValuesMatchFastjson() {
+        assertAlmanacMatchesFastjson(almanac(
+                "{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\",\"status\":null,\"value\":null,\"suit\":null,\"lunarYear\":null}",
+                "{\"year\":\"2021\",\"month\":\"10\",\"day\":\"2\",\"status\":\"\",\"value\":\"\",\"suit\":\"\",\"lunarYear\":\"\"}"));
+        assertYearHolidaysMatchFastjson("{\"data\":[{\"holiday\":[{\"year\":null,\"list\":[{\"date\":null,\"name\":null}]}]}]}");
+
+        //年月日为空的日期无法使用
+        assertThrows(IllegalArgumentException.class, () -> BaiDuPayloadParser.parseAlmanac(almanac("{\"year\":null,\"month\":\"10\",\"day\":\"1\"}")));
+    }
+
+    @Test
+    void quotedAndUnquotedNumbersMatchFastjson() {
+        assertAlmanacMatchesFastjson(almanac(
+                "{\"year\":2021,\"month\":10,\"day\":1,\"status\":1,\"lunarYear\":2021,\"lunarMonth\":8,\"lunarDate\":25}",
+                "{\"year\":\"2021\",\"month\":\"10\",\"day\":\"2\",\"status\":\"2\",\"lunarYear\":\"2021\",\"lunarMonth\":\"8\",\"lunarDate\":\"26\"}",
+                "{ \"year\" : 2021 , \"month\" : 10 , \"day\" : 3 , \"status\" : 1 }"));
+        assertYearHolidaysMatchFastjson("{\"data\":[{\"holiday\":[{\"year\":2021,\"list\":[{\"date\":\"2021-10-1\",\"name\":\"国庆节\"}]}]}]}");
+    }
+
+    @Test
+    void numberTailsAreSkipped() {
+        //数字后面的小数、指数部分一并跳过，不会被当成下一个字段
+        BaiDuAlmanacDays days = BaiDuPayloadParser.parseAlmanac(almanac(
+                "{\"year\":2021,\"month\":10.0,\"day\":1e0,\"status\":1.5,\"isBigMonth\":true}",
+                "{\"year\":\"2021\",\"month\":\"10.0\",\"day\":\"2\",\"status\":\"2.5\"}"));
+        assertNotNull(days);
+        assertEquals(2, days.size());
+        assertEquals(EpochDays.of(2021, 10, 1), days.getEpochDay(0));
+        assertEquals(BaiDuAlmanacDays.STATUS_HOLIDAY, days.getStatus(0));
+        assertEquals(EpochDays.of(2021, 10, 2), days.getEpochDay(1));
+        assertEquals(BaiDuAlmanacDays.STATUS_ADD_WORK, days.getStatus(1));
+
+        //不是数字的值（对象、数组、布尔值）整体跳过，视为空
+        days = BaiDuPayloadParser.parseAlmanac(almanac(
+                "{\"year\":2021,\"month\":10,\"day\":3,\"status\":{\"code\":1},\"lunarYear\":[2021]}",
+                "{\"year\":2021,\"month\":10,\"day\":4,\"status\":true}"));
+        assertNotNull(days);
+        assertEquals(BaiDuAlmanacDays.STATUS_NONE, days.getStatus(0));
+        assertEquals(BaiDuAlmanacDays.STATUS_NONE, days.getStatus(1));
+    }
+
+    @Test
+    void unknownFieldsMatchFastjson() {
+        assertAlmanacMatchesFastjson(almanac(
+                "{\"extra\":{\"a\":[1,{\"b\":\"}]\"}],\"c\":null},\"year\":\"2021\",\"flag\":true,\"month\":\"10\",\"list\":[[],{}],"
+                        + "\"day\":\"1\",\"n\":-1.5e3,\"status\":\"1\",\"off\":false}"));
+        assertAlmanacMatchesFastjson("{\"status\":\"0\",\"t\":\"1623495008826\",\"extra\":[{\"almanac\":[]}],\"data\":[{\"other\":{\"almanac\":1},"
+                + "\"almanac\":[{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\",\"status\":\"1\"}]},{\"almanac\":[]}]}");
+        assertYearHolidaysMatchFastjson("{\"data\":[{\"holiday\":[{\"list#num#baidu\":1,\"year\":\"2021\",\"ext\":{\"list\":[]},"
+                + "\"list\":[{\"date\":\"2021-10-1\",\"desc\":{\"x\":\"]\"},\"name\":\"国庆节\"}]}]}]}");
+    }
+
+    @Test
+    void emptyPayloadsReturnNull() {
+        assertNull(BaiDuPayloadParser.parseAlmanac(null));
+        assertNull(BaiDuPayloadParser.parseAlmanac(""));
+        assertNull(BaiDuPayloadParser.parseAlmanac("{\"status\":\"0\",\"data\":[]}"));
+        assertNull(BaiDuPayloadParser.parseAlmanac("{\"status\":\"0\",\"data\":[{\"almanac\":[]}]}"));
+        assertNull(BaiDuPayloadParser.parseYearHolidays("{\"status\":\"0\",\"data\":[{\"other\":[]}]}"));
+    }
+
+    @Test
+    void truncatedPayloadsFailCleanly() {
+        String head = "{\"status\":\"0\",\"data\":[{\"almanac\":";
+        String array = "[{\"year\":\"2021\",\"month\":10,\"day\":\"1\",\"status\":\"1\",\"value\":\"国庆\\u8282\\\"\"},"
+                + "{\"year\":2021,\"month\":\"10\",\"day\":2,\"status\":null,\"suit\":\"祭祀.沐浴\"}]";
+        String json = head + array + "}]}";
+        int arrayEnd = head.length() + array.length();
+
+        for (int length = 0; length < json.length(); length++) {
+            String truncated = json.substring(0, length);
+            try {
+                BaiDuAlmanacDays days = BaiDuPayloadParser.parseAlmanac(truncated, new AlmanacStore.Builder());
+                //日历数组完整时不再关心后面的内容
+                assertTrue(length == 0 || length >= arrayEnd, "截断到" + length + "：" + truncated);
+                if (length > 0) {
+                    assertEquals(2, days.size());
+                }
+            } catch (IllegalArgumentException e) {
+                assertTrue(length < arrayEnd, "截断到" + length + "：" + truncated);
+            }
+        }
+
+        //年度法定节假日列表截断在holiday数组结束之前
+        String yearHolidays = BaiDuFixtures.yearHolidays();
+        for (int length = 1; length <= yearHolidays.lastIndexOf("]}]"); length += 7) {
+            String truncated = yearHolidays.substring(0, length);
+            assertThrows(IllegalArgumentException.class, () -> BaiDuPayloadParser.parseYearHolidays(truncated), truncated);
+        }
+    }
+
+    @Test
+    void malformedPayloadsFailCleanly() {
+        String[] almanacs = {
+                almanac("{\"year\" \"2021\"}"),
+                almanac("{\"year\":\"2021\" \"month\":\"10\"}"),
+                almanac("{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\",\"value\":\"\\u12G4\"}"),
+                almanac("{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\",\"value\":\"\\u12\"}"),
+                almanac("{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\",\"value\":\"abc\\"),
+                almanac("{\"year\":99999999999,\"month\":\"10\",\"day\":\"1\"}"),
+                almanac("{\"year\":\"2021\",\"month\":\"10\",\"day\":\"1\"]"),
+                almanac("{\"extra\":{\"a\":[1,2},\"year\":\"2021\"}"),
+                "{\"data\":[{\"almanac\":[{\"year\":\"2021\"",
+                "{\"data\" [{\"almanac\":[]}]}",
+                "[1,2,3]",
+        };
+        for (String json : almanacs) {
+            assertThrows(IllegalArgumentException.class, () -> BaiDuPayloadParser.parseAlmanac(json, new AlmanacStore.Builder()), json);
+        }
+        assertThrows(IllegalArgumentException.class, () ->
+                BaiDuPayloadParser.parseYearHolidays("{\"data\":[{\"holiday\":[{\"year\":\"2021\",\"list\":[{\"date\" \"2021-1-1\"}]}]}]}"));
+    }
+
+    /**
+     * 日历接口响应
+     *
+     * @param days 每天的日历信息（JSON对象）
+     */
+    private static String almanac(String... days) {
+        return "{\"status\":\"0\",\"t\":\"1623499626147\",\"data\":[{\"almanac\":[" + String.join(",", days) + "]}]}";
+    }
+
+    private static void assertAlmanacMatchesFastjson(String json) {
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        BaiDuAlmanacDays days = BaiDuPayloadParser.parseAlmanac(json, builder);
+        AlmanacStore store = builder.build();
+
+        JSONArray expected = JSON.parseObject(json).getJSONArray("data").getJSONObject(0).getJSONArray("almanac");
+        assertNotNull(days, json);
+        assertEquals(expected.size(), days.size(), json);
+        for (int index = 0; index < expected.size(); index++) {
+            JSONObject day = expected.getJSONObject(index);
+            String message = json + " 第" + index + "天";
+            assertEquals(day.getIntValue("year"), days.getYear(index), message);
+            assertEquals(day.getIntValue("month"), days.getMonth(index), message);
+            assertEquals(day.getIntValue("day"), days.getDay(index), message);
+            Integer status = StrUtil.isEmpty(day.getString("status")) ? null : day.getInteger("status");
+            assertEquals(null == status ? BaiDuAlmanacDays.STATUS_NONE : status, days.getStatus(index), message);
+
+            int epochDay = days.getEpochDay(index);
+            assertEquals(StrUtil.isEmpty(day.getString("lunarYear")) ? 0 : day.getIntValue("lunarYear"), store.getLunarYear(epochDay), message);
+            assertEquals(StrUtil.isEmpty(day.getString("lunarMonth")) ? 0 : day.getIntValue("lunarMonth"), store.getLunarMonth(epochDay), message);
+            assertEquals(StrUtil.isEmpty(day.getString("lunarDate")) ? 0 : day.getIntValue("lunarDate"), store.getLunarDay(epochDay), message);
+            assertEquals(StrUtil.emptyToNull(day.getString("value")), store.getFestival(epochDay), message);
+            assertEquals(StrUtil.emptyToNull(day.getString("term")), store.getTerm(epochDay), message);
+            assertEquals(StrUtil.nullToEmpty(day.getString("suit")), String.join(".", store.getSuits(epochDay)), message);
+            assertEquals(StrUtil.nullToEmpty(day.getString("avoid")), String.join(".", store.getAvoids(epochDay)), message);
+        }
+    }
+
+    private static void assertYearHolidaysMatchFastjson(String json) {
+        List<BaiDuPayloadParser.YearHolidays> parsed = BaiDuPayloadParser.parseYearHolidays(json);
+
+        JSONArray expected = JSON.parseObject(json).getJSONArray("data").getJSONObject(0).getJSONArray("holiday");
+        assertNotNull(parsed, json);
+        assertEquals(expected.size(), parsed.size(), json);
+        for (int yearIndex = 0; yearIndex < expected.size(); yearIndex++) {
+            JSONObject yearHolidays = expected.getJSONObject(yearIndex);
+            BaiDuPayloadParser.YearHolidays actual = parsed.get(yearIndex);
+            assertEquals(yearHolidays.getInteger("year"), actual.getYear(), json);
+
+            JSONArray list = yearHolidays.getJSONArray("list");
+            assertEquals(list.size(), actual.size(), json);
+            for (int index = 0; index < list.size(); index++) {
+                JSONObject holiday = list.getJSONObject(index);
+                String message = json + " 第" + index + "个节假日";
+                assertEquals(holiday.getString("name"), actual.getName(index), message);
+                String date = holiday.getString("date");
+                assertEquals(null != date, actual.hasDate(index), message);
+                if (null != date) {
+                    assertEquals(date, actual.getYear(index) + "-" + actual.getMonth(index) + "-" + actual.getDay(index), message);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.zze0.crawler.holiday.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zze0.crawler.holiday.HolidayOverlay;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户叠加层文件加载器测试（文件没有变化时不重新加载）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayOverlayLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void unchangedFileIsNotReloaded() throws IOException {
+        Path path = dir.resolve("holiday-overlays.json");
+        HolidayOverlayLoader loader = new HolidayOverlayLoader(path);
+
+        //文件不存在时第一次加载为空，之后没有变化
+        assertTrue(loader.loadIfChanged().isEmpty());
+        assertNull(loader.loadIfChanged());
+
+        write(path, "{\"tenant-a\":{\"addHolidays\":[\"2024-02-08\"],\"removeWorkdays\":[\"2024-02-04\"]}}", 1000);
+        Map<String, HolidayOverlay> overlays = loader.loadIfChanged();
+        assertEquals(1, overlays.size());
+        assertEquals(2, overlays.get("tenant-a").size());
+        assertNull(loader.loadIfChanged());
+
+        //修改时间变化
+        write(path, "{\"tenant-a\":{\"addHolidays\":[\"2024-02-09\"],\"removeWorkdays\":[\"2024-02-04\"]}}", 2000);
+        assertEquals(1, loader.loadIfChanged().size());
+        assertNull(loader.loadIfChanged());
+
+        //文件删除后变成空的叠加层
+        Files.delete(path);
+        assertTrue(loader.loadIfChanged().isEmpty());
+        assertNull(loader.loadIfChanged());
+    }
+
+    @Test
+    void invalidFileIsRetried() throws IOException {
+        Path path = dir.resolve("holiday-overlays.json");
+        HolidayOverlayLoader loader = new HolidayOverlayLoader(path);
+
+        write(path, "{\"tenant-a\":{\"addHolidays\":[\"2024-02-30\"]}}", 1000);
+        assertThrows(RuntimeException.class, loader::loadIfChanged);
+        //加载失败不记录文件状态，下次检查时重试
+        assertThrows(RuntimeException.class, loader::loadIfChanged);
+
+        write(path, "{\"tenant-a\":{\"addHolidays\":[\"2024-02-29\"]}}", 2000);
+        assertEquals(1, loader.loadIfChanged().get("tenant-a").size());
+    }
+
+    private static void write(Path path, String content, long modifiedMillis) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(path, FileTime.fromMillis(modifiedMillis));
+    }
+}
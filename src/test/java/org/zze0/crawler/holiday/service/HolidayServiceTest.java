@@ -0,0 +1,146 @@
+package org.zze0.crawler.holiday.service;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zze0.crawler.holiday.Holiday;
+import org.zze0.crawler.holiday.HolidayFixtures;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.holiday.HolidaySnapshotDiff;
+import org.zze0.crawler.holiday.store.HolidaySnapshotStore;
+import org.zze0.crawler.metrics.CrawlerMetrics;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日服务发布快照测试（不爬取，直接发布测试数据）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HolidayService service;
+
+    @BeforeEach
+    void setUp() {
+        HolidayProperties properties = new HolidayProperties();
+        properties.setSnapshotPath(dir.resolve("holiday-snapshot.bin").toString());
+        properties.setAlmanacPath(dir.resolve("almanac.bin").toString());
+        properties.setOverlayPath(dir.resolve("holiday-overlays.json").toString());
+        service = new HolidayService(properties, meterRegistry);
+        service.restore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        meterRegistry.close();
+    }
+
+    @Test
+    void snapshotGaugesUseTheInjectedRegistry() {
+        service.publish(HolidayFixtures.holidays());
+
+        assertEquals(1, meterRegistry.get(CrawlerMetrics.SNAPSHOT_VERSION).gauge().value());
+        assertEquals(HolidayFixtures.holidays().size(), meterRegistry.get(CrawlerMetrics.SNAPSHOT_YEARS).gauge().value());
+        assertNotNull(meterRegistry.get(CrawlerMetrics.SNAPSHOT_AGE).timeGauge());
+        //不注册到全局注册表
+        assertNull(Metrics.globalRegistry.find(CrawlerMetrics.SNAPSHOT_VERSION).gauge());
+    }
+
+    @Test
+    void publishOnlyBumpsVersionForChangedYears() {
+        HolidaySnapshotDiff diff = service.publish(HolidayFixtures.holidays());
+        assertEquals(0, diff.getFromVersion());
+        assertEquals(1, diff.getToVersion());
+        assertEquals(new ArrayList<>(HolidayFixtures.holidays().keySet()), diff.getAddedYears());
+
+        //内容没有变化：不发布新快照
+        HolidaySnapshot published = service.getSnapshot();
+        diff = service.publish(HolidayFixtures.holidays());
+        assertTrue(diff.isEmpty());
+        assertSame(published, service.getSnapshot());
+
+        //只有变化的年度记为新版本号
+        List<Holiday> newYear2022 = Collections.singletonList(
+                holiday(2022, "元旦节", "2022-01-01", days("2022-01-01", "2022-01-03"), dates()));
+        Map<Integer, List<Holiday>> changed = HolidayFixtures.holidays();
+        changed.put(2022, newYear2022);
+        diff = service.publish(changed);
+        assertEquals(Collections.singletonList(2022), diff.getChangedYears());
+        assertTrue(diff.getAddedYears().isEmpty());
+        assertEquals(2, service.getSnapshot().getVersion());
+        assertEquals(2L, service.getSnapshot().getYearVersions().get(2022));
+        assertEquals(1L, service.getSnapshot().getYearVersions().get(2020));
+
+        //新增年度（增量同步只爬取部分年度，其余年度保留）
+        diff = service.publish(Collections.singletonMap(2024, new ArrayList<>()));
+        assertEquals(Collections.singletonList(2024), diff.getAddedYears());
+        assertEquals(3, service.getSnapshot().getVersion());
+        assertEquals(newYear2022, service.getSnapshot().getHolidays(2022));
+    }
+
+    @Test
+    void republishDoesNotDuplicateHolidays() {
+        service.publish(HolidayFixtures.holidays());
+        List<Holiday> expected = service.getSnapshot().getHolidays(2020);
+        for (int count = 0; count < 3; count++) {
+            service.publish(HolidayFixtures.holidays());
+            service.publish(Collections.singletonMap(2020, HolidayFixtures.holidays().get(2020)));
+        }
+        assertEquals(expected, service.getSnapshot().getHolidays(2020));
+        assertEquals(2, service.getSnapshot().getHolidays(2020).size());
+        assertEquals(1, service.getSnapshot().getVersion());
+    }
+
+    @Test
+    void concurrentPublishesSaveLatestSnapshot() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<HolidaySnapshotDiff>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    //各线程发布不同的国庆节假期，每次发布都有变化
+                    Map<Integer, List<Holiday>> holidays = HolidayFixtures.holidays();
+                    holidays.put(2022, Collections.singletonList(holiday(2022, "国庆节", "2022-10-01",
+                            days("2022-10-01", "2022-10-0" + (2 + offset)), dates())));
+                    return service.publish(holidays);
+                }));
+            }
+            start.countDown();
+            for (Future<HolidaySnapshotDiff> future : futures) {
+                assertFalse(future.get().isEmpty());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        //本地快照是最后发布的快照，旧版本没有覆盖新版本
+        HolidaySnapshot latest = service.getSnapshot();
+        assertEquals(threads, latest.getVersion());
+        HolidaySnapshot saved = new HolidaySnapshotStore(dir.resolve("holiday-snapshot.bin")).load();
+        assertEquals(latest.getVersion(), saved.getVersion());
+        assertEquals(latest.getHolidays(), saved.getHolidays());
+    }
+}
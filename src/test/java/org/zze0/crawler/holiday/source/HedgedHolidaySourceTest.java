@@ -0,0 +1,156 @@
+package org.zze0.crawler.holiday.source;
+
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.holiday.Holiday;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 对冲请求的组合数据源测试（延迟预算、截止时间、失败兜底）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HedgedHolidaySourceTest {
+
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+    private static final Duration DEADLINE = Duration.ofMillis(200);
+
+    @Test
+    void fastPrimaryWins() {
+        StubSource primary = new StubSource("primary", Duration.ZERO, false);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, false);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, DEADLINE, 3, Duration.ofMinutes(1));
+
+        assertSame(primary.result, source.fetch(2021, 2021));
+        assertEquals(0, secondary.calls);
+    }
+
+    @Test
+    void failedPrimaryFallsBackToSecondary() {
+        StubSource primary = new StubSource("primary", Duration.ZERO, true);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, false);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, DEADLINE, 3, Duration.ofMinutes(1));
+
+        assertSame(secondary.result, source.fetch(2021, 2021));
+    }
+
+    @Test
+    void slowPrimaryWithinDeadlineWins() {
+        StubSource primary = new StubSource("primary", Duration.ofMillis(100), false);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, false);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, DEADLINE, 3, Duration.ofMinutes(1));
+
+        //超过延迟预算后请求了备选数据源，但主数据源在截止时间内返回，仍以主数据源为准
+        assertSame(primary.result, source.fetch(2021, 2021));
+        assertEquals(1, secondary.calls);
+    }
+
+    @Test
+    void primaryPastDeadlineUsesStandbyAndKeepsRunning() throws InterruptedException {
+        StubSource primary = new StubSource("primary", Duration.ofSeconds(1), false);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, false);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, DEADLINE, 3, Duration.ofMinutes(1));
+
+        long startNanos = System.nanoTime();
+        assertSame(secondary.result, source.fetch(2021, 2021));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        assertTrue(elapsedMillis >= DEADLINE.toMillis() && elapsedMillis < 900, "耗时" + elapsedMillis + "ms");
+
+        //主数据源的请求没有被取消，在后台正常完成
+        assertTrue(primary.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(primary.interrupted);
+    }
+
+    @Test
+    void primaryPastDeadlineIsAwaitedWhenStandbyFails() {
+        StubSource primary = new StubSource("primary", Duration.ofMillis(400), false);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, true);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, DEADLINE, 3, Duration.ofMinutes(1));
+
+        assertSame(primary.result, source.fetch(2021, 2021));
+    }
+
+    @Test
+    void withoutDeadlinePrimaryIsAwaited() {
+        StubSource primary = new StubSource("primary", Duration.ofMillis(400), false);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, false);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, 3, Duration.ofMinutes(1));
+
+        assertSame(primary.result, source.fetch(2021, 2021));
+        assertEquals(1, secondary.calls);
+    }
+
+    @Test
+    void bothFailingThrowsPrimaryFailure() {
+        StubSource primary = new StubSource("primary", Duration.ZERO, true);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, true);
+        HedgedHolidaySource source = new HedgedHolidaySource(primary, secondary, HEDGE_DELAY, DEADLINE, 3, Duration.ofMinutes(1));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> source.fetch(2021, 2021));
+        assertEquals("primary失败", e.getMessage());
+        assertEquals("secondary失败", e.getSuppressed()[0].getMessage());
+    }
+
+    @Test
+    void deadlineShorterThanHedgeDelayIsRejected() {
+        StubSource primary = new StubSource("primary", Duration.ZERO, false);
+        StubSource secondary = new StubSource("secondary", Duration.ZERO, false);
+        assertThrows(IllegalArgumentException.class, () ->
+                new HedgedHolidaySource(primary, secondary, DEADLINE, HEDGE_DELAY, 3, Duration.ofMinutes(1)));
+    }
+
+    /**
+     * 测试用的数据源（固定延迟，返回固定结果或失败）
+     */
+    private static final class StubSource implements HolidaySource {
+
+        private final String name;
+
+        private final Duration latency;
+
+        private final boolean fail;
+
+        private final Map<Integer, List<Holiday>> result = Collections.singletonMap(2021, new ArrayList<>());
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private volatile int calls;
+
+        private volatile boolean interrupted;
+
+        private StubSource(String name, Duration latency, boolean fail) {
+            this.name = name;
+            this.latency = latency;
+            this.fail = fail;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Map<Integer, List<Holiday>> fetch(int startYear, int endYear) {
+            calls++;
+            try {
+                TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+            } catch (InterruptedException e) {
+                interrupted = true;
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(name + "被中断", e);
+            }
+            completed.countDown();
+            if (fail) {
+                throw new IllegalStateException(name + "失败");
+            }
+            return result;
+        }
+    }
+}
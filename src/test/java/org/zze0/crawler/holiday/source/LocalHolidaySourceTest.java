@@ -0,0 +1,61 @@
+package org.zze0.crawler.holiday.source;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zze0.crawler.holiday.Holiday;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地节假日数据源测试（部分年度未收录视为失败）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class LocalHolidaySourceTest {
+
+    private static final String CONTENT = "{\"2024\":[{\"year\":2024,\"date\":\"2024-10-01\",\"name\":\"国庆节\","
+            + "\"holidayDateList\":[\"2024-10-01\",\"2024-10-02\"],\"addWorkDateList\":[\"2024-09-29\"]}],\"2025\":[]}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void coveredYearsAreReturned() throws IOException {
+        LocalHolidaySource source = new LocalHolidaySource(write().toString());
+        Map<Integer, List<Holiday>> holidays = source.fetch(2024, 2025);
+
+        assertEquals(2, holidays.size());
+        assertEquals("国庆节", holidays.get(2024).get(0).getName());
+        assertEquals(2, holidays.get(2024).get(0).getHolidayDateList().size());
+        assertTrue(holidays.get(2025).isEmpty());
+    }
+
+    @Test
+    void partialCoverageIsRejected() throws IOException {
+        LocalHolidaySource source = new LocalHolidaySource(write().toString());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> source.fetch(2023, 2025));
+        assertTrue(e.getMessage().contains("[2023]"), e.getMessage());
+        assertThrows(IllegalStateException.class, () -> source.fetch(2024, 2026));
+    }
+
+    @Test
+    void missingFileIsRejected() {
+        LocalHolidaySource source = new LocalHolidaySource(tempDir.resolve("missing.json").toString());
+        assertThrows(IllegalStateException.class, () -> source.fetch(2024, 2024));
+    }
+
+    private Path write() throws IOException {
+        Path path = tempDir.resolve("holiday-override.json");
+        Files.write(path, CONTENT.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+}
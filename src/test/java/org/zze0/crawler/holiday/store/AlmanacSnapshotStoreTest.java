@@ -0,0 +1,84 @@
+package org.zze0.crawler.holiday.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zze0.crawler.holiday.almanac.AlmanacStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.zze0.crawler.holiday.HolidayFixtures.day;
+
+/**
+ * 黄历本地存储测试（只读写临时目录，不访问网络）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class AlmanacSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveAndLoadRoundTrip() {
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        int firstDay = day("2021-04-01");
+        for (int epochDay = firstDay; epochDay < firstDay + 60; epochDay++) {
+            //留一个缺失的日期
+            if (epochDay == firstDay + 10) {
+                continue;
+            }
+            builder.add(epochDay, 2021, 2 + (epochDay - firstDay) / 30, 1 + (epochDay - firstDay) % 30, epochDay % 7 == 0, epochDay % 3 == 0,
+                    "辛丑", epochDay % 2 == 0 ? "壬辰" : null, AlmanacStore.ganZhiName((epochDay + 17) % 60),
+                    epochDay == day("2021-04-04") ? "清明" : null, epochDay == day("2021-05-01") ? "劳动节" : null,
+                    epochDay % 2 == 0 ? "嫁娶.祭祀" : "", "动土.破土");
+        }
+        AlmanacStore expected = builder.build();
+        AlmanacSnapshotStore store = new AlmanacSnapshotStore(dir.resolve("sub/almanac.bin"));
+
+        assertNull(store.load());
+        store.save(expected);
+        AlmanacStore loaded = store.load();
+
+        assertEquals(expected.getFirstDay(), loaded.getFirstDay());
+        assertEquals(expected.getEndDay(), loaded.getEndDay());
+        assertEquals(expected.getDayCount(), loaded.getDayCount());
+        for (int epochDay = expected.getFirstDay(); epochDay < expected.getEndDay(); epochDay++) {
+            assertEquals(expected.covers(epochDay), loaded.covers(epochDay));
+            if (!expected.covers(epochDay)) {
+                continue;
+            }
+            assertEquals(expected.getLunarYear(epochDay), loaded.getLunarYear(epochDay));
+            assertEquals(expected.getLunarMonth(epochDay), loaded.getLunarMonth(epochDay));
+            assertEquals(expected.getLunarDay(epochDay), loaded.getLunarDay(epochDay));
+            assertEquals(expected.isLeapMonth(epochDay), loaded.isLeapMonth(epochDay));
+            assertEquals(expected.isBigMonth(epochDay), loaded.isBigMonth(epochDay));
+            assertEquals(expected.getYearGanZhi(epochDay), loaded.getYearGanZhi(epochDay));
+            assertEquals(expected.getMonthGanZhi(epochDay), loaded.getMonthGanZhi(epochDay));
+            assertEquals(expected.getDayGanZhi(epochDay), loaded.getDayGanZhi(epochDay));
+            assertEquals(expected.getTerm(epochDay), loaded.getTerm(epochDay));
+            assertEquals(expected.getFestival(epochDay), loaded.getFestival(epochDay));
+            assertEquals(expected.getSuits(epochDay), loaded.getSuits(epochDay));
+            assertEquals(expected.getAvoids(epochDay), loaded.getAvoids(epochDay));
+        }
+    }
+
+    @Test
+    void corruptedFileIsRejected() throws IOException {
+        Path path = dir.resolve("almanac.bin");
+        AlmanacSnapshotStore store = new AlmanacSnapshotStore(path);
+        AlmanacStore.Builder builder = new AlmanacStore.Builder();
+        builder.add(day("2021-05-01"), 2021, 3, 20, false, false, "辛丑", "壬辰", "甲午", null, "劳动节", "嫁娶", "动土");
+        store.save(builder.build());
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(path, bytes);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, store::load);
+        assertTrue(e.getMessage().contains("校验和"), e.getMessage());
+    }
+}
@@ -0,0 +1,147 @@
+package org.zze0.crawler.holiday.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zze0.crawler.holiday.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 节假日快照本地存储测试（只读写临时目录，不访问网络）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidaySnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void saveAndLoadRoundTrip() {
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, HolidayFixtures.holidays())
+                .withYears(2, Collections.singletonMap(2022, HolidayFixtures.holidays().get(2022)));
+        HolidaySnapshotStore store = new HolidaySnapshotStore(dir.resolve("sub/holidays.snapshot"));
+
+        assertNull(store.load());
+        store.save(snapshot);
+        HolidaySnapshot loaded = store.load();
+
+        assertSnapshotEquals(snapshot, loaded);
+        assertEquals(snapshot.getCreateTime(), loaded.getCreateTime());
+        assertEquals(snapshot.getYearVersions(), loaded.getYearVersions());
+
+        //覆盖保存
+        HolidaySnapshot next = snapshot.withYears(3, Collections.singletonMap(2024, Collections.emptyList()));
+        store.save(next);
+        assertSnapshotEquals(next, store.load());
+    }
+
+    @Test
+    void corruptedFileIsRejected() throws IOException {
+        Path path = dir.resolve("holidays.snapshot");
+        HolidaySnapshotStore store = new HolidaySnapshotStore(path);
+        store.save(HolidaySnapshot.of(1, HolidayFixtures.holidays()));
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(path, bytes);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, store::load);
+        assertTrue(e.getMessage().contains("校验和"), e.getMessage());
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path path = dir.resolve("holidays.snapshot");
+        HolidaySnapshotStore store = new HolidaySnapshotStore(path);
+        store.save(HolidaySnapshot.of(1, HolidayFixtures.holidays()));
+        byte[] bytes = Files.readAllBytes(path);
+
+        for (int length : new int[]{0, 10, 29, bytes.length / 2, bytes.length - 1}) {
+            Files.write(path, Arrays.copyOf(bytes, length));
+            assertThrows(IllegalStateException.class, store::load, length + "字节");
+        }
+    }
+
+    @Test
+    void notASnapshotFileIsRejected() {
+        byte[] bytes = withCrc("not a holiday snapshot file at all".getBytes(StandardCharsets.UTF_8));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> HolidaySnapshotStore.decode(ByteBuffer.wrap(bytes)));
+        assertEquals("不是节假日快照文件", e.getMessage());
+    }
+
+    @Test
+    void lengthsAreUnsigned() {
+        //名称超过32767字节，short长度的最高位是1
+        StringBuilder name = new StringBuilder();
+        for (int index = 0; index < 40000; index++) {
+            name.append('节');
+        }
+        Holiday holiday = HolidayFixtures.holiday(2022, name.substring(0, 20000), "2022-10-01",
+                HolidayFixtures.days("2022-10-01", "2022-10-07"), HolidayFixtures.dates());
+        HolidaySnapshot snapshot = HolidaySnapshot.of(1, Collections.singletonMap(2022, Collections.singletonList(holiday)));
+        assertSnapshotEquals(snapshot, HolidaySnapshotStore.decode(ByteBuffer.wrap(HolidaySnapshotStore.encode(snapshot))));
+
+        //超过65535字节时保存失败，不会写出截断的长度
+        holiday.setName(name.toString());
+        HolidaySnapshot tooLong = HolidaySnapshot.of(1, Collections.singletonMap(2022, Collections.singletonList(holiday)));
+        assertThrows(IllegalArgumentException.class, () -> HolidaySnapshotStore.encode(tooLong));
+    }
+
+    @Test
+    void lengthBeyondFileIsRejected() {
+        Holiday holiday = HolidayFixtures.holiday(2022, "国庆节", "2022-10-01",
+                HolidayFixtures.days("2022-10-01", "2022-10-07"), HolidayFixtures.dates());
+        byte[] bytes = HolidaySnapshotStore.encode(HolidaySnapshot.of(1, Collections.singletonMap(2022, Collections.singletonList(holiday))));
+
+        //名称字节数（魔数、格式版本、快照版本号、创建时间、年度数、年份、年度版本号、节假日数、节假日日期之后）超出文件
+        byte[] longName = Arrays.copyOf(bytes, bytes.length - 4);
+        ByteBuffer.wrap(longName).putShort(46, (short) 0xFFFF);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> HolidaySnapshotStore.decode(ByteBuffer.wrap(withCrc(longName))));
+        assertEquals("节假日快照文件已损坏：长度不一致", e.getMessage());
+
+        //年度数是负数
+        byte[] negativeCount = Arrays.copyOf(bytes, bytes.length - 4);
+        ByteBuffer.wrap(negativeCount).putInt(22, -1);
+        e = assertThrows(IllegalStateException.class, () -> HolidaySnapshotStore.decode(ByteBuffer.wrap(withCrc(negativeCount))));
+        assertEquals("节假日快照文件已损坏：长度不一致", e.getMessage());
+    }
+
+    @Test
+    void otherFormatVersionsAreRejected() {
+        //包括没有年度版本号的格式版本1
+        for (short formatVersion : new short[]{1, 99}) {
+            byte[] bytes = HolidaySnapshotStore.encode(HolidaySnapshot.of(1, HolidayFixtures.holidays()));
+            ByteBuffer.wrap(bytes).putShort(4, formatVersion);
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> HolidaySnapshotStore.decode(ByteBuffer.wrap(withCrc(Arrays.copyOf(bytes, bytes.length - 4)))));
+            assertEquals("不支持的节假日快照文件格式版本：" + formatVersion, e.getMessage());
+        }
+    }
+
+    private static void assertSnapshotEquals(HolidaySnapshot expected, HolidaySnapshot actual) {
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getHolidays().keySet(), actual.getHolidays().keySet());
+        assertEquals(expected.getYearHashes(), actual.getYearHashes());
+        expected.getHolidays().forEach((year, holidays) -> {
+            for (int index = 0; index < holidays.size(); index++) {
+                assertEquals(holidays.get(index), actual.getHolidays(year).get(index), year + "年第" + index + "个节假日");
+            }
+        });
+    }
+
+    private static byte[] withCrc(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return ByteBuffer.allocate(content.length + 4).put(content).putInt((int) crc.getValue()).array();
+    }
+}
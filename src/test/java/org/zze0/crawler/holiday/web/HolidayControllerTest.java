@@ -0,0 +1,121 @@
+package org.zze0.crawler.holiday.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.zze0.crawler.holiday.HolidayFixtures;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+import org.zze0.crawler.holiday.service.HolidayProperties;
+import org.zze0.crawler.holiday.service.HolidayService;
+import org.zze0.crawler.holiday.store.HolidaySnapshotStore;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.zze0.crawler.holiday.HolidayFixtures.*;
+
+/**
+ * 节假日查询接口测试（ETag/If-None-Match协商缓存、快照版本更新后的缓存失效、缓存字节上限）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayControllerTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HolidayService service;
+
+    @BeforeEach
+    void setUp() {
+        HolidayProperties properties = new HolidayProperties();
+        properties.setSnapshotPath(dir.resolve("holiday-snapshot.bin").toString());
+        properties.setAlmanacPath(dir.resolve("almanac.bin").toString());
+        properties.setOverlayPath(dir.resolve("holiday-overlays.json").toString());
+        service = new HolidayService(properties, meterRegistry);
+        publish(HolidaySnapshot.of(1, HolidayFixtures.holidays()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        meterRegistry.close();
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() throws Exception {
+        MockMvc mvc = mvc(new HolidayResponseCache());
+        for (String url : new String[]{"/holidays/2022", "/holidays/status/2022-10-01", "/holidays/export"}) {
+            MvcResult first = mvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+            String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, url);
+            assertTrue(first.getResponse().getContentAsByteArray().length > 0, url);
+
+            MvcResult revalidated = mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified()).andReturn();
+            assertEquals(0, revalidated.getResponse().getContentAsByteArray().length, url);
+
+            //ETag不一致时返回完整响应
+            mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, "\"stale\"")).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void newSnapshotVersionInvalidatesCachedResponses() throws Exception {
+        MockMvc mvc = mvc(new HolidayResponseCache());
+        String etag2021 = etag(mvc, "/holidays/2021");
+        String etag2022 = etag(mvc, "/holidays/2022");
+
+        //2022年国庆节少放一天
+        publish(service.getSnapshot().withYears(2, Collections.singletonMap(2022, Collections.singletonList(
+                holiday(2022, "国庆节", "2022-10-01", days("2022-10-01", "2022-10-06"), dates("2022-10-08", "2022-10-09"))))));
+
+        //变化的年度重新序列化，客户端缓存的ETag失效
+        mvc.perform(get("/holidays/2022").header(HttpHeaders.IF_NONE_MATCH, etag2022)).andExpect(status().isOk());
+        assertNotEquals(etag2022, etag(mvc, "/holidays/2022"));
+
+        //ETag是响应体的摘要，内容没有变化的年度在新版本下仍然返回304
+        mvc.perform(get("/holidays/2021").header(HttpHeaders.IF_NONE_MATCH, etag2021)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void responsesBeyondByteCapAreStillServed() throws Exception {
+        //上限小于任何一个响应体：每次重新序列化，响应、ETag与缓存时一致
+        MockMvc capped = mvc(new HolidayResponseCache(1));
+        MockMvc uncapped = mvc(new HolidayResponseCache());
+
+        String etag = etag(capped, "/holidays/2022");
+        assertEquals(etag, etag(capped, "/holidays/2022"));
+        assertEquals(etag, etag(uncapped, "/holidays/2022"));
+        capped.perform(get("/holidays/2022").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+    }
+
+    /**
+     * 通过本地快照文件发布快照（与启动时从本地快照恢复的路径相同）
+     */
+    private void publish(HolidaySnapshot snapshot) {
+        new HolidaySnapshotStore(dir.resolve("holiday-snapshot.bin")).save(snapshot);
+        service.restore();
+        assertEquals(snapshot.getVersion(), service.getSnapshot().getVersion());
+    }
+
+    private MockMvc mvc(HolidayResponseCache responseCache) {
+        return MockMvcBuilders.standaloneSetup(new HolidayController(service, responseCache)).build();
+    }
+
+    private static String etag(MockMvc mvc, String url) throws Exception {
+        return mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,145 @@
+package org.zze0.crawler.holiday.web;
+
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.holiday.HolidaySnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 查询接口响应缓存测试
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class HolidayResponseCacheTest {
+
+    private static final HolidaySnapshot V1 = HolidaySnapshot.of(1, Collections.emptyMap());
+
+    private static final HolidaySnapshot V2 = HolidaySnapshot.of(2, Collections.emptyMap());
+
+    @Test
+    void responsesAreReusedWithinASnapshotVersion() {
+        HolidayResponseCache cache = new HolidayResponseCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        HolidayResponseCache.CachedResponse first = cache.get(V1, "year:2021", () -> body(calls));
+        assertSame(first, cache.get(V1, "year:2021", () -> body(calls)));
+        assertEquals(1, calls.get());
+        assertEquals("[\"body\"]", new String(first.getBody(), StandardCharsets.UTF_8));
+        assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+
+        //快照更新后旧版本的响应丢弃
+        assertNotSame(first, cache.get(V2, "year:2021", () -> body(calls)));
+        assertEquals(2, calls.get());
+
+        //持有旧快照的请求不缓存
+        cache.get(V1, "year:2021", () -> body(calls));
+        cache.get(V1, "year:2021", () -> body(calls));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void cachedBytesAreBounded() {
+        HolidayResponseCache cache = new HolidayResponseCache(20);
+
+        HolidayResponseCache.CachedResponse small = cache.getBinary(V1, "a", () -> new byte[12]);
+        assertSame(small, cache.getBinary(V1, "a", () -> new byte[12]));
+
+        //超出字节上限后不再缓存
+        HolidayResponseCache.CachedResponse large = cache.getBinary(V1, "b", () -> new byte[12]);
+        assertNotSame(large, cache.getBinary(V1, "b", () -> new byte[12]));
+        assertSame(small, cache.getBinary(V1, "a", () -> new byte[12]));
+
+        //新版本重新计数
+        HolidayResponseCache.CachedResponse renewed = cache.getBinary(V2, "b", () -> new byte[12]);
+        assertSame(renewed, cache.getBinary(V2, "b", () -> new byte[12]));
+    }
+
+    @Test
+    void newerGenerationsReplaceTheSupersededEntry() {
+        //每个响应体12字节，上限只够缓存一个
+        HolidayResponseCache cache = new HolidayResponseCache(20);
+
+        HolidayResponseCache.CachedResponse first = cache.get(V1, "lazy-year:2019", 1, () -> "0123456789");
+        assertSame(first, cache.get(V1, "lazy-year:2019", 1, () -> "0123456789"));
+
+        //新代次替换旧代次并释放其字节数，快照版本不变也不会越积越多
+        HolidayResponseCache.CachedResponse second = cache.get(V1, "lazy-year:2019", 2, () -> "9876543210");
+        assertSame(second, cache.get(V1, "lazy-year:2019", 2, () -> "9876543210"));
+        HolidayResponseCache.CachedResponse third = cache.get(V1, "lazy-year:2019", 3, () -> "abcdefghij");
+        assertSame(third, cache.get(V1, "lazy-year:2019", 3, () -> "abcdefghij"));
+
+        //持有旧代次的请求不缓存，也不会替换新代次
+        HolidayResponseCache.CachedResponse stale = cache.get(V1, "lazy-year:2019", 2, () -> "9876543210");
+        assertNotSame(stale, cache.get(V1, "lazy-year:2019", 2, () -> "9876543210"));
+        assertSame(third, cache.get(V1, "lazy-year:2019", 3, () -> "abcdefghij"));
+    }
+
+    @Test
+    void oversizedNewerGenerationDropsTheSupersededEntry() {
+        HolidayResponseCache cache = new HolidayResponseCache(20);
+        HolidayResponseCache.CachedResponse first = cache.get(V1, "almanac:1", 1, () -> "0123456789");
+        assertSame(first, cache.get(V1, "almanac:1", 1, () -> "0123456789"));
+
+        //新代次超出字节上限：不缓存，旧代次也不再保留
+        HolidayResponseCache.CachedResponse large = cache.get(V1, "almanac:1", 2, () -> "0123456789abcdefghij");
+        assertNotSame(large, cache.get(V1, "almanac:1", 2, () -> "0123456789abcdefghij"));
+
+        //旧代次的字节数已释放，其他key可以缓存
+        HolidayResponseCache.CachedResponse other = cache.get(V1, "almanac:2", 1, () -> "0123456789");
+        assertSame(other, cache.get(V1, "almanac:2", 1, () -> "0123456789"));
+    }
+
+    @Test
+    void staleRequestsNeverLowerTheVersion() throws Exception {
+        HolidayResponseCache cache = new HolidayResponseCache();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            //各线程持有不同版本的快照并发查询
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index = 0; index < threads; index++) {
+                HolidaySnapshot snapshot = HolidaySnapshot.of(index + 1, Collections.emptyMap());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int count = 0; count < 1000; count++) {
+                        cache.getBinary(snapshot, "a", () -> new byte[1]);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //最终停留在最新版本，旧版本的请求不会再把它换掉
+        HolidaySnapshot latest = HolidaySnapshot.of(threads, Collections.emptyMap());
+        HolidayResponseCache.CachedResponse cached = cache.getBinary(latest, "a", () -> new byte[1]);
+        cache.getBinary(HolidaySnapshot.of(1, Collections.emptyMap()), "a", () -> new byte[1]);
+        assertSame(cached, cache.getBinary(latest, "a", () -> new byte[1]));
+    }
+
+    @Test
+    void serializeDoesNotCache() {
+        HolidayResponseCache cache = new HolidayResponseCache();
+        assertNotSame(cache.serialize("x"), cache.serialize("x"));
+        assertEquals(cache.serialize("x").getEtag(), cache.serialize("x").getEtag());
+    }
+
+    private static Object body(AtomicInteger calls) {
+        calls.incrementAndGet();
+        return Collections.singletonList("body");
+    }
+}
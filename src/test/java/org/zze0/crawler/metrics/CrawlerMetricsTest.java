@@ -0,0 +1,116 @@
+package org.zze0.crawler.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zze0.crawler.engine.CrawlEngine;
+import org.zze0.crawler.engine.CrawlRequest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 爬虫指标测试（指标名称、标签、结果取值）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class CrawlerMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void addRegistry() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void removeRegistry() {
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    void fetchIsTaggedByOutcome() {
+        CrawlerMetrics.recordFetch("test-fetch", "39043", TimeUnit.MILLISECONDS.toNanos(20), 128);
+        CrawlerMetrics.recordFetch("test-fetch", "39043", TimeUnit.MILLISECONDS.toNanos(30), -1);
+
+        assertEquals(1, registry.get(CrawlerMetrics.FETCH)
+                .tags("crawler", "test-fetch", "endpoint", "39043", "outcome", CrawlerMetrics.OUTCOME_SUCCESS).timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.FETCH)
+                .tags("crawler", "test-fetch", "endpoint", "39043", "outcome", CrawlerMetrics.OUTCOME_ERROR).timer().count());
+        assertEquals(30, registry.get(CrawlerMetrics.FETCH)
+                .tags("crawler", "test-fetch", "outcome", CrawlerMetrics.OUTCOME_ERROR).timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+
+        //失败的请求没有响应大小
+        assertEquals(1, registry.get(CrawlerMetrics.PAYLOAD).tags("crawler", "test-fetch", "endpoint", "39043").summary().count());
+        assertEquals(128, registry.get(CrawlerMetrics.PAYLOAD).tags("crawler", "test-fetch").summary().totalAmount(), 0.001);
+        assertEquals("chars", registry.get(CrawlerMetrics.PAYLOAD).tags("crawler", "test-fetch").summary().getId().getBaseUnit());
+    }
+
+    @Test
+    void holidayMetersAreTagged() {
+        CrawlerMetrics.recordParse("test-parse", "39042", 1000, true);
+        CrawlerMetrics.recordParse("test-parse", "39042", 1000, false);
+        CrawlerMetrics.countRequest("test-parse", false);
+        CrawlerMetrics.countRequest("test-parse", true);
+        CrawlerMetrics.recordSourceFetch("test-source", 1000, CrawlerMetrics.OUTCOME_CANCELLED);
+        CrawlerMetrics.recordRefresh(registry, "sync", 1000, false);
+        CrawlerMetrics.holidayAnalysisTimer("year").record(1, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, registry.get(CrawlerMetrics.PARSE).tags("crawler", "test-parse", "endpoint", "39042", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.PARSE).tags("crawler", "test-parse", "endpoint", "39042", "outcome", "error").timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.REQUESTS).tags("crawler", "test-parse", "result", "accepted").counter().count());
+        assertEquals(1, registry.get(CrawlerMetrics.REQUESTS).tags("crawler", "test-parse", "result", "duplicate").counter().count());
+        assertEquals(1, registry.get(CrawlerMetrics.SOURCE_FETCH).tags("source", "test-source", "outcome", "cancelled").timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.HOLIDAY_REFRESH).tags("operation", "sync", "outcome", "error").timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.HOLIDAY_ANALYSIS).tags("scope", "year").timer().count());
+    }
+
+    @Test
+    void engineRecordsRequestsFetchesAndParses() {
+        CrawlEngine.<String>builder()
+                .name("test-engine")
+                .fetcher(CrawlRequest::getUrl)
+                .parser((request, content, emitter) -> {
+                    if (content.endsWith("/2")) {
+                        throw new IllegalStateException("解析失败");
+                    }
+                    emitter.emit(content);
+                })
+                .hostDelay(Duration.ZERO)
+                .failFast(false)
+                .build()
+                .run(Arrays.asList(CrawlRequest.of("http://localhost/1"), CrawlRequest.of("http://localhost/1"),
+                        CrawlRequest.of("http://localhost/2", "2", "page", null)));
+
+        assertEquals(2, registry.get(CrawlerMetrics.REQUESTS).tags("crawler", "test-engine", "result", "accepted").counter().count());
+        assertEquals(1, registry.get(CrawlerMetrics.REQUESTS).tags("crawler", "test-engine", "result", "duplicate").counter().count());
+        //没有指定接口时按站点统计
+        assertEquals(1, registry.get(CrawlerMetrics.FETCH).tags("crawler", "test-engine", "endpoint", "localhost", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.PARSE).tags("crawler", "test-engine", "endpoint", "localhost", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(CrawlerMetrics.PARSE).tags("crawler", "test-engine", "endpoint", "page", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void meterCreatedBeforeRegistryIsAttachedReportsAfterwards() {
+        //与类初始化时绑定到全局注册表的静态指标相同：先创建指标，之后才加入子注册表（如Spring Boot启动之后）
+        Metrics.removeRegistry(registry);
+        Counter early = CrawlerMetrics.cacheGets("test.early", true);
+        early.increment();
+        assertNull(registry.find(CrawlerMetrics.CACHE_GETS).tags("cache", "test.early").counter());
+
+        //加入之前的计数不会补记，加入之后的计数记录到子注册表
+        Metrics.addRegistry(registry);
+        early.increment();
+        early.increment();
+        assertEquals(2, registry.get(CrawlerMetrics.CACHE_GETS).tags("cache", "test.early", "result", "hit").counter().count());
+    }
+}
@@ -0,0 +1,122 @@
+package org.zze0.crawler.transport;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 连接池HTTP传输层测试（本地HTTP服务）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class PooledHttpTransportTest {
+
+    private static final String BODY = "法定节假日：国庆节";
+
+    private static HttpServer server;
+
+    private static ExecutorService executor;
+
+    private static String baseUrl;
+
+    private static PooledHttpTransport transport;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        //响应没有声明编码
+        server.createContext("/plain", exchange -> respond(exchange, 200, "application/json", BODY.getBytes(StandardCharsets.UTF_8)));
+        //响应声明了GBK编码
+        server.createContext("/gbk", exchange -> respond(exchange, 200, "application/json;charset=GBK", BODY.getBytes(Charset.forName("GBK"))));
+        server.createContext("/error", exchange -> respond(exchange, 503, "text/plain", "busy".getBytes(StandardCharsets.UTF_8)));
+        //每100ms返回一个字节，读取超时一直不会触发
+        server.createContext("/trickle", PooledHttpTransportTest::trickle);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        transport = new PooledHttpTransport(4, Duration.ofSeconds(1));
+    }
+
+    @AfterAll
+    static void stopServer() {
+        transport.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void undeclaredCharsetFallsBackToUtf8() {
+        assertEquals(BODY, transport.get(baseUrl + "/plain", Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void declaredCharsetIsHonoured() {
+        assertEquals(BODY, transport.get(baseUrl + "/gbk", Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void nonSuccessStatusIsRejected() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> transport.get(baseUrl + "/error", Duration.ofSeconds(5)));
+        assertTrue(e.getMessage().contains("503"), e.getMessage());
+
+        //失败的响应已读完，连接可以继续使用
+        assertEquals(BODY, transport.get(baseUrl + "/plain", Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void slowResponseIsAbortedAtDeadline() {
+        long start = System.nanoTime();
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> transport.get(baseUrl + "/trickle", Duration.ofMillis(500)));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(e.getCause() instanceof SocketTimeoutException, () -> "不是超时：" + e.getCause());
+        assertTrue(e.getCause().getMessage().contains("截止时间500ms"), e.getCause().getMessage());
+        assertTrue(elapsedMillis >= 450 && elapsedMillis < 2000, "耗时" + elapsedMillis + "ms");
+
+        //中断的请求不影响后续请求
+        assertEquals(BODY, transport.get(baseUrl + "/plain", Duration.ofSeconds(5)));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void trickle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < 50; i++) {
+                out.write('.');
+                out.flush();
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            //客户端已中断请求
+        }
+    }
+}
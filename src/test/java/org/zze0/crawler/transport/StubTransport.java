@@ -0,0 +1,105 @@
+package org.zze0.crawler.transport;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 本地桩传输层（不发网络请求，按请求地址返回预设的响应，用来离线测试抓取引擎、爬虫的超时处理）
+ * <p>
+ * 每个请求先模拟一段网络延迟：延迟超过请求截止时间的，等到截止时间后按超时失败，与真实传输层的表现一致。
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+public class StubTransport implements CrawlerTransport {
+
+    /**
+     * 响应生成器（入参是请求地址，出参是响应文本）
+     */
+    private final Function<String, String> responder;
+
+    /**
+     * 模拟的网络延迟
+     */
+    private final Duration latency;
+
+    /**
+     * 请求次数
+     */
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * 各请求发出的时间（纳秒）
+     */
+    private final List<Long> requestNanos = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @param responder 响应生成器（入参是请求地址，出参是响应文本）
+     */
+    public StubTransport(Function<String, String> responder) {
+        this(responder, Duration.ZERO);
+    }
+
+    /**
+     * @param responder 响应生成器（入参是请求地址，出参是响应文本）
+     * @param latency   模拟的网络延迟
+     */
+    public StubTransport(Function<String, String> responder, Duration latency) {
+        this.responder = responder;
+        this.latency = latency;
+    }
+
+    @Override
+    public String get(String url, Duration timeout) {
+        requestCount.incrementAndGet();
+        requestNanos.add(System.nanoTime());
+
+        if (latency.compareTo(timeout) > 0) {
+            sleep(timeout);
+            throw new UncheckedIOException(new SocketTimeoutException("请求超过截止时间" + timeout.toMillis() + "ms：" + url));
+        }
+        sleep(latency);
+        return responder.apply(url);
+    }
+
+    /**
+     * @return 已处理的请求次数
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return 各请求发出的时间（纳秒，按发出顺序排列）
+     */
+    public List<Long> getRequestNanos() {
+        synchronized (requestNanos) {
+            List<Long> nanos = new ArrayList<>(requestNanos);
+            Collections.sort(nanos);
+            return nanos;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("模拟网络延迟时被中断", e);
+        }
+    }
+}
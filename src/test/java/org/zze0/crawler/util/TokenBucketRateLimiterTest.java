@@ -0,0 +1,82 @@
+package org.zze0.crawler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 令牌桶限流器测试（用注入的时间源推进时间：令牌补充、桶容量上限、返回的等待时间）
+ *
+ * @author Zze0
+ * @since 2026/10/16
+ */
+class TokenBucketRateLimiterTest {
+
+    /**
+     * 每秒10个令牌，即每100毫秒一个
+     */
+    private static final long NANOS_PER_PERMIT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void fullBucketAllowsBurstThenReportsWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3, now::get);
+        for (int count = 0; count < 3; count++) {
+            assertEquals(0, limiter.tryAcquire(), "第" + count + "个");
+        }
+        assertEquals(NANOS_PER_PERMIT, limiter.tryAcquire());
+    }
+
+    @Test
+    void waitShrinksAsTimePasses() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, now::get);
+        assertEquals(0, limiter.tryAcquire());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(60), limiter.tryAcquire());
+
+        //未获取时不消耗令牌，等够返回的时间就能获取
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(NANOS_PER_PERMIT, limiter.tryAcquire());
+    }
+
+    @Test
+    void refillIsCappedAtBurst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 2, now::get);
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+
+        //空闲很久也只累积桶容量个令牌
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(NANOS_PER_PERMIT, limiter.tryAcquire());
+
+        //按生成速率补充
+        now.addAndGet(NANOS_PER_PERMIT);
+        assertEquals(0, limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire() > 0);
+    }
+
+    @Test
+    void acquireBlocksUntilNextPermit() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1);
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 50, "令牌用完后应等待：" + elapsedMillis + "ms");
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(1, 0));
+    }
+}